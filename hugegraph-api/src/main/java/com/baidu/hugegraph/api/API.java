@@ -55,6 +55,10 @@ public class API {
                                APPLICATION_JSON + ";charset=" + CHARSET;
     public static final String JSON = MediaType.APPLICATION_JSON_TYPE
                                                .getSubtype();
+    public static final String APPLICATION_HUGE_BINARY =
+                               "application/x-hugegraph-binary";
+    public static final MediaType APPLICATION_HUGE_BINARY_TYPE =
+                                  MediaType.valueOf(APPLICATION_HUGE_BINARY);
 
     public static final String ACTION_APPEND = "append";
     public static final String ACTION_ELIMINATE = "eliminate";
@@ -86,7 +86,9 @@ public class CompressInterceptor implements WriterInterceptor {
         // Replace output stream with new compression stream
         OutputStream output = null;
         if (encoding.equalsIgnoreCase(GZIP)) {
-            output = new GZIPOutputStream(context.getOutputStream(), buffer);
+            // Sync flush to let the flushed data of streaming output be sent
+            output = new GZIPOutputStream(context.getOutputStream(), buffer,
+                                          true);
         } else {
             // NOTE: Currently we just support GZIP.
             throw new WebApplicationException("Can't support: " + encoding);
@@ -31,8 +31,12 @@ import javax.ws.rs.core.Context;
 import javax.ws.rs.core.PathSegment;
 import javax.ws.rs.ext.Provider;
 
+import com.baidu.hugegraph.HugeGraph;
 import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.config.ServerOptions;
+import com.baidu.hugegraph.core.AdmissionController;
+import com.baidu.hugegraph.core.AdmissionController.ApiClass;
+import com.baidu.hugegraph.core.GraphManager;
 import com.baidu.hugegraph.core.WorkLoad;
 import com.baidu.hugegraph.util.Bytes;
 import com.baidu.hugegraph.util.E;
@@ -55,10 +59,17 @@ public class LoadDetectFilter implements ContainerRequestFilter {
     private static final RateLimiter GC_RATE_LIMITER =
                          RateLimiter.create(1.0 / 30);
 
+    // Suggest clients to retry rejected requests after 1 second
+    private static final Long RETRY_AFTER = 1L;
+
     @Context
     private javax.inject.Provider<HugeConfig> configProvider;
     @Context
     private javax.inject.Provider<WorkLoad> loadProvider;
+    @Context
+    private javax.inject.Provider<AdmissionController> admissionProvider;
+    @Context
+    private javax.inject.Provider<GraphManager> managerProvider;
 
     @Override
     public void filter(ContainerRequestContext context) {
@@ -92,6 +103,50 @@ public class LoadDetectFilter implements ContainerRequestFilter {
                       presumableFreeMem, minFreeMemory,
                       ServerOptions.MIN_FREE_MEMORY.name()));
         }
+
+        this.admit(context);
+    }
+
+    private void admit(ContainerRequestContext context) {
+        List<PathSegment> segments = context.getUriInfo().getPathSegments();
+        String graph;
+        ApiClass clazz;
+        String root = segments.get(0).getPath();
+        if (root.equals("gremlin")) {
+            graph = AdmissionController.ALL_GRAPHS;
+            clazz = ApiClass.GREMLIN;
+        } else if (root.equals("graphs") && segments.size() > 2) {
+            graph = segments.get(1).getPath();
+            clazz = apiClass(segments);
+        } else {
+            return;
+        }
+
+        AdmissionController controller = this.admissionProvider.get();
+        if (!controller.enabled(clazz)) {
+            return;
+        }
+
+        GraphManager manager = this.managerProvider.get();
+        double latency = 0.0;
+        if (graph.equals(AdmissionController.ALL_GRAPHS)) {
+            for (String name : manager.graphs()) {
+                latency = Math.max(latency, commitLatency(manager, name));
+            }
+        } else if (manager.graphs().contains(graph)) {
+            latency = commitLatency(manager, graph);
+        } else {
+            // Let the api report the graph doesn't exist
+            return;
+        }
+
+        if (!controller.acquire(graph, clazz, latency)) {
+            throw new ServiceUnavailableException(String.format(
+                      "The server is too busy to process the %s request " +
+                      "of graph '%s', you can config %s to adjust it or " +
+                      "try again later", clazz.string(), graph,
+                      clazz.option().name()), RETRY_AFTER);
+        }
     }
 
     public static boolean isWhiteAPI(ContainerRequestContext context) {
@@ -102,6 +157,27 @@ public class LoadDetectFilter implements ContainerRequestFilter {
         return WHITE_API_LIST.contains(rootPath);
     }
 
+    private static ApiClass apiClass(List<PathSegment> segments) {
+        // Like graphs/{graph}/traversers/kout
+        assert segments.size() > 2;
+        String category = segments.get(2).getPath();
+        String last = segments.get(segments.size() - 1).getPath();
+        if (category.equals("traversers")) {
+            return ApiClass.TRAVERSER;
+        } else if (category.equals("jobs") && last.equals("gremlin")) {
+            return ApiClass.GREMLIN;
+        } else if (category.equals("graph") && last.equals("batch")) {
+            return ApiClass.BATCH;
+        } else {
+            return ApiClass.OLTP;
+        }
+    }
+
+    private static double commitLatency(GraphManager manager, String graph) {
+        HugeGraph g = manager.graph(graph);
+        return g == null ? 0.0 : g.commitLatency().averageMillis();
+    }
+
     private static void gcIfNeeded() {
         if (GC_RATE_LIMITER.tryAcquire(1)) {
             System.gc();
@@ -24,6 +24,7 @@ import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.container.ContainerResponseContext;
 import javax.ws.rs.container.ContainerResponseFilter;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.ext.Provider;
 
 import com.baidu.hugegraph.core.WorkLoad;
@@ -43,6 +44,27 @@ public class LoadReleaseFilter implements ContainerResponseFilter {
         }
 
         WorkLoad load = this.loadProvider.get();
+        Object entity = responseContext.getEntity();
+        if (entity instanceof StreamingOutput) {
+            // The streaming body is written after the filter, release then
+            StreamingOutput output = releaseAfterWritten(
+                                     (StreamingOutput) entity, load);
+            responseContext.setEntity(output,
+                                      responseContext.getEntityAnnotations(),
+                                      responseContext.getMediaType());
+            return;
+        }
         load.decrementAndGet();
     }
+
+    private static StreamingOutput releaseAfterWritten(StreamingOutput output,
+                                                       WorkLoad load) {
+        return out -> {
+            try {
+                output.write(out);
+            } finally {
+                load.decrementAndGet();
+            }
+        };
+    }
 }
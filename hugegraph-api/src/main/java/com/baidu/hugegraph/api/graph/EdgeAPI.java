@@ -38,6 +38,7 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.structure.Direction;
@@ -213,7 +214,7 @@ public class EdgeAPI extends BatchAPI {
             });
 
             // If return ids, the ids.size() maybe different with the origins'
-            return manager.serializer(g).writeEdges(edges.iterator(), false);
+            return manager.serializer(g).writeList("edges", edges);
         });
     }
 
@@ -260,15 +261,17 @@ public class EdgeAPI extends BatchAPI {
     @Timed
     @Compress
     @Produces(APPLICATION_JSON_WITH_CHARSET)
-    public String list(@Context GraphManager manager,
-                       @PathParam("graph") String graph,
-                       @QueryParam("vertex_id") String vertexId,
-                       @QueryParam("direction") String direction,
-                       @QueryParam("label") String label,
-                       @QueryParam("properties") String properties,
-                       @QueryParam("offset") @DefaultValue("0") long offset,
-                       @QueryParam("page") String page,
-                       @QueryParam("limit") @DefaultValue("100") long limit) {
+    public StreamingOutput list(@Context GraphManager manager,
+                                @PathParam("graph") String graph,
+                                @QueryParam("vertex_id") String vertexId,
+                                @QueryParam("direction") String direction,
+                                @QueryParam("label") String label,
+                                @QueryParam("properties") String properties,
+                                @QueryParam("offset")
+                                @DefaultValue("0") long offset,
+                                @QueryParam("page") String page,
+                                @QueryParam("limit")
+                                @DefaultValue("100") long limit) {
         LOG.debug("Graph [{}] query edges by vertex: {}, direction: {}, " +
                   "label: {}, properties: {}, offset: {}, page: {}, limit: {}",
                   vertexId, direction, label, properties, offset, page, limit);
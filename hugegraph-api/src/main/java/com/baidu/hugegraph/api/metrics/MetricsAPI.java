@@ -34,9 +34,13 @@ import javax.ws.rs.core.Context;
 
 import org.slf4j.Logger;
 
+import com.baidu.hugegraph.HugeGraph;
 import com.baidu.hugegraph.api.API;
+import com.baidu.hugegraph.backend.cache.CachedGraphTransaction;
 import com.baidu.hugegraph.backend.store.BackendMetrics;
 import com.baidu.hugegraph.backend.tx.GraphTransaction;
+import com.baidu.hugegraph.backend.tx.GroupCommitter;
+import com.baidu.hugegraph.core.AdmissionController;
 import com.baidu.hugegraph.core.GraphManager;
 import com.baidu.hugegraph.metrics.MetricsModule;
 import com.baidu.hugegraph.metrics.ServerReporter;
@@ -80,20 +84,56 @@ public class MetricsAPI extends API {
     public String backend(@Context GraphManager manager) {
         Map<String, Map<String, Object>> results = InsertionOrderUtil.newMap();
         for (String graph : manager.graphs()) {
-            GraphTransaction tx = manager.graph(graph).graphTransaction();
+            HugeGraph g = manager.graph(graph);
             Map<String, Object> metrics = InsertionOrderUtil.newMap();
-            metrics.put(BackendMetrics.BACKEND, tx.store().provider().type());
             try {
-                metrics.putAll(tx.metadata(null, "metrics"));
-            } catch (Throwable e) {
-                metrics.put(BackendMetrics.EXCEPTION, e.toString());
-                LOG.debug("Failed to get backend metrics", e);
+                GraphTransaction tx = g.graphTransaction();
+                metrics.put(BackendMetrics.BACKEND,
+                            tx.store().provider().type());
+                try {
+                    metrics.putAll(tx.metadata(null, "metrics"));
+                } catch (Throwable e) {
+                    metrics.put(BackendMetrics.EXCEPTION, e.toString());
+                    LOG.debug("Failed to get backend metrics", e);
+                }
+            } finally {
+                g.closeTx();
+            }
+            GroupCommitter committer = g.existingGroupCommitter();
+            if (committer != null) {
+                metrics.put("group_commit", committer.metrics());
             }
             results.put(graph, metrics);
         }
         return JsonUtil.toJson(results);
     }
 
+    @GET
+    @Timed
+    @Path("cache")
+    @Produces(APPLICATION_JSON_WITH_CHARSET)
+    @RolesAllowed("admin")
+    public String cache(@Context GraphManager manager) {
+        Map<String, Map<String, Object>> results = InsertionOrderUtil.newMap();
+        for (String graph : manager.graphs()) {
+            Map<String, Object> metrics = CachedGraphTransaction.cacheMetrics(
+                                          graph);
+            if (metrics != null) {
+                results.put(graph, metrics);
+            }
+        }
+        return JsonUtil.toJson(results);
+    }
+
+    @GET
+    @Timed
+    @Path("admission")
+    @Produces(APPLICATION_JSON_WITH_CHARSET)
+    @RolesAllowed("admin")
+    public String admission(@Context AdmissionController controller) {
+        return JsonUtil.toJson(controller.metrics());
+    }
+
     @GET
     @Timed
     @Produces(APPLICATION_JSON_WITH_CHARSET)
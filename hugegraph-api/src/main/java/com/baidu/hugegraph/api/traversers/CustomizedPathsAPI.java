@@ -42,6 +42,7 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.slf4j.Logger;
@@ -72,9 +73,9 @@ public class CustomizedPathsAPI extends API {
     @Timed
     @Consumes(APPLICATION_JSON)
     @Produces(APPLICATION_JSON_WITH_CHARSET)
-    public String post(@Context GraphManager manager,
-                       @PathParam("graph") String graph,
-                       PathRequest request) {
+    public StreamingOutput post(@Context GraphManager manager,
+                                @PathParam("graph") String graph,
+                                PathRequest request) {
         E.checkArgumentNotNull(request, "The path request body can't be null");
         E.checkArgumentNotNull(request.sources,
                                "The sources of path request can't be null");
@@ -85,9 +86,10 @@ public class CustomizedPathsAPI extends API {
         }
 
         LOG.debug("Graph [{}] get customized paths from source vertex '{}', " +
-                  "with steps '{}', sort by '{}', capacity '{}', limit '{}' " +
-                  "and with_vertex '{}'", graph, request.sources, request.steps,
-                  request.sortBy, request.capacity, request.limit,
+                  "with steps '{}', sort by '{}', capacity '{}', limit '{}', " +
+                  "streaming '{}' and with_vertex '{}'", graph,
+                  request.sources, request.steps, request.sortBy,
+                  request.capacity, request.limit, request.streaming,
                   request.withVertex);
 
         HugeGraph g = graph(manager, graph);
@@ -97,10 +99,17 @@ public class CustomizedPathsAPI extends API {
 
         CustomizePathsTraverser traverser = new CustomizePathsTraverser(g);
         List<HugeTraverser.Path> paths;
-        paths = traverser.customizedPaths(sources, steps, sorted,
-                                          request.capacity, request.limit);
+        if (request.streaming) {
+            boolean incr = request.sortBy == SortBy.INCR;
+            paths = traverser.streamingCustomizedPaths(sources, steps, sorted,
+                                                       incr, request.capacity,
+                                                       request.limit);
+        } else {
+            paths = traverser.customizedPaths(sources, steps, sorted,
+                                              request.capacity, request.limit);
+        }
 
-        if (sorted) {
+        if (sorted && !request.streaming) {
             boolean incr = request.sortBy == SortBy.INCR;
             paths = CustomizePathsTraverser.topNPath(paths, incr,
                                                      request.limit);
@@ -143,6 +152,8 @@ public class CustomizedPathsAPI extends API {
         public long capacity = Long.valueOf(DEFAULT_CAPACITY);
         @JsonProperty("limit")
         public long limit = Long.valueOf(DEFAULT_PATHS_LIMIT);
+        @JsonProperty("streaming")
+        public boolean streaming = false;
         @JsonProperty("with_vertex")
         public boolean withVertex = false;
 
@@ -150,9 +161,9 @@ public class CustomizedPathsAPI extends API {
         public String toString() {
             return String.format("PathRequest{sourceVertex=%s,steps=%s," +
                                  "sortBy=%s,capacity=%s,limit=%s," +
-                                 "withVertex=%s}", this.sources, this.steps,
-                                 this.sortBy, this.capacity, this.limit,
-                                 this.withVertex);
+                                 "streaming=%s,withVertex=%s}", this.sources,
+                                 this.steps, this.sortBy, this.capacity,
+                                 this.limit, this.streaming, this.withVertex);
         }
     }
 
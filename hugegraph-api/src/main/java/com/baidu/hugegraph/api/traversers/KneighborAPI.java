@@ -29,6 +29,8 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.slf4j.Logger;
 
@@ -46,6 +48,7 @@ import com.codahale.metrics.annotation.Timed;
 
 import static com.baidu.hugegraph.traversal.algorithm.HugeTraverser.DEFAULT_DEGREE;
 import static com.baidu.hugegraph.traversal.algorithm.HugeTraverser.DEFAULT_ELEMENTS_LIMIT;
+import static com.baidu.hugegraph.traversal.algorithm.HugeTraverser.DEFAULT_PARALLELISM;
 
 @Path("graphs/{graph}/traversers/kneighbor")
 @Singleton
@@ -55,22 +58,26 @@ public class KneighborAPI extends API {
 
     @GET
     @Timed
-    @Produces(APPLICATION_JSON_WITH_CHARSET)
-    public String get(@Context GraphManager manager,
-                      @PathParam("graph") String graph,
-                      @QueryParam("source") String sourceV,
-                      @QueryParam("direction") String direction,
-                      @QueryParam("label") String edgeLabel,
-                      @QueryParam("max_depth") int depth,
-                      @QueryParam("max_degree")
-                      @DefaultValue(DEFAULT_DEGREE) long degree,
-                      @QueryParam("limit")
-                      @DefaultValue(DEFAULT_ELEMENTS_LIMIT) long limit) {
+    @Produces({APPLICATION_JSON_WITH_CHARSET, APPLICATION_HUGE_BINARY})
+    public StreamingOutput get(@Context GraphManager manager,
+                               @Context HttpHeaders headers,
+                               @PathParam("graph") String graph,
+                               @QueryParam("source") String sourceV,
+                               @QueryParam("direction") String direction,
+                               @QueryParam("label") String edgeLabel,
+                               @QueryParam("max_depth") int depth,
+                               @QueryParam("max_degree")
+                               @DefaultValue(DEFAULT_DEGREE) long degree,
+                               @QueryParam("limit")
+                               @DefaultValue(DEFAULT_ELEMENTS_LIMIT) long limit,
+                               @QueryParam("parallelism")
+                               @DefaultValue(DEFAULT_PARALLELISM)
+                               int parallelism) {
         LOG.debug("Graph [{}] get k-neighbor from '{}' with " +
                   "direction '{}', edge label '{}', max depth '{}', " +
-                  "max degree '{}' and limit '{}'",
+                  "max degree '{}', limit '{}' and parallelism '{}'",
                   graph, sourceV, direction, edgeLabel, depth,
-                  degree, limit);
+                  degree, limit, parallelism);
 
         Id source = VertexAPI.checkAndParseVertexId(sourceV);
         Directions dir = Directions.convert(EdgeAPI.parseDirection(direction));
@@ -79,7 +86,7 @@ public class KneighborAPI extends API {
 
         HugeTraverser traverser = new HugeTraverser(g);
         Set<Id> ids = traverser.kneighbor(source, dir, edgeLabel, depth,
-                                          degree, limit);
-        return manager.serializer(g).writeList("vertices", ids);
+                                          degree, limit, parallelism);
+        return manager.serializer(g, headers).writeIds("vertices", ids);
     }
 }
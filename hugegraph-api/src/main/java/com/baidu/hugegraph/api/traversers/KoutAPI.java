@@ -29,6 +29,8 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.slf4j.Logger;
 
@@ -47,6 +49,7 @@ import com.codahale.metrics.annotation.Timed;
 import static com.baidu.hugegraph.traversal.algorithm.HugeTraverser.DEFAULT_CAPACITY;
 import static com.baidu.hugegraph.traversal.algorithm.HugeTraverser.DEFAULT_DEGREE;
 import static com.baidu.hugegraph.traversal.algorithm.HugeTraverser.DEFAULT_ELEMENTS_LIMIT;
+import static com.baidu.hugegraph.traversal.algorithm.HugeTraverser.DEFAULT_PARALLELISM;
 
 @Path("graphs/{graph}/traversers/kout")
 @Singleton
@@ -56,26 +59,30 @@ public class KoutAPI extends API {
 
     @GET
     @Timed
-    @Produces(APPLICATION_JSON_WITH_CHARSET)
-    public String get(@Context GraphManager manager,
-                      @PathParam("graph") String graph,
-                      @QueryParam("source") String source,
-                      @QueryParam("direction") String direction,
-                      @QueryParam("label") String edgeLabel,
-                      @QueryParam("max_depth") int depth,
-                      @QueryParam("nearest")
-                      @DefaultValue("true")  boolean nearest,
-                      @QueryParam("max_degree")
-                      @DefaultValue(DEFAULT_DEGREE) long degree,
-                      @QueryParam("capacity")
-                      @DefaultValue(DEFAULT_CAPACITY) long capacity,
-                      @QueryParam("limit")
-                      @DefaultValue(DEFAULT_ELEMENTS_LIMIT) long limit) {
+    @Produces({APPLICATION_JSON_WITH_CHARSET, APPLICATION_HUGE_BINARY})
+    public StreamingOutput get(@Context GraphManager manager,
+                               @Context HttpHeaders headers,
+                               @PathParam("graph") String graph,
+                               @QueryParam("source") String source,
+                               @QueryParam("direction") String direction,
+                               @QueryParam("label") String edgeLabel,
+                               @QueryParam("max_depth") int depth,
+                               @QueryParam("nearest")
+                               @DefaultValue("true")  boolean nearest,
+                               @QueryParam("max_degree")
+                               @DefaultValue(DEFAULT_DEGREE) long degree,
+                               @QueryParam("capacity")
+                               @DefaultValue(DEFAULT_CAPACITY) long capacity,
+                               @QueryParam("limit")
+                               @DefaultValue(DEFAULT_ELEMENTS_LIMIT) long limit,
+                               @QueryParam("parallelism")
+                               @DefaultValue(DEFAULT_PARALLELISM)
+                               int parallelism) {
         LOG.debug("Graph [{}] get k-out from '{}' with " +
                   "direction '{}', edge label '{}', max depth '{}', nearest " +
-                  "'{}', max degree '{}', capacity '{}' and limit '{}'",
-                  graph, source, direction, edgeLabel, depth, nearest,
-                  degree, capacity, limit);
+                  "'{}', max degree '{}', capacity '{}', limit '{}' and " +
+                  "parallelism '{}'", graph, source, direction, edgeLabel,
+                  depth, nearest, degree, capacity, limit, parallelism);
 
         Id sourceId = VertexAPI.checkAndParseVertexId(source);
         Directions dir = Directions.convert(EdgeAPI.parseDirection(direction));
@@ -84,7 +91,8 @@ public class KoutAPI extends API {
 
         HugeTraverser traverser = new HugeTraverser(g);
         Set<Id> ids = traverser.kout(sourceId, dir, edgeLabel, depth,
-                                     nearest, degree, capacity, limit);
-        return manager.serializer(g).writeList("vertices", ids);
+                                     nearest, degree, capacity, limit,
+                                     parallelism);
+        return manager.serializer(g, headers).writeIds("vertices", ids);
     }
 }
@@ -80,12 +80,19 @@ public class PersonalRankAPI extends API {
                         "The max depth of rank request must be " +
                         "in range (0, %s], but got '%s'",
                         DEFAULT_MAX_DEPTH, request.maxDepth);
+        E.checkArgument(request.threshold >= 0.0,
+                        "The threshold of rank request must be >= 0, " +
+                        "but got '%s'", request.threshold);
+        E.checkArgument(request.dense || request.threshold == 0.0,
+                        "The threshold of rank request can only be set " +
+                        "when dense is true");
 
         LOG.debug("Graph [{}] get personal rank from '{}' with " +
                   "edge label '{}', alpha '{}', degree '{}', " +
-                  "max depth '{}' and sorted '{}'",
-                  graph, request.source, request.label, request.alpha,
-                  request.degree, request.maxDepth, request.sorted);
+                  "max depth '{}', sorted '{}', dense '{}' and " +
+                  "threshold '{}'", graph, request.source, request.label,
+                  request.alpha, request.degree, request.maxDepth,
+                  request.sorted, request.dense, request.threshold);
 
         Id sourceId = HugeVertex.getIdValue(request.source);
         HugeGraph g = graph(manager, graph);
@@ -93,8 +100,15 @@ public class PersonalRankAPI extends API {
         PersonalRankTraverser traverser;
         traverser = new PersonalRankTraverser(g, request.alpha, request.degree,
                                               request.maxDepth);
-        Map<Id, Double> ranks = traverser.personalRank(sourceId, request.label,
-                                                       request.withLabel);
+        Map<Id, Double> ranks;
+        if (request.dense) {
+            ranks = traverser.densePersonalRank(sourceId, request.label,
+                                                request.withLabel,
+                                                request.threshold);
+        } else {
+            ranks = traverser.personalRank(sourceId, request.label,
+                                           request.withLabel);
+        }
         ranks = topN(ranks, request.sorted, request.limit);
         return manager.serializer(g).writeMap(ranks);
     }
@@ -137,15 +151,21 @@ public class PersonalRankAPI extends API {
                 PersonalRankTraverser.WithLabel.BOTH_LABEL;
         @JsonProperty("sorted")
         private boolean sorted = true;
+        @JsonProperty("dense")
+        private boolean dense = false;
+        @JsonProperty("threshold")
+        private double threshold = 0.0;
 
         @Override
         public String toString() {
             return String.format("RankRequest{source=%s,label=%s,alpha=%s," +
                                  "degree=%s,limit=%s,maxDepth=%s," +
-                                 "withLabel=%s,sorted=%s}",
+                                 "withLabel=%s,sorted=%s,dense=%s," +
+                                 "threshold=%s}",
                                  this.source, this.label, this.alpha,
                                  this.degree, this.limit, this.maxDepth,
-                                 this.withLabel, this.sorted);
+                                 this.withLabel, this.sorted, this.dense,
+                                 this.threshold);
         }
     }
 }
@@ -150,6 +150,65 @@ public class ServerOptions extends OptionHolder {
                     nonNegativeInt(),
                     0);
 
+    public static final ConfigOption<Integer> ADMISSION_OLTP_RATE =
+            new ConfigOption<>(
+                    "admission.oltp_rate",
+                    "The max rate(requests/s) of each graph to handle the " +
+                    "OLTP requests which are not limited by other " +
+                    "admission options, 0 means unlimited.",
+                    nonNegativeInt(),
+                    0
+            );
+
+    public static final ConfigOption<Integer> ADMISSION_BATCH_RATE =
+            new ConfigOption<>(
+                    "admission.batch_rate",
+                    "The max rate(requests/s) of each graph to handle the " +
+                    "batch writing requests, 0 means unlimited.",
+                    nonNegativeInt(),
+                    0
+            );
+
+    public static final ConfigOption<Integer> ADMISSION_TRAVERSER_RATE =
+            new ConfigOption<>(
+                    "admission.traverser_rate",
+                    "The max rate(requests/s) of each graph to handle the " +
+                    "traverser requests, 0 means unlimited.",
+                    nonNegativeInt(),
+                    0
+            );
+
+    public static final ConfigOption<Integer> ADMISSION_GREMLIN_RATE =
+            new ConfigOption<>(
+                    "admission.gremlin_rate",
+                    "The max rate(requests/s) to handle the gremlin " +
+                    "requests, it's limited by each graph for gremlin " +
+                    "jobs, 0 means unlimited.",
+                    nonNegativeInt(),
+                    0
+            );
+
+    public static final ConfigOption<Integer> ADMISSION_QUEUE_TIMEOUT =
+            new ConfigOption<>(
+                    "admission.queue_timeout",
+                    "The max time in milliseconds that a request waits " +
+                    "for admission before being rejected.",
+                    nonNegativeInt(),
+                    100
+            );
+
+    public static final ConfigOption<Integer> ADMISSION_COMMIT_LATENCY =
+            new ConfigOption<>(
+                    "admission.target_commit_latency",
+                    "The target latency in milliseconds of committing to " +
+                    "the backend, the admitted rates of a graph are " +
+                    "decreased while its commit latency is above the " +
+                    "target and recovered gradually after that, 0 means " +
+                    "the rates are not adapted.",
+                    nonNegativeInt(),
+                    500
+            );
+
     public static final ConfigOption<Boolean> ALLOW_TRACE =
             new ConfigOption<>(
                     "exception.allow_trace",
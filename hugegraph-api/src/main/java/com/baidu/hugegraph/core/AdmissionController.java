@@ -0,0 +1,227 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.core;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.baidu.hugegraph.config.ConfigOption;
+import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.config.ServerOptions;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.InsertionOrderUtil;
+import com.google.common.util.concurrent.RateLimiter;
+
+/**
+ * Admit requests by a token bucket for each graph and each api class, a
+ * request waits at most queue-timeout for a token and is rejected if it
+ * can't get one in time.
+ * The rate of a bucket is adapted to the backend commit latency of the
+ * graph: it's decreased multiplicatively (not below MIN_RATE_RATIO of the
+ * max rate) while the latency is above the target, and increased additively
+ * up to the max rate while it's not, the rate is adjusted at most once per
+ * ADJUST_INTERVAL.
+ */
+public final class AdmissionController {
+
+    public static final String ALL_GRAPHS = "*";
+
+    private static final long ADJUST_INTERVAL = TimeUnit.SECONDS.toNanos(1L);
+    private static final double MIN_RATE_RATIO = 0.1;
+    private static final double DECREASE_RATIO = 0.7;
+    private static final double INCREASE_RATIO = 0.05;
+
+    private final Map<ApiClass, Integer> maxRates;
+    private final long queueTimeout;
+    private final double targetLatency;
+    private final Map<String, Map<ApiClass, Limiter>> limiters;
+
+    public AdmissionController(HugeConfig config) {
+        this.maxRates = new EnumMap<>(ApiClass.class);
+        for (ApiClass clazz : ApiClass.values()) {
+            this.maxRates.put(clazz, config.get(clazz.option()));
+        }
+        this.queueTimeout = config.get(ServerOptions.ADMISSION_QUEUE_TIMEOUT);
+        this.targetLatency = config.get(
+                             ServerOptions.ADMISSION_COMMIT_LATENCY);
+        this.limiters = new ConcurrentHashMap<>();
+    }
+
+    public boolean enabled(ApiClass clazz) {
+        return this.maxRates.get(clazz) > 0;
+    }
+
+    /**
+     * Try to admit a request of the api class to the graph, the
+     * commitLatency(ms) is the current backend commit latency of the graph
+     * @return false if the request is rejected
+     */
+    public boolean acquire(String graph, ApiClass clazz,
+                           double commitLatency) {
+        E.checkArgument(this.enabled(clazz),
+                        "The admission of %s requests is disabled", clazz);
+        Limiter limiter = this.limiters.computeIfAbsent(graph, g -> {
+            return new ConcurrentHashMap<>();
+        }).computeIfAbsent(clazz, c -> {
+            return new Limiter(this.maxRates.get(c));
+        });
+        if (this.targetLatency > 0) {
+            limiter.adjust(commitLatency, this.targetLatency);
+        }
+        return limiter.acquire(this.queueTimeout);
+    }
+
+    public double rate(String graph, ApiClass clazz) {
+        Map<ApiClass, Limiter> limiters = this.limiters.get(graph);
+        Limiter limiter = limiters == null ? null : limiters.get(clazz);
+        if (limiter == null) {
+            return this.maxRates.get(clazz);
+        }
+        return limiter.rate;
+    }
+
+    public Map<String, Map<String, Object>> metrics() {
+        Map<String, Map<String, Object>> results = InsertionOrderUtil.newMap();
+        for (Map.Entry<String, Map<ApiClass, Limiter>> e :
+             this.limiters.entrySet()) {
+            Map<String, Object> metrics = InsertionOrderUtil.newMap();
+            for (ApiClass clazz : ApiClass.values()) {
+                Limiter limiter = e.getValue().get(clazz);
+                if (limiter != null) {
+                    metrics.put(clazz.string(), limiter.metrics());
+                }
+            }
+            results.put(e.getKey(), metrics);
+        }
+        return results;
+    }
+
+    public enum ApiClass {
+
+        OLTP(ServerOptions.ADMISSION_OLTP_RATE),
+
+        BATCH(ServerOptions.ADMISSION_BATCH_RATE),
+
+        TRAVERSER(ServerOptions.ADMISSION_TRAVERSER_RATE),
+
+        GREMLIN(ServerOptions.ADMISSION_GREMLIN_RATE);
+
+        private final ConfigOption<Integer> option;
+
+        ApiClass(ConfigOption<Integer> option) {
+            this.option = option;
+        }
+
+        public ConfigOption<Integer> option() {
+            return this.option;
+        }
+
+        public String string() {
+            return this.name().toLowerCase();
+        }
+    }
+
+    private static final class Limiter {
+
+        private final double maxRate;
+        private final double minRate;
+        private final RateLimiter limiter;
+
+        private volatile double rate;
+        private volatile double commitLatency;
+        private volatile long lastAdjusted;
+
+        private final LongAdder admitted;
+        private final LongAdder queued;
+        private final LongAdder rejected;
+        private final LongAdder adjustments;
+
+        public Limiter(double maxRate) {
+            this.maxRate = maxRate;
+            this.minRate = maxRate * MIN_RATE_RATIO;
+            this.limiter = RateLimiter.create(maxRate);
+            this.rate = maxRate;
+            this.commitLatency = 0.0;
+            this.lastAdjusted = System.nanoTime();
+            this.admitted = new LongAdder();
+            this.queued = new LongAdder();
+            this.rejected = new LongAdder();
+            this.adjustments = new LongAdder();
+        }
+
+        public boolean acquire(long timeout) {
+            if (this.limiter.tryAcquire()) {
+                this.admitted.increment();
+                return true;
+            }
+            // Queue briefly, it returns at once if can't get it in time
+            if (timeout > 0L &&
+                this.limiter.tryAcquire(1, timeout, TimeUnit.MILLISECONDS)) {
+                this.admitted.increment();
+                this.queued.increment();
+                return true;
+            }
+            this.rejected.increment();
+            return false;
+        }
+
+        public void adjust(double commitLatency, double target) {
+            this.commitLatency = commitLatency;
+            if (System.nanoTime() - this.lastAdjusted < ADJUST_INTERVAL) {
+                return;
+            }
+            synchronized (this) {
+                long now = System.nanoTime();
+                if (now - this.lastAdjusted < ADJUST_INTERVAL) {
+                    return;
+                }
+                this.lastAdjusted = now;
+
+                double rate = this.rate;
+                if (commitLatency > target) {
+                    rate = Math.max(rate * DECREASE_RATIO, this.minRate);
+                } else {
+                    rate = Math.min(rate + this.maxRate * INCREASE_RATIO,
+                                    this.maxRate);
+                }
+                if (rate != this.rate) {
+                    this.limiter.setRate(rate);
+                    this.rate = rate;
+                    this.adjustments.increment();
+                }
+            }
+        }
+
+        public Map<String, Object> metrics() {
+            Map<String, Object> metrics = InsertionOrderUtil.newMap();
+            metrics.put("max_rate", this.maxRate);
+            metrics.put("rate", this.rate);
+            metrics.put("commit_latency_ms", this.commitLatency);
+            metrics.put("admitted", this.admitted.sum());
+            metrics.put("queued", this.queued.sum());
+            metrics.put("rejected", this.rejected.sum());
+            metrics.put("adjustments", this.adjustments.sum());
+            return metrics;
+        }
+    }
+}
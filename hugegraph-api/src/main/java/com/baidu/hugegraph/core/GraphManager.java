@@ -27,6 +27,9 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+
 import org.apache.tinkerpop.gremlin.server.auth.AuthenticationException;
 import org.apache.tinkerpop.gremlin.server.util.MetricManager;
 import org.apache.tinkerpop.gremlin.structure.Graph;
@@ -35,6 +38,7 @@ import org.apache.tinkerpop.gremlin.structure.util.GraphFactory;
 import org.slf4j.Logger;
 
 import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.api.API;
 import com.baidu.hugegraph.auth.HugeAuthenticator;
 import com.baidu.hugegraph.auth.HugeFactoryAuthProxy;
 import com.baidu.hugegraph.auth.HugeGraphAuthProxy;
@@ -46,6 +50,7 @@ import com.baidu.hugegraph.config.ServerOptions;
 import com.baidu.hugegraph.exception.NotSupportException;
 import com.baidu.hugegraph.metrics.MetricsUtil;
 import com.baidu.hugegraph.metrics.ServerReporter;
+import com.baidu.hugegraph.serializer.BinaryResponseSerializer;
 import com.baidu.hugegraph.serializer.JsonSerializer;
 import com.baidu.hugegraph.serializer.Serializer;
 import com.baidu.hugegraph.server.RestServer;
@@ -109,6 +114,23 @@ public final class GraphManager {
         return JsonSerializer.instance();
     }
 
+    /**
+     * Choose the serializer by the Accept header, the compact binary one is
+     * only used when it's preferred to json (including wildcard types), so
+     * callers must also declare APPLICATION_HUGE_BINARY in @Produces.
+     */
+    public Serializer serializer(Graph g, HttpHeaders headers) {
+        for (MediaType type : headers.getAcceptableMediaTypes()) {
+            if (type.isCompatible(MediaType.APPLICATION_JSON_TYPE)) {
+                break;
+            }
+            if (type.isCompatible(API.APPLICATION_HUGE_BINARY_TYPE)) {
+                return BinaryResponseSerializer.instance();
+            }
+        }
+        return this.serializer(g);
+    }
+
     public void rollbackAll() {
         this.graphs.values().forEach(graph -> {
             if (graph.features().graph().supportsTransactions() &&
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.serializer;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+
+import com.baidu.hugegraph.HugeException;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.page.PageInfo;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
+import com.baidu.hugegraph.exception.NotSupportException;
+import com.baidu.hugegraph.iterator.Metadatable;
+import com.baidu.hugegraph.schema.EdgeLabel;
+import com.baidu.hugegraph.schema.IndexLabel;
+import com.baidu.hugegraph.schema.PropertyKey;
+import com.baidu.hugegraph.schema.VertexLabel;
+import com.baidu.hugegraph.structure.HugeEdge;
+import com.baidu.hugegraph.structure.HugeElement;
+import com.baidu.hugegraph.structure.HugeProperty;
+import com.baidu.hugegraph.structure.HugeVertex;
+import com.baidu.hugegraph.traversal.algorithm.CustomizedCrosspointsTraverser.CrosspointsPaths;
+import com.baidu.hugegraph.traversal.algorithm.HugeTraverser;
+import com.baidu.hugegraph.traversal.optimize.TraversalUtil;
+
+/**
+ * Compact binary format for the bulk APIs that return lots of ids, vertices
+ * or edges, the response is a sequence of records and each record is:
+ *   kind(1 byte) + body length(vint) + body
+ * terminated by a single END byte, a response without the END byte means
+ * it's truncated by a server error. Record bodies reuse the id and property
+ * encodings of BytesBuffer, and schema is referenced by id, so clients are
+ * expected to load the schema to decode labels and property values:
+ *   ID:     id
+ *   VERTEX: id + label-id + properties
+ *   EDGE:   source-id + label-id + sort-values(string with ending) +
+ *           target-id + properties
+ *   PAGE:   page string, only written if there is a next page
+ * where properties = count(vint) + [property-key-id + property-value]*.
+ */
+public class BinaryResponseSerializer implements Serializer {
+
+    public static final byte END = 0x00;
+    public static final byte ID = 0x01;
+    public static final byte VERTEX = 0x02;
+    public static final byte EDGE = 0x03;
+    public static final byte PAGE = 0x04;
+
+    private static final int BUF_SIZE = 8 * 1024;
+    private static final int RECORD_SIZE = 64;
+    private static final int HEADER_SIZE = 1 + 5;
+    private static final long FLUSH_BATCH = 1000L;
+
+    private static BinaryResponseSerializer INSTANCE =
+                   new BinaryResponseSerializer();
+
+    private BinaryResponseSerializer() {
+    }
+
+    public static BinaryResponseSerializer instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public StreamingOutput writeIds(String label, Collection<Id> ids) {
+        return this.writeIterator(label, ID, ids.iterator(), false);
+    }
+
+    @Override
+    public StreamingOutput writeVertices(Iterator<Vertex> vertices,
+                                         boolean paging) {
+        return this.writeIterator("vertices", VERTEX, vertices, paging);
+    }
+
+    @Override
+    public StreamingOutput writeEdges(Iterator<Edge> edges, boolean paging) {
+        return this.writeIterator("edges", EDGE, edges, paging);
+    }
+
+    private StreamingOutput writeIterator(String label, byte kind,
+                                          Iterator<?> iter, boolean paging) {
+        // Run the query in the resource method like JsonSerializer does
+        prefetch(iter, label);
+        return output -> {
+            try {
+                OutputStream out = new BufferedOutputStream(output, BUF_SIZE);
+                // Reuse the buffers of record, the body grows if needed
+                BytesBuffer header = BytesBuffer.allocate(HEADER_SIZE);
+                BytesBuffer body = BytesBuffer.allocate(RECORD_SIZE);
+                long count = 0L;
+                while (iter.hasNext()) {
+                    body.asByteBuffer().clear();
+                    writeRecordBody(body, kind, iter.next());
+                    writeRecord(out, kind, header, body);
+                    if (++count == 1L || count % FLUSH_BATCH == 0L) {
+                        out.flush();
+                    }
+                }
+
+                if (paging) {
+                    String page;
+                    if (iter instanceof GraphTraversal<?, ?>) {
+                        page = TraversalUtil.page((GraphTraversal<?, ?>) iter);
+                    } else if (iter instanceof Metadatable) {
+                        page = PageInfo.page(iter);
+                    } else {
+                        throw new HugeException("Invalid paging iterator: %s",
+                                                iter.getClass());
+                    }
+                    if (page != null) {
+                        body.asByteBuffer().clear();
+                        body.writeStringRaw(page);
+                        writeRecord(out, PAGE, header, body);
+                    }
+                }
+
+                out.write(END);
+                out.flush();
+            } catch (HugeException | IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new HugeException("Failed to serialize %s", e, label);
+            } finally {
+                closeIterator(iter, label);
+            }
+        };
+    }
+
+    private static void prefetch(Iterator<?> iter, String label) {
+        try {
+            iter.hasNext();
+        } catch (Throwable e) {
+            closeIterator(iter, label);
+            throw e;
+        }
+    }
+
+    private static void closeIterator(Iterator<?> iter, String label) {
+        try {
+            CloseableIterator.closeIterator(iter);
+        } catch (Exception e) {
+            throw new HugeException("Failed to close for %s", e, label);
+        }
+    }
+
+    private static void writeRecord(OutputStream out, byte kind,
+                                    BytesBuffer header, BytesBuffer body)
+                                    throws IOException {
+        int length = body.asByteBuffer().position();
+        header.asByteBuffer().clear();
+        header.write(kind);
+        header.writeVInt(length);
+        out.write(header.array(), 0, header.asByteBuffer().position());
+        out.write(body.array(), 0, length);
+    }
+
+    private static void writeRecordBody(BytesBuffer buffer, byte kind,
+                                        Object value) {
+        switch (kind) {
+            case ID:
+                buffer.writeId((Id) value);
+                break;
+            case VERTEX:
+                HugeVertex vertex = (HugeVertex) value;
+                buffer.writeId(vertex.id());
+                buffer.writeId(vertex.schemaLabel().id());
+                writeProperties(buffer, vertex);
+                break;
+            case EDGE:
+                HugeEdge edge = (HugeEdge) value;
+                buffer.writeId(edge.sourceVertex().id());
+                buffer.writeId(edge.schemaLabel().id());
+                buffer.writeStringWithEnding(edge.name());
+                buffer.writeId(edge.targetVertex().id());
+                writeProperties(buffer, edge);
+                break;
+            default:
+                throw new AssertionError("Unsupported record kind " + kind);
+        }
+    }
+
+    private static void writeProperties(BytesBuffer buffer,
+                                        HugeElement element) {
+        Collection<HugeProperty<?>> props = element.getProperties().values();
+        buffer.writeVInt(props.size());
+        for (HugeProperty<?> prop : props) {
+            PropertyKey pkey = prop.propertyKey();
+            buffer.writeId(pkey.id());
+            buffer.writeProperty(pkey, prop.value());
+        }
+    }
+
+    @Override
+    public String writeMap(Map<?, ?> map) {
+        throw unsupported("map");
+    }
+
+    @Override
+    public String writeList(String label, Collection<?> list) {
+        throw unsupported(label);
+    }
+
+    @Override
+    public String writePropertyKey(PropertyKey propertyKey) {
+        throw unsupported("property key");
+    }
+
+    @Override
+    public String writePropertyKeys(List<PropertyKey> propertyKeys) {
+        throw unsupported("property keys");
+    }
+
+    @Override
+    public String writeVertexLabel(VertexLabel vertexLabel) {
+        throw unsupported("vertex label");
+    }
+
+    @Override
+    public String writeVertexLabels(List<VertexLabel> vertexLabels) {
+        throw unsupported("vertex labels");
+    }
+
+    @Override
+    public String writeEdgeLabel(EdgeLabel edgeLabel) {
+        throw unsupported("edge label");
+    }
+
+    @Override
+    public String writeEdgeLabels(List<EdgeLabel> edgeLabels) {
+        throw unsupported("edge labels");
+    }
+
+    @Override
+    public String writeIndexlabel(IndexLabel indexLabel) {
+        throw unsupported("index label");
+    }
+
+    @Override
+    public String writeIndexlabels(List<IndexLabel> indexLabels) {
+        throw unsupported("index labels");
+    }
+
+    @Override
+    public String writeCreatedIndexLabel(IndexLabel.CreatedIndexLabel cil) {
+        throw unsupported("created index label");
+    }
+
+    @Override
+    public String writeVertex(Vertex v) {
+        throw unsupported("vertex");
+    }
+
+    @Override
+    public String writeEdge(Edge e) {
+        throw unsupported("edge");
+    }
+
+    @Override
+    public StreamingOutput writePaths(String name,
+                                      Collection<HugeTraverser.Path> paths,
+                                      boolean withCrossPoint,
+                                      Iterator<Vertex> vertices) {
+        throw unsupported(name);
+    }
+
+    @Override
+    public String writeCrosspoints(CrosspointsPaths paths,
+                                   Iterator<Vertex> iterator,
+                                   boolean withPath) {
+        throw unsupported("crosspoints");
+    }
+
+    private static NotSupportException unsupported(String name) {
+        return new NotSupportException("writing %s in binary format", name);
+    }
+}
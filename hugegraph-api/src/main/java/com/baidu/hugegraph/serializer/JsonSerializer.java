@@ -20,19 +20,24 @@
 package com.baidu.hugegraph.serializer;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import javax.ws.rs.core.StreamingOutput;
+
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+import org.apache.tinkerpop.shaded.jackson.core.JsonGenerator;
 
 import com.baidu.hugegraph.HugeException;
 import com.baidu.hugegraph.api.API;
+import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.page.PageInfo;
 import com.baidu.hugegraph.iterator.Metadatable;
 import com.baidu.hugegraph.schema.EdgeLabel;
@@ -45,10 +50,12 @@ import com.baidu.hugegraph.traversal.optimize.TraversalUtil;
 import com.baidu.hugegraph.util.JsonUtil;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
 
 public class JsonSerializer implements Serializer {
 
     private static final int LBUF_SIZE = 1024;
+    private static final long FLUSH_BATCH = 1000L;
 
     private static JsonSerializer INSTANCE = new JsonSerializer();
 
@@ -76,56 +83,85 @@ public class JsonSerializer implements Serializer {
         }
     }
 
-    private String writeIterator(String label, Iterator<?> iter,
-                                 boolean paging) {
-        try (ByteArrayOutputStream out = new ByteArrayOutputStream(LBUF_SIZE)) {
-            out.write("{".getBytes(API.CHARSET));
-
-            out.write(String.format("\"%s\":[", label).getBytes(API.CHARSET));
+    @Override
+    public StreamingOutput writeIds(String label, Collection<Id> ids) {
+        return this.writeIterator(label, ids.iterator(), false);
+    }
 
-            // Write data
-            boolean first = true;
-            while (iter.hasNext()) {
-                if (!first) {
-                    out.write(",".getBytes(API.CHARSET));
-                } else {
-                    first = false;
+    private StreamingOutput writeIterator(String label, Iterator<?> iter,
+                                          boolean paging) {
+        prefetch(iter, label);
+        return out -> {
+            try (JsonGenerator generator = JsonUtil.generator(out)) {
+                generator.writeStartObject();
+
+                // Write data
+                generator.writeArrayFieldStart(label);
+                writeValues(generator, iter);
+                generator.writeEndArray();
+
+                // Write page
+                if (paging) {
+                    String page;
+                    if (iter instanceof GraphTraversal<?, ?>) {
+                        page = TraversalUtil.page((GraphTraversal<?, ?>) iter);
+                    } else if (iter instanceof Metadatable) {
+                        page = PageInfo.page(iter);
+                    } else {
+                        throw new HugeException("Invalid paging iterator: %s",
+                                                iter.getClass());
+                    }
+                    generator.writeStringField("page", page);
                 }
-                out.write(JsonUtil.toJson(iter.next()).getBytes(API.CHARSET));
+
+                generator.writeEndObject();
+            } catch (HugeException | IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new HugeException("Failed to serialize %s", e, label);
+            } finally {
+                closeIterator(iter, label);
             }
-            out.write("]".getBytes(API.CHARSET));
-
-            // Write page
-            if (paging) {
-                String page;
-                if (iter instanceof GraphTraversal<?, ?>) {
-                    page = TraversalUtil.page((GraphTraversal<?, ?>) iter);
-                } else if (iter instanceof Metadatable) {
-                    page = PageInfo.page(iter);
-                } else {
-                    throw new HugeException("Invalid paging iterator: %s",
-                                            iter.getClass());
-                }
-                if (page != null) {
-                    page = String.format(",\"page\": \"%s\"", page);
-                } else {
-                    page = ",\"page\": null";
-                }
-                out.write(page.getBytes(API.CHARSET));
+        };
+    }
+
+    /**
+     * Write values one by one to the generator, the generator only keeps a
+     * small buffer and writes it to the output stream once it's full, so
+     * the whole response is never held in memory. The first value is
+     * flushed at once to let the client receive results early, and then
+     * flushed every FLUSH_BATCH values.
+     */
+    private static void writeValues(JsonGenerator generator, Iterator<?> iter)
+                                    throws IOException {
+        long count = 0L;
+        while (iter.hasNext()) {
+            generator.writeObject(iter.next());
+            if (++count == 1L || count % FLUSH_BATCH == 0L) {
+                generator.flush();
             }
+        }
+    }
 
-            out.write("}".getBytes(API.CHARSET));
-            return out.toString(API.CHARSET);
-        } catch (HugeException e) {
+    /**
+     * Run the query by fetching the first value in the resource method, so
+     * that it's timed with the api and its errors are responded as usual,
+     * rather than thrown after the response has been committed
+     */
+    private static void prefetch(Iterator<?> iter, String label) {
+        try {
+            iter.hasNext();
+        } catch (Throwable e) {
+            closeIterator(iter, label);
             throw e;
+        }
+    }
+
+    private static void closeIterator(Iterator<?> iter, String label) {
+        try {
+            CloseableIterator.closeIterator(iter);
         } catch (Exception e) {
-            throw new HugeException("Failed to serialize %s", e, label);
-        } finally {
-            try {
-                CloseableIterator.closeIterator(iter);
-            } catch (Exception e) {
-                throw new HugeException("Failed to close for %s", e, label);
-            }
+            throw new HugeException("Failed to close for %s", e, label);
         }
     }
 
@@ -187,7 +223,8 @@ public class JsonSerializer implements Serializer {
     }
 
     @Override
-    public String writeVertices(Iterator<Vertex> vertices, boolean paging) {
+    public StreamingOutput writeVertices(Iterator<Vertex> vertices,
+                                         boolean paging) {
         return this.writeIterator("vertices", vertices, paging);
     }
 
@@ -197,26 +234,45 @@ public class JsonSerializer implements Serializer {
     }
 
     @Override
-    public String writeEdges(Iterator<Edge> edges, boolean paging) {
+    public StreamingOutput writeEdges(Iterator<Edge> edges, boolean paging) {
         return this.writeIterator("edges", edges, paging);
     }
 
     @Override
-    public String writePaths(String name, Collection<HugeTraverser.Path> paths,
-                             boolean withCrossPoint,
-                             Iterator<Vertex> vertices) {
-        List<Map<String, Object>> pathList = new ArrayList<>(paths.size());
-        for (HugeTraverser.Path path : paths) {
-            pathList.add(path.toMap(withCrossPoint));
+    public StreamingOutput writePaths(String name,
+                                      Collection<HugeTraverser.Path> paths,
+                                      boolean withCrossPoint,
+                                      Iterator<Vertex> vertices) {
+        if (vertices != null) {
+            prefetch(vertices, name);
         }
+        return out -> {
+            try (JsonGenerator generator = JsonUtil.generator(out)) {
+                generator.writeStartObject();
+
+                generator.writeArrayFieldStart(name);
+                writeValues(generator, Iterators.transform(
+                                       paths.iterator(),
+                                       p -> p.toMap(withCrossPoint)));
+                generator.writeEndArray();
+
+                if (vertices != null) {
+                    generator.writeArrayFieldStart("vertices");
+                    writeValues(generator, vertices);
+                    generator.writeEndArray();
+                }
 
-        Map<String, Object> results;
-        if (vertices == null) {
-            results = ImmutableMap.of(name, pathList);
-        } else {
-            results = ImmutableMap.of(name, pathList, "vertices", vertices);
-        }
-        return JsonUtil.toJson(results);
+                generator.writeEndObject();
+            } catch (HugeException | IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new HugeException("Failed to serialize %s", e, name);
+            } finally {
+                if (vertices != null) {
+                    closeIterator(vertices, name);
+                }
+            }
+        };
     }
 
     @Override
@@ -24,9 +24,12 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import javax.ws.rs.core.StreamingOutput;
+
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.schema.EdgeLabel;
 import com.baidu.hugegraph.schema.IndexLabel;
 import com.baidu.hugegraph.schema.PropertyKey;
@@ -40,6 +43,8 @@ public interface Serializer {
 
     public String writeList(String label, Collection<?> list);
 
+    public StreamingOutput writeIds(String label, Collection<Id> ids);
+
     public String writePropertyKey(PropertyKey propertyKey);
 
     public String writePropertyKeys(List<PropertyKey> propertyKeys);
@@ -60,18 +65,22 @@ public interface Serializer {
 
     public String writeVertex(Vertex v);
 
-    public String writeVertices(Iterator<Vertex> vertices, boolean paging);
+    public StreamingOutput writeVertices(Iterator<Vertex> vertices,
+                                         boolean paging);
 
     public String writeEdge(Edge e);
 
-    public String writeEdges(Iterator<Edge> edges, boolean paging);
+    public StreamingOutput writeEdges(Iterator<Edge> edges, boolean paging);
 
-    public String writePaths(String name, Collection<HugeTraverser.Path> paths,
-                             boolean withCrossPoint, Iterator<Vertex> vertices);
+    public StreamingOutput writePaths(String name,
+                                      Collection<HugeTraverser.Path> paths,
+                                      boolean withCrossPoint,
+                                      Iterator<Vertex> vertices);
 
-    public default String writePaths(String name,
-                                     Collection<HugeTraverser.Path> paths,
-                                     boolean withCrossPoint) {
+    public default StreamingOutput writePaths(String name,
+                                              Collection<HugeTraverser.Path>
+                                              paths,
+                                              boolean withCrossPoint) {
         return this.writePaths(name, paths, withCrossPoint, null);
     }
 
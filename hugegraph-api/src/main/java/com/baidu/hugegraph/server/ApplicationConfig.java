@@ -35,6 +35,7 @@ import org.glassfish.jersey.server.monitoring.RequestEventListener;
 
 import com.baidu.hugegraph.HugeException;
 import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.core.AdmissionController;
 import com.baidu.hugegraph.core.GraphManager;
 import com.baidu.hugegraph.core.WorkLoad;
 import com.baidu.hugegraph.util.E;
@@ -62,6 +63,9 @@ public class ApplicationConfig extends ResourceConfig {
         // Register WorkLoad to context
         register(new WorkLoadFactory());
 
+        // Register AdmissionController to context
+        register(new AdmissionControllerFactory(conf));
+
         // Let @Metric annotations work
         MetricRegistry registry = MetricManager.INSTANCE.getRegistry();
         register(new InstrumentedResourceMethodApplicationListener(registry));
@@ -160,4 +164,31 @@ public class ApplicationConfig extends ResourceConfig {
             bindFactory(this).to(WorkLoad.class).in(RequestScoped.class);
         }
     }
+
+    private class AdmissionControllerFactory
+                  extends AbstractBinder
+                  implements Factory<AdmissionController> {
+
+        private final AdmissionController controller;
+
+        public AdmissionControllerFactory(HugeConfig conf) {
+            this.controller = new AdmissionController(conf);
+        }
+
+        @Override
+        public AdmissionController provide() {
+            return this.controller;
+        }
+
+        @Override
+        public void dispose(AdmissionController controller) {
+            // pass
+        }
+
+        @Override
+        protected void configure() {
+            bindFactory(this).to(AdmissionController.class)
+                             .in(RequestScoped.class);
+        }
+    }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.store.cassandra;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.function.Function;
+
+import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.util.E;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.exceptions.DriverException;
+
+/**
+ * Execute statements asynchronously and return their results in the order
+ * of the statements, at most `window` statements are in flight at the same
+ * time, and the next one is submitted once a result is taken, so the
+ * results are fetched ahead of the consumer but never all at once.
+ */
+public class CassandraAsyncIterator implements Iterator<ResultSet>,
+                                               AutoCloseable {
+
+    private final Iterator<? extends Statement> statements;
+    private final int window;
+    private final Function<Statement, ResultSetFuture> executor;
+    private final Queue<ResultSetFuture> futures;
+    private final Queue<Statement> executing;
+    private boolean closed;
+
+    public CassandraAsyncIterator(List<? extends Statement> statements,
+                                  int window,
+                                  Function<Statement, ResultSetFuture>
+                                  executor) {
+        E.checkArgument(window > 0,
+                        "The window of async queries must be > 0, " +
+                        "but got %s", window);
+        this.statements = statements.iterator();
+        this.window = window;
+        this.executor = executor;
+        this.futures = new ArrayDeque<>(window);
+        this.executing = new ArrayDeque<>(window);
+        this.closed = false;
+    }
+
+    @Override
+    public boolean hasNext() {
+        this.fill();
+        return !this.futures.isEmpty();
+    }
+
+    @Override
+    public ResultSet next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ResultSetFuture future = this.futures.poll();
+        Statement statement = this.executing.poll();
+        try {
+            return future.getUninterruptibly();
+        } catch (DriverException e) {
+            this.close();
+            throw new BackendException("Failed to query [%s]", e, statement);
+        } finally {
+            this.fill();
+        }
+    }
+
+    @Override
+    public void close() {
+        for (ResultSetFuture future : this.futures) {
+            future.cancel(true);
+        }
+        this.futures.clear();
+        this.executing.clear();
+        this.closed = true;
+    }
+
+    private void fill() {
+        while (!this.closed && this.futures.size() < this.window &&
+               this.statements.hasNext()) {
+            Statement statement = this.statements.next();
+            this.futures.add(this.executor.apply(statement));
+            this.executing.add(statement);
+        }
+    }
+}
@@ -89,6 +89,26 @@ public class CassandraOptions extends OptionHolder {
                     20
             );
 
+    public static final ConfigOption<Integer> CASSANDRA_ASYNC_QUERIES =
+            new ConfigOption<>(
+                    "cassandra.max_async_queries",
+                    "The max number of select statements of a query " +
+                    "executed asynchronously at the same time, like " +
+                    "querying edges of multi vertices, 1 means to execute " +
+                    "them one by one.",
+                    rangeInt(1, 1024),
+                    32
+            );
+
+    public static final ConfigOption<Integer> CASSANDRA_PREPARED_CACHE =
+            new ConfigOption<>(
+                    "cassandra.prepared_statement_cache_size",
+                    "The max number of cached prepared statements of " +
+                    "select, 0 means not to prepare select statements.",
+                    rangeInt(0, Integer.MAX_VALUE),
+                    1000
+            );
+
     public static final ConfigOption<String> CASSANDRA_STRATEGY =
             new ConfigOption<>(
                     "cassandra.keyspace.strategy",
@@ -19,25 +19,35 @@
 
 package com.baidu.hugegraph.backend.store.cassandra;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 
 import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.backend.cache.Cache;
+import com.baidu.hugegraph.backend.cache.RamCache;
+import com.baidu.hugegraph.backend.id.IdGenerator;
 import com.baidu.hugegraph.backend.store.BackendSession;
 import com.baidu.hugegraph.backend.store.BackendSessionPool;
 import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.util.E;
 import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.Cluster.Builder;
+import com.datastax.driver.core.CodecRegistry;
 import com.datastax.driver.core.Metadata;
+import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.ProtocolOptions.Compression;
+import com.datastax.driver.core.ProtocolVersion;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.SocketOptions;
 import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.exceptions.InvalidQueryException;
+import com.datastax.driver.core.querybuilder.BuiltStatement;
 
 public class CassandraSessionPool extends BackendSessionPool {
 
@@ -45,12 +55,16 @@ public class CassandraSessionPool extends BackendSessionPool {
 
     private Cluster cluster;
     private String keyspace;
+    private int asyncQueries;
+    private Cache preparedStatements;
 
     public CassandraSessionPool(HugeConfig config, String keyspace,
                                 String store) {
         super(config, keyspace + "/" + store);
         this.cluster = null;
         this.keyspace = keyspace;
+        this.asyncQueries = 1;
+        this.preparedStatements = null;
     }
 
     @Override
@@ -92,6 +106,14 @@ public class CassandraSessionPool extends BackendSessionPool {
         builder.withCompression(Compression.valueOf(compression.toUpperCase()));
 
         this.cluster = builder.build();
+
+        // Query options
+        int asyncQueries = config.get(CassandraOptions.CASSANDRA_ASYNC_QUERIES);
+        this.asyncQueries = asyncQueries;
+        int cacheSize = config.get(CassandraOptions.CASSANDRA_PREPARED_CACHE);
+        if (cacheSize > 0) {
+            this.preparedStatements = new RamCache(cacheSize);
+        }
     }
 
     @Override
@@ -122,6 +144,10 @@ public class CassandraSessionPool extends BackendSessionPool {
         if (this.cluster != null && !this.cluster.isClosed()) {
             this.cluster.close();
         }
+        if (this.preparedStatements != null) {
+            this.preparedStatements.clear();
+            this.preparedStatements = null;
+        }
     }
 
     public final void checkClusterConnected() {
@@ -197,7 +223,62 @@ public class CassandraSessionPool extends BackendSessionPool {
 
         public ResultSet query(Statement statement) {
             assert !this.hasChanges();
-            return this.execute(statement);
+            return this.execute(this.prepare(statement));
+        }
+
+        /**
+         * Execute the statements asynchronously with a bounded number of
+         * in-flight ones, the results are returned in the same order
+         */
+        public Iterator<ResultSet> query(List<? extends Statement> statements) {
+            assert !this.hasChanges();
+            return new CassandraAsyncIterator(statements, asyncQueries, s -> {
+                return this.session.executeAsync(this.prepare(s));
+            });
+        }
+
+        /**
+         * Replace a built statement with a bound one of the cached prepared
+         * statement, to avoid parsing the repeated select shapes (the cql
+         * string with bind markers) every time by cassandra. The paging
+         * statement is not prepared since its paging state is bound to the
+         * origin statement.
+         */
+        private Statement prepare(Statement statement) {
+            Cache statements = preparedStatements;
+            if (statements == null ||
+                !(statement instanceof BuiltStatement) ||
+                statement.getFetchSize() > 0) {
+                return statement;
+            }
+
+            BuiltStatement built = (BuiltStatement) statement;
+            Cluster cluster = cluster();
+            CodecRegistry registry = cluster.getConfiguration()
+                                            .getCodecRegistry();
+            if (!built.hasValues(registry)) {
+                // All values are inlined, it's not a repeated shape
+                return statement;
+            }
+
+            String cql = built.getQueryString(registry);
+            PreparedStatement prepared = (PreparedStatement)
+                                         statements.getOrFetch(
+                                         IdGenerator.of(cql),
+                                         id -> this.session.prepare(cql));
+
+            ProtocolVersion version = cluster.getConfiguration()
+                                             .getProtocolOptions()
+                                             .getProtocolVersion();
+            ByteBuffer[] values = built.getValues(version, registry);
+            BoundStatement bound = prepared.bind();
+            for (int i = 0; i < values.length; i++) {
+                bound.setBytesUnsafe(i, values[i]);
+            }
+            if (statement.getConsistencyLevel() != null) {
+                bound.setConsistencyLevel(statement.getConsistencyLevel());
+            }
+            return bound;
         }
 
         public ResultSet execute(Statement statement) {
@@ -40,7 +40,9 @@ import com.baidu.hugegraph.backend.store.BackendEntry;
 import com.baidu.hugegraph.backend.store.BackendTable;
 import com.baidu.hugegraph.backend.store.Shard;
 import com.baidu.hugegraph.exception.NotFoundException;
+import com.baidu.hugegraph.exception.NotSupportException;
 import com.baidu.hugegraph.iterator.ExtendableIterator;
+import com.baidu.hugegraph.iterator.FlatMapperIterator;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.type.define.HugeKeys;
 import com.baidu.hugegraph.util.CopyUtil;
@@ -102,9 +104,20 @@ public abstract class CassandraTable
 
         List<Select> selections = this.query2Select(this.table(), query);
         try {
-            for (Select selection : selections) {
-                ResultSet results = session.query(selection);
+            if (selections.size() == 1) {
+                ResultSet results = session.query(selections.get(0));
                 rs.extend(this.results2Entries(query, results));
+            } else {
+                /*
+                 * Execute multi selects asynchronously, like querying by
+                 * many ids or edges of many vertices, the results are
+                 * fetched ahead in a bounded window and merged in the order
+                 * of selects
+                 */
+                Iterator<ResultSet> results = session.query(selections);
+                rs.extend(new FlatMapperIterator<>(results, r -> {
+                    return this.results2Entries(query, r);
+                }));
             }
         } catch (DriverException e) {
             throw new BackendException("Failed to query [%s]", e, query);
@@ -114,6 +127,42 @@ public abstract class CassandraTable
         return rs;
     }
 
+    @Override
+    public long queryNumber(CassandraSessionPool.Session session,
+                            Query query) {
+        return this.queryNumber(session, this.table(), query);
+    }
+
+    protected long queryNumber(CassandraSessionPool.Session session,
+                               String table, Query query) {
+        if (!query.ids().isEmpty() || query.paging() ||
+            query.limit() != Query.NO_LIMIT) {
+            throw new NotSupportException("counting by ids or with " +
+                                          "limit/paging: %s", query);
+        }
+
+        // Count rows by the server side, like 'SELECT COUNT(*) FROM t ...'
+        Select select = QueryBuilder.select().countAll().from(table);
+        Collection<Select> selections;
+        if (query.conditions().isEmpty()) {
+            selections = ImmutableList.of(select);
+        } else {
+            selections = this.queryCondition2Select(query, select);
+        }
+
+        long count = 0L;
+        try {
+            for (Select selection : selections) {
+                ResultSet results = session.query(selection);
+                count += results.one().getLong(0);
+            }
+        } catch (DriverException e) {
+            throw new BackendException("Failed to count [%s]", e, query);
+        }
+        LOG.debug("Return {} for number query {}", count, query);
+        return count;
+    }
+
     protected List<Select> query2Select(String table, Query query) {
         // Set table
         Select select = QueryBuilder.select().from(table);
@@ -23,6 +23,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -40,6 +42,7 @@ import org.slf4j.Logger;
 import com.baidu.hugegraph.analyzer.Analyzer;
 import com.baidu.hugegraph.analyzer.AnalyzerFactory;
 import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.backend.LeasedCounter;
 import com.baidu.hugegraph.backend.cache.CachedGraphTransaction;
 import com.baidu.hugegraph.backend.cache.CachedSchemaTransaction;
 import com.baidu.hugegraph.backend.id.Id;
@@ -49,12 +52,15 @@ import com.baidu.hugegraph.backend.serializer.SerializerFactory;
 import com.baidu.hugegraph.backend.store.BackendProviderFactory;
 import com.baidu.hugegraph.backend.store.BackendStore;
 import com.baidu.hugegraph.backend.store.BackendStoreProvider;
+import com.baidu.hugegraph.backend.tx.CommitLatency;
 import com.baidu.hugegraph.backend.tx.GraphTransaction;
+import com.baidu.hugegraph.backend.tx.GroupCommitter;
 import com.baidu.hugegraph.backend.tx.SchemaTransaction;
 import com.baidu.hugegraph.config.CoreOptions;
 import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.event.EventHub;
 import com.baidu.hugegraph.io.HugeGraphIoRegistry;
+import com.baidu.hugegraph.job.computer.HugeGraphComputer;
 import com.baidu.hugegraph.schema.EdgeLabel;
 import com.baidu.hugegraph.schema.IndexLabel;
 import com.baidu.hugegraph.schema.PropertyKey;
@@ -64,10 +70,12 @@ import com.baidu.hugegraph.schema.VertexLabel;
 import com.baidu.hugegraph.structure.HugeFeatures;
 import com.baidu.hugegraph.task.TaskManager;
 import com.baidu.hugegraph.task.TaskScheduler;
+import com.baidu.hugegraph.traversal.optimize.HugeCountStepStrategy;
 import com.baidu.hugegraph.traversal.optimize.HugeGraphStepStrategy;
 import com.baidu.hugegraph.traversal.optimize.HugeVertexStepStrategy;
 import com.baidu.hugegraph.type.define.GraphMode;
 import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.ExecutorUtil;
 import com.baidu.hugegraph.util.LockUtil;
 import com.baidu.hugegraph.util.Log;
 import com.baidu.hugegraph.variables.HugeVariables;
@@ -81,13 +89,16 @@ public class HugeGraph implements GremlinGraph {
 
     private static final Logger LOG = Log.logger(HugeGraph.class);
 
+    private static final String TRAVERSER_WORKER = "traverser-worker-%d";
+
     static {
         TraversalStrategies strategies = null;
         strategies = TraversalStrategies.GlobalCache
                                         .getStrategies(Graph.class)
                                         .clone();
         strategies.addStrategies(HugeVertexStepStrategy.instance(),
-                                 HugeGraphStepStrategy.instance());
+                                 HugeGraphStepStrategy.instance(),
+                                 HugeCountStepStrategy.instance());
         TraversalStrategies.GlobalCache.registerStrategies(HugeGraph.class,
                                                            strategies);
 
@@ -109,6 +120,10 @@ public class HugeGraph implements GremlinGraph {
     private final EventHub indexEventHub;
     private final RateLimiter rateLimiter;
     private final TaskManager taskManager;
+    private volatile ExecutorService traverserExecutor;
+    private volatile GroupCommitter groupCommitter;
+    private final CommitLatency commitLatency;
+    private final LeasedCounter idCounter;
 
     private final HugeFeatures features;
 
@@ -128,6 +143,10 @@ public class HugeGraph implements GremlinGraph {
         this.rateLimiter = limit > 0 ? RateLimiter.create(limit) : null;
 
         this.taskManager = TaskManager.instance();
+        this.traverserExecutor = null;
+        this.groupCommitter = null;
+        this.commitLatency = new CommitLatency();
+        this.idCounter = new LeasedCounter(configuration);
 
         this.features = new HugeFeatures(this, true);
 
@@ -204,6 +223,7 @@ public class HugeGraph implements GremlinGraph {
         this.loadSystemStore().open(this.configuration);
         this.loadGraphStore().open(this.configuration);
         try {
+            this.idCounter.reset();
             this.storeProvider.init();
             this.storeProvider.initSystemInfo(this);
         } finally {
@@ -224,6 +244,8 @@ public class HugeGraph implements GremlinGraph {
         this.loadGraphStore().open(this.configuration);
         try {
             this.storeProvider.clear();
+            // The counters are cleared, the leased ids would be duplicated
+            this.idCounter.reset();
         } finally {
             this.loadGraphStore().close();
             this.loadSystemStore().close();
@@ -238,6 +260,7 @@ public class HugeGraph implements GremlinGraph {
         this.waitUntilAllTasksCompleted();
 
         this.storeProvider.truncate();
+        this.idCounter.reset();
         this.storeProvider.initSystemInfo(this);
 
         LOG.info("Graph '{}' has been truncated", this.name);
@@ -362,12 +385,18 @@ public class HugeGraph implements GremlinGraph {
     @Override
     public <C extends GraphComputer> C compute(Class<C> clazz)
                                                throws IllegalArgumentException {
-        throw Graph.Exceptions.graphComputerNotSupported();
+        if (clazz != HugeGraphComputer.class) {
+            throw Graph.Exceptions.graphDoesNotSupportProvidedGraphComputer(
+                                   clazz);
+        }
+        @SuppressWarnings("unchecked")
+        C computer = (C) this.compute();
+        return computer;
     }
 
     @Override
     public GraphComputer compute() throws IllegalArgumentException {
-        throw Graph.Exceptions.graphComputerNotSupported();
+        return new HugeGraphComputer(this);
     }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
@@ -402,6 +431,10 @@ public class HugeGraph implements GremlinGraph {
         return this.graphTransaction().queryEdges(query);
     }
 
+    public long queryNumber(Query query) {
+        return this.graphTransaction().queryNumber(query);
+    }
+
     public Iterator<Vertex> adjacentVertices(Iterator<Edge> edges) {
         return this.graphTransaction().queryAdjacentVertices(edges);
     }
@@ -452,6 +485,67 @@ public class HugeGraph implements GremlinGraph {
         return il;
     }
 
+    /**
+     * Get the thread pool used by traversers to expand vertices in parallel,
+     * it's created when used at the first time
+     */
+    public ExecutorService traverserExecutor() {
+        if (this.traverserExecutor == null) {
+            synchronized (this) {
+                if (this.traverserExecutor == null) {
+                    E.checkState(!this.closed,
+                                 "Graph '%s' has been closed", this.name);
+                    int threads = this.configuration.get(
+                                  CoreOptions.TRAVERSER_THREADS);
+                    this.traverserExecutor = ExecutorUtil.newFixedThreadPool(
+                                             threads, TRAVERSER_WORKER);
+                }
+            }
+        }
+        return this.traverserExecutor;
+    }
+
+    /**
+     * Get the committer shared by the graph transactions of all threads to
+     * commit their mutations in groups, return null if group commit is
+     * disabled. It's created when used at the first time
+     */
+    public GroupCommitter groupCommitter() {
+        if (!this.configuration.get(CoreOptions.GROUP_COMMIT)) {
+            return null;
+        }
+        if (this.groupCommitter == null) {
+            synchronized (this) {
+                if (this.groupCommitter == null) {
+                    E.checkState(!this.closed,
+                                 "Graph '%s' has been closed", this.name);
+                    this.groupCommitter = new GroupCommitter(
+                                          this, this.loadGraphStore());
+                }
+            }
+        }
+        return this.groupCommitter;
+    }
+
+    /**
+     * Get the committer if it has been created, return null otherwise.
+     * Unlike groupCommitter() it never starts a committer
+     */
+    public GroupCommitter existingGroupCommitter() {
+        return this.groupCommitter;
+    }
+
+    /**
+     * Get the latency of committing graph transactions to the backend
+     */
+    public CommitLatency commitLatency() {
+        return this.commitLatency;
+    }
+
+    public LeasedCounter idCounter() {
+        return this.idCounter;
+    }
+
     public IndexLabel indexLabel(String name) {
         IndexLabel il = this.schemaTransaction().getIndexLabel(name);
         E.checkArgument(il != null, "Undefined index label: '%s'", name);
@@ -471,6 +565,8 @@ public class HugeGraph implements GremlinGraph {
 
         LOG.info("Close graph {}", this);
         this.taskManager.closeScheduler(this);
+        this.closeTraverserExecutor();
+        this.closeGroupCommitter();
         try {
             this.closeTx();
         } finally {
@@ -484,6 +580,39 @@ public class HugeGraph implements GremlinGraph {
                      this.name);
     }
 
+    private synchronized void closeTraverserExecutor() {
+        if (this.traverserExecutor == null) {
+            return;
+        }
+        // The workers close their own tx after each expansion
+        this.traverserExecutor.shutdown();
+        try {
+            long timeout = this.configuration.get(
+                           CoreOptions.TASK_WAIT_TIMEOUT);
+            if (!this.traverserExecutor.awaitTermination(timeout,
+                                                         TimeUnit.SECONDS)) {
+                LOG.warn("Timeout when waiting for traversers of graph {}",
+                         this);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.traverserExecutor = null;
+        }
+    }
+
+    private synchronized void closeGroupCommitter() {
+        if (this.groupCommitter == null) {
+            return;
+        }
+        // The waiting transactions are committed before closing
+        try {
+            this.groupCommitter.close();
+        } finally {
+            this.groupCommitter = null;
+        }
+    }
+
     public void closeTx() {
         try {
             if (this.tx.isOpen()) {
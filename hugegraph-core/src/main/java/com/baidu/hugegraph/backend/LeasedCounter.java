@@ -0,0 +1,153 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.store.BackendStore;
+import com.baidu.hugegraph.config.CoreOptions;
+import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.util.E;
+
+/**
+ * Allocate ids from blocks leased from the counters of a backend store.
+ * A block is leased by increasing the counter of the type by the block size
+ * with the get-increase-get-compare operation, then the ids in the block are
+ * handed out locally without locks until it's exhausted.
+ * It's safe for multiple instances sharing a backend: a block is taken only
+ * if the counter isn't increased by others between the two gets, and the
+ * ids left in a block are just skipped if the instance exits.
+ */
+public class LeasedCounter {
+
+    private static final int MAX_TIMES = 1000;
+
+    private final int schemaBlockSize;
+    private final int taskBlockSize;
+    private final Map<HugeType, Block> blocks;
+
+    public LeasedCounter(HugeConfig config) {
+        this(config.get(CoreOptions.SCHEMA_ID_BLOCK_SIZE),
+             config.get(CoreOptions.TASK_ID_BLOCK_SIZE));
+    }
+
+    public LeasedCounter(int schemaBlockSize, int taskBlockSize) {
+        E.checkArgument(schemaBlockSize > 0 && taskBlockSize > 0,
+                        "The id block size must be > 0, but got %s and %s",
+                        schemaBlockSize, taskBlockSize);
+        this.schemaBlockSize = schemaBlockSize;
+        this.taskBlockSize = taskBlockSize;
+        this.blocks = new ConcurrentHashMap<>();
+    }
+
+    public Id nextId(BackendStore store, HugeType type) {
+        Block block = this.blocks.get(type);
+        while (true) {
+            if (block != null) {
+                long id = block.next();
+                if (id > 0L) {
+                    return IdGenerator.of(id);
+                }
+            }
+            block = this.lease(store, type, block);
+        }
+    }
+
+    public synchronized void setCounterLowest(BackendStore store,
+                                              HugeType type, long lowest) {
+        // The ids left in the leased block may be less than the lowest
+        Block block = this.blocks.remove(type);
+        if (block != null) {
+            block.exhaust();
+        }
+        store.setCounterLowest(type, lowest);
+    }
+
+    public synchronized void reset() {
+        for (Block block : this.blocks.values()) {
+            block.exhaust();
+        }
+        this.blocks.clear();
+    }
+
+    private synchronized Block lease(BackendStore store, HugeType type,
+                                     Block exhausted) {
+        Block block = this.blocks.get(type);
+        if (block != exhausted) {
+            // Another thread has leased a new block or reset the blocks
+            return block;
+        }
+
+        int size = this.blockSize(type);
+        // Do get-increase-get-compare operation
+        long counter = 0L;
+        long expect = -1L;
+        for (int i = 0; i < MAX_TIMES; i++) {
+            counter = store.getCounter(type);
+            if (counter == expect) {
+                break;
+            }
+            // Increase local counter
+            expect = counter + size;
+            // Increase remote counter
+            store.increaseCounter(type, size);
+        }
+
+        E.checkState(counter != 0L, "Please check whether '%s' is OK",
+                     store.provider().type());
+        E.checkState(counter == expect, "'%s' is busy please try again",
+                     store.provider().type());
+
+        block = new Block(counter - size, counter);
+        this.blocks.put(type, block);
+        return block;
+    }
+
+    private int blockSize(HugeType type) {
+        return type == HugeType.TASK ? this.taskBlockSize :
+                                       this.schemaBlockSize;
+    }
+
+    private static final class Block {
+
+        // The ids in range (begin, end] are owned by the block
+        private final AtomicLong current;
+        private final long end;
+
+        public Block(long begin, long end) {
+            this.current = new AtomicLong(begin);
+            this.end = end;
+        }
+
+        public long next() {
+            long id = this.current.incrementAndGet();
+            return id <= this.end ? id : 0L;
+        }
+
+        public void exhaust() {
+            this.current.set(this.end);
+        }
+    }
+}
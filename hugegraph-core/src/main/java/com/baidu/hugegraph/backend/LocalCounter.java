@@ -35,45 +35,23 @@ public class LocalCounter {
         this.counters = new ConcurrentHashMap<>();
     }
 
-    public synchronized Id nextId(HugeType type) {
-        AtomicLong counter = this.counters.get(type);
-        if (counter == null) {
-            counter = new AtomicLong(0);
-            AtomicLong previous = this.counters.putIfAbsent(type, counter);
-            if (previous != null) {
-                counter = previous;
-            }
-        }
-        return IdGenerator.of(counter.incrementAndGet());
+    public Id nextId(HugeType type) {
+        return IdGenerator.of(this.counter(type).incrementAndGet());
     }
 
     public long getCounter(HugeType type) {
-        AtomicLong counter = this.counters.get(type);
-        if (counter == null) {
-            counter = new AtomicLong(0);
-            AtomicLong previous = this.counters.putIfAbsent(type, counter);
-            if (previous != null) {
-                counter = previous;
-            }
-        }
-        return counter.longValue();
+        return this.counter(type).longValue();
     }
 
-    public synchronized void increaseCounter(HugeType type, long increment) {
-        AtomicLong counter = this.counters.get(type);
-        if (counter == null) {
-            counter = new AtomicLong(0);
-            AtomicLong previous = this.counters.putIfAbsent(type, counter);
-            if (previous != null) {
-                counter = previous;
-            }
-        }
-        long oldValue = counter.longValue();
-        AtomicLong value = new AtomicLong(oldValue + increment);
-        this.counters.put(type, value);
+    public void increaseCounter(HugeType type, long increment) {
+        this.counter(type).addAndGet(increment);
     }
 
     public void reset() {
         this.counters.clear();
     }
+
+    private AtomicLong counter(HugeType type) {
+        return this.counters.computeIfAbsent(type, t -> new AtomicLong(0L));
+    }
 }
@@ -28,6 +28,7 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 
+import com.baidu.hugegraph.exception.NotSupportException;
 import com.baidu.hugegraph.util.Log;
 
 public class CacheManager {
@@ -36,6 +37,9 @@ public class CacheManager {
 
     private static CacheManager INSTANCE = new CacheManager();
 
+    public static final String RAM_CACHE = "ram";
+    public static final String SEGMENTED_CACHE = "segmented";
+
     // Check the cache expiration every 30s by default
     private static final long TIMER_TICK_PERIOD = 30;
     // Log if tick cost time > 1000ms
@@ -96,9 +100,31 @@ public class CacheManager {
     }
 
     public Cache cache(String name, int capacity) {
+        return this.cache(name, capacity, RAM_CACHE);
+    }
+
+    public Cache cache(String name, int capacity, String type) {
         if (!this.caches.containsKey(name)) {
-            this.caches.putIfAbsent(name, new RamCache(capacity));
+            this.caches.putIfAbsent(name, newCache(type, capacity));
         }
         return this.caches.get(name);
     }
+
+    public Cache offheapCache(String name, long capacityInBytes) {
+        if (!this.caches.containsKey(name)) {
+            this.caches.putIfAbsent(name, new OffheapCache(capacityInBytes));
+        }
+        return this.caches.get(name);
+    }
+
+    private static Cache newCache(String type, int capacity) {
+        switch (type) {
+            case RAM_CACHE:
+                return new RamCache(capacity);
+            case SEGMENTED_CACHE:
+                return new SegmentedCache(capacity);
+            default:
+                throw new NotSupportException("cache type '%s'", type);
+        }
+    }
 }
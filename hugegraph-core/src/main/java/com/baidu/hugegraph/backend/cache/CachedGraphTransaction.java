@@ -22,14 +22,21 @@ package com.baidu.hugegraph.backend.cache;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.baidu.hugegraph.HugeGraph;
 import com.baidu.hugegraph.backend.cache.CachedBackendStore.QueryId;
 import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.query.IdQuery;
 import com.baidu.hugegraph.backend.query.Query;
+import com.baidu.hugegraph.backend.serializer.BinaryBackendEntry;
+import com.baidu.hugegraph.backend.serializer.BinarySerializer;
+import com.baidu.hugegraph.backend.store.BackendEntry;
 import com.baidu.hugegraph.backend.store.BackendMutation;
 import com.baidu.hugegraph.backend.store.BackendStore;
 import com.baidu.hugegraph.backend.tx.GraphTransaction;
@@ -42,6 +49,8 @@ import com.baidu.hugegraph.structure.HugeEdge;
 import com.baidu.hugegraph.structure.HugeVertex;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.util.Events;
+import com.baidu.hugegraph.util.Bytes;
+import com.baidu.hugegraph.util.InsertionOrderUtil;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
@@ -49,8 +58,17 @@ public final class CachedGraphTransaction extends GraphTransaction {
 
     private final static int MAX_CACHE_EDGES_PER_QUERY = 100;
 
+    // Index of each edge cache, shared like the cache with the same name
+    private static final Map<String, EdgesCacheIndex> EDGES_CACHE_INDEXES =
+                         new ConcurrentHashMap<>();
+
     private final Cache verticesCache;
+    // The off-heap tier of vertex cache, null if disabled
+    private final Cache verticesOffheapCache;
     private final Cache edgesCache;
+    private final EdgesCacheIndex edgesCacheIndex;
+
+    private final int batchSize;
 
     private EventListener storeEventListener;
     private EventListener cacheEventListener;
@@ -62,11 +80,19 @@ public final class CachedGraphTransaction extends GraphTransaction {
 
         int capacity = conf.get(CoreOptions.VERTEX_CACHE_CAPACITY);
         int expire = conf.get(CoreOptions.VERTEX_CACHE_EXPIRE);
-        this.verticesCache = this.cache("vertex", capacity, expire);
+        String type = conf.get(CoreOptions.VERTEX_CACHE_TYPE);
+        this.verticesCache = this.cache("vertex", capacity, expire, type);
+        int offheapSize = conf.get(CoreOptions.VERTEX_CACHE_OFFHEAP_SIZE);
+        this.verticesOffheapCache = this.offheapCache("vertex-offheap",
+                                                      offheapSize, expire);
 
         capacity = conf.get(CoreOptions.EDGE_CACHE_CAPACITY);
         expire = conf.get(CoreOptions.EDGE_CACHE_EXPIRE);
-        this.edgesCache = this.cache("edge", capacity, expire);
+        type = conf.get(CoreOptions.EDGE_CACHE_TYPE);
+        this.edgesCache = this.cache("edge", capacity, expire, type);
+        this.edgesCacheIndex = this.edgesCacheIndex("edge", capacity);
+
+        this.batchSize = conf.get(CoreOptions.QUERY_BATCH_SIZE);
 
         this.listenChanges();
     }
@@ -80,13 +106,80 @@ public final class CachedGraphTransaction extends GraphTransaction {
         }
     }
 
-    private Cache cache(String prefix, int capacity, long expire) {
+    private Cache cache(String prefix, int capacity,
+                        long expire, String type) {
         String name = prefix + "-" + super.graph().name();
-        Cache cache = CacheManager.instance().cache(name, capacity);
+        Cache cache = CacheManager.instance().cache(name, capacity, type);
         cache.expire(expire);
         return cache;
     }
 
+    private Cache offheapCache(String prefix, int sizeInMB, long expire) {
+        if (sizeInMB <= 0) {
+            return null;
+        }
+        if (!(this.serializer instanceof BinarySerializer)) {
+            LOG.warn("The off-heap vertex cache is disabled since it only " +
+                     "works with binary serializer, but got '{}'",
+                     this.serializer.getClass().getSimpleName());
+            return null;
+        }
+        String name = prefix + "-" + super.graph().name();
+        long capacity = sizeInMB * Bytes.MB;
+        Cache cache = CacheManager.instance().offheapCache(name, capacity);
+        cache.expire(expire);
+        return cache;
+    }
+
+    private EdgesCacheIndex edgesCacheIndex(String prefix, int capacity) {
+        String name = prefix + "-" + super.graph().name();
+        /*
+         * Each cached query is indexed by up to 2 vertices, let the index
+         * hold twice as many queries as the cache
+         */
+        long indexCapacity = 2L * capacity;
+        return EDGES_CACHE_INDEXES.computeIfAbsent(name, k -> {
+            return new EdgesCacheIndex(this.edgesCache, indexCapacity);
+        });
+    }
+
+    /**
+     * Get the metrics of the graph caches shared by all the transactions of
+     * the graph, return null if no transaction has created them yet
+     */
+    public static Map<String, Object> cacheMetrics(String graph) {
+        Map<String, Cache> caches = CacheManager.instance().caches();
+        Cache verticesCache = caches.get("vertex-" + graph);
+        Cache edgesCache = caches.get("edge-" + graph);
+        if (verticesCache == null || edgesCache == null) {
+            return null;
+        }
+        Map<String, Object> metrics = InsertionOrderUtil.newMap();
+        metrics.put("vertex_cache", cacheMetrics(verticesCache));
+        Cache verticesOffheapCache = caches.get("vertex-offheap-" + graph);
+        if (verticesOffheapCache != null) {
+            metrics.put("vertex_offheap_cache",
+                        cacheMetrics(verticesOffheapCache));
+        }
+        Map<String, Object> edgeMetrics = cacheMetrics(edgesCache);
+        EdgesCacheIndex edgesCacheIndex = EDGES_CACHE_INDEXES.get(
+                                          "edge-" + graph);
+        if (edgesCacheIndex != null) {
+            edgeMetrics.putAll(edgesCacheIndex.metrics());
+        }
+        metrics.put("edge_cache", edgeMetrics);
+        return metrics;
+    }
+
+    private static Map<String, Object> cacheMetrics(Cache cache) {
+        Map<String, Object> metrics = InsertionOrderUtil.newMap();
+        metrics.put("capacity", cache.capacity());
+        metrics.put("size", cache.size());
+        metrics.put("hits", cache.hits());
+        metrics.put("miss", cache.miss());
+        return metrics;
+    }
+
     private void listenChanges() {
         // Listen store event: "store.init", "store.clear", ...
         Set<String> storeEvents = ImmutableSet.of(Events.STORE_INIT,
@@ -96,8 +189,8 @@ public final class CachedGraphTransaction extends GraphTransaction {
             if (storeEvents.contains(event.name())) {
                 LOG.debug("Graph {} clear graph cache on event '{}'",
                           this.graph(), event.name());
-                this.verticesCache.clear();
-                this.edgesCache.clear();
+                this.clearVerticesCache();
+                this.edgesCacheIndex.clear();
                 return true;
             }
             return false;
@@ -113,16 +206,20 @@ public final class CachedGraphTransaction extends GraphTransaction {
             if (args[0].equals("invalid")) {
                 Id id = (Id) args[1];
                 if (this.verticesCache.get(id) != null) {
-                    // Invalidate vertex cache
-                    this.verticesCache.invalidate(id);
+                    // Invalidate vertex cache and edges cache of the vertex
+                    this.invalidateVertexCache(id);
+                    this.edgesCacheIndex.invalidate(id);
                 } else if (this.edgesCache.get(id) != null) {
                     // Invalidate edge cache
                     this.edgesCache.invalidate(id);
+                } else {
+                    // Invalidate the vertex only in off-heap cache if any
+                    this.invalidateVertexCache(id);
                 }
                 return true;
             } else if (args[0].equals("clear")) {
-                this.verticesCache.clear();
-                this.edgesCache.clear();
+                this.clearVerticesCache();
+                this.edgesCacheIndex.clear();
                 return true;
             }
             return false;
@@ -152,29 +249,91 @@ public final class CachedGraphTransaction extends GraphTransaction {
     }
 
     private Iterator<HugeVertex> queryVerticesByIds(IdQuery query) {
-        IdQuery newQuery = new IdQuery(HugeType.VERTEX, query);
         List<HugeVertex> vertices = new ArrayList<>(query.ids().size());
+        List<Id> missedIds = new ArrayList<>();
         for (Id vertexId : query.ids()) {
             Object vertex = this.verticesCache.get(vertexId);
+            if (vertex == null) {
+                vertex = this.queryVertexFromOffheap(vertexId);
+            }
             if (vertex != null) {
                 vertices.add((HugeVertex) vertex);
             } else {
-                newQuery.query(vertexId);
+                missedIds.add(vertexId);
             }
         }
-        if (vertices.isEmpty()) {
+        if (missedIds.isEmpty()) {
+            return vertices.iterator();
+        }
+        if (vertices.isEmpty() && missedIds.size() <= this.batchSize) {
             // Just use the origin query if find none from the cache
-            newQuery = query;
+            this.queryVerticesByIds(query, vertices);
+            return vertices.iterator();
         }
-        if (!newQuery.empty()) {
-            Iterator<HugeVertex> rs = super.queryVerticesFromBackend(newQuery);
+
+        // Fetch the missed vertices from backend in batches of multi-get
+        for (int i = 0; i < missedIds.size(); i += this.batchSize) {
+            int end = Math.min(i + this.batchSize, missedIds.size());
+            IdQuery newQuery = new IdQuery(HugeType.VERTEX, query);
+            for (Id vertexId : missedIds.subList(i, end)) {
+                newQuery.query(vertexId);
+            }
+            this.queryVerticesByIds(newQuery, vertices);
+        }
+        return vertices.iterator();
+    }
+
+    private void queryVerticesByIds(IdQuery query, List<HugeVertex> results) {
+        if (this.verticesOffheapCache == null) {
+            Iterator<HugeVertex> rs = super.queryVerticesFromBackend(query);
             while (rs.hasNext()) {
                 HugeVertex vertex = rs.next();
-                vertices.add(vertex);
+                results.add(vertex);
                 this.verticesCache.update(vertex.id(), vertex);
             }
+            return;
+        }
+
+        // Cache the entries returned by the store instead of serializing again
+        Iterator<BackendEntry> entries = this.query(query);
+        while (entries.hasNext()) {
+            BackendEntry entry = entries.next();
+            HugeVertex vertex = this.serializer.readVertex(this.graph(), entry);
+            assert vertex != null;
+            results.add(vertex);
+            this.verticesCache.update(vertex.id(), vertex);
+            if (entry instanceof BinaryBackendEntry) {
+                this.verticesOffheapCache.update(vertex.id(), entry);
+            }
+        }
+    }
+
+    private HugeVertex queryVertexFromOffheap(Id id) {
+        if (this.verticesOffheapCache == null) {
+            return null;
+        }
+        BackendEntry entry = (BackendEntry) this.verticesOffheapCache.get(id);
+        if (entry == null) {
+            return null;
+        }
+        // Deserialize the vertex and promote it to the on-heap cache
+        HugeVertex vertex = this.serializer.readVertex(this.graph(), entry);
+        this.verticesCache.update(vertex.id(), vertex);
+        return vertex;
+    }
+
+    private void invalidateVertexCache(Id id) {
+        this.verticesCache.invalidate(id);
+        if (this.verticesOffheapCache != null) {
+            this.verticesOffheapCache.invalidate(id);
+        }
+    }
+
+    private void clearVerticesCache() {
+        this.verticesCache.clear();
+        if (this.verticesOffheapCache != null) {
+            this.verticesOffheapCache.clear();
         }
-        return vertices.iterator();
     }
 
     @Override
@@ -184,7 +343,7 @@ public final class CachedGraphTransaction extends GraphTransaction {
             return super.queryEdgesFromBackend(query);
         }
 
-        Id id = new QueryId(query);
+        QueryId id = new QueryId(query);
         @SuppressWarnings("unchecked")
         List<HugeEdge> edges = (List<HugeEdge>) this.edgesCache.get(id);
         if (edges == null) {
@@ -192,18 +351,18 @@ public final class CachedGraphTransaction extends GraphTransaction {
             edges = ImmutableList.copyOf(super.queryEdgesFromBackend(query));
             if (edges.size() <= MAX_CACHE_EDGES_PER_QUERY) {
                 this.edgesCache.update(id, edges);
+                this.edgesCacheIndex.update(id, query);
             }
         }
         return edges.iterator();
     }
 
-
     @Override
     protected void commitMutation2Backend(BackendMutation... mutations) {
         // Collect changes before commit
         Collection<HugeVertex> changes = this.verticesInTxUpdated();
         Collection<HugeVertex> deletions = this.verticesInTxRemoved();
-        int edgesInTxSize = this.edgesInTxSize();
+        Map<Id, Set<Id>> edgesChanges = this.edgesInTxChanges(deletions);
 
         try {
             super.commitMutation2Backend(mutations);
@@ -211,19 +370,44 @@ public final class CachedGraphTransaction extends GraphTransaction {
             for (HugeVertex vertex : changes) {
                 vertex = vertex.resetTx();
                 this.verticesCache.updateIfPresent(vertex.id(), vertex);
+                if (this.verticesOffheapCache != null) {
+                    // Serialize it again when it's queried next time
+                    this.verticesOffheapCache.invalidate(vertex.id());
+                }
             }
         } finally {
             // Update removed vertex in cache whatever success or fail
             for (HugeVertex vertex : deletions) {
-                this.verticesCache.invalidate(vertex.id());
+                this.invalidateVertexCache(vertex.id());
+            }
+
+            // Update edge cache of the vertices if any edges change
+            if (!edgesChanges.isEmpty()) {
+                this.edgesCacheIndex.invalidate(edgesChanges);
             }
+        }
+    }
 
-            // Update edge cache if any edges change
-            if (edgesInTxSize > 0) {
-                // TODO: Use a more precise strategy to update the edge cache
-                this.edgesCache.clear();
+    private Map<Id, Set<Id>> edgesInTxChanges(Collection<HugeVertex> removed) {
+        // Collect the labels of changed edges of each related vertex
+        Map<Id, Set<Id>> changes = new HashMap<>();
+        List<HugeEdge> edges = new ArrayList<>(this.edgesInTxSize());
+        edges.addAll(this.edgesInTxUpdated());
+        edges.addAll(this.edgesInTxRemoved());
+        for (HugeEdge edge : edges) {
+            Id label = edge.schemaLabel().id();
+            for (Id vertex : ImmutableList.of(edge.ownerVertex().id(),
+                                              edge.otherVertex().id())) {
+                Set<Id> labels = changes.computeIfAbsent(vertex,
+                                                         k -> new HashSet<>());
+                labels.add(label);
             }
         }
+        // Edges of any label of the removed vertices may be changed
+        for (HugeVertex vertex : removed) {
+            changes.put(vertex.id(), ImmutableSet.of());
+        }
+        return changes;
     }
 
     @Override
@@ -233,8 +417,7 @@ public final class CachedGraphTransaction extends GraphTransaction {
         } finally {
             // Update edge cache if needed (any edge-index is deleted)
             if (indexLabel.baseType() == HugeType.EDGE_LABEL) {
-                // TODO: Use a more precise strategy to update the edge cache
-                this.edgesCache.clear();
+                this.edgesCacheIndex.clear();
             }
         }
     }
@@ -41,8 +41,13 @@ import com.google.common.collect.ImmutableSet;
 
 public final class CachedSchemaTransaction extends SchemaTransaction {
 
+    // NOTE: the snapshot of a graph is shared like the caches of it
+    private static final Map<String, SchemaSnapshot> SNAPSHOTS =
+                                                     new ConcurrentHashMap<>();
+
     private final Cache idCache;
     private final Cache nameCache;
+    private final SchemaSnapshot snapshot;
 
     private EventListener storeEventListener;
     private EventListener cacheEventListener;
@@ -54,6 +59,9 @@ public final class CachedSchemaTransaction extends SchemaTransaction {
 
         this.idCache = this.cache("schema-id");
         this.nameCache = this.cache("schema-name");
+        this.snapshot = SNAPSHOTS.computeIfAbsent(graph.name(), name -> {
+            return new SchemaSnapshot();
+        });
 
         this.cachedTypes = new ConcurrentHashMap<>();
 
@@ -74,8 +82,9 @@ public final class CachedSchemaTransaction extends SchemaTransaction {
 
         final String name = prefix + "-" + super.graph().name();
         final int capacity = conf.get(CoreOptions.SCHEMA_CACHE_CAPACITY);
+        final String type = conf.get(CoreOptions.SCHEMA_CACHE_TYPE);
         // NOTE: must disable schema cache-expire due to getAllSchema()
-        return CacheManager.instance().cache(name, capacity);
+        return CacheManager.instance().cache(name, capacity, type);
     }
 
     private void listenChanges() {
@@ -89,6 +98,7 @@ public final class CachedSchemaTransaction extends SchemaTransaction {
                           this.graph(), event.name());
                 this.idCache.clear();
                 this.nameCache.clear();
+                this.snapshot.clear();
                 this.cachedTypes.clear();
                 return true;
             }
@@ -115,10 +125,13 @@ public final class CachedSchemaTransaction extends SchemaTransaction {
                                                  schema.name());
                     this.nameCache.invalidate(prefixedName);
                 }
+                // The type of the id is unknown, so reset the snapshot
+                this.snapshot.clear();
                 return true;
             } else if (args[0].equals("clear")) {
                 this.idCache.clear();
                 this.nameCache.clear();
+                this.snapshot.clear();
                 this.cachedTypes.clear();
                 return true;
             }
@@ -168,11 +181,21 @@ public final class CachedSchemaTransaction extends SchemaTransaction {
 
         Id prefixedName = generateId(schema.type(), schema.name());
         this.nameCache.update(prefixedName, schema);
+
+        this.snapshot.update(schema);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     protected <T extends SchemaElement> T getSchema(HugeType type, Id id) {
+        // Try the snapshot first to avoid building the prefixed id
+        SchemaElement cached = this.snapshot.get(type, id);
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        // The schema may be removed after looking up it
+        long generation = this.snapshot.generation();
         Id prefixedId = generateId(type, id);
         Object value = this.idCache.get(prefixedId);
         if (value == null) {
@@ -187,6 +210,9 @@ public final class CachedSchemaTransaction extends SchemaTransaction {
                 this.nameCache.update(prefixedName, schema);
             }
         }
+        if (value != null) {
+            this.snapshot.update((SchemaElement) value, generation);
+        }
         return (T) value;
     }
 
@@ -194,6 +220,7 @@ public final class CachedSchemaTransaction extends SchemaTransaction {
     @SuppressWarnings("unchecked")
     protected <T extends SchemaElement> T getSchema(HugeType type,
                                                     String name) {
+        long generation = this.snapshot.generation();
         Id prefixedName = generateId(type, name);
         Object value = this.nameCache.get(prefixedName);
         if (value == null) {
@@ -206,6 +233,7 @@ public final class CachedSchemaTransaction extends SchemaTransaction {
                 SchemaElement schema = (SchemaElement) value;
                 Id prefixedId = generateId(schema.type(), schema.id());
                 this.idCache.update(prefixedId, schema);
+                this.snapshot.update(schema, generation);
             }
         }
         return (T) value;
@@ -220,10 +248,13 @@ public final class CachedSchemaTransaction extends SchemaTransaction {
         if (value != null) {
             this.idCache.invalidate(prefixedId);
 
-            schema = (SchemaElement) value;
-            Id prefixedName = generateId(schema.type(), schema.name());
+            SchemaElement cached = (SchemaElement) value;
+            Id prefixedName = generateId(cached.type(), cached.name());
             this.nameCache.invalidate(prefixedName);
         }
+
+        // Invalidate after the id cache to skip the readers who hit it
+        this.snapshot.invalidate(schema.type(), schema.id());
     }
 
     @Override
@@ -241,6 +272,7 @@ public final class CachedSchemaTransaction extends SchemaTransaction {
             });
             return results;
         } else {
+            long generation = this.snapshot.generation();
             List<T> results = super.getAllSchema(type);
             long free = this.idCache.capacity() - this.idCache.size();
             if (results.size() <= free) {
@@ -251,6 +283,8 @@ public final class CachedSchemaTransaction extends SchemaTransaction {
 
                     Id prefixedName = generateId(schema.type(), schema.name());
                     this.nameCache.update(prefixedName, schema);
+
+                    this.snapshot.update(schema, generation);
                 }
                 this.cachedTypes.putIfAbsent(type, true);
             }
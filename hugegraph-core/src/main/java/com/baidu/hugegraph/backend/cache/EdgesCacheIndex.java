@@ -0,0 +1,306 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.cache;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.baidu.hugegraph.backend.cache.CachedBackendStore.QueryId;
+import com.baidu.hugegraph.backend.id.EdgeId;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.query.ConditionQuery;
+import com.baidu.hugegraph.backend.query.Query;
+import com.baidu.hugegraph.type.define.HugeKeys;
+import com.baidu.hugegraph.util.InsertionOrderUtil;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Index the queries cached in an edge cache by the vertices and edge labels
+ * they are related to, so that an edge change just needs to invalidate the
+ * queries of its owner vertex and other vertex instead of the whole cache.
+ * The queries that can't be attributed to some vertices (like querying edges
+ * by label or by property) are invalidated on any edge change.
+ * NOTE: the index may keep some stale queries that have been evicted from
+ * the cache, once the number of indexed queries exceeds the capacity, the
+ * oldest indexed queries are evicted one by one from both the index and the
+ * cache, which are most likely the stale ones.
+ */
+final class EdgesCacheIndex {
+
+    private static final Set<Id> ALL_LABELS = ImmutableSet.of();
+
+    private final Cache cache;
+    private final long capacity;
+
+    // Map vertex id to the cached queries related to it and their labels
+    private final ConcurrentMap<Id, Map<QueryId, Set<Id>>> vertexQueries;
+    private final Set<QueryId> unindexedQueries;
+    private final AtomicLong size;
+
+    // The index entries in insertion order, maybe including removed ones
+    private final Queue<Entry> entries;
+    private final AtomicLong queued;
+
+    // Counters of eviction causes
+    private final AtomicLong invalidatedByVertex;
+    private final AtomicLong invalidatedUnindexed;
+    private final AtomicLong evictedByOverflow;
+    private final AtomicLong cleared;
+
+    public EdgesCacheIndex(Cache cache, long capacity) {
+        this.cache = cache;
+        this.capacity = capacity;
+        this.vertexQueries = new ConcurrentHashMap<>();
+        this.unindexedQueries = ConcurrentHashMap.newKeySet();
+        this.size = new AtomicLong(0L);
+        this.entries = new ConcurrentLinkedQueue<>();
+        this.queued = new AtomicLong(0L);
+
+        this.invalidatedByVertex = new AtomicLong(0L);
+        this.invalidatedUnindexed = new AtomicLong(0L);
+        this.evictedByOverflow = new AtomicLong(0L);
+        this.cleared = new AtomicLong(0L);
+    }
+
+    public void update(QueryId id, Query query) {
+        Set<Id> vertices = new HashSet<>();
+        Set<Id> labels = new HashSet<>();
+        if (!collectVerticesAndLabels(query, vertices, labels)) {
+            if (this.unindexedQueries.add(id)) {
+                this.size.incrementAndGet();
+                this.enqueue(new Entry(null, id));
+            }
+        } else {
+            Set<Id> queryLabels = labels.isEmpty() ? ALL_LABELS :
+                                  ImmutableSet.copyOf(labels);
+            for (Id vertex : vertices) {
+                this.vertexQueries.compute(vertex, (v, queries) -> {
+                    if (queries == null) {
+                        queries = new ConcurrentHashMap<>();
+                    }
+                    if (queries.put(id, queryLabels) == null) {
+                        this.size.incrementAndGet();
+                        this.enqueue(new Entry(vertex, id));
+                    }
+                    return queries;
+                });
+            }
+        }
+
+        this.evictOverflow();
+    }
+
+    /**
+     * Invalidate the cached queries related to the changed vertices.
+     * @param changes map of vertex id to the labels of its changed edges,
+     *                an empty labels set means edges of any label changed
+     */
+    public void invalidate(Map<Id, Set<Id>> changes) {
+        for (Map.Entry<Id, Set<Id>> change : changes.entrySet()) {
+            Set<Id> labels = change.getValue();
+            this.vertexQueries.computeIfPresent(change.getKey(), (v, qs) -> {
+                Iterator<Map.Entry<QueryId, Set<Id>>> iter;
+                for (iter = qs.entrySet().iterator(); iter.hasNext();) {
+                    Map.Entry<QueryId, Set<Id>> query = iter.next();
+                    if (matchLabels(query.getValue(), labels)) {
+                        this.cache.invalidate(query.getKey());
+                        iter.remove();
+                        this.size.decrementAndGet();
+                        this.invalidatedByVertex.incrementAndGet();
+                    }
+                }
+                return qs.isEmpty() ? null : qs;
+            });
+        }
+
+        // The unindexed queries may be related to any edge
+        Iterator<QueryId> iter = this.unindexedQueries.iterator();
+        while (iter.hasNext()) {
+            QueryId query = iter.next();
+            this.cache.invalidate(query);
+            iter.remove();
+            this.size.decrementAndGet();
+            this.invalidatedUnindexed.incrementAndGet();
+        }
+    }
+
+    public void invalidate(Id vertex) {
+        this.invalidate(ImmutableMap.of(vertex, ALL_LABELS));
+    }
+
+    public void clear() {
+        this.cleared.incrementAndGet();
+        this.doClear();
+    }
+
+    public long size() {
+        return this.size.get();
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = InsertionOrderUtil.newMap();
+        metrics.put("indexed_queries", this.size.get());
+        metrics.put("invalidated_by_vertex", this.invalidatedByVertex.get());
+        metrics.put("invalidated_unindexed", this.invalidatedUnindexed.get());
+        metrics.put("cleared", this.cleared.get());
+        metrics.put("evicted_by_overflow", this.evictedByOverflow.get());
+        return metrics;
+    }
+
+    private void doClear() {
+        this.cache.clear();
+        this.vertexQueries.clear();
+        this.unindexedQueries.clear();
+        this.entries.clear();
+        this.queued.set(0L);
+        this.size.set(0L);
+    }
+
+    private void enqueue(Entry entry) {
+        this.entries.add(entry);
+        this.queued.incrementAndGet();
+    }
+
+    private void evictOverflow() {
+        // Evict the oldest queries from both the index and the cache
+        while (this.size.get() > this.capacity) {
+            Entry entry = this.entries.poll();
+            if (entry == null) {
+                break;
+            }
+            this.queued.decrementAndGet();
+            if (this.remove(entry)) {
+                this.cache.invalidate(entry.query);
+                this.evictedByOverflow.incrementAndGet();
+            }
+        }
+
+        /*
+         * The entries invalidated by vertex are left in the queue, drop them
+         * if the queue is much longer than the index, and requeue the alive
+         */
+        long rounds = this.queued.get();
+        while (this.queued.get() > 2L * this.capacity && rounds-- > 0L) {
+            Entry entry = this.entries.poll();
+            if (entry == null) {
+                break;
+            }
+            this.queued.decrementAndGet();
+            if (this.contains(entry)) {
+                this.enqueue(entry);
+            }
+        }
+    }
+
+    private boolean contains(Entry entry) {
+        if (entry.vertex == null) {
+            return this.unindexedQueries.contains(entry.query);
+        }
+        Map<QueryId, Set<Id>> queries = this.vertexQueries.get(entry.vertex);
+        return queries != null && queries.containsKey(entry.query);
+    }
+
+    private boolean remove(Entry entry) {
+        boolean removed;
+        if (entry.vertex == null) {
+            removed = this.unindexedQueries.remove(entry.query);
+        } else {
+            Map<QueryId, Set<Id>> queries = this.vertexQueries.get(
+                                            entry.vertex);
+            removed = queries != null && queries.remove(entry.query) != null;
+            this.vertexQueries.computeIfPresent(entry.vertex, (v, qs) -> {
+                return qs.isEmpty() ? null : qs;
+            });
+        }
+        if (removed) {
+            this.size.decrementAndGet();
+        }
+        return removed;
+    }
+
+    private static boolean matchLabels(Set<Id> queryLabels,
+                                       Set<Id> changedLabels) {
+        if (queryLabels.isEmpty() || changedLabels.isEmpty()) {
+            return true;
+        }
+        for (Id label : changedLabels) {
+            if (queryLabels.contains(label)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean collectVerticesAndLabels(Query query,
+                                                    Set<Id> vertices,
+                                                    Set<Id> labels) {
+        if (query instanceof ConditionQuery) {
+            ConditionQuery cq = (ConditionQuery) query;
+            if (!cq.ids().isEmpty()) {
+                return false;
+            }
+            Object owner = cq.condition(HugeKeys.OWNER_VERTEX);
+            if (!(owner instanceof Id)) {
+                // Query edges by label or property, or with multi owners
+                return false;
+            }
+            vertices.add((Id) owner);
+            Object label = cq.condition(HugeKeys.LABEL);
+            if (label instanceof Id) {
+                labels.add((Id) label);
+            }
+            return true;
+        }
+
+        if (query.ids().isEmpty()) {
+            return false;
+        }
+        for (Id id : query.ids()) {
+            if (!(id instanceof EdgeId)) {
+                return false;
+            }
+            EdgeId edgeId = (EdgeId) id;
+            vertices.add(edgeId.ownerVertexId());
+            vertices.add(edgeId.otherVertexId());
+            labels.add(edgeId.edgeLabelId());
+        }
+        return true;
+    }
+
+    private static final class Entry {
+
+        // The vertex which the query is indexed by, null if unindexed
+        private final Id vertex;
+        private final QueryId query;
+
+        public Entry(Id vertex, QueryId query) {
+            this.vertex = vertex;
+            this.query = query;
+        }
+    }
+}
@@ -0,0 +1,410 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.serializer.BinaryBackendEntry;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
+import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
+import com.baidu.hugegraph.perf.PerfUtil.Watched;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.type.define.SerialEnum;
+import com.baidu.hugegraph.util.Bytes;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.Log;
+
+/**
+ * A cache stores the serialized BinaryBackendEntry in off-heap memory, the
+ * memory is limited by bytes instead of items.
+ *
+ * The memory is split into fixed size chunks which are written in turn like
+ * a ring buffer, when all chunks are used the oldest chunk is recycled and
+ * all the items in it are evicted, so the eviction is FIFO in chunk
+ * granularity. Reading an item doesn't lock, it just validates whether the
+ * chunk has been recycled during reading.
+ */
+public class OffheapCache implements Cache {
+
+    private static final Logger LOG = Log.logger(Cache.class);
+
+    private static final int MIN_CHUNKS = 4;
+    private static final int MAX_CHUNK_SIZE = 4 * (int) Bytes.MB;
+    private static final int MIN_CHUNK_SIZE = 4 * (int) Bytes.KB;
+
+    private final LongAdder hits;
+    private final LongAdder miss;
+
+    // Default expire time(ms)
+    private volatile long expire;
+
+    // NOTE: the capacity in bytes, not in items
+    private final long capacity;
+    private final int chunkSize;
+    private final ByteBuffer[] chunks;
+    private final List<List<Id>> chunkKeys;
+    private final ConcurrentMap<Id, Location> locations;
+
+    // Lock the chunks when recycling, readers do optimistic read
+    private final StampedLock recycleLock;
+    // Guarded by this
+    private int writingChunk;
+    private int writingOffset;
+
+    public OffheapCache(long capacity) {
+        if (capacity < 0L) {
+            capacity = 0L;
+        }
+        this.capacity = capacity;
+        this.hits = new LongAdder();
+        this.miss = new LongAdder();
+        this.expire = 0L;
+
+        long chunkSize = Math.min(capacity / MIN_CHUNKS, MAX_CHUNK_SIZE);
+        this.chunkSize = (int) Math.max(chunkSize, MIN_CHUNK_SIZE);
+        int chunks = capacity <= 0L ? 0 : (int) (capacity / this.chunkSize);
+        this.chunks = new ByteBuffer[chunks];
+        this.chunkKeys = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            this.chunkKeys.add(new ArrayList<>());
+        }
+        this.locations = new ConcurrentHashMap<>();
+
+        this.recycleLock = new StampedLock();
+        this.writingChunk = 0;
+        this.writingOffset = 0;
+    }
+
+    @Watched(prefix = "offheapcache")
+    @Override
+    public Object get(Id id) {
+        if (id == null) {
+            return null;
+        }
+        Object value = this.read(id);
+        if (value == null) {
+            this.miss.increment();
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("OffheapCache missed '{}'", id);
+            }
+        } else {
+            this.hits.increment();
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("OffheapCache cached '{}'", id);
+            }
+        }
+        return value;
+    }
+
+    @Watched(prefix = "offheapcache")
+    @Override
+    public Object getOrFetch(Id id, Function<Id, Object> fetcher) {
+        if (id == null) {
+            return null;
+        }
+        Object value = this.get(id);
+        if (value == null) {
+            // Do fetch and update the cache
+            value = fetcher.apply(id);
+            this.update(id, value);
+        }
+        return value;
+    }
+
+    @Watched(prefix = "offheapcache")
+    @Override
+    public void update(Id id, Object value) {
+        if (id == null || value == null || this.chunks.length == 0) {
+            return;
+        }
+        E.checkArgument(value instanceof BinaryBackendEntry,
+                        "OffheapCache can only cache BinaryBackendEntry, " +
+                        "but got %s", value.getClass().getSimpleName());
+        byte[] bytes = encode((BinaryBackendEntry) value);
+        if (bytes.length > this.chunkSize) {
+            // Too large to cache
+            this.invalidate(id);
+            return;
+        }
+        this.write(id, bytes);
+    }
+
+    @Watched(prefix = "offheapcache")
+    @Override
+    public void updateIfAbsent(Id id, Object value) {
+        if (id == null || this.locations.containsKey(id)) {
+            return;
+        }
+        this.update(id, value);
+    }
+
+    @Watched(prefix = "offheapcache")
+    @Override
+    public void updateIfPresent(Id id, Object value) {
+        if (id == null || !this.locations.containsKey(id)) {
+            return;
+        }
+        this.update(id, value);
+    }
+
+    @Watched(prefix = "offheapcache")
+    @Override
+    public void invalidate(Id id) {
+        if (id == null) {
+            return;
+        }
+        // The space would be reused when the chunk is recycled
+        this.locations.remove(id);
+    }
+
+    @Watched(prefix = "offheapcache")
+    @Override
+    public void traverse(Consumer<Object> consumer) {
+        E.checkNotNull(consumer, "consumer");
+        for (Id id : this.locations.keySet()) {
+            Object value = this.read(id);
+            if (value != null) {
+                consumer.accept(value);
+            }
+        }
+    }
+
+    @Watched(prefix = "offheapcache")
+    @Override
+    public synchronized void clear() {
+        long stamp = this.recycleLock.writeLock();
+        try {
+            this.locations.clear();
+            for (List<Id> keys : this.chunkKeys) {
+                keys.clear();
+            }
+            this.writingChunk = 0;
+            this.writingOffset = 0;
+        } finally {
+            this.recycleLock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void expire(long seconds) {
+        // Convert the unit from seconds to milliseconds
+        this.expire = seconds * 1000;
+    }
+
+    @Override
+    public long expire() {
+        return this.expire;
+    }
+
+    @Override
+    public long tick() {
+        long expireTime = this.expire;
+        if (expireTime <= 0) {
+            return 0L;
+        }
+
+        int expireItems = 0;
+        long current = now();
+        for (Map.Entry<Id, Location> e : this.locations.entrySet()) {
+            if (current - e.getValue().time > expireTime &&
+                this.locations.remove(e.getKey(), e.getValue())) {
+                expireItems++;
+            }
+        }
+
+        if (expireItems > 0) {
+            LOG.debug("Cache expired {} items cost {}ms (size {}, expire {}ms)",
+                      expireItems, now() - current, this.size(), expireTime);
+        }
+        return expireItems;
+    }
+
+    @Override
+    public long capacity() {
+        return this.capacity;
+    }
+
+    @Override
+    public long size() {
+        return this.locations.size();
+    }
+
+    @Override
+    public long hits() {
+        return this.hits.sum();
+    }
+
+    @Override
+    public long miss() {
+        return this.miss.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("OffheapCache{capacity=%s, size=%s}",
+                             this.capacity, this.size());
+    }
+
+    private BinaryBackendEntry read(Id id) {
+        byte[] bytes;
+        long stamp = this.recycleLock.tryOptimisticRead();
+        Location location = this.locations.get(id);
+        if (location == null) {
+            return null;
+        }
+        bytes = location.read(this.chunks);
+        if (!this.recycleLock.validate(stamp)) {
+            // The chunk may be recycled during reading, read again with lock
+            stamp = this.recycleLock.readLock();
+            try {
+                location = this.locations.get(id);
+                if (location == null) {
+                    return null;
+                }
+                bytes = location.read(this.chunks);
+            } finally {
+                this.recycleLock.unlockRead(stamp);
+            }
+        }
+        return decode(bytes);
+    }
+
+    private synchronized void write(Id id, byte[] bytes) {
+        if (this.writingOffset + bytes.length > this.chunkSize) {
+            // Switch to the next chunk, recycle it if it's used
+            int next = (this.writingChunk + 1) % this.chunks.length;
+            this.recycle(next);
+            this.writingChunk = next;
+            this.writingOffset = 0;
+        }
+
+        ByteBuffer chunk = this.chunks[this.writingChunk];
+        if (chunk == null) {
+            chunk = ByteBuffer.allocateDirect(this.chunkSize);
+            this.chunks[this.writingChunk] = chunk;
+        }
+        ByteBuffer buffer = chunk.duplicate();
+        buffer.position(this.writingOffset);
+        buffer.put(bytes);
+
+        Location location = new Location(this.writingChunk,
+                                         this.writingOffset, bytes.length);
+        this.writingOffset += bytes.length;
+        this.chunkKeys.get(this.writingChunk).add(id);
+        // Publish the location after the bytes written
+        this.locations.put(id, location);
+    }
+
+    private void recycle(int chunk) {
+        List<Id> keys = this.chunkKeys.get(chunk);
+        if (keys.isEmpty()) {
+            return;
+        }
+        long stamp = this.recycleLock.writeLock();
+        try {
+            for (Id key : keys) {
+                this.locations.computeIfPresent(key, (k, location) -> {
+                    return location.chunk == chunk ? null : location;
+                });
+            }
+        } finally {
+            this.recycleLock.unlockWrite(stamp);
+        }
+        LOG.debug("OffheapCache recycled chunk {} with {} items",
+                  chunk, keys.size());
+        keys.clear();
+    }
+
+    private static final long now() {
+        return System.currentTimeMillis();
+    }
+
+    private static byte[] encode(BinaryBackendEntry entry) {
+        Collection<BackendColumn> columns = entry.columns();
+        byte[] id = ((Id) entry.id()).asBytes();
+        int size = 1 + 4 + id.length + 4;
+        for (BackendColumn column : columns) {
+            size += 4 + column.name.length + 4 + column.value.length;
+        }
+
+        BytesBuffer buffer = BytesBuffer.allocate(size);
+        buffer.write(entry.type().code());
+        buffer.writeInt(id.length);
+        buffer.write(id);
+        buffer.writeInt(columns.size());
+        for (BackendColumn column : columns) {
+            buffer.writeInt(column.name.length);
+            buffer.write(column.name);
+            buffer.writeInt(column.value.length);
+            buffer.write(column.value);
+        }
+        return buffer.bytes();
+    }
+
+    private static BinaryBackendEntry decode(byte[] bytes) {
+        BytesBuffer buffer = BytesBuffer.wrap(bytes);
+        HugeType type = SerialEnum.fromCode(HugeType.class, buffer.read());
+        byte[] id = buffer.read(buffer.readInt());
+        BinaryBackendEntry entry = new BinaryBackendEntry(type, id);
+        int columns = buffer.readInt();
+        for (int i = 0; i < columns; i++) {
+            byte[] name = buffer.read(buffer.readInt());
+            byte[] value = buffer.read(buffer.readInt());
+            entry.column(name, value);
+        }
+        return entry;
+    }
+
+    private static final class Location {
+
+        private final int chunk;
+        private final int offset;
+        private final int length;
+        private final long time;
+
+        public Location(int chunk, int offset, int length) {
+            this.chunk = chunk;
+            this.offset = offset;
+            this.length = length;
+            this.time = now();
+        }
+
+        public byte[] read(ByteBuffer[] chunks) {
+            ByteBuffer buffer = chunks[this.chunk].duplicate();
+            buffer.position(this.offset);
+            byte[] bytes = new byte[this.length];
+            buffer.get(bytes);
+            return bytes;
+        }
+    }
+}
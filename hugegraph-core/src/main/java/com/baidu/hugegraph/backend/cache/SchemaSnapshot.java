@@ -0,0 +1,139 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.cache;
+
+import java.util.Arrays;
+
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.schema.SchemaElement;
+import com.baidu.hugegraph.type.HugeType;
+
+/**
+ * Schema elements indexed by the numeric schema id in an array per schema
+ * type, it's used to look up schema by id without building the string key
+ * of the schema cache, e.g. for each edge when deserializing edges.
+ * The arrays are immutable: a writer copies the array of the type, updates
+ * it and swaps the whole snapshot, so readers never take locks.
+ * Schema with a non-numeric or too large id is not kept, and the caller
+ * should fall back to the schema cache for them.
+ * Each invalidation or clear bumps the generation, so that a reader which
+ * looked up the schema before it can't put the stale schema back.
+ */
+final class SchemaSnapshot {
+
+    private static final int MAX_ID = 1 << 16;
+    private static final HugeType[] TYPES = new HugeType[]{
+            HugeType.PROPERTY_KEY,
+            HugeType.VERTEX_LABEL,
+            HugeType.EDGE_LABEL,
+            HugeType.INDEX_LABEL
+    };
+
+    private volatile SchemaElement[][] arrays;
+    private volatile long generation;
+
+    public SchemaSnapshot() {
+        this.arrays = emptyArrays();
+        this.generation = 0L;
+    }
+
+    public long generation() {
+        return this.generation;
+    }
+
+    public SchemaElement get(HugeType type, Id id) {
+        int index = typeIndex(type);
+        if (index < 0 || !id.number()) {
+            return null;
+        }
+        long key = id.asLong();
+        SchemaElement[] array = this.arrays[index];
+        if (key <= 0L || key >= array.length) {
+            return null;
+        }
+        return array[(int) key];
+    }
+
+    public void update(SchemaElement schema) {
+        this.set(schema.type(), schema.id(), schema, -1L);
+    }
+
+    /**
+     * Update the schema only if the generation is still the one read before
+     * looking up the schema
+     */
+    public void update(SchemaElement schema, long generation) {
+        this.set(schema.type(), schema.id(), schema, generation);
+    }
+
+    public synchronized void invalidate(HugeType type, Id id) {
+        this.generation++;
+        this.set(type, id, null, -1L);
+    }
+
+    public synchronized void clear() {
+        this.generation++;
+        this.arrays = emptyArrays();
+    }
+
+    private void set(HugeType type, Id id, SchemaElement value,
+                     long generation) {
+        int index = typeIndex(type);
+        if (index < 0 || !id.number()) {
+            return;
+        }
+        long key = id.asLong();
+        if (key <= 0L || key >= MAX_ID) {
+            return;
+        }
+        this.set(index, (int) key, value, generation);
+    }
+
+    private synchronized void set(int index, int key, SchemaElement value,
+                                  long generation) {
+        if (generation >= 0L && generation != this.generation) {
+            return;
+        }
+        SchemaElement[] array = this.arrays[index];
+        if (key < array.length ? array[key] == value : value == null) {
+            return;
+        }
+        SchemaElement[][] arrays = this.arrays.clone();
+        array = Arrays.copyOf(array, Math.max(array.length, key + 1));
+        array[key] = value;
+        arrays[index] = array;
+        this.arrays = arrays;
+    }
+
+    private static int typeIndex(HugeType type) {
+        for (int i = 0; i < TYPES.length; i++) {
+            if (TYPES[i] == type) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static SchemaElement[][] emptyArrays() {
+        SchemaElement[][] arrays = new SchemaElement[TYPES.length][];
+        Arrays.fill(arrays, new SchemaElement[0]);
+        return arrays;
+    }
+}
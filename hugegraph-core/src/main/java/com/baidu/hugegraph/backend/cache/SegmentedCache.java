@@ -0,0 +1,546 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.perf.PerfUtil.Watched;
+import com.baidu.hugegraph.util.Log;
+
+/**
+ * A cache split into segments, the read path of each segment is lock-free
+ * (a ConcurrentHashMap lookup plus a racy access-clock update), and the
+ * write path just locks the segment the key belongs to.
+ *
+ * Each segment is a W-TinyLFU like cache: new items are always admitted
+ * into a small window, and the item evicted from the window is admitted
+ * into the main space only if it's accessed more frequently than the victim
+ * of the main space, which is estimated by a count-min frequency sketch.
+ * The victim of the window or the main space is the least recently used one
+ * of some sampled items instead of the head of an LRU queue.
+ */
+public class SegmentedCache implements Cache {
+
+    public static final int DEFAULT_SIZE = RamCache.DEFAULT_SIZE;
+
+    private static final Logger LOG = Log.logger(Cache.class);
+
+    // The min capacity of each segment
+    private static final int MIN_SEGMENT_CAPACITY = 64;
+    // The percent of capacity used as admission window of each segment
+    private static final int WINDOW_PERCENT = 1;
+    // The number of items sampled to choose a victim
+    private static final int EVICTION_SAMPLES = 8;
+
+    private final LongAdder hits;
+    private final LongAdder miss;
+
+    // Default expire time(ms)
+    private volatile long expire;
+
+    // NOTE: the count in number of items, not in bytes
+    private final int capacity;
+    private final Segment[] segments;
+    private final int segmentMask;
+
+    public SegmentedCache() {
+        this(DEFAULT_SIZE);
+    }
+
+    public SegmentedCache(int capacity) {
+        this(capacity, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public SegmentedCache(int capacity, int concurrency) {
+        if (capacity < 0) {
+            capacity = 0;
+        }
+        this.capacity = capacity;
+        this.hits = new LongAdder();
+        this.miss = new LongAdder();
+        this.expire = 0L;
+
+        int segments = Math.min(concurrency, capacity / MIN_SEGMENT_CAPACITY);
+        segments = segments <= 1 ? 1 : Integer.highestOneBit(segments);
+        this.segments = new Segment[segments];
+        this.segmentMask = segments - 1;
+
+        int segmentCapacity = (capacity + segments - 1) / segments;
+        for (int i = 0; i < segments; i++) {
+            this.segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    private Segment segment(Id id) {
+        int hash = id.hashCode();
+        hash ^= hash >>> 16;
+        return this.segments[hash & this.segmentMask];
+    }
+
+    @Watched(prefix = "segmentedcache")
+    @Override
+    public Object get(Id id) {
+        if (id == null) {
+            return null;
+        }
+        Object value = this.segment(id).get(id);
+        if (value == null) {
+            this.miss.increment();
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("SegmentedCache missed '{}'", id);
+            }
+        } else {
+            this.hits.increment();
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("SegmentedCache cached '{}'", id);
+            }
+        }
+        return value;
+    }
+
+    @Watched(prefix = "segmentedcache")
+    @Override
+    public Object getOrFetch(Id id, Function<Id, Object> fetcher) {
+        if (id == null) {
+            return null;
+        }
+        Object value = this.get(id);
+        if (value == null) {
+            // Do fetch and update the cache
+            value = fetcher.apply(id);
+            this.update(id, value);
+        }
+        return value;
+    }
+
+    @Watched(prefix = "segmentedcache")
+    @Override
+    public void update(Id id, Object value) {
+        if (id == null || value == null || this.capacity <= 0) {
+            return;
+        }
+        this.segment(id).write(id, value, WriteMode.ALWAYS);
+    }
+
+    @Watched(prefix = "segmentedcache")
+    @Override
+    public void updateIfAbsent(Id id, Object value) {
+        if (id == null || value == null || this.capacity <= 0) {
+            return;
+        }
+        this.segment(id).write(id, value, WriteMode.IF_ABSENT);
+    }
+
+    @Watched(prefix = "segmentedcache")
+    @Override
+    public void updateIfPresent(Id id, Object value) {
+        if (id == null || value == null || this.capacity <= 0) {
+            return;
+        }
+        this.segment(id).write(id, value, WriteMode.IF_PRESENT);
+    }
+
+    @Watched(prefix = "segmentedcache")
+    @Override
+    public void invalidate(Id id) {
+        if (id == null) {
+            return;
+        }
+        this.segment(id).remove(id, null);
+    }
+
+    @Watched(prefix = "segmentedcache")
+    @Override
+    public void traverse(Consumer<Object> consumer) {
+        for (Segment segment : this.segments) {
+            segment.map.values().forEach(node -> consumer.accept(node.value));
+        }
+    }
+
+    @Watched(prefix = "segmentedcache")
+    @Override
+    public void clear() {
+        for (Segment segment : this.segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public void expire(long seconds) {
+        // Convert the unit from seconds to milliseconds
+        this.expire = seconds * 1000;
+    }
+
+    @Override
+    public long expire() {
+        return this.expire;
+    }
+
+    @Override
+    public long tick() {
+        long expireTime = this.expire;
+        if (expireTime <= 0) {
+            return 0L;
+        }
+
+        int expireItems = 0;
+        long current = now();
+        for (Segment segment : this.segments) {
+            for (Node node : segment.map.values()) {
+                if (current - node.time > expireTime &&
+                    segment.remove(node.id, node)) {
+                    expireItems++;
+                }
+            }
+        }
+
+        if (expireItems > 0) {
+            LOG.debug("Cache expired {} items cost {}ms (size {}, expire {}ms)",
+                      expireItems, now() - current, this.size(), expireTime);
+        }
+        return expireItems;
+    }
+
+    @Override
+    public long capacity() {
+        return this.capacity;
+    }
+
+    @Override
+    public long size() {
+        long size = 0L;
+        for (Segment segment : this.segments) {
+            size += segment.map.size();
+        }
+        return size;
+    }
+
+    @Override
+    public long hits() {
+        return this.hits.sum();
+    }
+
+    @Override
+    public long miss() {
+        return this.miss.sum();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (Segment segment : this.segments) {
+            for (Node node : segment.map.values()) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                sb.append(node.id).append('=').append(node.value);
+            }
+        }
+        return sb.append('}').toString();
+    }
+
+    private static final long now() {
+        return System.currentTimeMillis();
+    }
+
+    private enum WriteMode {
+        ALWAYS,
+        IF_ABSENT,
+        IF_PRESENT
+    }
+
+    private static final class Segment {
+
+        private final ConcurrentMap<Id, Node> map;
+        private final FrequencySketch sketch;
+
+        // Guarded by the segment lock
+        private final Slots window;
+        private final Slots main;
+        private final int windowCapacity;
+        private final int mainCapacity;
+
+        /*
+         * The access clock used to order items by recency, it's updated
+         * without lock since a lost update just makes an item look older
+         */
+        private long clock;
+
+        public Segment(int capacity) {
+            this.map = new ConcurrentHashMap<>();
+            this.sketch = new FrequencySketch(capacity);
+            this.windowCapacity = Math.max(1, capacity * WINDOW_PERCENT / 100);
+            this.mainCapacity = capacity - this.windowCapacity;
+            this.window = new Slots(true);
+            this.main = new Slots(false);
+            this.clock = 0L;
+        }
+
+        public Object get(Id id) {
+            this.sketch.increment(id);
+            Node node = this.map.get(id);
+            if (node == null) {
+                return null;
+            }
+            node.access = ++this.clock;
+            return node.value;
+        }
+
+        public synchronized void write(Id id, Object value, WriteMode mode) {
+            Node old = this.map.get(id);
+            if (old == null ? mode == WriteMode.IF_PRESENT :
+                              mode == WriteMode.IF_ABSENT) {
+                return;
+            }
+
+            Node node = new Node(id, value, ++this.clock);
+            this.map.put(id, node);
+            if (old != null) {
+                // Replace the old item in place
+                (old.inWindow ? this.window : this.main).replace(old, node);
+                return;
+            }
+
+            this.sketch.increment(id);
+            this.window.add(node);
+            if (this.window.size() <= this.windowCapacity) {
+                return;
+            }
+
+            // Move the victim of window into main space if it's admitted
+            Node candidate = this.window.sample();
+            this.window.remove(candidate);
+            if (this.main.size() < this.mainCapacity) {
+                this.main.add(candidate);
+                return;
+            }
+            Node victim = this.main.sample();
+            if (victim != null && this.sketch.frequency(candidate.id) >
+                                  this.sketch.frequency(victim.id)) {
+                this.main.remove(victim);
+                this.map.remove(victim.id);
+                this.main.add(candidate);
+            } else {
+                this.map.remove(candidate.id);
+            }
+        }
+
+        public synchronized boolean remove(Id id, Node expected) {
+            Node node = this.map.get(id);
+            if (node == null || (expected != null && node != expected)) {
+                return false;
+            }
+            this.map.remove(id);
+            (node.inWindow ? this.window : this.main).remove(node);
+            return true;
+        }
+
+        public synchronized void clear() {
+            this.map.clear();
+            this.window.clear();
+            this.main.clear();
+        }
+    }
+
+    private static final class Node {
+
+        private final Id id;
+        private final Object value;
+        private final long time;
+        private long access;
+
+        // Guarded by the segment lock
+        private boolean inWindow;
+        private int slot;
+
+        public Node(Id id, Object value, long access) {
+            this.id = id;
+            this.value = value;
+            this.time = now();
+            this.access = access;
+        }
+    }
+
+    /**
+     * The items of window or main space, they are stored in an array to
+     * support sampling randomly.
+     */
+    private static final class Slots {
+
+        private static final int INIT_SIZE = 16;
+
+        private final boolean window;
+        private Node[] nodes;
+        private int size;
+
+        public Slots(boolean window) {
+            this.window = window;
+            this.nodes = new Node[INIT_SIZE];
+            this.size = 0;
+        }
+
+        public int size() {
+            return this.size;
+        }
+
+        public void add(Node node) {
+            if (this.size == this.nodes.length) {
+                this.nodes = Arrays.copyOf(this.nodes, this.size << 1);
+            }
+            node.inWindow = this.window;
+            node.slot = this.size;
+            this.nodes[this.size++] = node;
+        }
+
+        public void replace(Node old, Node node) {
+            assert this.nodes[old.slot] == old;
+            node.inWindow = this.window;
+            node.slot = old.slot;
+            this.nodes[node.slot] = node;
+        }
+
+        public void remove(Node node) {
+            assert this.nodes[node.slot] == node;
+            Node last = this.nodes[--this.size];
+            last.slot = node.slot;
+            this.nodes[node.slot] = last;
+            this.nodes[this.size] = null;
+        }
+
+        public Node sample() {
+            if (this.size == 0) {
+                return null;
+            }
+            // Choose the least recently used one of the sampled items
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Node oldest = null;
+            int samples = Math.min(EVICTION_SAMPLES, this.size);
+            for (int i = 0; i < samples; i++) {
+                Node node = this.nodes[random.nextInt(this.size)];
+                if (oldest == null || node.access < oldest.access) {
+                    oldest = node;
+                }
+            }
+            return oldest;
+        }
+
+        public void clear() {
+            if (this.nodes.length > INIT_SIZE) {
+                this.nodes = new Node[INIT_SIZE];
+            } else {
+                Arrays.fill(this.nodes, null);
+            }
+            this.size = 0;
+        }
+    }
+
+    /**
+     * A count-min sketch with 4 hash functions and 4-bit counters (16 in a
+     * long word), all counters are halved periodically to age frequencies.
+     * NOTE: the counters are updated without lock, a lost update is fine
+     * for frequency estimation.
+     */
+    private static final class FrequencySketch {
+
+        private static final long[] SEEDS = new long[]{
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+                0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+        };
+        private static final long MAX_FREQUENCY = 15L;
+        private static final long RESET_MASK = 0x7777777777777777L;
+        private static final int SAMPLE_FACTOR = 10;
+
+        private final long[] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        public FrequencySketch(int capacity) {
+            // Each long word contains 16 counters, about 8 counters per item
+            int size = Math.max(capacity >> 1, 8);
+            size = Integer.highestOneBit(size - 1) << 1;
+            this.table = new long[size];
+            this.mask = (size << 4) - 1;
+            this.sampleSize = Math.max(capacity, 1) * SAMPLE_FACTOR;
+            this.additions = 0;
+        }
+
+        public int frequency(Id id) {
+            int hash = rehash(id.hashCode());
+            long frequency = MAX_FREQUENCY;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int index = this.index(hash, i);
+                long count = (this.table[index >>> 4] >>> offset(index)) &
+                             MAX_FREQUENCY;
+                frequency = Math.min(frequency, count);
+            }
+            return (int) frequency;
+        }
+
+        public void increment(Id id) {
+            int hash = rehash(id.hashCode());
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int index = this.index(hash, i);
+                int offset = offset(index);
+                long word = this.table[index >>> 4];
+                if (((word >>> offset) & MAX_FREQUENCY) < MAX_FREQUENCY) {
+                    this.table[index >>> 4] = word + (1L << offset);
+                    added = true;
+                }
+            }
+            if (added && ++this.additions >= this.sampleSize) {
+                this.reset();
+            }
+        }
+
+        private void reset() {
+            for (int i = 0; i < this.table.length; i++) {
+                this.table[i] = (this.table[i] >>> 1) & RESET_MASK;
+            }
+            this.additions >>>= 1;
+        }
+
+        private int index(int hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            h += h >>> 32;
+            return (int) h & this.mask;
+        }
+
+        private static int offset(int index) {
+            return (index & 15) << 2;
+        }
+
+        private static int rehash(int x) {
+            x *= 0x31848bab;
+            x ^= x >>> 14;
+            return x;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.id;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.baidu.hugegraph.iterator.ExtendableIterator;
+
+/**
+ * A set of ids which keeps numeric ids in a compressed bitmap: the ids are
+ * grouped into containers by the high 48 bits, and each container keeps the
+ * low 16 bits in a sorted char array while sparse, or in a bitmap of 65536
+ * bits once dense. Other ids are kept in a hash set.
+ * NOTE: removing is not supported, and it's not thread safe.
+ */
+public class IdSet extends AbstractSet<Id> {
+
+    private final Map<Long, Container> containers;
+    private final Set<Id> others;
+    private int size;
+
+    public IdSet() {
+        this.containers = new HashMap<>();
+        this.others = new HashSet<>();
+        this.size = 0;
+    }
+
+    @Override
+    public boolean add(Id id) {
+        boolean added;
+        if (id.number()) {
+            long value = id.asLong();
+            Container container = this.containers.get(value >>> 16);
+            if (container == null) {
+                container = new Container();
+                this.containers.put(value >>> 16, container);
+            }
+            added = container.add((char) value);
+        } else {
+            added = this.others.add(id);
+        }
+        if (added) {
+            this.size++;
+        }
+        return added;
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        if (!(object instanceof Id)) {
+            return false;
+        }
+        Id id = (Id) object;
+        if (id.number()) {
+            long value = id.asLong();
+            Container container = this.containers.get(value >>> 16);
+            return container != null && container.contains((char) value);
+        }
+        return this.others.contains(id);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public Iterator<Id> iterator() {
+        ExtendableIterator<Id> iterator = new ExtendableIterator<>();
+        for (Map.Entry<Long, Container> e : this.containers.entrySet()) {
+            iterator.extend(e.getValue().iterator(e.getKey() << 16));
+        }
+        iterator.extend(this.others.iterator());
+        return iterator;
+    }
+
+    private static class Container {
+
+        // Use bitmap if the array would be larger than the bitmap (8KB)
+        private static final int ARRAY_MAX_SIZE = 4096;
+        private static final int BITMAP_SIZE = (1 << 16) / 64;
+
+        private char[] array;
+        private long[] bitmap;
+        private int size;
+
+        public Container() {
+            this.array = new char[4];
+            this.bitmap = null;
+            this.size = 0;
+        }
+
+        public boolean add(char value) {
+            if (this.bitmap != null) {
+                long bit = 1L << value;
+                int index = value >>> 6;
+                if ((this.bitmap[index] & bit) != 0L) {
+                    return false;
+                }
+                this.bitmap[index] |= bit;
+                this.size++;
+                return true;
+            }
+
+            int pos = Arrays.binarySearch(this.array, 0, this.size, value);
+            if (pos >= 0) {
+                return false;
+            }
+            if (this.size == ARRAY_MAX_SIZE) {
+                this.toBitmap();
+                return this.add(value);
+            }
+            pos = -pos - 1;
+            if (this.size == this.array.length) {
+                int capacity = Math.min(this.size << 1, ARRAY_MAX_SIZE);
+                this.array = Arrays.copyOf(this.array, capacity);
+            }
+            System.arraycopy(this.array, pos, this.array, pos + 1,
+                             this.size - pos);
+            this.array[pos] = value;
+            this.size++;
+            return true;
+        }
+
+        public boolean contains(char value) {
+            if (this.bitmap != null) {
+                return (this.bitmap[value >>> 6] & (1L << value)) != 0L;
+            }
+            return Arrays.binarySearch(this.array, 0, this.size, value) >= 0;
+        }
+
+        public Iterator<Id> iterator(long high) {
+            return new Iterator<Id>() {
+
+                private int count = 0;
+                private int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return this.count < Container.this.size;
+                }
+
+                @Override
+                public Id next() {
+                    if (!this.hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    char low;
+                    if (Container.this.bitmap == null) {
+                        low = Container.this.array[this.next++];
+                    } else {
+                        while (!Container.this.contains((char) this.next)) {
+                            this.next++;
+                        }
+                        low = (char) this.next++;
+                    }
+                    this.count++;
+                    return IdGenerator.of(high | low);
+                }
+            };
+        }
+
+        private void toBitmap() {
+            this.bitmap = new long[BITMAP_SIZE];
+            for (int i = 0; i < this.size; i++) {
+                char value = this.array[i];
+                this.bitmap[value >>> 6] |= 1L << value;
+            }
+            this.array = null;
+        }
+    }
+}
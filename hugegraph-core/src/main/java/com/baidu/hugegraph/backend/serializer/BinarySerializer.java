@@ -22,6 +22,7 @@ package com.baidu.hugegraph.backend.serializer;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
 
 import org.apache.commons.lang.NotImplementedException;
 
@@ -62,6 +63,7 @@ import com.baidu.hugegraph.type.define.IdStrategy;
 import com.baidu.hugegraph.type.define.IndexType;
 import com.baidu.hugegraph.type.define.SchemaStatus;
 import com.baidu.hugegraph.type.define.SerialEnum;
+import com.baidu.hugegraph.type.define.ValueFormat;
 import com.baidu.hugegraph.util.Bytes;
 import com.baidu.hugegraph.util.E;
 import com.baidu.hugegraph.util.JsonUtil;
@@ -80,6 +82,8 @@ public class BinarySerializer extends AbstractSerializer {
     private final boolean keyWithIdPrefix;
     private final boolean indexWithIdPrefix;
 
+    private final BiFunction<PropertyKey, byte[], Object> propertyDecoder;
+
     public BinarySerializer() {
         this(true, true);
     }
@@ -88,6 +92,7 @@ public class BinarySerializer extends AbstractSerializer {
                             boolean indexWithIdPrefix) {
         this.keyWithIdPrefix = keyWithIdPrefix;
         this.indexWithIdPrefix = indexWithIdPrefix;
+        this.propertyDecoder = this::parsePropertyValue;
     }
 
     @Override
@@ -163,27 +168,37 @@ public class BinarySerializer extends AbstractSerializer {
 
     protected BackendColumn formatProperty(HugeProperty<?> prop) {
         return BackendColumn.of(this.formatPropertyName(prop),
-                                KryoUtil.toKryo(prop.value()));
+                                this.formatPropertyValue(prop));
     }
 
-    protected void parseProperty(Id pkeyId, byte[] val, HugeElement owner) {
-        PropertyKey pkey = owner.graph().propertyKey(pkeyId);
+    protected byte[] formatPropertyValue(HugeProperty<?> prop) {
+        PropertyKey pkey = prop.propertyKey();
+        if (pkey.valueFormat() == ValueFormat.KRYO) {
+            return KryoUtil.toKryo(prop.value());
+        }
+        BytesBuffer buffer = BytesBuffer.allocate(BytesBuffer.DEFAULT_CAPACITY);
+        buffer.writeProperty(pkey, prop.value());
+        return buffer.bytes();
+    }
 
-        // Parse value
-        Object value = KryoUtil.fromKryo(val, pkey.implementClazz());
+    protected void parseProperty(Id pkeyId, byte[] val, HugeElement owner) {
+        // The value will be parsed when the property is accessed
+        owner.addLazyProperty(pkeyId, val, this.propertyDecoder);
+    }
 
-        // Set properties of vertex/edge
-        if (pkey.cardinality() == Cardinality.SINGLE) {
-            owner.addProperty(pkey, value);
+    protected Object parsePropertyValue(PropertyKey pkey, byte[] val) {
+        Object value;
+        if (pkey.valueFormat() == ValueFormat.KRYO) {
+            value = KryoUtil.fromKryo(val, pkey.implementClazz());
         } else {
-            if (!(value instanceof Collection)) {
-                throw new BackendException(
-                          "Invalid value of non-single property: %s", value);
-            }
-            for (Object v : (Collection<?>) value) {
-                owner.addProperty(pkey, v);
-            }
+            value = BytesBuffer.wrap(val).readProperty(pkey);
         }
+        if (pkey.cardinality() != Cardinality.SINGLE &&
+            !(value instanceof Collection)) {
+            throw new BackendException(
+                      "Invalid value of non-single property: %s", value);
+        }
+        return value;
     }
 
     protected void formatProperties(Collection<HugeProperty<?>> props,
@@ -194,7 +209,7 @@ public class BinarySerializer extends AbstractSerializer {
         // Write properties data
         for (HugeProperty<?> property : props) {
             buffer.writeId(property.propertyKey().id());
-            buffer.writeBytes(KryoUtil.toKryo(property.value()));
+            buffer.writeBytes(this.formatPropertyValue(property));
         }
     }
 
@@ -949,6 +964,7 @@ public class BinarySerializer extends AbstractSerializer {
             writeString(HugeKeys.NAME, schema.name());
             writeEnum(HugeKeys.DATA_TYPE, schema.dataType());
             writeEnum(HugeKeys.CARDINALITY, schema.cardinality());
+            writeEnum(HugeKeys.VALUE_FORMAT, schema.valueFormat());
             writeIds(HugeKeys.PROPERTIES, schema.properties());
             writeEnum(HugeKeys.STATUS, schema.status());
             writeUserdata(schema);
@@ -966,6 +982,13 @@ public class BinarySerializer extends AbstractSerializer {
             propertyKey.dataType(readEnum(HugeKeys.DATA_TYPE, DataType.class));
             propertyKey.cardinality(readEnum(HugeKeys.CARDINALITY,
                                              Cardinality.class));
+            if (hasColumn(HugeKeys.VALUE_FORMAT)) {
+                propertyKey.valueFormat(readEnum(HugeKeys.VALUE_FORMAT,
+                                                 ValueFormat.class));
+            } else {
+                // Created before the value format introduced
+                propertyKey.valueFormat(ValueFormat.KRYO);
+            }
             propertyKey.properties(readIds(HugeKeys.PROPERTIES));
             propertyKey.status(readEnum(HugeKeys.STATUS, SchemaStatus.class));
             readUserdata(propertyKey);
@@ -1107,6 +1130,10 @@ public class BinarySerializer extends AbstractSerializer {
             return ids;
         }
 
+        private boolean hasColumn(HugeKeys key) {
+            return this.entry.column(formatColumnName(key)) != null;
+        }
+
         private byte[] column(HugeKeys key) {
             BackendColumn column = this.entry.column(formatColumnName(key));
             E.checkState(column != null, "Not found key '%s' from entry %s",
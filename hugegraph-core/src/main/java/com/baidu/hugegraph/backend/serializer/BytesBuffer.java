@@ -20,15 +20,24 @@
 package com.baidu.hugegraph.backend.serializer;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.UUID;
 
 import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.id.Id.IdType;
 import com.baidu.hugegraph.backend.id.IdGenerator;
 import com.baidu.hugegraph.backend.serializer.BinaryBackendEntry.BinaryId;
+import com.baidu.hugegraph.schema.PropertyKey;
 import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.type.define.Cardinality;
+import com.baidu.hugegraph.type.define.DataType;
 import com.baidu.hugegraph.util.Bytes;
 import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.KryoUtil;
 import com.baidu.hugegraph.util.StringEncoding;
 
 /**
@@ -312,6 +321,166 @@ public final class BytesBuffer {
         return this.readInt() & 0xffffffff;
     }
 
+    public BytesBuffer writeVInt(int value) {
+        // Write 7 bits per byte, the highest bit means more bytes follow
+        while ((value & ~0x7f) != 0) {
+            this.write((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        this.write((byte) value);
+        return this;
+    }
+
+    public int readVInt() {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = this.read();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid vint, it's too long");
+    }
+
+    public BytesBuffer writeVLong(long value) {
+        while ((value & ~0x7fL) != 0L) {
+            this.write((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        this.write((byte) value);
+        return this;
+    }
+
+    public long readVLong() {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = this.read();
+            value |= (b & 0x7fL) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid vlong, it's too long");
+    }
+
+    public BytesBuffer writeProperty(PropertyKey pkey, Object value) {
+        if (pkey.cardinality() == Cardinality.SINGLE) {
+            this.writeProperty(pkey.dataType(), value);
+            return this;
+        }
+
+        assert pkey.cardinality() == Cardinality.LIST ||
+               pkey.cardinality() == Cardinality.SET;
+        Collection<?> values = (Collection<?>) value;
+        this.writeVInt(values.size());
+        for (Object o : values) {
+            this.writeProperty(pkey.dataType(), o);
+        }
+        return this;
+    }
+
+    public Object readProperty(PropertyKey pkey) {
+        if (pkey.cardinality() == Cardinality.SINGLE) {
+            return this.readProperty(pkey.dataType());
+        }
+
+        int size = this.readVInt();
+        Collection<Object> values;
+        if (pkey.cardinality() == Cardinality.SET) {
+            values = new LinkedHashSet<>();
+        } else {
+            assert pkey.cardinality() == Cardinality.LIST;
+            values = new ArrayList<>(size);
+        }
+        for (int i = 0; i < size; i++) {
+            values.add(this.readProperty(pkey.dataType()));
+        }
+        return values;
+    }
+
+    private void writeProperty(DataType dataType, Object value) {
+        switch (dataType) {
+            case BOOLEAN:
+                this.writeBoolean((Boolean) value);
+                break;
+            case BYTE:
+                this.write(((Number) value).byteValue());
+                break;
+            case INT:
+                int i = ((Number) value).intValue();
+                // Zig-zag encoding to write small negative numbers shortly
+                this.writeVInt((i << 1) ^ (i >> 31));
+                break;
+            case LONG:
+                long l = ((Number) value).longValue();
+                this.writeVLong((l << 1) ^ (l >> 63));
+                break;
+            case FLOAT:
+                this.writeFloat(((Number) value).floatValue());
+                break;
+            case DOUBLE:
+                this.writeDouble(((Number) value).doubleValue());
+                break;
+            case TEXT:
+                byte[] text = StringEncoding.encode((String) value);
+                this.writeVInt(text.length);
+                this.write(text);
+                break;
+            case BLOB:
+                byte[] blob = (byte[]) value;
+                this.writeVInt(blob.length);
+                this.write(blob);
+                break;
+            case DATE:
+                long time = ((Date) value).getTime();
+                this.writeVLong((time << 1) ^ (time >> 63));
+                break;
+            case UUID:
+                UUID uuid = (UUID) value;
+                this.writeLong(uuid.getMostSignificantBits());
+                this.writeLong(uuid.getLeastSignificantBits());
+                break;
+            default:
+                // Fallback to kryo for the object type
+                byte[] bytes = KryoUtil.toKryo(value);
+                this.writeVInt(bytes.length);
+                this.write(bytes);
+                break;
+        }
+    }
+
+    private Object readProperty(DataType dataType) {
+        switch (dataType) {
+            case BOOLEAN:
+                return this.readBoolean();
+            case BYTE:
+                return this.read();
+            case INT:
+                int i = this.readVInt();
+                return (i >>> 1) ^ -(i & 1);
+            case LONG:
+                long l = this.readVLong();
+                return (l >>> 1) ^ -(l & 1L);
+            case FLOAT:
+                return this.readFloat();
+            case DOUBLE:
+                return this.readDouble();
+            case TEXT:
+                return StringEncoding.decode(this.read(this.readVInt()));
+            case BLOB:
+                return this.read(this.readVInt());
+            case DATE:
+                long time = this.readVLong();
+                return new Date((time >>> 1) ^ -(time & 1L));
+            case UUID:
+                return new UUID(this.readLong(), this.readLong());
+            default:
+                return KryoUtil.fromKryo(this.read(this.readVInt()),
+                                         dataType.clazz());
+        }
+    }
+
     public BytesBuffer writeStringToRemaining(String value) {
         byte[] bytes = StringEncoding.encode(value);
         this.write(bytes);
@@ -136,6 +136,10 @@ public interface BackendEntry {
             this.iter = Arrays.asList(cols).iterator();
         }
 
+        public BackendColumnIteratorWrapper(Iterator<BackendColumn> cols) {
+            this.iter = cols;
+        }
+
         @Override
         public boolean hasNext() {
             return iter.hasNext();
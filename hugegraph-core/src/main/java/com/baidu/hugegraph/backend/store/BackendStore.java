@@ -56,6 +56,9 @@ public interface BackendStore {
     // Query data
     public Iterator<BackendEntry> query(Query query);
 
+    // Count the vertices or edges matched by the query
+    public long queryNumber(Query query);
+
     // Transaction
     public void beginTx();
     public void commitTx();
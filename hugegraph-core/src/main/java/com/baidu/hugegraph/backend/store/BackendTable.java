@@ -20,8 +20,12 @@
 package com.baidu.hugegraph.backend.store;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 import com.baidu.hugegraph.backend.query.ConditionQuery;
 import com.baidu.hugegraph.backend.query.Query;
@@ -32,6 +36,7 @@ import com.baidu.hugegraph.type.define.HugeKeys;
 import com.baidu.hugegraph.util.Bytes;
 import com.baidu.hugegraph.util.E;
 import com.baidu.hugegraph.util.NumericUtil;
+import com.google.common.collect.ImmutableList;
 
 public abstract class BackendTable<Session extends BackendSession, Entry> {
 
@@ -97,6 +102,22 @@ public abstract class BackendTable<Session extends BackendSession, Entry> {
         return type;
     }
 
+    /**
+     * Count vertices or edges from the backend entries: each vertex is an
+     * entry, and edges are the columns of the entry of their owner vertex
+     */
+    protected static long countEntries(HugeType type,
+                                       Iterator<BackendEntry> entries) {
+        E.checkArgument(type.isGraph(),
+                        "Can't count the number of %s", type);
+        long count = 0L;
+        while (entries.hasNext()) {
+            BackendEntry entry = entries.next();
+            count += type.isVertex() ? 1L : entry.columnsSize();
+        }
+        return count;
+    }
+
     public static final String joinTableName(String prefix, String table) {
         return prefix + "_" + table.toLowerCase();
     }
@@ -107,6 +128,18 @@ public abstract class BackendTable<Session extends BackendSession, Entry> {
 
     public abstract Iterator<BackendEntry> query(Session session, Query query);
 
+    /**
+     * Count the vertices or edges matched by the query without deserializing
+     * them, the default implementation iterates the backend entries, a table
+     * should override it if the backend could count natively
+     * @param session backend session
+     * @param query the vertex or edge query
+     * @return the number of matched vertices or edges
+     */
+    public long queryNumber(Session session, Query query) {
+        return countEntries(query.resultType(), this.query(session, query));
+    }
+
     public abstract void insert(Session session, Entry entry);
 
     public abstract void delete(Session session, Entry entry);
@@ -125,6 +158,12 @@ public abstract class BackendTable<Session extends BackendSession, Entry> {
         // We assume the size of each key-value is 100 bytes
         private static final int ESTIMATE_BYTES_PER_KV = 100;
 
+        // The positions of real keys are encoded as hex with this prefix
+        private static final String KEY_POSITION_PREFIX = "0x";
+
+        // The number of bytes after the common prefix used to interpolate
+        private static final int INTERPOLATE_BYTES = 6;
+
         private final String table;
 
         public ShardSpliter(String table) {
@@ -140,6 +179,11 @@ public abstract class BackendTable<Session extends BackendSession, Entry> {
                             "The split-size must be >= %s bytes, but got %s",
                             MIN_SHARD_SIZE, splitSize);
 
+            List<KeyRange> ranges = this.estimateKeyRanges(session);
+            if (!ranges.isEmpty()) {
+                return this.splitByKeyRanges(ranges, splitSize);
+            }
+
             long size = this.estimateDataSize(session);
             if (size <= 0) {
                 size = this.estimateNumKeys(session) * ESTIMATE_BYTES_PER_KV;
@@ -166,17 +210,225 @@ public abstract class BackendTable<Session extends BackendSession, Entry> {
             return splits;
         }
 
+        /**
+         * Split the table by the key ranges of the data, the boundaries of
+         * the shards are chosen to let each shard hold about the same size
+         * of data, assuming the data is evenly distributed inside each range
+         */
+        protected List<Shard> splitByKeyRanges(List<KeyRange> ranges,
+                                               long splitSize) {
+            byte[] min = this.position(this.position(0L));
+            byte[] max = this.position(this.position(BytesBuffer.UINT32_MAX));
+
+            // Collect the boundaries of all ranges, they may overlap
+            NavigableMap<byte[], Double> segments;
+            segments = new TreeMap<>(Bytes::compare);
+            long total = 0L;
+            for (KeyRange range : ranges) {
+                if (!range.valid(min, max)) {
+                    continue;
+                }
+                segments.put(range.start(min), 0D);
+                segments.put(range.end(max), 0D);
+                total += range.size();
+            }
+            // Spread the size of each range over the segments it covers
+            for (KeyRange range : ranges) {
+                if (!range.valid(min, max)) {
+                    continue;
+                }
+                byte[] start = range.start(min);
+                NavigableMap<byte[], Double> covered;
+                covered = segments.subMap(start, true, range.end(max), false);
+                if (covered.isEmpty()) {
+                    // The range only contains one key
+                    covered = segments.subMap(start, true, start, true);
+                }
+                double each = range.size() / (double) covered.size();
+                for (Map.Entry<byte[], Double> e : covered.entrySet()) {
+                    e.setValue(e.getValue() + each);
+                }
+            }
+
+            long count = Math.max((long) Math.ceil(total / (double) splitSize),
+                                  1L);
+            double each = total / (double) count;
+
+            List<byte[]> cuts = new ArrayList<>();
+            cuts.add(min);
+            double filled = 0D;
+            for (Map.Entry<byte[], Double> e : segments.entrySet()) {
+                byte[] lower = e.getKey();
+                byte[] upper = segments.higherKey(lower);
+                double left = e.getValue();
+                while (filled + left >= each && cuts.size() < count) {
+                    double ratio = (each - filled) / left;
+                    byte[] cut;
+                    if (upper == null) {
+                        cut = null;
+                    } else if (ratio >= 1D) {
+                        cut = upper;
+                    } else {
+                        cut = interpolate(lower, upper, ratio);
+                    }
+                    if (cut == null) {
+                        // Can't split the segment any more, cut at its end
+                        addCut(cuts, upper == null ? lower : upper, max);
+                        left = 0D;
+                        filled = 0D;
+                        break;
+                    }
+                    addCut(cuts, cut, max);
+                    left -= each - filled;
+                    filled = 0D;
+                    lower = cut;
+                }
+                filled += left;
+            }
+            cuts.add(max);
+
+            List<Shard> splits = new ArrayList<>(cuts.size() - 1);
+            for (int i = 1; i < cuts.size(); i++) {
+                splits.add(new Shard(this.position(cuts.get(i - 1)),
+                                     this.position(cuts.get(i)), 0L));
+            }
+            return splits;
+        }
+
         public final String position(long position) {
             return String.valueOf(position);
         }
 
+        public final String position(byte[] position) {
+            return KEY_POSITION_PREFIX + Bytes.toHex(position);
+        }
+
         public final byte[] position(String position) {
+            if (position.startsWith(KEY_POSITION_PREFIX)) {
+                return Bytes.fromHex(position.substring(
+                                     KEY_POSITION_PREFIX.length()));
+            }
             int value = Long.valueOf(position).intValue();
             return NumericUtil.intToBytes(value);
         }
 
+        /**
+         * Estimate the key ranges of the data in the table, each with the
+         * approximate size of the data in it, an empty list means the
+         * distribution of the keys is unknown
+         * @param session backend session
+         * @return the key ranges which may overlap with each other
+         */
+        protected List<KeyRange> estimateKeyRanges(Session session) {
+            return ImmutableList.of();
+        }
+
         protected abstract long estimateDataSize(Session session);
 
         protected abstract long estimateNumKeys(Session session);
+
+        private static void addCut(List<byte[]> cuts, byte[] cut, byte[] max) {
+            byte[] last = cuts.get(cuts.size() - 1);
+            if (Bytes.compare(cut, last) > 0 && Bytes.compare(cut, max) < 0) {
+                cuts.add(cut);
+            }
+        }
+
+        /**
+         * Get the key at the given ratio between start and end, by taking
+         * the bytes after their common prefix as unsigned numbers
+         * @return the key strictly between start and end, or null if there
+         *         is no room between them
+         */
+        protected static byte[] interpolate(byte[] start, byte[] end,
+                                            double ratio) {
+            int prefix = 0;
+            while (prefix < start.length && prefix < end.length &&
+                   start[prefix] == end[prefix]) {
+                prefix++;
+            }
+            long lower = unsignedAt(start, prefix);
+            long upper = unsignedAt(end, prefix);
+            if (upper - lower < 2L) {
+                return null;
+            }
+            long value = lower + (long) ((upper - lower) * ratio);
+            value = Math.max(value, lower + 1L);
+            value = Math.min(value, upper - 1L);
+
+            byte[] key = Arrays.copyOf(start, prefix + INTERPOLATE_BYTES);
+            for (int i = INTERPOLATE_BYTES - 1; i >= 0; i--) {
+                key[prefix + i] = (byte) value;
+                value >>>= 8;
+            }
+            return key;
+        }
+
+        private static long unsignedAt(byte[] key, int offset) {
+            long value = 0L;
+            for (int i = 0; i < INTERPOLATE_BYTES; i++) {
+                value <<= 8;
+                if (offset + i < key.length) {
+                    value |= key[offset + i] & 0xff;
+                }
+            }
+            return value;
+        }
+    }
+
+    /**
+     * A range of keys [start, end] with the approximate size of the data in
+     * it, an empty start or end means unbounded
+     */
+    public static class KeyRange {
+
+        private final byte[] start;
+        private final byte[] end;
+        private final long size;
+
+        public KeyRange(byte[] start, byte[] end, long size) {
+            E.checkArgument(start != null && end != null,
+                            "The start and end of key range can't be null");
+            this.start = start;
+            this.end = end;
+            this.size = size;
+        }
+
+        public byte[] start() {
+            return this.start;
+        }
+
+        public byte[] end() {
+            return this.end;
+        }
+
+        public long size() {
+            return this.size;
+        }
+
+        protected boolean valid(byte[] min, byte[] max) {
+            return Bytes.compare(this.start(min), this.end(max)) <= 0;
+        }
+
+        protected byte[] start(byte[] min) {
+            if (this.start.length == 0 || Bytes.compare(this.start, min) < 0) {
+                return min;
+            }
+            return this.start;
+        }
+
+        protected byte[] end(byte[] max) {
+            if (this.end.length == 0 || Bytes.compare(this.end, max) > 0) {
+                return max;
+            }
+            return this.end;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("KeyRange{start=%s, end=%s, size=%s}",
+                                 Bytes.toHex(this.start),
+                                 Bytes.toHex(this.end), this.size);
+        }
     }
 }
@@ -107,6 +107,15 @@ public abstract class InMemoryDBStore
         return rs;
     }
 
+    @Override
+    public long queryNumber(Query query) {
+        InMemoryDBTable table = this.table(InMemoryDBTable.tableType(query));
+        long number = table.queryNumber(null, query);
+        LOG.debug("[store {}] get result({}) for number query: {}",
+                  this.store, number, query);
+        return number;
+    }
+
     @Override
     public void mutate(BackendMutation mutation) {
         for (Iterator<BackendAction> it = mutation.mutation(); it.hasNext();) {
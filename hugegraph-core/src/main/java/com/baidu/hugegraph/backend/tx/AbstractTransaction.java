@@ -107,6 +107,20 @@ public abstract class AbstractTransaction implements Transaction {
         }
     }
 
+    @Watched(prefix = "tx")
+    public long queryNumber(Query query) {
+        LOG.debug("Transaction queryNumber: {}", query);
+
+        query = this.serializer.writeQuery(query);
+
+        this.beforeRead();
+        try {
+            return this.store.queryNumber(query);
+        } finally {
+            this.afterRead();
+        }
+    }
+
     @Watched(prefix = "tx")
     public BackendEntry query(HugeType type, Id id) {
         IdQuery q = new IdQuery(type, id);
@@ -239,13 +253,17 @@ public abstract class AbstractTransaction implements Transaction {
         this.committing2Backend = true;
 
         // If an exception occurred, catch in the upper layer and rollback
+        this.commitMutation2Store(mutations);
+
+        this.committing2Backend = false;
+    }
+
+    protected void commitMutation2Store(BackendMutation... mutations) {
         this.store.beginTx();
         for (BackendMutation mutation : mutations) {
             this.store.mutate(mutation);
         }
         this.store.commitTx();
-
-        this.committing2Backend = false;
     }
 
     protected BackendMutation prepareCommit() {
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.tx;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exponentially weighted moving average of the latency of committing graph
+ * transactions to the backend (including the waiting time of group commit),
+ * it's used to detect whether the backend is overloaded.
+ * The average is regarded as 0 if nothing is committed in EXPIRE time, so
+ * that an idle graph is not treated as a slow one forever.
+ */
+public final class CommitLatency {
+
+    private static final double ALPHA = 0.2;
+    private static final long EXPIRE = TimeUnit.SECONDS.toNanos(10L);
+
+    // The bits of average latency in nanoseconds
+    private final AtomicLong average;
+    private final LongAdder commits;
+    private volatile long lastCommitted;
+
+    public CommitLatency() {
+        this.average = new AtomicLong(Double.doubleToLongBits(0.0));
+        this.commits = new LongAdder();
+        this.lastCommitted = 0L;
+    }
+
+    public void record(long nanos) {
+        long now = System.nanoTime();
+        boolean first = this.commits.sum() == 0L ||
+                        now - this.lastCommitted > EXPIRE;
+        this.average.getAndUpdate(bits -> {
+            double avg = Double.longBitsToDouble(bits);
+            avg = first ? nanos : avg + ALPHA * (nanos - avg);
+            return Double.doubleToLongBits(avg);
+        });
+        this.commits.increment();
+        this.lastCommitted = now;
+    }
+
+    public double averageMillis() {
+        if (this.commits.sum() == 0L ||
+            System.nanoTime() - this.lastCommitted > EXPIRE) {
+            return 0.0;
+        }
+        double nanos = Double.longBitsToDouble(this.average.get());
+        return nanos / TimeUnit.MILLISECONDS.toNanos(1L);
+    }
+
+    public long commits() {
+        return this.commits.sum();
+    }
+}
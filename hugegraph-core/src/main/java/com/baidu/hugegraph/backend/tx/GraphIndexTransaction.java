@@ -31,7 +31,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.util.Strings;
@@ -43,6 +45,7 @@ import com.baidu.hugegraph.HugeGraph;
 import com.baidu.hugegraph.analyzer.Analyzer;
 import com.baidu.hugegraph.backend.BackendException;
 import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdSet;
 import com.baidu.hugegraph.backend.id.SplicingIdGenerator;
 import com.baidu.hugegraph.backend.page.IdHolder;
 import com.baidu.hugegraph.backend.page.IdHolderList;
@@ -90,6 +93,9 @@ public class GraphIndexTransaction extends AbstractTransaction {
     private static final String INDEX_EMPTY_SYM = "\u0000";
     private static final String INDEX_NULL_SYM = "\u0001";
 
+    // The max number of ids sampled to estimate joint index cardinality
+    private static final int JOINT_INDEX_SAMPLE_SIZE = 1000;
+
     private final Analyzer textAnalyzer;
 
     public GraphIndexTransaction(HugeGraph graph, BackendStore store) {
@@ -468,21 +474,109 @@ public class GraphIndexTransaction extends AbstractTransaction {
         return this.doIndexQuery(indexLabel, query);
     }
 
+    /**
+     * Intersect the ids of joint index queries. The cardinality of each
+     * index query is estimated by sampling limited ids from it, the ids of
+     * the most selective one are collected, then the others are probed by
+     * streaming their ids and only the matched ids are kept, so that the
+     * ids of the low-selectivity indexes are never materialized.
+     */
     @Watched(prefix = "index")
     private IdHolder doJointIndex(IndexQueries queries) {
-        Set<Id> intersectIds = null;
+        List<JointIndexQuery> jointQueries = new ArrayList<>(queries.size());
         for (Map.Entry<IndexLabel, ConditionQuery> e : queries.entrySet()) {
-            Set<Id> ids = this.doIndexQuery(e.getKey(), e.getValue()).ids();
-            if (intersectIds == null) {
-                intersectIds = ids;
-            } else {
-                CollectionUtil.intersectWithModify(intersectIds, ids);
+            JointIndexQuery query = new JointIndexQuery(e.getKey(),
+                                                        e.getValue());
+            this.sampleIndexIds(query);
+            if (query.exhausted() && query.ids().isEmpty()) {
+                return new IdHolder(InsertionOrderUtil.newSet());
             }
+            jointQueries.add(query);
+        }
+        Collections.sort(jointQueries);
+
+        // Collect all ids of the most selective index query
+        JointIndexQuery first = jointQueries.get(0);
+        Set<Id> intersectIds;
+        if (first.exhausted()) {
+            intersectIds = first.ids();
+        } else {
+            Set<Id> ids = new IdSet();
+            this.scanIndexIds(first.indexLabel(), first.query(),
+                              ids::add, () -> false);
+            intersectIds = ids;
+        }
+
+        // Probe the other index queries with the collected ids
+        for (int i = 1; i < jointQueries.size(); i++) {
             if (intersectIds.isEmpty()) {
                 break;
             }
+            JointIndexQuery query = jointQueries.get(i);
+            Set<Id> candidates = intersectIds;
+            Set<Id> matched = new IdSet();
+            if (query.exhausted()) {
+                for (Id id : candidates) {
+                    if (query.ids().contains(id)) {
+                        matched.add(id);
+                    }
+                }
+            } else {
+                this.scanIndexIds(query.indexLabel(), query.query(), id -> {
+                    return candidates.contains(id) && matched.add(id);
+                }, () -> {
+                    // Stop scanning if all candidates are matched
+                    return matched.size() >= candidates.size();
+                });
+            }
+            intersectIds = matched;
+        }
+
+        Set<Id> results = InsertionOrderUtil.newSet();
+        results.addAll(intersectIds);
+        return new IdHolder(results);
+    }
+
+    private void sampleIndexIds(JointIndexQuery query) {
+        Set<Id> ids = InsertionOrderUtil.newSet();
+        boolean exhausted = this.scanIndexIds(
+                            query.indexLabel(), query.query(), ids::add,
+                            () -> ids.size() > JOINT_INDEX_SAMPLE_SIZE);
+        query.sampled(ids, exhausted);
+    }
+
+    /**
+     * Scan the element ids of the index query, until the stopper returns
+     * true, the limit of the query is reached or no more ids. The consumer
+     * returns true if the id is newly added, only such ids are counted to
+     * the limit. Return true if the scan stopped because of no more ids
+     */
+    private boolean scanIndexIds(IndexLabel indexLabel, ConditionQuery query,
+                                 Predicate<Id> consumer,
+                                 BooleanSupplier stopper) {
+        LockUtil.Locks locks = new LockUtil.Locks(this.graph().name());
+        try {
+            locks.lockReads(LockUtil.INDEX_LABEL_DELETE, indexLabel.id());
+            locks.lockReads(LockUtil.INDEX_LABEL_REBUILD, indexLabel.id());
+
+            long count = 0L;
+            Iterator<BackendEntry> entries = super.query(query);
+            while (entries.hasNext()) {
+                HugeIndex index = this.serializer.readIndex(graph(), query,
+                                                            entries.next());
+                for (Id id : index.elementIds()) {
+                    if (consumer.test(id) && query.reachLimit(++count)) {
+                        return false;
+                    }
+                    if (stopper.getAsBoolean()) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        } finally {
+            locks.unlock();
         }
-        return new IdHolder(intersectIds);
     }
 
     private ConditionQuery constructSearchQuery(ConditionQuery query,
@@ -1263,6 +1357,73 @@ public class GraphIndexTransaction extends AbstractTransaction {
         }
     }
 
+    private static class JointIndexQuery
+                   implements Comparable<JointIndexQuery> {
+
+        private final IndexLabel indexLabel;
+        private final ConditionQuery query;
+        private Set<Id> ids;
+        private boolean exhausted;
+
+        public JointIndexQuery(IndexLabel indexLabel, ConditionQuery query) {
+            this.indexLabel = indexLabel;
+            this.query = query;
+            this.ids = null;
+            this.exhausted = false;
+        }
+
+        public IndexLabel indexLabel() {
+            return this.indexLabel;
+        }
+
+        public ConditionQuery query() {
+            return this.query;
+        }
+
+        public Set<Id> ids() {
+            return this.ids;
+        }
+
+        public boolean exhausted() {
+            return this.exhausted;
+        }
+
+        public void sampled(Set<Id> ids, boolean exhausted) {
+            this.ids = ids;
+            this.exhausted = exhausted;
+        }
+
+        /**
+         * The index query with less ids is more selective, if both of them
+         * have more ids than sampled, the secondary index is considered to
+         * be more selective than the search, shard and range indexes
+         */
+        @Override
+        public int compareTo(JointIndexQuery other) {
+            if (this.exhausted && other.exhausted) {
+                return Integer.compare(this.ids.size(), other.ids.size());
+            } else if (this.exhausted != other.exhausted) {
+                return this.exhausted ? -1 : 1;
+            }
+            return Integer.compare(selectivity(this.indexLabel.indexType()),
+                                   selectivity(other.indexLabel.indexType()));
+        }
+
+        private static int selectivity(IndexType type) {
+            switch (type) {
+                case SECONDARY:
+                    return 0;
+                case SEARCH:
+                    return 1;
+                case SHARD:
+                    return 2;
+                default:
+                    assert type.isRange();
+                    return 3;
+            }
+        }
+    }
+
     private static class IndexQueries
                    extends HashMap<IndexLabel, ConditionQuery> {
 
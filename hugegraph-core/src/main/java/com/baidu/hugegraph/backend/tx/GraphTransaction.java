@@ -56,6 +56,7 @@ import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.store.BackendEntry;
 import com.baidu.hugegraph.backend.store.BackendMutation;
 import com.baidu.hugegraph.backend.store.BackendStore;
+import com.baidu.hugegraph.backend.store.Shard;
 import com.baidu.hugegraph.backend.tx.GraphIndexTransaction.OptimizedType;
 import com.baidu.hugegraph.config.CoreOptions;
 import com.baidu.hugegraph.config.HugeConfig;
@@ -114,6 +115,7 @@ public class GraphTransaction extends IndexableTransaction {
 
     private final int verticesCapacity;
     private final int edgesCapacity;
+    private final boolean optimizeAggrByIndex;
 
     public GraphTransaction(HugeGraph graph, BackendStore store) {
         super(graph, store);
@@ -126,6 +128,8 @@ public class GraphTransaction extends IndexableTransaction {
                                 CoreOptions.VERTEX_CHECK_CUSTOMIZED_ID_EXIST);
         this.verticesCapacity = conf.get(CoreOptions.VERTEX_TX_CAPACITY);
         this.edgesCapacity = conf.get(CoreOptions.EDGE_TX_CAPACITY);
+        this.optimizeAggrByIndex = conf.get(
+                                   CoreOptions.QUERY_OPTIMIZE_AGGR_BY_INDEX);
         this.locksTable = new LockUtil.LocksTable(graph.name());
     }
 
@@ -192,6 +196,18 @@ public class GraphTransaction extends IndexableTransaction {
         return new ArrayList<>(this.removedVertices.values());
     }
 
+    protected final Collection<HugeEdge> edgesInTxUpdated() {
+        int size = this.addedEdges.size() + this.updatedEdges.size();
+        List<HugeEdge> edges = new ArrayList<>(size);
+        edges.addAll(this.addedEdges.values());
+        edges.addAll(this.updatedEdges.values());
+        return edges;
+    }
+
+    protected final Collection<HugeEdge> edgesInTxRemoved() {
+        return new ArrayList<>(this.removedEdges.values());
+    }
+
     protected final boolean removingEdgeOwner(HugeEdge edge) {
         for (HugeVertex vertex : this.removedVertices.values()) {
             if (edge.belongToVertex(vertex)) {
@@ -215,6 +231,31 @@ public class GraphTransaction extends IndexableTransaction {
         return this.mutation();
     }
 
+    @Override
+    protected void commitMutation2Backend(BackendMutation... mutations) {
+        long start = System.nanoTime();
+        try {
+            super.commitMutation2Backend(mutations);
+        } finally {
+            this.graph().commitLatency().record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    protected void commitMutation2Store(BackendMutation... mutations) {
+        GroupCommitter committer = this.graph().groupCommitter();
+        /*
+         * The committer writes to the graph store only, the transactions of
+         * other stores like TaskTransaction of system store commit by self
+         */
+        if (committer == null || committer.store() != this.store()) {
+            super.commitMutation2Store(mutations);
+            return;
+        }
+        // Wait for the committer to commit mutations with other txs
+        committer.commit(mutations);
+    }
+
     protected void prepareAdditions(Map<Id, HugeVertex> addedVertices,
                                     Map<Id, HugeEdge> addedEdges) {
         if (this.checkVertexExist) {
@@ -336,6 +377,170 @@ public class GraphTransaction extends IndexableTransaction {
         return !queries.empty() ? queries.fetch() : Collections.emptyIterator();
     }
 
+    /**
+     * Count the vertices or edges matched by the query, they are counted by
+     * the backend store or by the index entries without deserializing them
+     * if possible, otherwise the queried elements are counted one by one,
+     * like when there are uncommitted updates or the query is limited.
+     */
+    @Override
+    @Watched(prefix = "graph")
+    public long queryNumber(Query query) {
+        HugeType type = query.resultType();
+        E.checkArgument(type.isGraph(),
+                        "Can't count the number of %s", type);
+        if (this.hasUpdates() || query.paging() || query.offset() > 0L ||
+            query.limit() != Query.NO_LIMIT) {
+            return this.countElements(query);
+        }
+
+        if (query instanceof ConditionQuery) {
+            long count = this.queryNumberByConditions((ConditionQuery) query);
+            return count >= 0L ? count : this.countElements(query);
+        } else if (!query.empty()) {
+            // Query by ids
+            return this.countElements(query);
+        }
+
+        // Query all, exclude the elements with hidden or deleting label
+        long count = super.queryNumber(query);
+        for (SchemaLabel label : this.schemaLabels(type)) {
+            if (countable(label, query)) {
+                continue;
+            }
+            ConditionQuery cq = new ConditionQuery(type);
+            cq.eq(HugeKeys.LABEL, label.id());
+            cq.showHidden(true);
+            cq.showDeleting(true);
+            cq.capacity(Query.NO_CAPACITY);
+            count -= this.queryNumber(cq);
+        }
+        return count;
+    }
+
+    /**
+     * Count by the backend store if all the flattened queries are sysprop
+     * queries, or by the index if all of them need index, return -1 if it
+     * can't be counted without querying the elements
+     */
+    private long queryNumberByConditions(ConditionQuery query) {
+        List<ConditionQuery> storeQueries = new ArrayList<>();
+        List<ConditionQuery> indexQueries = new ArrayList<>();
+        for (ConditionQuery cq : ConditionQueryFlatten.flatten(query)) {
+            if (!cq.ids().isEmpty() || !this.countableLabels(cq)) {
+                return -1L;
+            }
+            Query q = this.optimizeQuery(cq);
+            if (q == null) {
+                indexQueries.add(cq);
+            } else if (q == cq && cq.allSysprop()) {
+                storeQueries.add(cq);
+            } else {
+                // Query by primary-key or sort-keys
+                return -1L;
+            }
+        }
+
+        if (!indexQueries.isEmpty()) {
+            if (!storeQueries.isEmpty()) {
+                return -1L;
+            }
+            /*
+             * The label index is always consistent with the elements, but
+             * the left index of property may be counted in if query by
+             * property index, and it's exact only for the equality of
+             * secondary index or the range of range index. The candidates
+             * of search index need to be filtered, so never count by it.
+             */
+            for (ConditionQuery cq : indexQueries) {
+                if (cq.hasSearchCondition()) {
+                    return -1L;
+                }
+                boolean byLabel = cq.conditions().size() == 1 &&
+                                  cq.containsCondition(HugeKeys.LABEL);
+                if (!byLabel && !this.optimizeAggrByIndex) {
+                    return -1L;
+                }
+            }
+            return this.queryNumberByIndex(indexQueries);
+        }
+
+        long count = 0L;
+        for (ConditionQuery cq : storeQueries) {
+            count += super.queryNumber(cq);
+        }
+        return count;
+    }
+
+    private long queryNumberByIndex(List<ConditionQuery> queries) {
+        List<IdHolder> holders = new ArrayList<>();
+        for (ConditionQuery cq : queries) {
+            holders.addAll(this.indexQuery(cq));
+        }
+        if (holders.size() == 1) {
+            return holders.get(0).size();
+        }
+        // The ids of different holders may be duplicated
+        Set<Id> ids = new HashSet<>();
+        for (IdHolder holder : holders) {
+            ids.addAll(holder.ids());
+        }
+        return ids.size();
+    }
+
+    private long countElements(Query query) {
+        Iterator<?> results;
+        if (query.resultType().isVertex()) {
+            results = this.queryVertices(query);
+        } else {
+            results = this.queryEdges(query);
+        }
+        long count = 0L;
+        while (results.hasNext()) {
+            results.next();
+            count++;
+        }
+        return count;
+    }
+
+    private boolean countableLabels(ConditionQuery query) {
+        HugeType type = query.resultType();
+        Id label = (Id) query.condition(HugeKeys.LABEL);
+        if (label != null) {
+            SchemaLabel schemaLabel = type.isVertex() ?
+                                      this.graph().vertexLabel(label) :
+                                      this.graph().edgeLabel(label);
+            return countable(schemaLabel, query);
+        }
+        for (SchemaLabel schemaLabel : this.schemaLabels(type)) {
+            if (!countable(schemaLabel, query)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<SchemaLabel> schemaLabels(HugeType type) {
+        SchemaTransaction schema = this.graph().schemaTransaction();
+        if (type.isVertex()) {
+            return new ArrayList<>(schema.getVertexLabels());
+        } else {
+            return new ArrayList<>(schema.getEdgeLabels());
+        }
+    }
+
+    private static boolean countable(SchemaLabel label, Query query) {
+        // The elements with these labels are filtered out when querying
+        if (!query.showHidden() && Graph.Hidden.isHidden(label.name())) {
+            return false;
+        }
+        if (!query.showDeleting() &&
+            label.status() == SchemaStatus.DELETING) {
+            return false;
+        }
+        return true;
+    }
+
     @Watched(prefix = "graph")
     public HugeVertex addVertex(Object... keyValues) {
         return this.addVertex(this.constructVertex(true, keyValues));
@@ -1422,6 +1627,99 @@ public class GraphTransaction extends IndexableTransaction {
         this.traverseByLabel(label, this::queryEdges, consumer, deleting);
     }
 
+    public void traverseVerticesByShard(VertexLabel label, Shard shard,
+                                        Consumer<Vertex> consumer,
+                                        boolean deleting) {
+        this.traverseByShard(label, HugeType.VERTEX, shard,
+                             this::queryVertices, consumer, deleting);
+    }
+
+    public void traverseEdgesByShard(EdgeLabel label, Shard shard,
+                                     Consumer<Edge> consumer,
+                                     boolean deleting) {
+        // Each edge is stored in both EDGE_OUT and EDGE_IN, scan OUT only
+        this.traverseByShard(label, HugeType.EDGE_OUT, shard,
+                             this::queryEdges, consumer, deleting);
+    }
+
+    public void traverseVerticesByShard(Shard shard,
+                                        Consumer<Vertex> consumer) {
+        this.traverseByShard(null, HugeType.VERTEX, shard,
+                             this::queryVertices, consumer, false);
+    }
+
+    public void traverseEdgesByShard(Shard shard, Consumer<Edge> consumer) {
+        this.traverseByShard(null, HugeType.EDGE_OUT, shard,
+                             this::queryEdges, consumer, false);
+    }
+
+    public void traverseVertices(Consumer<Vertex> consumer) {
+        this.traverseAll(HugeType.VERTEX, this::queryVertices, consumer);
+    }
+
+    public void traverseEdges(Consumer<Edge> consumer) {
+        this.traverseAll(HugeType.EDGE, this::queryEdges, consumer);
+    }
+
+    private <T> void traverseByShard(SchemaLabel label, HugeType type,
+                                     Shard shard,
+                                     Function<Query, Iterator<T>> fetcher,
+                                     Consumer<T> consumer, boolean deleting) {
+        ConditionQuery query = new ConditionQuery(type);
+        query.scan(shard.start(), shard.end());
+        query.capacity(Query.NO_CAPACITY);
+        query.limit(Query.NO_LIMIT);
+        if (this.store().features().supportsQueryByPage()) {
+            query.page(PageInfo.PAGE_NONE);
+            query.limit(TRAVERSE_BATCH);
+        }
+        if (label != null && label.hidden()) {
+            query.showHidden(true);
+        }
+        query.showDeleting(deleting);
+
+        // The shard contains elements of all labels, filter by label if any
+        String page = null;
+        do {
+            Iterator<T> iter = fetcher.apply(query);
+            while (iter.hasNext()) {
+                T e = iter.next();
+                SchemaLabel elemLabel = ((HugeElement) e).schemaLabel();
+                if (label == null || label.equals(elemLabel)) {
+                    consumer.accept(e);
+                }
+            }
+            if (query.paging()) {
+                page = PageInfo.page(iter);
+                query.page(page);
+            }
+        } while (page != null);
+    }
+
+    private <T> void traverseAll(HugeType type,
+                                 Function<Query, Iterator<T>> fetcher,
+                                 Consumer<T> consumer) {
+        Query query = new Query(type);
+        query.capacity(Query.NO_CAPACITY);
+        query.limit(Query.NO_LIMIT);
+        if (this.store().features().supportsQueryByPage()) {
+            query.page(PageInfo.PAGE_NONE);
+            query.limit(TRAVERSE_BATCH);
+        }
+
+        String page = null;
+        do {
+            Iterator<T> iter = fetcher.apply(query);
+            while (iter.hasNext()) {
+                consumer.accept(iter.next());
+            }
+            if (query.paging()) {
+                page = PageInfo.page(iter);
+                query.page(page);
+            }
+        } while (page != null);
+    }
+
     private <T> void traverseByLabel(SchemaLabel label,
                                      Function<Query, Iterator<T>> fetcher,
                                      Consumer<T> consumer, boolean deleting) {
@@ -0,0 +1,335 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.tx;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.backend.store.BackendMutation;
+import com.baidu.hugegraph.backend.store.BackendStore;
+import com.baidu.hugegraph.config.CoreOptions;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.ExecutorUtil;
+import com.baidu.hugegraph.util.InsertionOrderUtil;
+import com.baidu.hugegraph.util.Log;
+
+/**
+ * Coalesce the mutations committed by concurrent transactions into one
+ * backend batch: the first waiting transaction opens a group, which is
+ * committed by a single committer thread once the group size reaches
+ * max-size or max-wait elapses, then all the transactions in the group
+ * return after the batch is committed.
+ * If a group fails, the transactions of it are committed one by one, so
+ * that a bad mutation only fails the transaction it belongs to.
+ */
+public final class GroupCommitter {
+
+    private static final Logger LOG = Log.logger(GroupCommitter.class);
+
+    private static final String COMMITTER = "group-commit-%d";
+    private static final long POLL_INTERVAL = 100L;
+
+    private final HugeGraph graph;
+    private final BackendStore store;
+    private final int maxSize;
+    private final long maxWaitNanos;
+
+    private final BlockingQueue<Request> requests;
+    private final ExecutorService executor;
+    private volatile boolean closed;
+
+    private final LongAdder groups;
+    private final LongAdder transactions;
+    private final LongAdder items;
+    private final LongAdder failedGroups;
+    private final LongAdder totalLatency;
+    private final AtomicLong maxGroupSize;
+    private final AtomicLong maxLatency;
+
+    public GroupCommitter(HugeGraph graph, BackendStore store) {
+        E.checkNotNull(graph, "graph");
+        E.checkNotNull(store, "store");
+        this.graph = graph;
+        this.store = store;
+        this.maxSize = graph.configuration().get(
+                       CoreOptions.GROUP_COMMIT_MAX_SIZE);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(
+                            graph.configuration().get(
+                            CoreOptions.GROUP_COMMIT_MAX_WAIT));
+
+        this.requests = new LinkedBlockingQueue<>();
+        this.closed = false;
+
+        this.groups = new LongAdder();
+        this.transactions = new LongAdder();
+        this.items = new LongAdder();
+        this.failedGroups = new LongAdder();
+        this.totalLatency = new LongAdder();
+        this.maxGroupSize = new AtomicLong();
+        this.maxLatency = new AtomicLong();
+
+        this.executor = ExecutorUtil.newFixedThreadPool(1, COMMITTER);
+        this.executor.submit(this::run);
+    }
+
+    /**
+     * Commit the mutations with the group the caller joined, block until
+     * the group is committed to the backend
+     */
+    public void commit(BackendMutation... mutations) {
+        Request request = new Request(mutations);
+        synchronized (this) {
+            // The committer exits only if closed and no request is waiting
+            E.checkState(!this.closed,
+                         "The group committer of graph '%s' has been closed",
+                         this.graph.name());
+            this.requests.add(request);
+        }
+        try {
+            request.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BackendException("Interrupted while waiting for " +
+                                       "the group commit", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof BackendException) {
+                throw (BackendException) cause;
+            }
+            throw new BackendException("Failed to commit the group", cause);
+        }
+    }
+
+    public BackendStore store() {
+        return this.store;
+    }
+
+    public Map<String, Object> metrics() {
+        long groups = this.groups.sum();
+        long transactions = this.transactions.sum();
+        Map<String, Object> metrics = InsertionOrderUtil.newMap();
+        metrics.put("groups", groups);
+        metrics.put("failed_groups", this.failedGroups.sum());
+        metrics.put("transactions", transactions);
+        metrics.put("items", this.items.sum());
+        metrics.put("max_group_size", this.maxGroupSize.get());
+        metrics.put("avg_group_size",
+                    groups == 0L ? 0.0 : (double) transactions / groups);
+        metrics.put("max_latency_ms", toMillis(this.maxLatency.get()));
+        metrics.put("avg_latency_ms", transactions == 0L ? 0.0 :
+                    toMillis(this.totalLatency.sum()) / transactions);
+        return metrics;
+    }
+
+    /**
+     * Stop accepting transactions, and wait for the committer to commit
+     * the waiting ones
+     */
+    public void close() {
+        synchronized (this) {
+            this.closed = true;
+        }
+        this.executor.shutdown();
+        try {
+            long timeout = this.graph.configuration().get(
+                           CoreOptions.TASK_WAIT_TIMEOUT);
+            if (!this.executor.awaitTermination(timeout, TimeUnit.SECONDS)) {
+                LOG.warn("Timeout when waiting for group committer of " +
+                         "graph {}", this.graph);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        // The committer commits with its own session of the store
+        try {
+            this.store.open(this.graph.configuration());
+        } catch (Throwable e) {
+            LOG.error("Failed to open store for group committer of " +
+                      "graph {}", this.graph, e);
+            synchronized (this) {
+                this.closed = true;
+            }
+            this.failWaiting();
+            return;
+        }
+        try {
+            List<Request> group = new ArrayList<>();
+            while (true) {
+                Request first = this.requests.poll(POLL_INTERVAL,
+                                                   TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (this.closed && this.requests.isEmpty()) {
+                        break;
+                    }
+                    continue;
+                }
+                this.collectGroup(first, group);
+                this.commitGroup(group);
+                group.clear();
+            }
+        } catch (InterruptedException e) {
+            LOG.warn("Group committer of graph {} is interrupted", this.graph);
+            Thread.currentThread().interrupt();
+        } finally {
+            this.failWaiting();
+            this.store.close();
+        }
+    }
+
+    private void collectGroup(Request first, List<Request> group)
+                              throws InterruptedException {
+        group.add(first);
+        long size = first.size;
+        long deadline = first.created + this.maxWaitNanos;
+        while (size < this.maxSize) {
+            Request request = this.requests.poll();
+            if (request == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0L) {
+                    break;
+                }
+                request = this.requests.poll(remaining, TimeUnit.NANOSECONDS);
+                if (request == null) {
+                    break;
+                }
+            }
+            group.add(request);
+            size += request.size;
+        }
+    }
+
+    private void commitGroup(List<Request> group) {
+        try {
+            this.commit2Backend(group);
+        } catch (Throwable e) {
+            this.failedGroups.increment();
+            LOG.warn("Failed to commit group of {} transactions, " +
+                     "retry them one by one", group.size(), e);
+            for (Request request : group) {
+                try {
+                    this.commit2Backend(request);
+                } catch (Throwable e2) {
+                    request.error = e2;
+                }
+            }
+        }
+
+        // Update metrics before waking up the transactions
+        long now = System.nanoTime();
+        long size = 0L;
+        for (Request request : group) {
+            long latency = now - request.created;
+            this.totalLatency.add(latency);
+            this.maxLatency.accumulateAndGet(latency, Math::max);
+            size += request.size;
+        }
+        this.groups.increment();
+        this.transactions.add(group.size());
+        this.items.add(size);
+        this.maxGroupSize.accumulateAndGet(group.size(), Math::max);
+
+        for (Request request : group) {
+            if (request.error != null) {
+                request.future.completeExceptionally(request.error);
+            } else {
+                request.future.complete(null);
+            }
+        }
+    }
+
+    private void commit2Backend(List<Request> group) {
+        this.store.beginTx();
+        try {
+            for (Request request : group) {
+                for (BackendMutation mutation : request.mutations) {
+                    this.store.mutate(mutation);
+                }
+            }
+            this.store.commitTx();
+        } catch (Throwable e) {
+            this.rollbackQuietly();
+            throw e;
+        }
+    }
+
+    private void commit2Backend(Request request) {
+        List<Request> group = new ArrayList<>(1);
+        group.add(request);
+        this.commit2Backend(group);
+    }
+
+    private void rollbackQuietly() {
+        try {
+            this.store.rollbackTx();
+        } catch (Throwable e) {
+            LOG.error("Failed to rollback group commit", e);
+        }
+    }
+
+    private void failWaiting() {
+        Request request;
+        while ((request = this.requests.poll()) != null) {
+            request.future.completeExceptionally(new BackendException(
+                    "The group committer of graph '%s' has been closed",
+                    this.graph.name()));
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1000000.0;
+    }
+
+    private static class Request {
+
+        private final BackendMutation[] mutations;
+        private final long size;
+        private final long created;
+        private final CompletableFuture<Void> future;
+        private Throwable error;
+
+        public Request(BackendMutation[] mutations) {
+            long size = 0L;
+            for (BackendMutation mutation : mutations) {
+                size += mutation.size();
+            }
+            this.mutations = mutations;
+            this.size = size;
+            this.created = System.nanoTime();
+            this.future = new CompletableFuture<>();
+            this.error = null;
+        }
+    }
+}
@@ -416,19 +416,19 @@ public class SchemaTransaction extends IndexableTransaction {
     @Watched(prefix = "schema")
     public Id getNextId(HugeType type) {
         LOG.debug("SchemaTransaction get next id for {}", type);
-        return this.store().nextId(type);
+        return this.graph().idCounter().nextId(this.store(), type);
     }
 
     @Watched(prefix = "schema")
     public void setNextIdLowest(HugeType type, long lowest) {
         LOG.debug("SchemaTransaction set next id to {} for {}", lowest, type);
-        this.store().setCounterLowest(type, lowest);
+        this.graph().idCounter().setCounterLowest(this.store(), type, lowest);
     }
 
     @Watched(prefix = "schema")
     public Id getNextSystemId() {
         LOG.debug("SchemaTransaction get next system id");
-        Id id = this.store().nextId(HugeType.SYS_SCHEMA);
+        Id id = this.getNextId(HugeType.SYS_SCHEMA);
         return IdGenerator.of(-id.asLong());
     }
 
@@ -20,10 +20,12 @@
 package com.baidu.hugegraph.config;
 
 import static com.baidu.hugegraph.backend.tx.GraphTransaction.COMMIT_BATCH;
+import static com.baidu.hugegraph.config.OptionChecker.allowValues;
 import static com.baidu.hugegraph.config.OptionChecker.disallowEmpty;
 import static com.baidu.hugegraph.config.OptionChecker.rangeInt;
 
 import com.baidu.hugegraph.backend.query.Query;
+import com.baidu.hugegraph.util.Bytes;
 
 public class CoreOptions extends OptionHolder {
 
@@ -115,6 +117,77 @@ public class CoreOptions extends OptionHolder {
                     10L
             );
 
+    public static final ConfigOption<Integer> TASK_REBUILD_INDEX_THREADS =
+            new ConfigOption<>(
+                    "task.rebuild_index_threads",
+                    "The number of threads to rebuild index, each thread " +
+                    "rebuilds the index of one shard at a time, only " +
+                    "works for the backends which support scanning by shard.",
+                    rangeInt(1, 1024),
+                    4
+            );
+
+    public static final ConfigOption<Long> TASK_REBUILD_INDEX_SPLIT_SIZE =
+            new ConfigOption<>(
+                    "task.rebuild_index_split_size",
+                    "The size in bytes of each shard to rebuild index, the " +
+                    "rebuilding can be resumed from the unfinished shards " +
+                    "after the server restarts.",
+                    rangeInt(Bytes.MB, Long.MAX_VALUE),
+                    64L * Bytes.MB
+            );
+
+    public static final ConfigOption<Long> TASK_REBUILD_INDEX_SCAN_THRESHOLD =
+            new ConfigOption<>(
+                    "task.rebuild_index_scan_threshold",
+                    "The min number of elements of a label to rebuild its " +
+                    "index by scanning the shards of the whole table, the " +
+                    "smaller labels are rebuilt by traversing label index.",
+                    rangeInt(0L, Long.MAX_VALUE),
+                    100000L
+            );
+
+    public static final ConfigOption<Integer> TASK_ID_BLOCK_SIZE =
+            new ConfigOption<>(
+                    "task.id_block_size",
+                    "The number of task ids leased from the backend counter " +
+                    "at a time, the ids are handed out locally until the " +
+                    "block is exhausted, the ids left are skipped after the " +
+                    "server restarts.",
+                    rangeInt(1, 100000),
+                    100
+            );
+
+    public static final ConfigOption<Integer> COMPUTER_WORKERS =
+            new ConfigOption<>(
+                    "computer.workers",
+                    "The default number of threads to load the graph and " +
+                    "run the vertex programs of graph computer, which can " +
+                    "be overridden by GraphComputer.workers().",
+                    rangeInt(1, 1024),
+                    Runtime.getRuntime().availableProcessors()
+            );
+
+    public static final ConfigOption<Long> COMPUTER_SPLIT_SIZE =
+            new ConfigOption<>(
+                    "computer.split_size",
+                    "The size in bytes of each shard to load the vertices " +
+                    "and edges of graph computer in parallel, only works " +
+                    "for the backends which support scanning by shard.",
+                    rangeInt(Bytes.MB, Long.MAX_VALUE),
+                    64L * Bytes.MB
+            );
+
+    public static final ConfigOption<Integer> COMPUTER_BATCH_SIZE =
+            new ConfigOption<>(
+                    "computer.batch_size",
+                    "The number of vertices to commit in a transaction when " +
+                    "writing the results of graph computer back as vertex " +
+                    "properties.",
+                    rangeInt(1, 100000),
+                    500
+            );
+
     public static final ConfigOption<Long> CONNECTION_DETECT_INTERVAL =
             new ConfigOption<>(
                     "store.connection_detect_interval",
@@ -180,6 +253,15 @@ public class CoreOptions extends OptionHolder {
                     100000
             );
 
+    public static final ConfigOption<String> SCHEMA_CACHE_TYPE =
+            new ConfigOption<>(
+                    "schema.cache_type",
+                    "The type of schema cache, 'ram' means the LRU cache, " +
+                    "'segmented' means the segmented W-TinyLFU cache.",
+                    allowValues("ram", "segmented"),
+                    "ram"
+            );
+
     public static final ConfigOption<Boolean> SCHEMA_SYNC_DELETION =
             new ConfigOption<>(
                     "schema.sync_deletion",
@@ -188,6 +270,17 @@ public class CoreOptions extends OptionHolder {
                     false
             );
 
+    public static final ConfigOption<Integer> SCHEMA_ID_BLOCK_SIZE =
+            new ConfigOption<>(
+                    "schema.id_block_size",
+                    "The number of schema ids leased from the backend " +
+                    "counter at a time, the ids left are skipped after the " +
+                    "server restarts, so keep it small to make schema ids " +
+                    "compact.",
+                    rangeInt(1, 10000),
+                    1
+            );
+
     public static final ConfigOption<Integer> VERTEX_CACHE_CAPACITY =
             new ConfigOption<>(
                     "vertex.cache_capacity",
@@ -196,6 +289,26 @@ public class CoreOptions extends OptionHolder {
                     (1000 * 1000 * 10)
             );
 
+    public static final ConfigOption<String> VERTEX_CACHE_TYPE =
+            new ConfigOption<>(
+                    "vertex.cache_type",
+                    "The type of vertex cache, 'ram' means the LRU cache, " +
+                    "'segmented' means the segmented W-TinyLFU cache.",
+                    allowValues("ram", "segmented"),
+                    "ram"
+            );
+
+    public static final ConfigOption<Integer> VERTEX_CACHE_OFFHEAP_SIZE =
+            new ConfigOption<>(
+                    "vertex.cache_offheap_size",
+                    "The max off-heap memory size(MB) of vertex cache tier " +
+                    "which stores serialized vertices behind the vertex " +
+                    "cache, 0 means disabled, only works with binary " +
+                    "serializer.",
+                    rangeInt(0, Integer.MAX_VALUE),
+                    0
+            );
+
     public static final ConfigOption<Integer> VERTEX_CACHE_EXPIRE =
             new ConfigOption<>(
                     "vertex.cache_expire",
@@ -212,6 +325,15 @@ public class CoreOptions extends OptionHolder {
                     (1000 * 1000 * 1)
             );
 
+    public static final ConfigOption<String> EDGE_CACHE_TYPE =
+            new ConfigOption<>(
+                    "edge.cache_type",
+                    "The type of edge cache, 'ram' means the LRU cache, " +
+                    "'segmented' means the segmented W-TinyLFU cache.",
+                    allowValues("ram", "segmented"),
+                    "ram"
+            );
+
     public static final ConfigOption<Integer> EDGE_CACHE_EXPIRE =
             new ConfigOption<>(
                     "edge.cache_expire",
@@ -228,6 +350,75 @@ public class CoreOptions extends OptionHolder {
                     500
             );
 
+    public static final ConfigOption<Integer> QUERY_BATCH_SIZE =
+            new ConfigOption<>(
+                    "query.batch_size",
+                    "The max size of each batch when query vertices by ids " +
+                    "from backend, the ids in a batch are fetched by one " +
+                    "backend multi-get.",
+                    rangeInt(1, (int) Query.DEFAULT_CAPACITY),
+                    1000
+            );
+
+    public static final ConfigOption<Integer> QUERY_ADJACENT_BATCH_SIZE =
+            new ConfigOption<>(
+                    "query.adjacent_batch_size",
+                    "The number of traversers gathered by a gremlin out()/" +
+                    "in()/both() step to look up their adjacent vertices " +
+                    "together, 1 means looking up for each traverser.",
+                    rangeInt(1, (int) Query.DEFAULT_CAPACITY),
+                    1
+            );
+
+    public static final ConfigOption<Boolean> QUERY_OPTIMIZE_AGGR_BY_INDEX =
+            new ConfigOption<>(
+                    "query.optimize_aggregate_by_index",
+                    "Whether to count the results of gremlin count() by the " +
+                    "property index entries without querying the vertices " +
+                    "or edges, the left index entries of updated properties " +
+                    "may be counted in.",
+                    disallowEmpty(),
+                    false
+            );
+
+    public static final ConfigOption<Integer> TRAVERSER_THREADS =
+            new ConfigOption<>(
+                    "traverser.threads",
+                    "The size of the thread pool shared by the traversers " +
+                    "of a graph, which is used to expand the vertices of " +
+                    "each level in parallel if requested.",
+                    rangeInt(1, 1024),
+                    Runtime.getRuntime().availableProcessors()
+            );
+
+    public static final ConfigOption<Boolean> GROUP_COMMIT =
+            new ConfigOption<>(
+                    "commit.group_commit",
+                    "Whether to coalesce the mutations committed by " +
+                    "concurrent graph transactions into one backend batch.",
+                    disallowEmpty(),
+                    false
+            );
+
+    public static final ConfigOption<Integer> GROUP_COMMIT_MAX_SIZE =
+            new ConfigOption<>(
+                    "commit.group_max_size",
+                    "The max size(items) of mutations in a group commit, " +
+                    "a group is committed once its size reaches the value.",
+                    rangeInt(1, 1000000),
+                    5000
+            );
+
+    public static final ConfigOption<Long> GROUP_COMMIT_MAX_WAIT =
+            new ConfigOption<>(
+                    "commit.group_max_wait",
+                    "The max time in milliseconds to wait for more " +
+                    "transactions to join a group commit, value 0 means " +
+                    "only grouping the transactions already waiting.",
+                    rangeInt(0L, 1000L),
+                    2L
+            );
+
     public static final ConfigOption<Long> SNOWFLAKE_WORKER_ID =
             new ConfigOption<>(
                     "snowflake.worker_id",
@@ -89,6 +89,6 @@ public class JobBuilder<T> {
     }
 
     private Id genTaskId() {
-        return this.graph.schemaTransaction().store().nextId(HugeType.TASK);
+        return this.graph.schemaTransaction().getNextId(HugeType.TASK);
     }
 }
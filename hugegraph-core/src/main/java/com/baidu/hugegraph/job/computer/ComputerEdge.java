@@ -0,0 +1,144 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.job.computer;
+
+import java.util.Iterator;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+import com.baidu.hugegraph.backend.id.EdgeId;
+import com.baidu.hugegraph.exception.NotFoundException;
+import com.baidu.hugegraph.structure.HugeEdge;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * The edge view of graph computer, the properties are read from the backend
+ * when accessed since they are not kept in the CsrGraph.
+ */
+public class ComputerEdge implements Edge {
+
+    private final CsrGraph graph;
+    private final int source;
+    private final int position;
+
+    private HugeEdge origin;
+
+    public ComputerEdge(CsrGraph graph, int source, int position) {
+        this.graph = graph;
+        this.source = source;
+        this.position = position;
+        this.origin = null;
+    }
+
+    @Override
+    public EdgeId id() {
+        return this.graph.edgeId(this.source, this.position);
+    }
+
+    @Override
+    public String label() {
+        return this.graph.edgeLabel(this.position).name();
+    }
+
+    @Override
+    public Graph graph() {
+        return this.graph.graph();
+    }
+
+    @Override
+    public Iterator<Vertex> vertices(Direction direction) {
+        switch (direction) {
+            case OUT:
+                return ImmutableList.<Vertex>of(this.outVertex()).iterator();
+            case IN:
+                return ImmutableList.<Vertex>of(this.inVertex()).iterator();
+            default:
+                return ImmutableList.<Vertex>of(this.outVertex(),
+                                                this.inVertex()).iterator();
+        }
+    }
+
+    @Override
+    public Vertex outVertex() {
+        return new ComputerVertex(this.graph, this.source);
+    }
+
+    @Override
+    public Vertex inVertex() {
+        return new ComputerVertex(this.graph, this.target());
+    }
+
+    public int target() {
+        return this.graph.target(this.position);
+    }
+
+    public ComputerVertex otherVertex(int vertex) {
+        int other = vertex == this.source ? this.target() : this.source;
+        return new ComputerVertex(this.graph, other);
+    }
+
+    @Override
+    public <V> Iterator<Property<V>> properties(String... keys) {
+        return this.origin().properties(keys);
+    }
+
+    @Override
+    public <V> Property<V> property(String key, V value) {
+        throw Edge.Exceptions.propertyAdditionNotSupported();
+    }
+
+    @Override
+    public void remove() {
+        throw Edge.Exceptions.edgeRemovalNotSupported();
+    }
+
+    private HugeEdge origin() {
+        if (this.origin == null) {
+            Iterator<Edge> edges = this.graph.graph().edges(this.id());
+            if (!edges.hasNext()) {
+                throw new NotFoundException("Edge '%s' does not exist",
+                                            this.id());
+            }
+            this.origin = (HugeEdge) edges.next();
+        }
+        return this.origin;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return ElementHelper.areEqual(this, obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return ElementHelper.hashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.edgeString(this);
+    }
+}
@@ -0,0 +1,422 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.job.computer;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer.Persist;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
+import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
+import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.util.DefaultComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.util.VertexProgramHelper;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.HugeException;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.store.BackendFeatures;
+import com.baidu.hugegraph.backend.store.Shard;
+import com.baidu.hugegraph.backend.tx.GraphTransaction;
+import com.baidu.hugegraph.config.CoreOptions;
+import com.baidu.hugegraph.job.Job;
+import com.baidu.hugegraph.schema.PropertyKey;
+import com.baidu.hugegraph.schema.VertexLabel;
+import com.baidu.hugegraph.structure.HugeEdge;
+import com.baidu.hugegraph.structure.HugeVertex;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.ExecutorUtil;
+import com.baidu.hugegraph.util.JsonUtil;
+import com.baidu.hugegraph.util.Log;
+
+/**
+ * Run a vertex program with the bulk synchronous parallel model: the
+ * vertices and edges are loaded into a CsrGraph by scanning the shards of
+ * backend in parallel, then each superstep executes all the vertices by the
+ * workers, and the results are written back as vertex properties at last.
+ * The progress of task is the number of supersteps finished.
+ */
+public class ComputerJob extends Job<Object> {
+
+    private static final Logger LOG = Log.logger(ComputerJob.class);
+
+    public static final String TASK_TYPE = "computer";
+
+    private static final String WORKERS = "hugegraph.computer.workers";
+    private static final String PERSIST = "hugegraph.computer.persist";
+    private static final String GRAPH_FILTER =
+                                "hugegraph.computer.graphFilter";
+
+    private static final String COMPUTER_WORKER = "computer-worker-%d";
+
+    // The number of vertices loaded or executed by a worker at a time
+    private static final int VERTEX_BATCH = 1024;
+
+    private volatile ComputerResult result = null;
+
+    @Override
+    public String type() {
+        return TASK_TYPE;
+    }
+
+    public ComputerResult result() {
+        E.checkState(this.result != null,
+                     "The result of graph computer is not available");
+        return this.result;
+    }
+
+    @Override
+    public Object execute() throws Exception {
+        Configuration config = config(this.task().input());
+        VertexProgram<Object> program = VertexProgram.createVertexProgram(
+                                        this.graph(), config);
+        int workers = config.getInt(WORKERS);
+        Persist persist = Persist.valueOf(config.getString(PERSIST));
+        GraphFilter filter = config.containsKey(GRAPH_FILTER) ?
+                             VertexProgramHelper.deserialize(config,
+                                                             GRAPH_FILTER) :
+                             new GraphFilter();
+
+        ExecutorService executor = ExecutorUtil.newFixedThreadPool(
+                                   workers, COMPUTER_WORKER);
+        try {
+            CsrGraph graph = this.load(executor, workers, filter);
+            List<String> persistKeys = new ArrayList<>();
+            if (persist == Persist.VERTEX_PROPERTIES) {
+                for (VertexComputeKey key : program.getVertexComputeKeys()) {
+                    if (!key.isTransient()) {
+                        persistKeys.add(key.getKey());
+                    }
+                }
+                // Check before computing rather than failing at the end
+                this.checkPersistKeys(graph, persistKeys);
+            }
+
+            ComputerMemory memory = this.compute(executor, workers,
+                                                 graph, program);
+            if (!persistKeys.isEmpty()) {
+                this.persist(executor, workers, graph, persistKeys);
+            }
+
+            this.result = new DefaultComputerResult(this.graph(),
+                                                    memory.asImmutable());
+            return memory.asMap();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private CsrGraph load(ExecutorService executor, int workers,
+                          GraphFilter filter) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        boolean edgeFilter = filter.hasEdgeFilter();
+        CsrGraph.Vertices vertices = new CsrGraph.Vertices();
+        // The edges may be loaded from both vertices if filtered by vertex
+        CsrGraph.Edges edges = new CsrGraph.Edges(vertices, edgeFilter);
+        Queue<List<HugeEdge>> legalEdges = new ConcurrentLinkedQueue<>();
+
+        this.scan(executor, workers, HugeType.VERTEX, (tx, shard) -> {
+            List<HugeVertex> batch = new ArrayList<>(VERTEX_BATCH);
+            Consumer<Vertex> consumer = vertex -> {
+                if (!filter.legalVertex(vertex)) {
+                    return;
+                }
+                batch.add((HugeVertex) vertex);
+                if (edgeFilter) {
+                    List<HugeEdge> edgesOfVertex = new ArrayList<>();
+                    Iterator<Edge> iter = filter.legalEdges(vertex);
+                    while (iter.hasNext()) {
+                        edgesOfVertex.add((HugeEdge) iter.next());
+                    }
+                    legalEdges.add(edgesOfVertex);
+                }
+                if (batch.size() >= VERTEX_BATCH) {
+                    vertices.add(batch);
+                    batch.clear();
+                }
+            };
+            if (shard == null) {
+                tx.traverseVertices(consumer);
+            } else {
+                tx.traverseVerticesByShard(shard, consumer);
+            }
+            vertices.add(batch);
+        });
+
+        if (edgeFilter) {
+            // Add the edges after all vertices are numbered
+            for (List<HugeEdge> edgesOfVertex : legalEdges) {
+                edges.add(edgesOfVertex);
+            }
+        } else {
+            this.scan(executor, workers, HugeType.EDGE_OUT, (tx, shard) -> {
+                List<HugeEdge> batch = new ArrayList<>(VERTEX_BATCH);
+                Consumer<Edge> consumer = edge -> {
+                    batch.add((HugeEdge) edge);
+                    if (batch.size() >= VERTEX_BATCH) {
+                        edges.add(batch);
+                        batch.clear();
+                    }
+                };
+                if (shard == null) {
+                    tx.traverseEdges(consumer);
+                } else {
+                    tx.traverseEdgesByShard(shard, consumer);
+                }
+                edges.add(batch);
+            });
+        }
+
+        CsrGraph graph = CsrGraph.build(this.graph(), vertices, edges);
+        LOG.info("Loaded {} vertices and {} edges for graph computer in {}ms",
+                 graph.size(), graph.edges(),
+                 System.currentTimeMillis() - start);
+        return graph;
+    }
+
+    private ComputerMemory compute(ExecutorService executor, int workers,
+                                   CsrGraph graph,
+                                   VertexProgram<Object> program)
+                                   throws InterruptedException {
+        long start = System.currentTimeMillis();
+        graph.initValues(program.getVertexComputeKeys());
+        ComputerMemory memory = new ComputerMemory(program);
+        MessageBoard<Object> board = new MessageBoard<>(
+                                     graph, program.getMessageCombiner()
+                                                   .orElse(null));
+        int size = graph.size();
+        int batches = (size + VERTEX_BATCH - 1) / VERTEX_BATCH;
+        workers = Math.max(1, Math.min(workers, batches));
+
+        program.setup(memory);
+        memory.completeSubRound();
+        while (true) {
+            AtomicInteger next = new AtomicInteger(0);
+            this.parallel(executor, workers, () -> {
+                // Each worker executes vertices with its own program
+                VertexProgram<Object> worker = program.clone();
+                ComputerMessenger<Object> messenger = new ComputerMessenger<>(
+                                                      graph, board);
+                worker.workerIterationStart(memory.asImmutable());
+                int begin;
+                while ((begin = next.getAndAdd(VERTEX_BATCH)) < size) {
+                    int end = Math.min(begin + VERTEX_BATCH, size);
+                    for (int i = begin; i < end; i++) {
+                        ComputerVertex vertex = new ComputerVertex(graph, i);
+                        messenger.vertex(vertex);
+                        worker.execute(vertex, messenger, memory);
+                    }
+                }
+                worker.workerIterationEnd(memory.asImmutable());
+            });
+            board.completeIteration();
+            memory.completeSubRound();
+
+            boolean terminated = program.terminate(memory);
+            memory.incrIteration();
+            this.updateProgress(memory.getIteration());
+            if (terminated) {
+                break;
+            }
+            memory.completeSubRound();
+        }
+        memory.setRuntime(System.currentTimeMillis() - start);
+        memory.complete();
+
+        LOG.info("Executed {} in {} supersteps in {}ms", program,
+                 memory.getIteration() + 1, memory.getRuntime());
+        return memory;
+    }
+
+    private void checkPersistKeys(CsrGraph graph, List<String> keys) {
+        for (String key : keys) {
+            PropertyKey pkey = this.graph().schemaTransaction()
+                                   .getPropertyKey(key);
+            E.checkArgument(pkey != null,
+                            "The property key '%s' must be created before " +
+                            "persisting the results of graph computer", key);
+            for (VertexLabel label : graph.vertexLabels()) {
+                E.checkArgument(label.properties().contains(pkey.id()),
+                                "The property key '%s' must be a property " +
+                                "of vertex label '%s' to persist the " +
+                                "results of graph computer",
+                                key, label.name());
+            }
+        }
+    }
+
+    private void persist(ExecutorService executor, int workers,
+                         CsrGraph graph, List<String> keys)
+                         throws InterruptedException {
+        long start = System.currentTimeMillis();
+        int batchSize = this.graph().configuration().get(
+                        CoreOptions.COMPUTER_BATCH_SIZE);
+        int size = graph.size();
+        AtomicInteger next = new AtomicInteger(0);
+        this.parallel(executor, workers, () -> {
+            // Each worker writes the vertices with its own transaction
+            GraphTransaction tx = this.graph().graphTransaction();
+            int begin;
+            while ((begin = next.getAndAdd(batchSize)) < size) {
+                int end = Math.min(begin + batchSize, size);
+                List<Id> ids = new ArrayList<>(end - begin);
+                for (int i = begin; i < end; i++) {
+                    for (String key : keys) {
+                        if (graph.value(key, i) != null) {
+                            ids.add(graph.id(i));
+                            break;
+                        }
+                    }
+                }
+                if (ids.isEmpty()) {
+                    continue;
+                }
+                // The vertices removed after loading are ignored
+                Iterator<Vertex> vertices = tx.queryVertices(ids.toArray());
+                while (vertices.hasNext()) {
+                    HugeVertex vertex = (HugeVertex) vertices.next();
+                    int index = graph.index(vertex.id());
+                    for (String key : keys) {
+                        Object value = graph.value(key, index);
+                        if (value != null) {
+                            vertex.property(key, value);
+                        }
+                    }
+                }
+                tx.commit();
+            }
+        });
+        LOG.info("Persisted the results of graph computer in {}ms",
+                 System.currentTimeMillis() - start);
+    }
+
+    private void scan(ExecutorService executor, int workers, HugeType type,
+                      BiConsumer<GraphTransaction, Shard> scanner)
+                      throws InterruptedException {
+        List<Shard> shards = this.splits(type);
+        if (shards == null) {
+            // Scan all in one worker if not support scanning by shard
+            this.parallel(executor, 1, () -> {
+                scanner.accept(this.graph().graphTransaction(), null);
+            });
+            return;
+        }
+        AtomicInteger next = new AtomicInteger(0);
+        workers = Math.max(1, Math.min(workers, shards.size()));
+        this.parallel(executor, workers, () -> {
+            GraphTransaction tx = this.graph().graphTransaction();
+            int index;
+            while ((index = next.getAndIncrement()) < shards.size()) {
+                scanner.accept(tx, shards.get(index));
+            }
+        });
+    }
+
+    private List<Shard> splits(HugeType type) {
+        GraphTransaction graphTx = this.graph().graphTransaction();
+        BackendFeatures features = graphTx.store().features();
+        if (!features.supportsScanToken() && !features.supportsScanKeyRange()) {
+            return null;
+        }
+        long splitSize = this.graph().configuration().get(
+                         CoreOptions.COMPUTER_SPLIT_SIZE);
+        return graphTx.metadata(type, "splits", splitSize);
+    }
+
+    private void parallel(ExecutorService executor, int workers,
+                          Runnable worker) throws InterruptedException {
+        List<Future<?>> futures = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            futures.add(executor.submit(() -> {
+                try {
+                    worker.run();
+                } finally {
+                    this.graph().closeTx();
+                }
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new HugeException("Failed to run graph computer", cause);
+        } finally {
+            // Stop the other workers if any one failed
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    public static String input(VertexProgram<?> program, GraphFilter filter,
+                               int workers, Persist persist) {
+        BaseConfiguration config = new BaseConfiguration();
+        config.setDelimiterParsingDisabled(true);
+        program.storeState(config);
+        config.setProperty(WORKERS, workers);
+        config.setProperty(PERSIST, persist.name());
+        if (filter.hasFilter()) {
+            VertexProgramHelper.serialize(filter, config, GRAPH_FILTER);
+        }
+
+        Map<String, Object> input = new LinkedHashMap<>();
+        Iterator<String> keys = config.getKeys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            input.put(key, config.getProperty(key));
+        }
+        return JsonUtil.toJson(input);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Configuration config(String input) {
+        E.checkArgument(input != null && !input.isEmpty(),
+                        "The input of graph computer can't be empty");
+        Map<String, Object> map = JsonUtil.fromJson(input, Map.class);
+        BaseConfiguration config = new BaseConfiguration();
+        config.setDelimiterParsingDisabled(true);
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            config.setProperty(entry.getKey(), entry.getValue());
+        }
+        return config;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.job.computer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.computer.Memory;
+import org.apache.tinkerpop.gremlin.process.computer.MemoryComputeKey;
+import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.util.MemoryHelper;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+/**
+ * The memory shared by the workers of graph computer. The values added in a
+ * superstep are reduced into the current map concurrently, and can be read
+ * from the previous map after the superstep completes.
+ */
+public class ComputerMemory implements Memory.Admin {
+
+    private final Map<String, MemoryComputeKey<Object>> keys;
+    private final AtomicInteger iteration;
+    private final AtomicLong runtime;
+
+    private volatile Map<String, Object> previous;
+    private volatile Map<String, Object> current;
+    private volatile boolean inExecute;
+
+    @SuppressWarnings("unchecked")
+    public ComputerMemory(VertexProgram<?> program) {
+        this.keys = new HashMap<>();
+        for (MemoryComputeKey<?> key : program.getMemoryComputeKeys()) {
+            this.keys.put(key.getKey(), (MemoryComputeKey<Object>) key);
+        }
+        this.iteration = new AtomicInteger(0);
+        this.runtime = new AtomicLong(0L);
+        this.previous = new ConcurrentHashMap<>();
+        this.current = new ConcurrentHashMap<>();
+        this.inExecute = false;
+    }
+
+    @Override
+    public Set<String> keys() {
+        return this.previous.keySet().stream().filter(key -> {
+            return !this.inExecute || this.keys.get(key).isBroadcast();
+        }).collect(Collectors.toSet());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> R get(String key) throws IllegalArgumentException {
+        R value = (R) this.previous.get(key);
+        if (value == null ||
+            this.inExecute && !this.keys.get(key).isBroadcast()) {
+            throw Memory.Exceptions.memoryDoesNotExist(key);
+        }
+        return value;
+    }
+
+    @Override
+    public void set(String key, Object value) {
+        this.checkKeyValue(key, value);
+        if (this.inExecute) {
+            throw Memory.Exceptions
+                        .memorySetOnlyDuringVertexProgramSetUpAndTerminate(key);
+        }
+        this.current.put(key, value);
+    }
+
+    @Override
+    public void add(String key, Object value) {
+        this.checkKeyValue(key, value);
+        if (!this.inExecute) {
+            throw Memory.Exceptions
+                        .memoryAddOnlyDuringVertexProgramExecute(key);
+        }
+        MemoryComputeKey<Object> computeKey = this.keys.get(key);
+        this.current.merge(key, value, computeKey.getReducer());
+    }
+
+    @Override
+    public int getIteration() {
+        return this.iteration.get();
+    }
+
+    @Override
+    public void incrIteration() {
+        this.iteration.incrementAndGet();
+    }
+
+    @Override
+    public void setIteration(int iteration) {
+        this.iteration.set(iteration);
+    }
+
+    @Override
+    public long getRuntime() {
+        return this.runtime.get();
+    }
+
+    @Override
+    public void setRuntime(long runtime) {
+        this.runtime.set(runtime);
+    }
+
+    /**
+     * Switch between executing vertices and setup/terminate, the values
+     * written before are visible after switching
+     */
+    public void completeSubRound() {
+        this.previous = new ConcurrentHashMap<>(this.current);
+        this.inExecute = !this.inExecute;
+    }
+
+    /**
+     * Complete the computing, the transient values are dropped
+     */
+    public void complete() {
+        this.iteration.decrementAndGet();
+        this.previous = this.current;
+        for (MemoryComputeKey<Object> key : this.keys.values()) {
+            if (key.isTransient()) {
+                this.previous.remove(key.getKey());
+            }
+        }
+    }
+
+    private void checkKeyValue(String key, Object value) {
+        if (!this.keys.containsKey(key)) {
+            throw GraphComputer.Exceptions
+                               .providedKeyIsNotAMemoryComputeKey(key);
+        }
+        MemoryHelper.validateValue(value);
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.memoryString(this);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.job.computer;
+
+import java.util.Iterator;
+import java.util.function.BiFunction;
+
+import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
+import org.apache.tinkerpop.gremlin.process.computer.Messenger;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import com.baidu.hugegraph.job.computer.MessageBoard.Incident;
+
+/**
+ * The messenger of a worker, which is reused by the vertices executed by the
+ * worker one by one.
+ */
+public class ComputerMessenger<M> implements Messenger<M> {
+
+    private final CsrGraph graph;
+    private final MessageBoard<M> board;
+
+    private ComputerVertex vertex;
+
+    public ComputerMessenger(CsrGraph graph, MessageBoard<M> board) {
+        this.graph = graph;
+        this.board = board;
+        this.vertex = null;
+    }
+
+    public void vertex(ComputerVertex vertex) {
+        this.vertex = vertex;
+    }
+
+    @Override
+    public Iterator<M> receiveMessages() {
+        return this.board.receive(this.vertex.index());
+    }
+
+    @Override
+    public void sendMessage(MessageScope scope, M message) {
+        if (scope instanceof MessageScope.Local) {
+            @SuppressWarnings("unchecked")
+            MessageScope.Local<M> local = (MessageScope.Local<M>) scope;
+            Incident incident = this.board.incident(local);
+            if (incident == Incident.TRAVERSAL) {
+                this.sendByTraversal(local, message);
+            } else {
+                this.sendByIncident(incident, local.getEdgeFunction(),
+                                    message);
+            }
+        } else {
+            assert scope instanceof MessageScope.Global;
+            for (Vertex v : ((MessageScope.Global) scope).vertices()) {
+                int target = v instanceof ComputerVertex ?
+                             ((ComputerVertex) v).index() :
+                             this.graph.index(v.id());
+                // Ignore the message sent to the vertex not loaded
+                if (target >= 0) {
+                    this.board.send(target, message);
+                }
+            }
+        }
+    }
+
+    private void sendByIncident(Incident incident,
+                                BiFunction<M, Edge, M> edgeFunction,
+                                M message) {
+        int source = this.vertex.index();
+        int[] labels = incident.labels();
+        Direction direction = incident.direction();
+        if (direction == Direction.OUT || direction == Direction.BOTH) {
+            int end = this.graph.outEnd(source);
+            for (int i = this.graph.outBegin(source); i < end; i++) {
+                if (!this.graph.matchLabel(i, labels)) {
+                    continue;
+                }
+                Edge edge = new ComputerEdge(this.graph, source, i);
+                this.board.send(this.graph.target(i),
+                                edgeFunction.apply(message, edge));
+            }
+        }
+        if (direction == Direction.IN || direction == Direction.BOTH) {
+            int end = this.graph.inEnd(source);
+            for (int i = this.graph.inBegin(source); i < end; i++) {
+                int position = this.graph.inEdge(i);
+                if (!this.graph.matchLabel(position, labels)) {
+                    continue;
+                }
+                int target = this.graph.inSource(i);
+                Edge edge = new ComputerEdge(this.graph, target, position);
+                this.board.send(target, edgeFunction.apply(message, edge));
+            }
+        }
+    }
+
+    private void sendByTraversal(MessageScope.Local<M> scope, M message) {
+        Traversal.Admin<Vertex, Edge> traversal;
+        traversal = scope.getIncidentTraversal().get().asAdmin();
+        traversal.addStart(traversal.getTraverserGenerator().generate(
+                           this.vertex, traversal.getStartStep(), 1L));
+        BiFunction<M, Edge, M> edgeFunction = scope.getEdgeFunction();
+        int source = this.vertex.index();
+        while (traversal.hasNext()) {
+            Edge edge = traversal.next();
+            Vertex other = edge.outVertex();
+            if (this.graph.index(other.id()) == source) {
+                other = edge.inVertex();
+            }
+            int target = this.graph.index(other.id());
+            if (target >= 0) {
+                this.board.send(target, edgeFunction.apply(message, edge));
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.job.computer;
+
+import java.util.Collections;
+import java.util.Iterator;
+
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+/**
+ * The property of a vertex compute key, which lives in memory only unless
+ * it's persisted after computing.
+ */
+public class ComputerProperty<V> implements VertexProperty<V> {
+
+    private final ComputerVertex vertex;
+    private final String key;
+    private final V value;
+
+    public ComputerProperty(ComputerVertex vertex, String key, V value) {
+        this.vertex = vertex;
+        this.key = key;
+        this.value = value;
+    }
+
+    @Override
+    public Object id() {
+        return this.key;
+    }
+
+    @Override
+    public String key() {
+        return this.key;
+    }
+
+    @Override
+    public V value() {
+        return this.value;
+    }
+
+    @Override
+    public boolean isPresent() {
+        return true;
+    }
+
+    @Override
+    public ComputerVertex element() {
+        return this.vertex;
+    }
+
+    @Override
+    public <U> Property<U> property(String key, U value) {
+        throw VertexProperty.Exceptions.metaPropertiesNotSupported();
+    }
+
+    @Override
+    public <U> Iterator<Property<U>> properties(String... keys) {
+        return Collections.emptyIterator();
+    }
+
+    @Override
+    public void remove() {
+        this.vertex.removeProperty(this.key);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return ElementHelper.areEqual(this, obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return ElementHelper.hashCode((Property<?>) this);
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.propertyString(this);
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.job.computer;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.exception.NotFoundException;
+import com.baidu.hugegraph.iterator.MapperIterator;
+import com.baidu.hugegraph.structure.HugeVertex;
+import com.baidu.hugegraph.util.E;
+
+/**
+ * The vertex view of graph computer: the adjacency comes from the CsrGraph,
+ * the compute keys are read and written in memory, and the other properties
+ * are read from the backend when accessed.
+ */
+public class ComputerVertex implements Vertex {
+
+    private final CsrGraph graph;
+    private final int index;
+
+    private HugeVertex origin;
+
+    public ComputerVertex(CsrGraph graph, int index) {
+        this.graph = graph;
+        this.index = index;
+        this.origin = null;
+    }
+
+    public int index() {
+        return this.index;
+    }
+
+    @Override
+    public Id id() {
+        return this.graph.id(this.index);
+    }
+
+    @Override
+    public String label() {
+        return this.graph.label(this.index).name();
+    }
+
+    @Override
+    public Graph graph() {
+        return this.graph.graph();
+    }
+
+    @Override
+    public Iterator<Edge> edges(Direction direction, String... labels) {
+        int[] labelIds = this.graph.edgeLabels(labels);
+        List<Edge> edges = new ArrayList<>();
+        if (direction == Direction.OUT || direction == Direction.BOTH) {
+            int end = this.graph.outEnd(this.index);
+            for (int i = this.graph.outBegin(this.index); i < end; i++) {
+                if (this.graph.matchLabel(i, labelIds)) {
+                    edges.add(new ComputerEdge(this.graph, this.index, i));
+                }
+            }
+        }
+        if (direction == Direction.IN || direction == Direction.BOTH) {
+            int end = this.graph.inEnd(this.index);
+            for (int i = this.graph.inBegin(this.index); i < end; i++) {
+                int position = this.graph.inEdge(i);
+                if (this.graph.matchLabel(position, labelIds)) {
+                    edges.add(new ComputerEdge(this.graph,
+                                               this.graph.inSource(i),
+                                               position));
+                }
+            }
+        }
+        return edges.iterator();
+    }
+
+    @Override
+    public Iterator<Vertex> vertices(Direction direction, String... labels) {
+        return new MapperIterator<>(this.edges(direction, labels), edge -> {
+            ComputerEdge e = (ComputerEdge) edge;
+            return e.otherVertex(this.index);
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <V> VertexProperty<V> property(String key) {
+        if (this.graph.isComputeKey(key)) {
+            Object value = this.graph.value(key, this.index);
+            if (value == null) {
+                return VertexProperty.<V>empty();
+            }
+            return new ComputerProperty<>(this, key, (V) value);
+        }
+        return this.origin().property(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <V> Iterator<VertexProperty<V>> properties(String... keys) {
+        List<VertexProperty<V>> props = new ArrayList<>();
+        List<String> originKeys = new ArrayList<>();
+        if (keys.length == 0) {
+            for (String key : this.graph.computeKeys()) {
+                VertexProperty<V> prop = this.property(key);
+                if (prop.isPresent()) {
+                    props.add(prop);
+                }
+            }
+            Iterator<VertexProperty<V>> iter = this.origin().properties();
+            while (iter.hasNext()) {
+                props.add(iter.next());
+            }
+            return props.iterator();
+        }
+        for (String key : keys) {
+            if (this.graph.isComputeKey(key)) {
+                VertexProperty<V> prop = this.property(key);
+                if (prop.isPresent()) {
+                    props.add(prop);
+                }
+            } else {
+                originKeys.add(key);
+            }
+        }
+        if (!originKeys.isEmpty()) {
+            Iterator<VertexProperty<V>> iter = this.origin().properties(
+                                               originKeys.toArray(
+                                               new String[0]));
+            while (iter.hasNext()) {
+                props.add(iter.next());
+            }
+        }
+        return props.iterator();
+    }
+
+    @Override
+    public <V> VertexProperty<V> property(VertexProperty.Cardinality card,
+                                          String key, V value,
+                                          Object... keyValues) {
+        if (!this.graph.isComputeKey(key)) {
+            throw GraphComputer.Exceptions
+                               .providedKeyIsNotAnElementComputeKey(key);
+        }
+        if (keyValues.length > 0) {
+            throw VertexProperty.Exceptions.metaPropertiesNotSupported();
+        }
+        E.checkArgument(value != null,
+                        "The value of compute key '%s' can't be null", key);
+        this.graph.value(key, this.index, value);
+        return new ComputerProperty<>(this, key, value);
+    }
+
+    protected void removeProperty(String key) {
+        this.graph.value(key, this.index, null);
+    }
+
+    @Override
+    public Edge addEdge(String label, Vertex vertex, Object... keyValues) {
+        throw Vertex.Exceptions.edgeAdditionsNotSupported();
+    }
+
+    @Override
+    public void remove() {
+        throw Vertex.Exceptions.vertexRemovalNotSupported();
+    }
+
+    private HugeVertex origin() {
+        if (this.origin == null) {
+            Iterator<Vertex> vertices = this.graph.graph().vertices(this.id());
+            if (!vertices.hasNext()) {
+                throw new NotFoundException("Vertex '%s' does not exist",
+                                            this.id());
+            }
+            this.origin = (HugeVertex) vertices.next();
+        }
+        return this.origin;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return ElementHelper.areEqual(this, obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return ElementHelper.hashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.vertexString(this);
+    }
+}
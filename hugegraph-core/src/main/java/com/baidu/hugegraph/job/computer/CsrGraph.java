@@ -0,0 +1,389 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.job.computer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.EdgeId;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.schema.EdgeLabel;
+import com.baidu.hugegraph.schema.SchemaLabel;
+import com.baidu.hugegraph.schema.VertexLabel;
+import com.baidu.hugegraph.structure.HugeEdge;
+import com.baidu.hugegraph.structure.HugeVertex;
+import com.baidu.hugegraph.type.define.Directions;
+import com.baidu.hugegraph.util.E;
+
+/**
+ * The in-memory graph of graph computer, the vertices are numbered from 0 and
+ * the adjacency is kept in the compressed sparse row format: the out edges of
+ * vertex v are at the positions [outOffsets[v], outOffsets[v + 1]) of the
+ * edge arrays, and the in edges refer to the positions of the out edges.
+ * Only ids and labels are kept, other properties are read from the backend
+ * on demand. The values of vertex compute keys are kept in arrays indexed by
+ * the vertex number, each of which is only written by the worker executing
+ * the vertex, and published to others at the end of each superstep.
+ */
+public class CsrGraph {
+
+    private final HugeGraph graph;
+
+    private final Id[] ids;
+    private final int[] labels;
+    private final Map<Id, Integer> indexes;
+    private final VertexLabel[] vertexLabels;
+
+    private final int[] outOffsets;
+    private final int[] outTargets;
+    private final int[] outLabels;
+    private final String[] sortValues;
+    private final EdgeLabel[] edgeLabels;
+
+    private final int[] inOffsets;
+    private final int[] inSources;
+    private final int[] inEdges;
+
+    private final Map<String, Object[]> values;
+
+    private CsrGraph(HugeGraph graph, Vertices vertices, Edges edges) {
+        this.graph = graph;
+
+        int size = vertices.ids.size();
+        this.ids = vertices.ids.toArray(new Id[size]);
+        this.labels = vertices.labels.toArray();
+        this.vertexLabels = vertices.schemas.toArray(new VertexLabel[0]);
+        this.indexes = vertices.indexes;
+
+        int count = edges.sources.size;
+        this.outOffsets = new int[size + 1];
+        this.outTargets = new int[count];
+        this.outLabels = new int[count];
+        this.sortValues = edges.hasSortValues ? new String[count] : null;
+        this.edgeLabels = edges.schemas.toArray(new EdgeLabel[0]);
+        this.inOffsets = new int[size + 1];
+        this.inSources = new int[count];
+        this.inEdges = new int[count];
+
+        // Sort the edges by source and then by target with counting sort
+        int[] sources = edges.sources.values;
+        int[] targets = edges.targets.values;
+        for (int i = 0; i < count; i++) {
+            this.outOffsets[sources[i] + 1]++;
+            this.inOffsets[targets[i] + 1]++;
+        }
+        for (int v = 0; v < size; v++) {
+            this.outOffsets[v + 1] += this.outOffsets[v];
+            this.inOffsets[v + 1] += this.inOffsets[v];
+        }
+        int[] outCursors = Arrays.copyOf(this.outOffsets, size);
+        int[] inCursors = Arrays.copyOf(this.inOffsets, size);
+        for (int i = 0; i < count; i++) {
+            int source = sources[i];
+            int target = targets[i];
+            int position = outCursors[source]++;
+            this.outTargets[position] = target;
+            this.outLabels[position] = edges.labels.values[i];
+            if (this.sortValues != null) {
+                this.sortValues[position] = edges.sortValues.get(i);
+            }
+            int in = inCursors[target]++;
+            this.inSources[in] = source;
+            this.inEdges[in] = position;
+        }
+
+        this.values = new HashMap<>();
+    }
+
+    public HugeGraph graph() {
+        return this.graph;
+    }
+
+    public int size() {
+        return this.ids.length;
+    }
+
+    public int edges() {
+        return this.outTargets.length;
+    }
+
+    public Id id(int vertex) {
+        return this.ids[vertex];
+    }
+
+    public VertexLabel label(int vertex) {
+        return this.vertexLabels[this.labels[vertex]];
+    }
+
+    public List<VertexLabel> vertexLabels() {
+        return Arrays.asList(this.vertexLabels);
+    }
+
+    /**
+     * Get the number of the vertex, -1 if the vertex isn't loaded
+     */
+    public int index(Object id) {
+        Integer index = this.indexes.get(HugeVertex.getIdValue(id));
+        return index == null ? -1 : index;
+    }
+
+    public int outBegin(int vertex) {
+        return this.outOffsets[vertex];
+    }
+
+    public int outEnd(int vertex) {
+        return this.outOffsets[vertex + 1];
+    }
+
+    public int target(int position) {
+        return this.outTargets[position];
+    }
+
+    public int inBegin(int vertex) {
+        return this.inOffsets[vertex];
+    }
+
+    public int inEnd(int vertex) {
+        return this.inOffsets[vertex + 1];
+    }
+
+    public int inSource(int in) {
+        return this.inSources[in];
+    }
+
+    public int inEdge(int in) {
+        return this.inEdges[in];
+    }
+
+    public EdgeLabel edgeLabel(int position) {
+        return this.edgeLabels[this.outLabels[position]];
+    }
+
+    public EdgeId edgeId(int source, int position) {
+        String sortValues = this.sortValues == null ?
+                            "" : this.sortValues[position];
+        return new EdgeId(this.ids[source], Directions.OUT,
+                          this.edgeLabel(position).id(), sortValues,
+                          this.ids[this.outTargets[position]]);
+    }
+
+    /**
+     * Get the numbers of edge labels by names, null means any label
+     */
+    public int[] edgeLabels(String... names) {
+        if (names.length == 0) {
+            return null;
+        }
+        int[] labels = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            // The label which doesn't exist matches no edge
+            labels[i] = -1;
+            for (int j = 0; j < this.edgeLabels.length; j++) {
+                if (this.edgeLabels[j].name().equals(names[i])) {
+                    labels[i] = j;
+                    break;
+                }
+            }
+        }
+        return labels;
+    }
+
+    public boolean matchLabel(int position, int[] labels) {
+        if (labels == null) {
+            return true;
+        }
+        int label = this.outLabels[position];
+        for (int l : labels) {
+            if (l == label) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void initValues(Set<VertexComputeKey> keys) {
+        for (VertexComputeKey key : keys) {
+            this.values.put(key.getKey(), new Object[this.size()]);
+        }
+    }
+
+    public boolean isComputeKey(String key) {
+        return this.values.containsKey(key);
+    }
+
+    public Set<String> computeKeys() {
+        return this.values.keySet();
+    }
+
+    public Object value(String key, int vertex) {
+        return this.values.get(key)[vertex];
+    }
+
+    public void value(String key, int vertex, Object value) {
+        this.values.get(key)[vertex] = value;
+    }
+
+    /**
+     * Collect the vertices loaded by multiple workers, the vertices are
+     * numbered when building graph
+     */
+    public static class Vertices {
+
+        private final List<Id> ids;
+        private final IntList labels;
+        private final List<VertexLabel> schemas;
+        private final Map<Id, Integer> schemaIndexes;
+        private final Map<Id, Integer> indexes;
+
+        public Vertices() {
+            this.ids = new ArrayList<>();
+            this.labels = new IntList();
+            this.schemas = new ArrayList<>();
+            this.schemaIndexes = new HashMap<>();
+            this.indexes = new HashMap<>();
+        }
+
+        public synchronized void add(List<HugeVertex> vertices) {
+            for (HugeVertex vertex : vertices) {
+                Id id = vertex.id();
+                if (this.indexes.putIfAbsent(id, this.ids.size()) != null) {
+                    // Ignore the vertex loaded twice
+                    continue;
+                }
+                this.ids.add(id);
+                this.labels.add(index(this.schemas, this.schemaIndexes,
+                                      vertex.schemaLabel()));
+            }
+        }
+
+        public int size() {
+            return this.ids.size();
+        }
+    }
+
+    /**
+     * Collect the edges loaded by multiple workers, the edges whose source
+     * or target vertex isn't loaded are ignored
+     */
+    public static class Edges {
+
+        private final Vertices vertices;
+        private final IntList sources;
+        private final IntList targets;
+        private final IntList labels;
+        private final List<String> sortValues;
+        private final List<EdgeLabel> schemas;
+        private final Map<Id, Integer> schemaIndexes;
+        private final Set<Id> loaded;
+        private boolean hasSortValues;
+
+        public Edges(Vertices vertices, boolean deduplicate) {
+            this.vertices = vertices;
+            this.sources = new IntList();
+            this.targets = new IntList();
+            this.labels = new IntList();
+            this.sortValues = new ArrayList<>();
+            this.schemas = new ArrayList<>();
+            this.schemaIndexes = new HashMap<>();
+            this.loaded = deduplicate ? new HashSet<>() : null;
+            this.hasSortValues = false;
+        }
+
+        public synchronized void add(List<HugeEdge> edges) {
+            for (HugeEdge edge : edges) {
+                Integer source = this.vertices.indexes.get(
+                                 edge.sourceVertex().id());
+                Integer target = this.vertices.indexes.get(
+                                 edge.targetVertex().id());
+                if (source == null || target == null) {
+                    continue;
+                }
+                String sortValues = edge.id().sortValues();
+                if (this.loaded != null) {
+                    // The edge may be loaded from both of the vertices
+                    EdgeId id = new EdgeId(edge.sourceVertex().id(),
+                                           Directions.OUT,
+                                           edge.schemaLabel().id(),
+                                           sortValues,
+                                           edge.targetVertex().id());
+                    if (!this.loaded.add(id)) {
+                        continue;
+                    }
+                }
+                this.sources.add(source);
+                this.targets.add(target);
+                this.labels.add(index(this.schemas, this.schemaIndexes,
+                                      edge.schemaLabel()));
+                this.sortValues.add(sortValues);
+                if (sortValues != null && !sortValues.isEmpty()) {
+                    this.hasSortValues = true;
+                }
+            }
+        }
+
+        public int size() {
+            return this.sources.size;
+        }
+    }
+
+    public static CsrGraph build(HugeGraph graph, Vertices vertices,
+                                 Edges edges) {
+        E.checkArgument(edges.vertices == vertices,
+                        "The edges must be loaded with the vertices");
+        return new CsrGraph(graph, vertices, edges);
+    }
+
+    private static <T extends SchemaLabel> int index(List<T> schemas,
+                                                     Map<Id, Integer> indexes,
+                                                     T schema) {
+        Integer index = indexes.get(schema.id());
+        if (index == null) {
+            index = schemas.size();
+            schemas.add(schema);
+            indexes.put(schema.id(), index);
+        }
+        return index;
+    }
+
+    private static class IntList {
+
+        private int[] values = new int[16];
+        private int size = 0;
+
+        public void add(int value) {
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.size << 1);
+            }
+            this.values[this.size++] = value;
+        }
+
+        public int[] toArray() {
+            return Arrays.copyOf(this.values, this.size);
+        }
+    }
+}
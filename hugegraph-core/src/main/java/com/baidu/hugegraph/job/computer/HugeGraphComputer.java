@@ -0,0 +1,252 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.job.computer;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
+import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
+import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.util.GraphComputerHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.config.CoreOptions;
+import com.baidu.hugegraph.exception.NotSupportException;
+import com.baidu.hugegraph.job.JobBuilder;
+import com.baidu.hugegraph.task.HugeTask;
+
+/**
+ * The graph computer running vertex programs in the server process, each
+ * submission is scheduled as a task of type 'computer' which can be observed
+ * and cancelled by the task api. Only the original graph can be the result
+ * graph, and the vertex compute keys can be persisted as vertex properties.
+ */
+public class HugeGraphComputer implements GraphComputer {
+
+    private static final int MAX_WORKERS = 1024;
+
+    private final HugeGraph graph;
+    private final GraphFilter graphFilter;
+
+    private VertexProgram<?> program;
+    private ResultGraph resultGraph;
+    private Persist persist;
+    private int workers;
+    private boolean submitted;
+
+    public HugeGraphComputer(HugeGraph graph) {
+        this.graph = graph;
+        this.graphFilter = new GraphFilter();
+        this.program = null;
+        this.resultGraph = null;
+        this.persist = null;
+        this.workers = graph.configuration().get(CoreOptions.COMPUTER_WORKERS);
+        this.submitted = false;
+    }
+
+    @Override
+    public GraphComputer result(ResultGraph resultGraph) {
+        this.resultGraph = resultGraph;
+        return this;
+    }
+
+    @Override
+    public GraphComputer persist(Persist persist) {
+        this.persist = persist;
+        return this;
+    }
+
+    @Override
+    public GraphComputer program(VertexProgram program) {
+        this.program = program;
+        return this;
+    }
+
+    @Override
+    public GraphComputer mapReduce(MapReduce mapReduce) {
+        throw new NotSupportException("map-reduce of graph computer");
+    }
+
+    @Override
+    public GraphComputer workers(int workers) {
+        this.workers = workers;
+        return this;
+    }
+
+    @Override
+    public GraphComputer vertices(Traversal<Vertex, Vertex> vertexFilter) {
+        this.graphFilter.setVertexFilter(vertexFilter);
+        return this;
+    }
+
+    @Override
+    public GraphComputer edges(Traversal<Vertex, Edge> edgeFilter) {
+        this.graphFilter.setEdgeFilter(edgeFilter);
+        return this;
+    }
+
+    @Override
+    public Future<ComputerResult> submit() {
+        if (this.submitted) {
+            throw GraphComputer.Exceptions
+                               .computerHasAlreadyBeenSubmittedAVertexProgram();
+        }
+        this.submitted = true;
+
+        if (this.program == null) {
+            throw GraphComputer.Exceptions
+                               .computerHasNoVertexProgramNorMapReducers();
+        }
+        GraphComputerHelper.validateProgramOnComputer(this, this.program);
+        if (this.workers < 1 || this.workers > MAX_WORKERS) {
+            throw GraphComputer.Exceptions
+                               .computerRequiresMoreWorkersThanSupported(
+                                this.workers, MAX_WORKERS);
+        }
+
+        // The NEW result graph preferred by most programs isn't supported
+        ResultGraph resultGraph = this.resultGraph != null ?
+                                  this.resultGraph : ResultGraph.ORIGINAL;
+        Persist persist = GraphComputerHelper.getPersistState(
+                          Optional.of(this.program),
+                          Optional.ofNullable(this.persist));
+        if (!this.features().supportsResultGraphPersistCombination(
+                             resultGraph, persist)) {
+            throw GraphComputer.Exceptions
+                               .resultGraphPersistCombinationNotSupported(
+                                resultGraph, persist);
+        }
+
+        ComputerJob job = new ComputerJob();
+        HugeTask<Object> task = JobBuilder.of(this.graph)
+                                          .name(this.program.toString())
+                                          .input(ComputerJob.input(
+                                                 this.program,
+                                                 this.graphFilter,
+                                                 this.workers, persist))
+                                          .job(job)
+                                          .schedule();
+        return new ComputerFuture(task, job);
+    }
+
+    @Override
+    public Features features() {
+        return new Features() {
+
+            @Override
+            public int getMaxWorkers() {
+                return MAX_WORKERS;
+            }
+
+            @Override
+            public boolean supportsVertexAddition() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsVertexRemoval() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsEdgeAddition() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsEdgeRemoval() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsEdgePropertyAddition() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsEdgePropertyRemoval() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsResultGraphPersistCombination(
+                           ResultGraph resultGraph, Persist persist) {
+                return resultGraph == ResultGraph.ORIGINAL &&
+                       persist != Persist.EDGES;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hugegraphcomputer[%s]", this.graph.name());
+    }
+
+    private static class ComputerFuture implements Future<ComputerResult> {
+
+        private final HugeTask<Object> task;
+        private final ComputerJob job;
+
+        public ComputerFuture(HugeTask<Object> task, ComputerJob job) {
+            this.task = task;
+            this.job = job;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return this.task.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return this.task.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return this.task.isDone();
+        }
+
+        @Override
+        public ComputerResult get() throws InterruptedException,
+                                           ExecutionException {
+            this.task.get();
+            return this.job.result();
+        }
+
+        @Override
+        public ComputerResult get(long timeout, TimeUnit unit)
+                                  throws InterruptedException,
+                                         ExecutionException,
+                                         TimeoutException {
+            this.task.get(timeout, unit);
+            return this.job.result();
+        }
+    }
+}
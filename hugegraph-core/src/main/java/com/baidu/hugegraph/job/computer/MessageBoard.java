@@ -0,0 +1,181 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.job.computer;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
+import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+/**
+ * The messages sent in a superstep are received in the next one. The inbox
+ * of each vertex is a slot of an array updated with CAS, which holds the
+ * combined message if the vertex program has a combiner, or else the head of
+ * a linked list of the messages.
+ */
+public class MessageBoard<M> {
+
+    private final CsrGraph graph;
+    private final MessageCombiner<M> combiner;
+    private final Map<MessageScope.Local<?>, Incident> incidents;
+
+    private AtomicReferenceArray<Object> receiving;
+    private AtomicReferenceArray<Object> sending;
+
+    public MessageBoard(CsrGraph graph, MessageCombiner<M> combiner) {
+        this.graph = graph;
+        this.combiner = combiner;
+        this.incidents = new ConcurrentHashMap<>();
+        this.receiving = new AtomicReferenceArray<>(graph.size());
+        this.sending = new AtomicReferenceArray<>(graph.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void send(int target, M message) {
+        if (message == null) {
+            return;
+        }
+        while (true) {
+            Object old = this.sending.get(target);
+            Object value;
+            if (this.combiner != null) {
+                value = old == null ? message :
+                        this.combiner.combine((M) old, message);
+            } else {
+                value = new Node(message, (Node) old);
+            }
+            if (this.sending.compareAndSet(target, old, value)) {
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public Iterator<M> receive(int vertex) {
+        Object value = this.receiving.get(vertex);
+        if (value == null) {
+            return Collections.emptyIterator();
+        } else if (this.combiner != null) {
+            return IteratorUtils.of((M) value);
+        }
+        return new NodeIterator<>((Node) value);
+    }
+
+    /**
+     * Make the messages sent in this superstep receivable, it must be called
+     * after all the workers have finished the superstep
+     */
+    public void completeIteration() {
+        this.receiving = this.sending;
+        this.sending = new AtomicReferenceArray<>(this.graph.size());
+    }
+
+    /**
+     * Resolve the incident edges of local message scope, which is read from
+     * the CsrGraph directly if it's a single VertexStep like outE('knows')
+     */
+    public Incident incident(MessageScope.Local<?> scope) {
+        return this.incidents.computeIfAbsent(scope, key -> {
+            Traversal.Admin<Vertex, Edge> traversal;
+            traversal = scope.getIncidentTraversal().get().asAdmin();
+            List<Step> steps = traversal.getSteps();
+            if (steps.size() == 1 &&
+                steps.get(0).getClass() == VertexStep.class) {
+                VertexStep<?> step = (VertexStep<?>) steps.get(0);
+                if (step.returnsEdge()) {
+                    return new Incident(step.getDirection(),
+                                        this.graph.edgeLabels(
+                                        step.getEdgeLabels()));
+                }
+            }
+            return Incident.TRAVERSAL;
+        });
+    }
+
+    public static class Incident {
+
+        public static final Incident TRAVERSAL = new Incident(null, null);
+
+        private final Direction direction;
+        private final int[] labels;
+
+        public Incident(Direction direction, int[] labels) {
+            this.direction = direction;
+            this.labels = labels;
+        }
+
+        public Direction direction() {
+            return this.direction;
+        }
+
+        public int[] labels() {
+            return this.labels;
+        }
+    }
+
+    private static final class Node {
+
+        private final Object message;
+        private final Node next;
+
+        public Node(Object message, Node next) {
+            this.message = message;
+            this.next = next;
+        }
+    }
+
+    private static final class NodeIterator<M> implements Iterator<M> {
+
+        private Node node;
+
+        public NodeIterator(Node head) {
+            this.node = head;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.node != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public M next() {
+            if (this.node == null) {
+                throw new NoSuchElementException();
+            }
+            M message = (M) this.node.message;
+            this.node = this.node.next;
+            return message;
+        }
+    }
+}
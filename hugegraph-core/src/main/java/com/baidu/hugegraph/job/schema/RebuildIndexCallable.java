@@ -19,42 +19,71 @@
 
 package com.baidu.hugegraph.job.schema;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.slf4j.Logger;
 
+import com.baidu.hugegraph.HugeException;
 import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.query.ConditionQuery;
+import com.baidu.hugegraph.backend.store.BackendFeatures;
+import com.baidu.hugegraph.backend.store.Shard;
 import com.baidu.hugegraph.backend.tx.GraphTransaction;
 import com.baidu.hugegraph.backend.tx.SchemaTransaction;
+import com.baidu.hugegraph.config.CoreOptions;
 import com.baidu.hugegraph.schema.EdgeLabel;
 import com.baidu.hugegraph.schema.IndexLabel;
 import com.baidu.hugegraph.schema.SchemaElement;
 import com.baidu.hugegraph.schema.SchemaLabel;
 import com.baidu.hugegraph.schema.VertexLabel;
 import com.baidu.hugegraph.structure.HugeElement;
+import com.baidu.hugegraph.task.HugeTask;
 import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.type.define.HugeKeys;
 import com.baidu.hugegraph.type.define.SchemaStatus;
+import com.baidu.hugegraph.util.ExecutorUtil;
+import com.baidu.hugegraph.util.JsonUtil;
 import com.baidu.hugegraph.util.LockUtil;
+import com.baidu.hugegraph.util.Log;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 public class RebuildIndexCallable extends SchemaCallable {
 
+    private static final Logger LOG = Log.logger(RebuildIndexCallable.class);
+
+    private static final String REBUILD_INDEX_WORKER =
+                                "rebuild-index-worker-%d";
+
+    // The progress of the last saved checkpoint, guarded by the checkpoint
+    private int savedProgress = -1;
+
     @Override
     public String type() {
         return SchemaCallable.REBUILD_INDEX;
     }
 
     @Override
-    public Object execute() {
+    public Object execute() throws Exception {
         this.rebuildIndex(this.schemaElement());
         return null;
     }
 
-    private void rebuildIndex(SchemaElement schema) {
+    private void rebuildIndex(SchemaElement schema)
+                              throws InterruptedException {
         switch (schema.type()) {
             case INDEX_LABEL:
                 IndexLabel indexLabel = (IndexLabel) schema;
@@ -79,7 +108,8 @@ public class RebuildIndexCallable extends SchemaCallable {
         }
     }
 
-    private void rebuildIndex(SchemaLabel label, Collection<Id> indexLabelIds) {
+    private void rebuildIndex(SchemaLabel label, Collection<Id> indexLabelIds)
+                              throws InterruptedException {
         SchemaTransaction schemaTx = this.graph().schemaTransaction();
         GraphTransaction graphTx = this.graph().graphTransaction();
 
@@ -94,6 +124,9 @@ public class RebuildIndexCallable extends SchemaCallable {
             }
         };
 
+        // The shards saved before restarting, null if rebuild from scratch
+        Checkpoint checkpoint = Checkpoint.fromJson(this.task().input());
+
         LockUtil.Locks locks = new LockUtil.Locks(this.graph().name());
         try {
             locks.lockWrites(LockUtil.INDEX_LABEL_REBUILD, indexLabelIds);
@@ -109,18 +142,36 @@ public class RebuildIndexCallable extends SchemaCallable {
                 schemaTx.updateSchemaStatus(il, SchemaStatus.REBUILDING);
             }
 
-            this.removeIndex(indexLabelIds);
-            /*
-             * Note: Here must commit index transaction firstly.
-             * Because remove index convert to (id like <?>:personByCity):
-             * `delete from index table where label = ?`,
-             * But append index will convert to (id like Beijing:personByCity):
-             * `update index element_ids += xxx where field_value = ?
-             * and index_label_name = ?`,
-             * They have different id lead to it can't compare and optimize
-             */
-            graphTx.commit();
-            if (label.type() == HugeType.VERTEX_LABEL) {
+            if (checkpoint == null) {
+                this.removeIndex(indexLabelIds);
+                /*
+                 * Note: Here must commit index transaction firstly.
+                 * Because remove index convert to
+                 * (id like <?>:personByCity):
+                 * `delete from index table where label = ?`,
+                 * But append index will convert to
+                 * (id like Beijing:personByCity):
+                 * `update index element_ids += xxx where field_value = ?
+                 * and index_label_name = ?`,
+                 * They have different id lead to it can't compare and
+                 * optimize
+                 */
+                graphTx.commit();
+
+                List<Shard> shards = this.splits(label);
+                if (shards != null) {
+                    checkpoint = new Checkpoint(shards);
+                    this.saveCheckpoint(checkpoint);
+                }
+            } else {
+                LOG.info("Resume rebuilding index of {} from {}/{} shards",
+                         label, checkpoint.doneShards(),
+                         checkpoint.totalShards());
+            }
+
+            if (checkpoint != null) {
+                this.rebuildIndex(label, indexLabelIds, checkpoint);
+            } else if (label.type() == HugeType.VERTEX_LABEL) {
                 @SuppressWarnings("unchecked")
                 Consumer<Vertex> consumer = (Consumer<Vertex>) indexUpdater;
                 graphTx.traverseVerticesByLabel((VertexLabel) label,
@@ -142,6 +193,123 @@ public class RebuildIndexCallable extends SchemaCallable {
         }
     }
 
+    private List<Shard> splits(SchemaLabel label) {
+        GraphTransaction graphTx = this.graph().graphTransaction();
+        BackendFeatures features = graphTx.store().features();
+        if (!features.supportsScanToken() && !features.supportsScanKeyRange()) {
+            return null;
+        }
+        HugeType type = label.type() == HugeType.VERTEX_LABEL ?
+                        HugeType.VERTEX : HugeType.EDGE_OUT;
+        /*
+         * Scanning shards reads the whole table, it's only cheaper than
+         * traversing label index if the label holds enough elements
+         */
+        long threshold = this.graph().configuration().get(
+                         CoreOptions.TASK_REBUILD_INDEX_SCAN_THRESHOLD);
+        if (label.enableLabelIndex() && threshold > 0L) {
+            ConditionQuery query = new ConditionQuery(type.isVertex() ?
+                                                      HugeType.VERTEX :
+                                                      HugeType.EDGE);
+            query.eq(HugeKeys.LABEL, label.id());
+            query.limit(threshold);
+            if (graphTx.queryNumber(query) < threshold) {
+                return null;
+            }
+        }
+        long splitSize = this.graph().configuration().get(
+                         CoreOptions.TASK_REBUILD_INDEX_SPLIT_SIZE);
+        return graphTx.metadata(type, "splits", splitSize);
+    }
+
+    private void rebuildIndex(SchemaLabel label, Collection<Id> indexLabelIds,
+                              Checkpoint checkpoint)
+                              throws InterruptedException {
+        List<Integer> pending = checkpoint.pendingShards();
+        if (pending.isEmpty()) {
+            return;
+        }
+        int threads = this.graph().configuration().get(
+                      CoreOptions.TASK_REBUILD_INDEX_THREADS);
+        threads = Math.min(threads, pending.size());
+        ExecutorService executor = ExecutorUtil.newFixedThreadPool(
+                                   threads, REBUILD_INDEX_WORKER);
+        try {
+            List<Future<?>> futures = new ArrayList<>(pending.size());
+            for (int index : pending) {
+                Shard shard = checkpoint.shard(index);
+                futures.add(executor.submit(() -> {
+                    this.rebuildIndex(label, indexLabelIds, shard);
+                    this.saveCheckpoint(checkpoint, index);
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new HugeException("Failed to rebuild index", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void rebuildIndex(SchemaLabel label, Collection<Id> indexLabelIds,
+                              Shard shard) {
+        // Each worker thread rebuilds index with its own transaction
+        GraphTransaction graphTx = this.graph().graphTransaction();
+        try {
+            Consumer<?> indexUpdater = (elem) -> {
+                for (Id id : indexLabelIds) {
+                    graphTx.updateIndex(id, (HugeElement) elem);
+                    graphTx.commitIfGtSize(GraphTransaction.COMMIT_BATCH);
+                }
+            };
+            if (label.type() == HugeType.VERTEX_LABEL) {
+                @SuppressWarnings("unchecked")
+                Consumer<Vertex> consumer = (Consumer<Vertex>) indexUpdater;
+                graphTx.traverseVerticesByShard((VertexLabel) label, shard,
+                                                consumer, false);
+            } else {
+                assert label.type() == HugeType.EDGE_LABEL;
+                @SuppressWarnings("unchecked")
+                Consumer<Edge> consumer = (Consumer<Edge>) indexUpdater;
+                graphTx.traverseEdgesByShard((EdgeLabel) label, shard,
+                                             consumer, false);
+            }
+            graphTx.commit();
+        } finally {
+            this.graph().closeTx();
+        }
+    }
+
+    private void saveCheckpoint(Checkpoint checkpoint) {
+        synchronized (checkpoint) {
+            this.savedProgress = checkpoint.progress();
+            // Save the finished shards and progress, which are shown by TaskAPI
+            HugeTask<Object> task = this.task();
+            task.input(checkpoint.toJson());
+            task.progress(this.savedProgress);
+            this.save();
+        }
+    }
+
+    private void saveCheckpoint(Checkpoint checkpoint, int doneShard) {
+        synchronized (checkpoint) {
+            checkpoint.done(doneShard);
+            /*
+             * Save only when the progress changes to avoid rewriting all
+             * the shards per finished shard, at most 100 times in total
+             */
+            if (checkpoint.progress() != this.savedProgress) {
+                this.saveCheckpoint(checkpoint);
+            }
+        }
+    }
+
     private void removeIndex(Collection<Id> indexLabelIds) {
         SchemaTransaction schemaTx = this.graph().schemaTransaction();
         GraphTransaction graphTx = this.graph().graphTransaction();
@@ -175,4 +343,81 @@ public class RebuildIndexCallable extends SchemaCallable {
                           "Invalid HugeType '%s' for rebuild", type));
         }
     }
-}
\ No newline at end of file
+
+    private static class Checkpoint {
+
+        private static final String SHARDS = "shards";
+        private static final String DONE = "done";
+
+        private final List<Shard> shards;
+        private final Set<Integer> done;
+
+        public Checkpoint(List<Shard> shards) {
+            this(shards, new TreeSet<>());
+        }
+
+        private Checkpoint(List<Shard> shards, Set<Integer> done) {
+            this.shards = shards;
+            this.done = done;
+        }
+
+        public int totalShards() {
+            return Math.max(this.shards.size(), 1);
+        }
+
+        public synchronized int doneShards() {
+            return this.done.size();
+        }
+
+        public synchronized int progress() {
+            return this.done.size() * 100 / this.totalShards();
+        }
+
+        public Shard shard(int index) {
+            return this.shards.get(index);
+        }
+
+        public synchronized List<Integer> pendingShards() {
+            List<Integer> pending = new ArrayList<>();
+            for (int i = 0; i < this.shards.size(); i++) {
+                if (!this.done.contains(i)) {
+                    pending.add(i);
+                }
+            }
+            return pending;
+        }
+
+        public synchronized void done(int index) {
+            this.done.add(index);
+        }
+
+        public synchronized String toJson() {
+            List<List<String>> shards = new ArrayList<>(this.shards.size());
+            for (Shard shard : this.shards) {
+                shards.add(ImmutableList.of(shard.start(), shard.end()));
+            }
+            return JsonUtil.toJson(ImmutableMap.of(SHARDS, shards,
+                                                   DONE, this.done));
+        }
+
+        @SuppressWarnings("unchecked")
+        public static Checkpoint fromJson(String json) {
+            if (json == null || json.isEmpty()) {
+                return null;
+            }
+            Map<String, Object> map = JsonUtil.fromJson(json, Map.class);
+            if (!map.containsKey(SHARDS)) {
+                return null;
+            }
+            List<Shard> shards = new ArrayList<>();
+            for (List<String> shard : (List<List<String>>) map.get(SHARDS)) {
+                shards.add(new Shard(shard.get(0), shard.get(1), 0L));
+            }
+            Set<Integer> done = new TreeSet<>();
+            for (Number index : (List<Number>) map.get(DONE)) {
+                done.add(index.intValue());
+            }
+            return new Checkpoint(shards, done);
+        }
+    }
+}
@@ -36,6 +36,7 @@ import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.type.Propfiable;
 import com.baidu.hugegraph.type.define.Cardinality;
 import com.baidu.hugegraph.type.define.DataType;
+import com.baidu.hugegraph.type.define.ValueFormat;
 import com.baidu.hugegraph.util.E;
 import com.baidu.hugegraph.util.LongEncoding;
 
@@ -43,11 +44,13 @@ public class PropertyKey extends SchemaElement implements Propfiable {
 
     private DataType dataType;
     private Cardinality cardinality;
+    private ValueFormat valueFormat;
 
     public PropertyKey(final HugeGraph graph, Id id, String name) {
         super(graph, id, name);
         this.dataType = DataType.TEXT;
         this.cardinality = Cardinality.SINGLE;
+        this.valueFormat = ValueFormat.COMPACT;
     }
 
     @Override
@@ -71,6 +74,14 @@ public class PropertyKey extends SchemaElement implements Propfiable {
         this.cardinality = cardinality;
     }
 
+    public ValueFormat valueFormat() {
+        return this.valueFormat;
+    }
+
+    public void valueFormat(ValueFormat valueFormat) {
+        this.valueFormat = valueFormat;
+    }
+
     @Override
     public Set<Id> properties() {
         return Collections.emptySet();
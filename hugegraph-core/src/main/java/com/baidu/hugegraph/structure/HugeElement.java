@@ -26,6 +26,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiFunction;
 import java.util.function.Supplier;
 
 import org.apache.tinkerpop.gremlin.structure.Element;
@@ -61,6 +62,10 @@ public abstract class HugeElement implements Element, GraphType {
     protected boolean fresh;
     protected boolean propLoaded;
 
+    // The undecoded property values, each one is decoded on the first access
+    private volatile Map<Id, byte[]> lazyProperties;
+    private BiFunction<PropertyKey, byte[], Object> propertyDecoder;
+
     public HugeElement(final HugeGraph graph, Id id) {
         E.checkArgument(graph != null, "HugeElement graph can't be null");
         this.graph = graph;
@@ -69,6 +74,8 @@ public abstract class HugeElement implements Element, GraphType {
         this.removed = false;
         this.fresh = false;
         this.propLoaded = true;
+        this.lazyProperties = null;
+        this.propertyDecoder = null;
     }
 
     public abstract SchemaLabel schemaLabel();
@@ -113,15 +120,18 @@ public abstract class HugeElement implements Element, GraphType {
     }
 
     public Map<Id, HugeProperty<?>> getProperties() {
+        this.decodeLazyProperties();
         return Collections.unmodifiableMap(this.properties);
     }
 
     public Map<Id, HugeProperty<?>> getFilledProperties() {
         this.ensureFilledProperties(true);
+        this.decodeLazyProperties();
         return Collections.unmodifiableMap(this.properties);
     }
 
     public Map<Id, Object> getPropertiesMap() {
+        this.decodeLazyProperties();
         Map<Id, Object> props = new HashMap<>();
         for (Map.Entry<Id, HugeProperty<?>> entry :
              this.properties.entrySet()) {
@@ -132,11 +142,13 @@ public abstract class HugeElement implements Element, GraphType {
 
     @SuppressWarnings("unchecked")
     public <V> HugeProperty<V> getProperty(Id key) {
+        this.decodeLazyProperty(key);
         return (HugeProperty<V>) this.properties.get(key);
     }
 
     @SuppressWarnings("unchecked")
     public <V> V getPropertyValue(Id key) {
+        this.decodeLazyProperty(key);
         HugeProperty<?> prop = this.properties.get(key);
         if (prop == null) {
             return null;
@@ -145,20 +157,29 @@ public abstract class HugeElement implements Element, GraphType {
     }
 
     public boolean hasProperty(Id key) {
+        Map<Id, byte[]> lazyProperties = this.lazyProperties;
+        if (lazyProperties != null && lazyProperties.containsKey(key)) {
+            return true;
+        }
         return this.properties.containsKey(key);
     }
 
     public boolean hasProperties() {
-        return this.properties.size() > 0;
+        return this.sizeOfProperties() > 0;
     }
 
     public int sizeOfProperties() {
-        return this.properties.size();
+        // NOTE: a key is either in lazyProperties or in properties
+        Map<Id, byte[]> lazyProperties = this.lazyProperties;
+        int size = lazyProperties == null ? 0 : lazyProperties.size();
+        return size + this.properties.size();
     }
 
     @Watched(prefix = "element")
     public <V> HugeProperty<?> setProperty(HugeProperty<V> prop) {
         PropertyKey pkey = prop.propertyKey();
+        // The undecoded value will be overwritten, decode it as the old one
+        this.decodeLazyProperty(pkey.id());
         if (this.properties == EMPTY) {
             this.properties = new HashMap<>();
         }
@@ -166,9 +187,102 @@ public abstract class HugeElement implements Element, GraphType {
     }
 
     public <V> HugeProperty<?> removeProperty(Id key) {
+        this.decodeLazyProperty(key);
         return this.properties.remove(key);
     }
 
+    /**
+     * Add a property with the undecoded value, it will be decoded by the
+     * decoder when the property is accessed for the first time, so that the
+     * elements only used for ids and labels don't pay for the decoding.
+     * NOTE: it's expected to be called when deserializing an element, that
+     * is before the element is visible to other threads or copied.
+     * @param key       The property key id
+     * @param value     The undecoded property value
+     * @param decoder   The function to decode the value of a property key
+     */
+    public void addLazyProperty(Id key, byte[] value,
+                                BiFunction<PropertyKey, byte[], Object>
+                                decoder) {
+        Map<Id, byte[]> lazyProperties = this.lazyProperties;
+        if (lazyProperties == null) {
+            lazyProperties = new HashMap<>();
+        }
+        lazyProperties.put(key, value);
+        this.propertyDecoder = decoder;
+        this.lazyProperties = lazyProperties;
+    }
+
+    private void decodeLazyProperty(Id key) {
+        Map<Id, byte[]> lazyProperties = this.lazyProperties;
+        if (lazyProperties == null || !lazyProperties.containsKey(key)) {
+            return;
+        }
+        /*
+         * The element may be shared by threads through the cache, so decode
+         * it with a lock and publish a new copy of the maps (copy-on-write)
+         */
+        synchronized (this) {
+            lazyProperties = this.lazyProperties;
+            if (lazyProperties == null || !lazyProperties.containsKey(key)) {
+                return;
+            }
+            Map<Id, HugeProperty<?>> properties = new HashMap<>(
+                                                  this.properties);
+            properties.put(key, this.decodeProperty(key,
+                                                    lazyProperties.get(key)));
+            Map<Id, byte[]> remaining = null;
+            if (lazyProperties.size() > 1) {
+                remaining = new HashMap<>(lazyProperties);
+                remaining.remove(key);
+            }
+            this.properties = properties;
+            // Publish properties before lazyProperties by the volatile write
+            this.lazyProperties = remaining;
+        }
+    }
+
+    private void decodeLazyProperties() {
+        if (this.lazyProperties == null) {
+            return;
+        }
+        synchronized (this) {
+            Map<Id, byte[]> lazyProperties = this.lazyProperties;
+            if (lazyProperties == null) {
+                return;
+            }
+            Map<Id, HugeProperty<?>> properties = new HashMap<>(
+                                                  this.properties);
+            for (Map.Entry<Id, byte[]> e : lazyProperties.entrySet()) {
+                properties.put(e.getKey(),
+                               this.decodeProperty(e.getKey(), e.getValue()));
+            }
+            this.properties = properties;
+            this.lazyProperties = null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private HugeProperty<?> decodeProperty(Id key, byte[] bytes) {
+        PropertyKey pkey = this.graph.propertyKey(key);
+        Object value = this.propertyDecoder.apply(pkey, bytes);
+        if (pkey.cardinality() == Cardinality.SINGLE) {
+            return this.newProperty(pkey, value);
+        }
+
+        Collection<Object> values;
+        if (pkey.cardinality() == Cardinality.SET) {
+            values = new HashSet<>();
+        } else {
+            assert pkey.cardinality() == Cardinality.LIST;
+            values = new ArrayList<>();
+        }
+        for (Object v : (Collection<Object>) value) {
+            values.addAll(validValues(pkey, v));
+        }
+        return this.newProperty(pkey, values);
+    }
+
     public <V> HugeProperty<V> addProperty(PropertyKey pkey, V value) {
         return this.addProperty(pkey, value, false);
     }
@@ -220,6 +334,17 @@ public abstract class HugeElement implements Element, GraphType {
             this.setProperty(property);
         }
 
+        property.value().addAll(validValues(pkey, value));
+
+        // Any better ways?
+        return (HugeProperty) property;
+    }
+
+    /**
+     * Convert the value of a SET or LIST property key to a collection, and
+     * check each of the values
+     */
+    private static <V> Collection<V> validValues(PropertyKey pkey, V value) {
         Collection<V> values;
         if (pkey.cardinality() == Cardinality.SET) {
             values = CollectionUtil.toSet(value);
@@ -227,19 +352,21 @@ public abstract class HugeElement implements Element, GraphType {
             assert pkey.cardinality() == Cardinality.LIST;
             values = CollectionUtil.toList(value);
         }
-        property.value().addAll(pkey.validValueOrThrow(values));
-
-        // Any better ways?
-        return (HugeProperty) property;
+        return pkey.validValueOrThrow(values);
     }
 
     public void resetProperties() {
         this.properties = new HashMap<>();
+        this.lazyProperties = null;
         this.propLoaded = false;
     }
 
     public void copyProperties(HugeElement element) {
+        // Read lazyProperties first to see the properties published with it
+        Map<Id, byte[]> lazyProperties = element.lazyProperties;
         this.properties = new HashMap<>(element.properties);
+        this.propertyDecoder = element.propertyDecoder;
+        this.lazyProperties = lazyProperties;
         this.propLoaded = true;
     }
 
@@ -251,6 +378,12 @@ public abstract class HugeElement implements Element, GraphType {
 
     public abstract HugeElement copy();
 
+    @Override
+    protected synchronized Object clone() throws CloneNotSupportedException {
+        // Lock to get the consistent properties with lazy properties decoding
+        return super.clone();
+    }
+
     public abstract Object sysprop(HugeKeys key);
 
     @Override
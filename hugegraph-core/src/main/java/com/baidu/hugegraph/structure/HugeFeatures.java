@@ -81,7 +81,7 @@ public class HugeFeatures implements Graph.Features {
 
         @Override
         public boolean supportsComputer() {
-            return false;
+            return true;
         }
 
         @Override
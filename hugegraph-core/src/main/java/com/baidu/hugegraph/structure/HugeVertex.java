@@ -532,7 +532,7 @@ public class HugeVertex extends HugeElement implements Vertex, Cloneable {
     @Override
     public HugeVertex copy() {
         HugeVertex vertex = this.clone();
-        vertex.properties = new HashMap<>(this.properties);
+        vertex.properties = new HashMap<>(vertex.properties);
         return vertex;
     }
 
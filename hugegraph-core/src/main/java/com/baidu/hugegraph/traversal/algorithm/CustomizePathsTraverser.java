@@ -21,9 +21,12 @@ package com.baidu.hugegraph.traversal.algorithm;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
 
 import javax.ws.rs.core.MultivaluedMap;
 
@@ -71,11 +74,13 @@ public class CustomizePathsTraverser extends HugeTraverser {
             newVertices = newMultivalueMap();
             Iterator<Edge> edges;
 
+            EdgesFilter filter = this.edgesFilter(step.properties);
+
             // Traversal vertices of previous level
             for (Map.Entry<Id, List<Node>> entry : sources.entrySet()) {
                 List<Node> adjacency = new ArrayList<>();
                 edges = edgesOfVertex(entry.getKey(), step.direction,
-                                      step.labels, step.properties,
+                                      step.labels, filter,
                                       step.degree);
                 while (edges.hasNext()) {
                     HugeEdge edge = (HugeEdge) edges.next();
@@ -137,6 +142,91 @@ public class CustomizePathsTraverser extends HugeTraverser {
         return paths;
     }
 
+    /**
+     * Like customizedPaths(), but sample the adjacent nodes of each vertex
+     * by reservoir sampling as the edges arrive, and only keep the best
+     * limit paths of the last step in a bounded heap if sorted, so that the
+     * memory of the last step is bounded by sample and limit. The returned
+     * paths are sorted by the total weight if sorted.
+     */
+    public List<Path> streamingCustomizedPaths(List<HugeVertex> vertices,
+                                               List<Step> steps,
+                                               boolean sorted, boolean incr,
+                                               long capacity, long limit) {
+        E.checkArgument(!vertices.isEmpty(),
+                        "The source vertices can't be empty");
+        E.checkArgument(!steps.isEmpty(), "The steps can't be empty");
+        checkCapacity(capacity);
+        checkLimit(limit);
+
+        MultivaluedMap<Id, Node> sources = newMultivalueMap();
+        for (HugeVertex vertex : vertices) {
+            Node node = sorted ?
+                        new WeightNode(vertex.id(), null, 0) :
+                        new Node(vertex.id(), null);
+            sources.add(vertex.id(), node);
+        }
+        PathCollector collector = sorted ?
+                                  new TopNPathCollector(incr, limit) :
+                                  new PathCollector(limit);
+        int stepNum = steps.size();
+        long access = 0;
+        for (Step step : steps) {
+            boolean lastStep = --stepNum == 0;
+            MultivaluedMap<Id, Node> newVertices = newMultivalueMap();
+
+            EdgesFilter filter = this.edgesFilter(step.properties);
+
+            // Traversal vertices of previous level
+            for (Map.Entry<Id, List<Node>> entry : sources.entrySet()) {
+                NodeSampler sampler = new NodeSampler(step.sample);
+                Iterator<Edge> edges = edgesOfVertex(entry.getKey(),
+                                                     step.direction,
+                                                     step.labels,
+                                                     filter,
+                                                     step.degree);
+                while (edges.hasNext()) {
+                    HugeEdge edge = (HugeEdge) edges.next();
+                    Id target = edge.id().otherVertexId();
+                    for (Node n : entry.getValue()) {
+                        // If have loop, skip target
+                        if (n.contains(target)) {
+                            continue;
+                        }
+                        Node newNode;
+                        if (sorted) {
+                            double w = step.weightBy != null ?
+                                       edge.value(step.weightBy.name()) :
+                                       step.defaultWeight;
+                            newNode = new WeightNode(target, n, w);
+                        } else {
+                            newNode = new Node(target, n);
+                        }
+                        sampler.add(newNode);
+
+                        checkCapacity(capacity, ++access, "customized paths");
+                    }
+                }
+
+                // Add current node's sampled adjacent nodes
+                for (Node node : sampler.nodes()) {
+                    if (!lastStep) {
+                        newVertices.add(node.id(), node);
+                    } else if (!collector.add(node)) {
+                        // Avoid exceeding limit
+                        return collector.paths();
+                    }
+                }
+            }
+            if (newVertices.isEmpty()) {
+                break;
+            }
+            // Re-init sources
+            sources = newVertices;
+        }
+        return collector.paths();
+    }
+
     public static List<Path> topNPath(List<Path> paths,
                                       boolean incr, long limit) {
         paths.sort((p1, p2) -> {
@@ -164,13 +254,123 @@ public class CustomizePathsTraverser extends HugeTraverser {
         return result;
     }
 
+    private static Comparator<WeightNode> weightOrder(boolean incr) {
+        return (n1, n2) -> {
+            int result = Double.compare(n1.totalWeight(), n2.totalWeight());
+            return incr ? result : -result;
+        };
+    }
+
+    /**
+     * Keep a uniform random sample of at most sample nodes from the nodes
+     * added one by one, or all of them if sample is not positive
+     */
+    private static class NodeSampler {
+
+        private final long sample;
+        private final List<Node> nodes;
+        private long count;
+
+        public NodeSampler(long sample) {
+            this.sample = sample;
+            this.nodes = new ArrayList<>();
+            this.count = 0L;
+        }
+
+        public void add(Node node) {
+            this.count++;
+            if (this.sample <= 0 || this.nodes.size() < this.sample) {
+                this.nodes.add(node);
+                return;
+            }
+            // Replace a sampled node with probability sample / count
+            long index = ThreadLocalRandom.current().nextLong(this.count);
+            if (index < this.sample) {
+                this.nodes.set((int) index, node);
+            }
+        }
+
+        public List<Node> nodes() {
+            return this.nodes;
+        }
+    }
+
+    private static class PathCollector {
+
+        protected final long limit;
+        private final List<Path> paths;
+
+        public PathCollector(long limit) {
+            this.limit = limit;
+            this.paths = new ArrayList<>();
+        }
+
+        /**
+         * Add the path ending with the node, return false if no more path
+         * is needed
+         */
+        public boolean add(Node node) {
+            this.paths.add(new Path(null, node.path()));
+            return this.limit == NO_LIMIT || this.paths.size() < this.limit;
+        }
+
+        public List<Path> paths() {
+            return this.paths;
+        }
+    }
+
+    private static class TopNPathCollector extends PathCollector {
+
+        private final Comparator<WeightNode> order;
+        // The head is the worst one of the kept nodes
+        private final PriorityQueue<WeightNode> nodes;
+
+        public TopNPathCollector(boolean incr, long limit) {
+            super(limit);
+            this.order = weightOrder(incr);
+            this.nodes = new PriorityQueue<>(this.order.reversed());
+        }
+
+        @Override
+        public boolean add(Node node) {
+            WeightNode wn = (WeightNode) node;
+            if (this.limit == NO_LIMIT || this.nodes.size() < this.limit) {
+                this.nodes.add(wn);
+            } else if (this.order.compare(wn, this.nodes.peek()) < 0) {
+                this.nodes.poll();
+                this.nodes.add(wn);
+            }
+            // All paths of the last step need to be compared
+            return true;
+        }
+
+        @Override
+        public List<Path> paths() {
+            List<WeightNode> nodes = new ArrayList<>(this.nodes);
+            nodes.sort(this.order);
+            List<Path> paths = new ArrayList<>(nodes.size());
+            for (WeightNode wn : nodes) {
+                paths.add(new WeightPath(null, wn.path(), wn.weights()));
+            }
+            return paths;
+        }
+    }
+
     public static class WeightNode extends Node {
 
         private double weight;
+        private double totalWeight;
 
         public WeightNode(Id id, Node parent, double weight) {
             super(id, parent);
             this.weight = weight;
+            // The weight of the source node is not counted
+            this.totalWeight = parent == null ? 0 :
+                               ((WeightNode) parent).totalWeight + weight;
+        }
+
+        public double totalWeight() {
+            return this.totalWeight;
         }
 
         public List<Double> weights() {
@@ -74,11 +74,13 @@ public class CustomizedCrosspointsTraverser extends HugeTraverser {
                 newVertices = newMultivalueMap();
                 Iterator<Edge> edges;
 
+                EdgesFilter filter = this.edgesFilter(step.properties);
+
                 // Traversal vertices of previous level
                 for (Map.Entry<Id, List<Node>> entry : sources.entrySet()) {
                     List<Node> adjacency = new ArrayList<>();
                     edges = edgesOfVertex(entry.getKey(), step.direction,
-                                          step.labels, step.properties,
+                                          step.labels, filter,
                                           step.degree);
                     while (edges.hasNext()) {
                         HugeEdge edge = (HugeEdge) edges.next();
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.traversal.algorithm;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.query.Condition;
+import com.baidu.hugegraph.backend.query.ConditionQuery;
+import com.baidu.hugegraph.backend.tx.GraphTransaction;
+import com.baidu.hugegraph.schema.PropertyKey;
+import com.baidu.hugegraph.structure.HugeEdge;
+import com.baidu.hugegraph.util.E;
+
+/**
+ * The property filter of a traverser step, compiled once and then reused
+ * for the edges of all vertices of the step, instead of building a gremlin
+ * traversal for each vertex.
+ */
+public class EdgesFilter {
+
+    private final List<Condition> conditions;
+
+    public EdgesFilter(HugeGraph graph, Map<String, Object> properties) {
+        E.checkArgument(properties != null && !properties.isEmpty(),
+                        "The properties of edges filter can't be empty");
+        this.conditions = new ArrayList<>(properties.size());
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            PropertyKey pkey = graph.propertyKey(entry.getKey());
+            Object value = entry.getValue();
+            if (value instanceof Collection) {
+                Collection<?> values = (Collection<?>) value;
+                List<Object> validValues = new ArrayList<>(values.size());
+                for (Object v : values) {
+                    validValues.add(validValue(pkey, v));
+                }
+                this.conditions.add(Condition.in(pkey.id(), validValues));
+            } else {
+                this.conditions.add(Condition.eq(pkey.id(),
+                                                 validValue(pkey, value)));
+            }
+        }
+    }
+
+    /**
+     * Add the property conditions to an edges query of one edge label,
+     * if they can be answered by the sort-keys of the edge label.
+     * @param query the edges query with owner vertex, direction and label
+     * @param graph the graph which the edge label belongs to
+     * @return true if the conditions are pushed down to backend
+     */
+    public boolean fillSortKeys(ConditionQuery query, HugeGraph graph) {
+        query.query(this.conditions);
+        if (GraphTransaction.matchEdgeSortKeys(query, graph)) {
+            return true;
+        }
+        // Can't query by sysprop and by index (HugeGraph-749)
+        query.resetUserpropConditions();
+        return false;
+    }
+
+    public boolean test(HugeEdge edge) {
+        for (Condition condition : this.conditions) {
+            if (!condition.test(edge)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object validValue(PropertyKey pkey, Object value) {
+        Object validValue = pkey.convValue(value, false);
+        E.checkArgumentNotNull(validValue,
+                               "Invalid data type of query value of '%s', " +
+                               "expect '%s', actual '%s'",
+                               pkey.name(), pkey.dataType().clazz(),
+                               value == null ? null : value.getClass());
+        return validValue;
+    }
+}
@@ -20,7 +20,6 @@
 package com.baidu.hugegraph.traversal.algorithm;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -29,23 +28,29 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 
 import org.apache.commons.collections.CollectionUtils;
-import org.apache.tinkerpop.gremlin.process.traversal.P;
-import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.structure.Edge;
-import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import com.baidu.hugegraph.HugeException;
 import com.baidu.hugegraph.HugeGraph;
 import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.query.ConditionQuery;
 import com.baidu.hugegraph.backend.query.Query;
 import com.baidu.hugegraph.backend.tx.GraphTransaction;
+import com.baidu.hugegraph.config.CoreOptions;
 import com.baidu.hugegraph.iterator.ExtendableIterator;
+import com.baidu.hugegraph.iterator.FilterIterator;
 import com.baidu.hugegraph.iterator.MapperIterator;
+import com.baidu.hugegraph.iterator.WrappedIterator;
 import com.baidu.hugegraph.schema.SchemaLabel;
 import com.baidu.hugegraph.structure.HugeEdge;
 import com.baidu.hugegraph.type.HugeType;
@@ -69,6 +74,7 @@ public class HugeTraverser {
     public static final String DEFAULT_SAMPLE = "100";
     public static final String DEFAULT_MAX_DEPTH = "50";
     public static final String DEFAULT_WEIGHT = "0";
+    public static final String DEFAULT_PARALLELISM = "1";
 
     // Empirical value of scan limit, with which results can be returned in 3s
     public static final String DEFAULT_PAGE_LIMIT = "100000";
@@ -86,9 +92,17 @@ public class HugeTraverser {
     public Set<Id> kout(Id sourceV, Directions dir, String label,
                         int depth, boolean nearest,
                         long degree, long capacity, long limit) {
+        return this.kout(sourceV, dir, label, depth, nearest,
+                         degree, capacity, limit, 1);
+    }
+
+    public Set<Id> kout(Id sourceV, Directions dir, String label,
+                        int depth, boolean nearest, long degree,
+                        long capacity, long limit, int parallelism) {
         E.checkNotNull(sourceV, "source vertex id");
         E.checkNotNull(dir, "direction");
         checkPositive(depth, "k-out max_depth");
+        this.checkParallelism(parallelism);
         checkDegree(degree);
         checkCapacity(capacity);
         checkLimit(limit);
@@ -118,11 +132,13 @@ public class HugeTraverser {
             }
             if (nearest) {
                 latest = this.adjacentVertices(latest, dir, labelId, all,
-                                               degree, remaining);
+                                               degree, remaining,
+                                               parallelism);
                 all.addAll(latest);
             } else {
                 latest = this.adjacentVertices(latest, dir, labelId, null,
-                                               degree, remaining);
+                                               degree, remaining,
+                                               parallelism);
             }
             if (capacity != NO_LIMIT) {
                 // Update 'remaining' value to record remaining capacity
@@ -142,9 +158,16 @@ public class HugeTraverser {
     public Set<Id> kneighbor(Id sourceV, Directions dir,
                              String label, int depth,
                              long degree, long limit) {
+        return this.kneighbor(sourceV, dir, label, depth, degree, limit, 1);
+    }
+
+    public Set<Id> kneighbor(Id sourceV, Directions dir,
+                             String label, int depth,
+                             long degree, long limit, int parallelism) {
         E.checkNotNull(sourceV, "source vertex id");
         E.checkNotNull(dir, "direction");
         checkPositive(depth, "k-neighbor max_depth");
+        this.checkParallelism(parallelism);
         checkDegree(degree);
         checkLimit(limit);
 
@@ -159,7 +182,7 @@ public class HugeTraverser {
         while (depth-- > 0) {
             long remaining = limit == NO_LIMIT ? NO_LIMIT : limit - all.size();
             latest = this.adjacentVertices(latest, dir, labelId, all,
-                                           degree, remaining);
+                                           degree, remaining, parallelism);
             all.addAll(latest);
             if (limit != NO_LIMIT && all.size() >= limit) {
                 break;
@@ -171,10 +194,16 @@ public class HugeTraverser {
 
     private Set<Id> adjacentVertices(Set<Id> vertices, Directions dir,
                                      Id label, Set<Id> excluded,
-                                     long degree, long limit) {
+                                     long degree, long limit,
+                                     int parallelism) {
         if (limit == 0) {
             return ImmutableSet.of();
         }
+        if (parallelism > 1 && vertices.size() > 1) {
+            return this.adjacentVerticesParallel(vertices, dir, label,
+                                                 excluded, degree, limit,
+                                                 parallelism);
+        }
 
         Set<Id> neighbors = newSet();
         for (Id source : vertices) {
@@ -195,6 +224,86 @@ public class HugeTraverser {
         return neighbors;
     }
 
+    /**
+     * Expand the vertices of one level by partitioning them across the
+     * traverser thread pool of the graph. The neighbors are merged into a
+     * concurrent set, and the limit is kept exactly by counting the newly
+     * added neighbors and removing the ones added beyond the limit.
+     * NOTE: the uncommitted changes in the tx of current thread are not
+     * visible to the worker threads.
+     */
+    private Set<Id> adjacentVerticesParallel(Set<Id> vertices,
+                                             Directions dir, Id label,
+                                             Set<Id> excluded, long degree,
+                                             long limit, int parallelism) {
+        List<Id> sources = new ArrayList<>(vertices);
+        int batches = Math.min(parallelism, sources.size());
+        int batchSize = (sources.size() + batches - 1) / batches;
+
+        Set<Id> neighbors = ConcurrentHashMap.newKeySet();
+        AtomicLong added = new AtomicLong(0L);
+        List<Callable<Void>> tasks = new ArrayList<>(batches);
+        for (int i = 0; i < sources.size(); i += batchSize) {
+            List<Id> batch = sources.subList(i, Math.min(i + batchSize,
+                                                         sources.size()));
+            tasks.add(() -> {
+                try {
+                    for (Id source : batch) {
+                        if (limit != NO_LIMIT && added.get() >= limit) {
+                            break;
+                        }
+                        Iterator<Edge> edges = this.edgesOfVertex(source, dir,
+                                                                  label,
+                                                                  degree);
+                        while (edges.hasNext()) {
+                            HugeEdge e = (HugeEdge) edges.next();
+                            Id target = e.id().otherVertexId();
+                            if (excluded != null &&
+                                excluded.contains(target)) {
+                                continue;
+                            }
+                            if (!neighbors.add(target) || limit == NO_LIMIT) {
+                                continue;
+                            }
+                            long count = added.incrementAndGet();
+                            if (count > limit) {
+                                neighbors.remove(target);
+                            }
+                            if (count >= limit) {
+                                return null;
+                            }
+                        }
+                    }
+                    return null;
+                } finally {
+                    // Each worker thread opens its own tx when querying
+                    this.graph.closeTx();
+                }
+            });
+        }
+        this.execute(tasks);
+        return neighbors;
+    }
+
+    private void execute(List<Callable<Void>> tasks) {
+        try {
+            List<Future<Void>> futures = this.graph.traverserExecutor()
+                                                   .invokeAll(tasks);
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HugeException("Interrupted while traversing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new HugeException("Failed to traverse", cause);
+        }
+    }
+
     protected Iterator<Id> adjacentVertices(Id source, Directions dir,
                                             Id label, long limit) {
         Iterator<Edge> edges = this.edgesOfVertex(source, dir, label, limit);
@@ -239,20 +348,51 @@ public class HugeTraverser {
         if (properties == null || properties.isEmpty()) {
             return edgesOfVertex(source, dir, labels.keySet(), limit);
         }
-        // Use traversal format if has properties filter
-        String[] els = labels.values().toArray(new String[labels.size()]);
-        GraphTraversal<Vertex, Edge> g;
-        g = this.graph().traversal().V(source).toE(dir.direction(), els);
-        for (Map.Entry<String, Object> entry : properties.entrySet()) {
-            String key = entry.getKey();
-            Object value = entry.getValue();
-            if (value instanceof List) {
-                g = g.has(key, P.within((Collection<?>) value));
-            } else {
-                g = g.has(key, value);
-            }
+        return this.edgesOfVertex(source, dir, labels,
+                                  this.edgesFilter(properties), limit);
+    }
+
+    protected Iterator<Edge> edgesOfVertex(Id source, Directions dir,
+                                           Map<Id, String> labels,
+                                           EdgesFilter filter, long limit) {
+        if (filter == null) {
+            return edgesOfVertex(source, dir, labels.keySet(), limit);
+        }
+
+        ExtendableIterator<Edge> results = new ExtendableIterator<>();
+        if (labels.isEmpty()) {
+            // Sort-keys can't be used without edge label, filter in memory
+            Query query = GraphTransaction.constructEdgesQuery(source, dir);
+            results.extend(this.graph.edges(query));
         }
-        return g.limit(limit);
+        for (Id label : labels.keySet()) {
+            E.checkNotNull(label, "edge label");
+            ConditionQuery query = GraphTransaction.constructEdgesQuery(
+                                   source, dir, label);
+            // Query by sort-keys if matched, otherwise filter in memory
+            filter.fillSortKeys(query, this.graph);
+            results.extend(this.graph.edges(query));
+        }
+
+        /*
+         * NOTE: the limit can't be applied to backend query, since the
+         * results need to be filtered by the conditions which can't be
+         * pushed down, like the ones after a range condition of sort-keys
+         */
+        Iterator<Edge> edges = new FilterIterator<>(results, edge -> {
+            return filter.test((HugeEdge) edge);
+        });
+        if (limit != NO_LIMIT) {
+            edges = new LimitIterator<>(edges, limit);
+        }
+        return edges;
+    }
+
+    protected EdgesFilter edgesFilter(Map<String, Object> properties) {
+        if (properties == null || properties.isEmpty()) {
+            return null;
+        }
+        return new EdgesFilter(this.graph, properties);
     }
 
     protected Id getEdgeLabelId(Object label) {
@@ -280,6 +420,16 @@ public class HugeTraverser {
         checkPositiveOrNoLimit(limit, "limit");
     }
 
+    protected void checkParallelism(int parallelism) {
+        checkPositive(parallelism, "parallelism");
+        int threads = this.graph.configuration().get(
+                      CoreOptions.TRAVERSER_THREADS);
+        E.checkArgument(parallelism <= threads,
+                        "The parallelism must be <= %s (the size of " +
+                        "traverser threads), but got %s",
+                        threads, parallelism);
+    }
+
     protected static void checkPositiveOrNoLimit(long value, String name) {
         E.checkArgument(value > 0 || value == NO_LIMIT,
                         "The %s parameter must be > 0 or == %s, but got: %s",
@@ -436,4 +586,36 @@ public class HugeTraverser {
             return this.vertices.equals(((Path) other).vertices);
         }
     }
+
+    /**
+     * Limit the origin iterator by a long limit, unlike IteratorUtils.limit()
+     * which only accepts an int one
+     */
+    private static class LimitIterator<T> extends WrappedIterator<T> {
+
+        private final Iterator<T> origin;
+        private final long limit;
+        private long count;
+
+        public LimitIterator(Iterator<T> origin, long limit) {
+            this.origin = origin;
+            this.limit = limit;
+            this.count = 0L;
+        }
+
+        @Override
+        protected Iterator<?> originIterator() {
+            return this.origin;
+        }
+
+        @Override
+        protected boolean fetch() {
+            if (this.count >= this.limit || !this.origin.hasNext()) {
+                return false;
+            }
+            this.current = this.origin.next();
+            this.count++;
+            return true;
+        }
+    }
 }
@@ -75,7 +75,7 @@ public class NeighborRankTraverser extends HugeTraverser {
             for (Map.Entry<Id, List<Node>> entry : sources.entrySet()) {
                 Id vertex = entry.getKey();
                 Iterator<Edge> edges = edgesOfVertex(vertex, step.direction,
-                                                     step.labels, null,
+                                                     step.labels.keySet(),
                                                      step.degree);
 
                 Adjacencies adjacenciesV = new Adjacencies(vertex);
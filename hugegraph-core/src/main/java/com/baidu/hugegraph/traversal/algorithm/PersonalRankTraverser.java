@@ -19,6 +19,7 @@
 
 package com.baidu.hugegraph.traversal.algorithm;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -36,6 +37,7 @@ import com.baidu.hugegraph.schema.VertexLabel;
 import com.baidu.hugegraph.structure.HugeVertex;
 import com.baidu.hugegraph.type.define.Directions;
 import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.IdIntMapping;
 
 public class PersonalRankTraverser extends HugeTraverser {
 
@@ -90,6 +92,108 @@ public class PersonalRankTraverser extends HugeTraverser {
         return ranks;
     }
 
+    /**
+     * Calculate the same ranks as personalRank(), but each vertex is mapped
+     * to a dense int code once, the adjacency of each vertex is fetched from
+     * backend only at the first expansion and then cached, and the ranks are
+     * kept in primitive double arrays. It stops before reaching max depth if
+     * the sum of rank changes of an iteration is less than the threshold,
+     * the threshold 0 means never stop early.
+     */
+    public Map<Id, Double> densePersonalRank(Id source, String label,
+                                             WithLabel withLabel,
+                                             double threshold) {
+        E.checkArgumentNotNull(source, "The source vertex id can't be null");
+        E.checkArgumentNotNull(label, "The edge label can't be null");
+        E.checkArgument(threshold >= 0.0,
+                        "The threshold must be >= 0, but got '%s'",
+                        threshold);
+
+        Id labelId = this.graph().edgeLabel(label).id();
+        Directions dir = this.getStartDirection(source, label);
+
+        Adjacencies adjacencies = new Adjacencies(labelId);
+        int root = adjacencies.add(source, dir);
+        double[] ranks = new double[]{1.0};
+        double[] newRanks = new double[1];
+
+        int seeds = 1;
+        int rootAdjacencies = 0;
+        for (long i = 0; i < this.maxDepth; i++) {
+            // Expand the new seeds before calculating
+            for (int seed = 0; seed < seeds; seed++) {
+                adjacencies.neighbors(seed);
+            }
+            int size = adjacencies.size();
+            if (ranks.length < size) {
+                ranks = Arrays.copyOf(ranks, size);
+            }
+            if (newRanks.length < size) {
+                newRanks = new double[size];
+            } else {
+                Arrays.fill(newRanks, 0, size, 0.0);
+            }
+
+            // Spread the ranks from out seeds first, then the in seeds
+            this.calcNewRanks(adjacencies, Directions.OUT, seeds,
+                              ranks, newRanks);
+            this.calcNewRanks(adjacencies, Directions.IN, seeds,
+                              ranks, newRanks);
+            newRanks[root] += (1 - this.alpha);
+
+            double delta = 0.0;
+            for (int v = 0; v < size; v++) {
+                delta += Math.abs(newRanks[v] - ranks[v]);
+            }
+            double[] tmp = ranks;
+            ranks = newRanks;
+            newRanks = tmp;
+
+            if (i == 0) {
+                rootAdjacencies = size;
+            }
+            seeds = size;
+            if (delta < threshold) {
+                break;
+            }
+        }
+
+        Map<Id, Double> results = new HashMap<>();
+        // Skip directly connected neighbors
+        for (int v = rootAdjacencies; v < seeds; v++) {
+            // Skip unnecessary label
+            boolean sameLabel = adjacencies.direction(v) == dir;
+            if (withLabel == WithLabel.SAME_LABEL && !sameLabel ||
+                withLabel == WithLabel.OTHER_LABEL && sameLabel) {
+                continue;
+            }
+            // Skip the vertices without rank like personalRank() does
+            if (ranks[v] == 0.0) {
+                continue;
+            }
+            results.put(adjacencies.id(v), ranks[v]);
+        }
+        return results;
+    }
+
+    private void calcNewRanks(Adjacencies adjacencies, Directions dir,
+                              int seeds, double[] ranks, double[] newRanks) {
+        for (int seed = 0; seed < seeds; seed++) {
+            if (adjacencies.direction(seed) != dir) {
+                continue;
+            }
+            int[] neighbors = adjacencies.neighbors(seed);
+            if (neighbors.length == 0) {
+                newRanks[seed] = ranks[seed];
+                continue;
+            }
+            double incrRank = ranks[seed] * this.alpha / neighbors.length;
+            for (int neighbor : neighbors) {
+                newRanks[neighbor] += incrRank;
+            }
+        }
+    }
+
     private Map<Id, Double> calcNewRanks(Set<Id> outSeeds, Set<Id> inSeeds,
                                          Id label, Map<Id, Double> ranks) {
         Map<Id, Double> newRanks = new HashMap<>();
@@ -165,6 +269,72 @@ public class PersonalRankTraverser extends HugeTraverser {
         }
     }
 
+    /**
+     * The vertices mapped to dense int codes, with the direction to expand
+     * and the cached adjacent vertices of each vertex
+     */
+    private class Adjacencies {
+
+        private final Id label;
+        private final IdIntMapping mapping;
+        private Directions[] directions;
+        private int[][] neighbors;
+
+        public Adjacencies(Id label) {
+            this.label = label;
+            this.mapping = new IdIntMapping();
+            this.directions = new Directions[16];
+            this.neighbors = new int[16][];
+        }
+
+        public int add(Id id, Directions dir) {
+            int size = this.mapping.size();
+            int code = this.mapping.code(id);
+            if (code == size) {
+                if (code == this.directions.length) {
+                    int capacity = code << 1;
+                    this.directions = Arrays.copyOf(this.directions,
+                                                    capacity);
+                    this.neighbors = Arrays.copyOf(this.neighbors, capacity);
+                }
+                this.directions[code] = dir;
+            }
+            return code;
+        }
+
+        public int size() {
+            return this.mapping.size();
+        }
+
+        public Id id(int code) {
+            return this.mapping.id(code);
+        }
+
+        public Directions direction(int code) {
+            return this.directions[code];
+        }
+
+        public int[] neighbors(int code) {
+            int[] neighbors = this.neighbors[code];
+            if (neighbors != null) {
+                return neighbors;
+            }
+            Directions dir = this.directions[code];
+            Iterator<Id> iter = adjacentVertices(this.mapping.id(code), dir,
+                                                 this.label,
+                                                 PersonalRankTraverser.this
+                                                                      .degree);
+            List<Id> ids = IteratorUtils.list(iter);
+            neighbors = new int[ids.size()];
+            for (int i = 0; i < neighbors.length; i++) {
+                neighbors[i] = this.add(ids.get(i), dir.opposite());
+            }
+            // NOTE: this.neighbors may be reallocated by add()
+            this.neighbors[code] = neighbors;
+            return neighbors;
+        }
+    }
+
     public enum WithLabel {
         SAME_LABEL,
         OTHER_LABEL,
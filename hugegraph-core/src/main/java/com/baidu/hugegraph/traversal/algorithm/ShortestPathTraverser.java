@@ -20,10 +20,10 @@
 package com.baidu.hugegraph.traversal.algorithm;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
@@ -33,10 +33,13 @@ import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.structure.HugeEdge;
 import com.baidu.hugegraph.type.define.Directions;
 import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.IdIntMapping;
 import com.google.common.collect.ImmutableList;
 
 public class ShortestPathTraverser extends HugeTraverser {
 
+    private static final int NONE = IdIntMapping.NONE;
+
     public ShortestPathTraverser(HugeGraph graph) {
         super(graph);
     }
@@ -61,14 +64,9 @@ public class ShortestPathTraverser extends HugeTraverser {
                                             degree, skipDegree, capacity);
         List<Id> path;
         while (true) {
-            // Found, reach max depth or reach capacity, stop searching
-            if ((path = traverser.forward()) != PATH_NONE || --depth <= 0) {
-                break;
-            }
-            checkCapacity(traverser.capacity, traverser.size, "shortest path");
-
-            if ((path = traverser.backward()) != PATH_NONE || --depth <= 0) {
-                Collections.reverse(path);
+            // Found, reach max depth or no more vertices, stop searching
+            if ((path = traverser.expand()) != PATH_NONE || --depth <= 0 ||
+                traverser.exhausted()) {
                 break;
             }
             checkCapacity(traverser.capacity, traverser.size, "shortest path");
@@ -97,9 +95,12 @@ public class ShortestPathTraverser extends HugeTraverser {
 
     private class Traverser {
 
-        // TODO: change Map to Set to reduce memory cost
-        private Map<Id, Node> sources = newMap();
-        private Map<Id, Node> targets = newMap();
+        private static final byte SOURCE = 1;
+        private static final byte TARGET = 2;
+
+        private final VisitedVertices visited = new VisitedVertices();
+        private Frontier sources;
+        private Frontier targets;
 
         private final Directions direction;
         private final Id label;
@@ -110,8 +111,10 @@ public class ShortestPathTraverser extends HugeTraverser {
 
         public Traverser(Id sourceV, Id targetV, Directions dir, Id label,
                          long degree, long skipDegree, long capacity) {
-            this.sources.put(sourceV, new Node(sourceV));
-            this.targets.put(targetV, new Node(targetV));
+            this.sources = new Frontier(SOURCE, dir);
+            this.sources.add(this.visited.add(sourceV, SOURCE, NONE));
+            this.targets = new Frontier(TARGET, dir.opposite());
+            this.targets.add(this.visited.add(targetV, TARGET, NONE));
             this.direction = dir;
             this.label = label;
             this.degree = degree;
@@ -120,95 +123,77 @@ public class ShortestPathTraverser extends HugeTraverser {
             this.size = 0L;
         }
 
+        public boolean exhausted() {
+            return this.sources.size == 0 || this.targets.size == 0;
+        }
+
         /**
-         * Search forward from source
+         * Search one more level from the side with smaller frontier, to
+         * avoid expanding the side which is exploding on power-law graph
          */
-        public List<Id> forward() {
-            Map<Id, Node> newVertices = newMap();
-            long degree = this.skipDegree > 0L ? this.skipDegree : this.degree;
-            // Traversal vertices of previous level
-            for (Node v : this.sources.values()) {
-                Iterator<Edge> edges = edgesOfVertex(v.id(), this.direction,
-                                                     this.label, degree);
-                edges = this.skipSuperNodeIfNeeded(edges);
-                while (edges.hasNext()) {
-                    HugeEdge edge = (HugeEdge) edges.next();
-                    Id target = edge.id().otherVertexId();
-
-                    // If cross point exists, shortest path found, concat them
-                    if (this.targets.containsKey(target)) {
-                        if (this.superNode(target, this.direction)) {
-                            continue;
-                        }
-                        return v.joinPath(this.targets.get(target));
-                    }
-
-                    /*
-                     * Not found shortest path yet, node is added to
-                     * newVertices if:
-                     * 1. not in sources and newVertices yet
-                     * 2. path of node doesn't have loop
-                     */
-                    if (!newVertices.containsKey(target) &&
-                        !this.sources.containsKey(target) &&
-                        !v.contains(target)) {
-                        newVertices.put(target, new Node(target, v));
-                    }
-                }
+        public List<Id> expand() {
+            if (this.targets.size < this.sources.size) {
+                return this.expand(this.targets);
             }
-
-            // Re-init sources
-            this.sources = newVertices;
-            this.size += newVertices.size();
-
-            return PATH_NONE;
+            return this.expand(this.sources);
         }
 
-        /**
-         * Search backward from target
-         */
-        public List<Id> backward() {
-            Map<Id, Node> newVertices = newMap();
+        private List<Id> expand(Frontier frontier) {
+            Frontier next = new Frontier(frontier.side, frontier.direction);
             long degree = this.skipDegree > 0L ? this.skipDegree : this.degree;
-            Directions opposite = this.direction.opposite();
             // Traversal vertices of previous level
-            for (Node v : this.targets.values()) {
-                Iterator<Edge> edges = edgesOfVertex(v.id(), opposite,
+            for (int i = 0; i < frontier.size; i++) {
+                int parent = frontier.vertices[i];
+                Iterator<Edge> edges = edgesOfVertex(this.visited.id(parent),
+                                                     frontier.direction,
                                                      this.label, degree);
                 edges = this.skipSuperNodeIfNeeded(edges);
                 while (edges.hasNext()) {
                     HugeEdge edge = (HugeEdge) edges.next();
                     Id target = edge.id().otherVertexId();
 
-                    // If cross point exists, shortest path found, concat them
-                    if (this.sources.containsKey(target)) {
-                        if (this.superNode(target, opposite)) {
-                            continue;
-                        }
-                        return v.joinPath(this.sources.get(target));
+                    int index = this.visited.indexOf(target);
+                    if (index == NONE) {
+                        // Not visited by any side yet, search it next level
+                        next.add(this.visited.add(target, frontier.side,
+                                                  parent));
+                        continue;
                     }
-
-                    /*
-                     * Not found shortest path yet, node is added to
-                     * newVertices if:
-                     * 1. not in targets and newVertices yet
-                     * 2. path of node doesn't have loop
-                     */
-                    if (!newVertices.containsKey(target) &&
-                        !this.targets.containsKey(target) &&
-                        !v.contains(target)) {
-                        newVertices.put(target, new Node(target, v));
+                    if (this.visited.side(index) == frontier.side) {
+                        // Visited from this side at the same or lower level
+                        continue;
+                    }
+                    // If cross point exists, shortest path found, concat them
+                    if (this.superNode(target, frontier.direction)) {
+                        continue;
                     }
+                    return this.joinPath(frontier.side, parent, index);
                 }
             }
 
-            // Re-init targets
-            this.targets = newVertices;
-            this.size += newVertices.size();
+            // Re-init the frontier of this side
+            if (frontier.side == SOURCE) {
+                this.sources = next;
+            } else {
+                this.targets = next;
+            }
+            this.size += next.size;
 
             return PATH_NONE;
         }
 
+        private List<Id> joinPath(byte side, int parent, int crosspoint) {
+            List<Id> path = this.visited.path(parent);
+            List<Id> backPath = this.visited.path(crosspoint);
+            Collections.reverse(backPath);
+            path.addAll(backPath);
+            // Always from source to target
+            if (side == TARGET) {
+                Collections.reverse(path);
+            }
+            return path;
+        }
+
         private Iterator<Edge> skipSuperNodeIfNeeded(Iterator<Edge> edges) {
             if (this.skipDegree <= 0L) {
                 return edges;
@@ -234,4 +219,84 @@ public class ShortestPathTraverser extends HugeTraverser {
             return IteratorUtils.count(edges) >= this.skipDegree;
         }
     }
+
+    /**
+     * The indexes of vertices in one level searched from one side
+     */
+    private static class Frontier {
+
+        private final byte side;
+        private final Directions direction;
+        private int[] vertices;
+        private int size;
+
+        public Frontier(byte side, Directions direction) {
+            this.side = side;
+            this.direction = direction;
+            this.vertices = new int[8];
+            this.size = 0;
+        }
+
+        public void add(int vertex) {
+            if (this.size == this.vertices.length) {
+                this.vertices = Arrays.copyOf(this.vertices, this.size << 1);
+            }
+            this.vertices[this.size++] = vertex;
+        }
+    }
+
+    /**
+     * All vertices visited from both sides, each vertex is assigned with a
+     * sequential index, the side and the parent index of it are kept in
+     * primitive arrays by the index instead of a node object per vertex.
+     */
+    private static class VisitedVertices {
+
+        private final IdIntMapping mapping;
+        private int[] parents;
+        private byte[] sides;
+
+        public VisitedVertices() {
+            this.mapping = new IdIntMapping(32);
+            this.parents = new int[32];
+            this.sides = new byte[32];
+        }
+
+        public int add(Id id, byte side, int parent) {
+            int index = this.mapping.code(id);
+            if (index == this.parents.length) {
+                int capacity = index << 1;
+                this.parents = Arrays.copyOf(this.parents, capacity);
+                this.sides = Arrays.copyOf(this.sides, capacity);
+            }
+            this.parents[index] = parent;
+            this.sides[index] = side;
+            return index;
+        }
+
+        public int indexOf(Id id) {
+            return this.mapping.codeIfPresent(id);
+        }
+
+        public Id id(int index) {
+            return this.mapping.id(index);
+        }
+
+        public byte side(int index) {
+            return this.sides[index];
+        }
+
+        /**
+         * Get the path from the root of the side to the specified vertex
+         */
+        public List<Id> path(int index) {
+            List<Id> path = new ArrayList<>();
+            do {
+                path.add(this.mapping.id(index));
+                index = this.parents[index];
+            } while (index != NONE);
+            Collections.reverse(path);
+            return path;
+        }
+    }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.traversal.optimize;
+
+import java.util.List;
+import java.util.Set;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy.ProviderOptimizationStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Replace `HugeGraphStep + CountGlobalStep` with HugeCountStep and replace
+ * `HugeVertexStep + CountGlobalStep` with HugeVertexCountStep, so that the
+ * results are counted by the backend instead of being queried and counted
+ * one by one. The HugeGraphStep or HugeVertexStep is kept if it's labeled,
+ * since its results may be referred to by the label.
+ */
+public final class HugeCountStepStrategy
+             extends AbstractTraversalStrategy<ProviderOptimizationStrategy>
+             implements ProviderOptimizationStrategy {
+
+    private static final long serialVersionUID = 7524117285478364231L;
+
+    private static final HugeCountStepStrategy INSTANCE;
+
+    static {
+        INSTANCE = new HugeCountStepStrategy();
+    }
+
+    private HugeCountStepStrategy() {
+        // pass
+    }
+
+    @Override
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public void apply(Traversal.Admin<?, ?> traversal) {
+        List<CountGlobalStep> steps = TraversalHelper.getStepsOfClass(
+                                      CountGlobalStep.class, traversal);
+        for (CountGlobalStep originStep : steps) {
+            // The steps between the graph/vertex step and the count step
+            int passedSteps = 0;
+            Step step = originStep.getPreviousStep();
+            while (step instanceof IdentityStep ||
+                   step instanceof NoOpBarrierStep) {
+                passedSteps++;
+                step = step.getPreviousStep();
+            }
+            if (!step.getLabels().isEmpty()) {
+                continue;
+            }
+
+            Step newStep;
+            if (step instanceof HugeGraphStep) {
+                HugeGraphStep<?, ?> graphStep = (HugeGraphStep<?, ?>) step;
+                // Only count by g.V()/g.E() at the start of a traversal
+                if (!graphStep.isStartStep() ||
+                    !(graphStep.getPreviousStep() instanceof EmptyStep) ||
+                    !(traversal.getParent() instanceof EmptyStep)) {
+                    continue;
+                }
+                newStep = new HugeCountStep(traversal, graphStep);
+            } else if (step instanceof HugeVertexStep) {
+                HugeVertexStep<?> vertexStep = (HugeVertexStep<?>) step;
+                newStep = new HugeVertexCountStep(traversal, vertexStep);
+            } else {
+                continue;
+            }
+            for (Object label : originStep.getLabels()) {
+                newStep.addLabel((String) label);
+            }
+            /*
+             * Replace the steps from the graph/vertex step to the count step
+             * by index, NOTE: HugeVertexStep can't be looked up by equals()
+             * since the query of it is not complete before traversing
+             */
+            int index = traversal.getSteps().size() - 1;
+            while (traversal.getSteps().get(index) != step) {
+                index--;
+            }
+            traversal.addStep(index, newStep);
+            for (int i = 0; i < passedSteps + 2; i++) {
+                traversal.removeStep(index + 1);
+            }
+        }
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return ImmutableSet.of(HugeGraphStepStrategy.class,
+                               HugeVertexStepStrategy.class);
+    }
+
+    public static HugeCountStepStrategy instance() {
+        return INSTANCE;
+    }
+}
@@ -78,17 +78,7 @@ public final class HugeGraphStep<S, E extends Element>
                                               graph.vertices(this.ids));
         }
 
-        Query query = null;
-        if (this.hasContainers.isEmpty()) {
-            // Query all
-            query = new Query(HugeType.VERTEX);
-        } else {
-            ConditionQuery q = new ConditionQuery(HugeType.VERTEX);
-            query = TraversalUtil.fillConditionQuery(this.hasContainers,
-                                                     q, graph);
-        }
-
-        query = this.injectQueryInfo(query);
+        Query query = this.makeQuery(graph, HugeType.VERTEX);
 
         @SuppressWarnings("unchecked")
         Iterator<E> result = (Iterator<E>) graph.vertices(query);
@@ -105,22 +95,47 @@ public final class HugeGraphStep<S, E extends Element>
                                               graph.edges(this.ids));
         }
 
-        Query query = null;
+        Query query = this.makeQuery(graph, HugeType.EDGE);
 
+        @SuppressWarnings("unchecked")
+        Iterator<E> result = (Iterator<E>) graph.edges(query);
+        return result;
+    }
+
+    /**
+     * Count the results of this step, it's counted by the backend without
+     * querying the elements unless this step queries by ids
+     */
+    public long count() {
+        HugeGraph graph = (HugeGraph) this.getTraversal().getGraph().get();
+        if (this.ids != null && this.ids.length > 0) {
+            Iterator<E> results = this.returnsVertex() ?
+                                  this.vertices() : this.edges();
+            long count = 0L;
+            while (results.hasNext()) {
+                results.next();
+                count++;
+            }
+            return count;
+        }
+
+        HugeType type = this.returnsVertex() ? HugeType.VERTEX : HugeType.EDGE;
+        return graph.queryNumber(this.makeQuery(graph, type));
+    }
+
+    private Query makeQuery(HugeGraph graph, HugeType type) {
+        Query query = null;
         if (this.hasContainers.isEmpty()) {
-            /* Query all */
-            query = new Query(HugeType.EDGE);
+            // Query all
+            query = new Query(type);
         } else {
-            ConditionQuery q = new ConditionQuery(HugeType.EDGE);
+            ConditionQuery q = new ConditionQuery(type);
             query = TraversalUtil.fillConditionQuery(this.hasContainers,
                                                      q, graph);
         }
 
         query = this.injectQueryInfo(query);
-
-        @SuppressWarnings("unchecked")
-        Iterator<E> result = (Iterator<E>) graph.edges(query);
-        return result;
+        return query;
     }
 
     @Override
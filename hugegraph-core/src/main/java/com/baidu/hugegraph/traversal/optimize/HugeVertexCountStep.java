@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.traversal.optimize;
+
+import java.util.Set;
+import java.util.function.BinaryOperator;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Operator;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.util.function.ConstantSupplier;
+
+import com.baidu.hugegraph.util.E;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * The step replaces `HugeVertexStep + CountGlobalStep` like
+ * g.V(id).outE().count(), it sums the number of the adjacent edges (or
+ * vertices) of each traverser counted by the backend, instead of emitting
+ * the adjacent edges and then counting them.
+ */
+public final class HugeVertexCountStep
+             extends ReducingBarrierStep<Vertex, Long> {
+
+    private static final long serialVersionUID = -2135827148927512066L;
+
+    private static final Set<TraverserRequirement> REQUIREMENTS =
+                         ImmutableSet.of(TraverserRequirement.BULK);
+
+    private final HugeVertexStep<?> originVertexStep;
+
+    public HugeVertexCountStep(final Traversal.Admin<?, ?> traversal,
+                               final HugeVertexStep<?> originVertexStep) {
+        super(traversal);
+        E.checkNotNull(originVertexStep, "originVertexStep");
+        this.originVertexStep = originVertexStep;
+        this.setSeedSupplier(new ConstantSupplier<>(0L));
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        BinaryOperator<Long> sum = (BinaryOperator) Operator.sumLong;
+        this.setReducingBiOperator(sum);
+    }
+
+    @Override
+    public Long projectTraverser(final Traverser.Admin<Vertex> traverser) {
+        return traverser.bulk() * this.originVertexStep.count(traverser);
+    }
+
+    @Override
+    public Set<TraverserRequirement> getRequirements() {
+        return REQUIREMENTS;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, this.originVertexStep);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ this.originVertexStep.hashCode();
+    }
+}
@@ -44,7 +44,7 @@ import com.baidu.hugegraph.iterator.ExtendableIterator;
 import com.baidu.hugegraph.type.define.Directions;
 import com.baidu.hugegraph.util.Log;
 
-public final class HugeVertexStep<E extends Element>
+public class HugeVertexStep<E extends Element>
              extends VertexStep<E> implements QueryHolder {
 
     private static final long serialVersionUID = -7850636388424382454L;
@@ -104,7 +104,7 @@ public final class HugeVertexStep<E extends Element>
         return TraversalUtil.filterResult(this.hasContainers, vertices);
     }
 
-    private Iterator<Edge> edges(Traverser.Admin<Vertex> traverser) {
+    protected Iterator<Edge> edges(Traverser.Admin<Vertex> traverser) {
         HugeGraph graph = (HugeGraph) traverser.get().graph();
         List<HasContainer> conditions = this.hasContainers;
 
@@ -159,6 +159,40 @@ public final class HugeVertexStep<E extends Element>
         return results;
     }
 
+    /**
+     * Count the adjacent edges or vertices of the traverser, it's counted by
+     * the backend without querying the edges if there are no conditions
+     */
+    public long count(Traverser.Admin<Vertex> traverser) {
+        if (!this.hasContainers.isEmpty() || this.queryInfo.paging() ||
+            this.queryInfo.offset() > 0L ||
+            this.queryInfo.limit() != Query.NO_LIMIT) {
+            Iterator<?> results = this.returnsVertex() ?
+                                  this.vertices(traverser) :
+                                  this.edges(traverser);
+            long count = 0L;
+            while (results.hasNext()) {
+                results.next();
+                count++;
+            }
+            return count;
+        }
+
+        // Each adjacent edge leads to an adjacent vertex
+        HugeGraph graph = (HugeGraph) traverser.get().graph();
+        Id vertex = (Id) traverser.get().id();
+        Directions direction = Directions.convert(this.getDirection());
+        Id[] edgeLabels = graph.mapElName2Id(this.getEdgeLabels());
+
+        ConditionQuery query = GraphTransaction.constructEdgesQuery(
+                               vertex, direction, edgeLabels);
+        long count = 0L;
+        for (ConditionQuery q : ConditionQueryFlatten.flatten(query)) {
+            count += graph.queryNumber(this.injectQueryInfo(q));
+        }
+        return count;
+    }
+
     @Override
     public String toString() {
         if (this.hasContainers.isEmpty()) {
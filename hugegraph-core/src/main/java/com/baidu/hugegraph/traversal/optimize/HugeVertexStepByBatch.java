@@ -0,0 +1,149 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.traversal.optimize;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.structure.HugeEdge;
+import com.baidu.hugegraph.util.InsertionOrderUtil;
+
+/**
+ * The HugeVertexStep which gathers a batch of traversers, queries the edges
+ * of them and then looks up all their adjacent vertices by one query,
+ * instead of one vertices query for each traverser.
+ * The results are emitted in the order of the traversers.
+ */
+public class HugeVertexStepByBatch<E extends Element>
+       extends HugeVertexStep<E> {
+
+    private static final long serialVersionUID = -3609787815053052222L;
+
+    private final int batchSize;
+
+    private Iterator<Traverser.Admin<E>> batchResults;
+
+    public HugeVertexStepByBatch(final VertexStep<E> originVertexStep,
+                                 int batchSize) {
+        super(originVertexStep);
+        assert originVertexStep.returnsVertex();
+        assert batchSize > 0;
+        this.batchSize = batchSize;
+        this.batchResults = Collections.emptyIterator();
+    }
+
+    @Override
+    protected Traverser.Admin<E> processNextStart() {
+        // Page info is kept by the results of each traverser
+        if (this.queryInfo().paging()) {
+            return super.processNextStart();
+        }
+
+        while (!this.batchResults.hasNext()) {
+            if (!this.starts.hasNext()) {
+                throw FastNoSuchElementException.instance();
+            }
+            List<Traverser.Admin<Vertex>> traversers;
+            traversers = new ArrayList<>(this.batchSize);
+            while (this.starts.hasNext() &&
+                   traversers.size() < this.batchSize) {
+                traversers.add(this.starts.next());
+            }
+            this.batchResults = this.flatMap(traversers);
+        }
+        return this.batchResults.next();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Iterator<Traverser.Admin<E>> flatMap(
+                                         List<Traverser.Admin<Vertex>>
+                                         traversers) {
+        // Query edges of each traverser, and collect all adjacent vertices
+        List<List<Id>> adjacencies = new ArrayList<>(traversers.size());
+        Set<Id> vertexIds = InsertionOrderUtil.newSet();
+        for (Traverser.Admin<Vertex> traverser : traversers) {
+            List<Id> targets = new ArrayList<>();
+            Iterator<Edge> edges = this.edges(traverser);
+            while (edges.hasNext()) {
+                HugeEdge edge = (HugeEdge) edges.next();
+                targets.add(edge.id().otherVertexId());
+            }
+            adjacencies.add(targets);
+            vertexIds.addAll(targets);
+        }
+        if (vertexIds.isEmpty()) {
+            return Collections.emptyIterator();
+        }
+
+        // Look up the adjacent vertices of all traversers together
+        HugeGraph graph = (HugeGraph) traversers.get(0).get().graph();
+        Map<Id, Vertex> vertices = new HashMap<>(vertexIds.size());
+        Iterator<Vertex> iter = graph.vertices(vertexIds.toArray());
+        while (iter.hasNext()) {
+            Vertex vertex = iter.next();
+            vertices.put((Id) vertex.id(), vertex);
+        }
+
+        List<HasContainer> conditions = this.getHasContainers();
+        List<Traverser.Admin<E>> results = new ArrayList<>();
+        for (int i = 0; i < traversers.size(); i++) {
+            Traverser.Admin<Vertex> traverser = traversers.get(i);
+            for (Id target : adjacencies.get(i)) {
+                Vertex vertex = vertices.get(target);
+                // The adjacent vertex may not exist or mismatch conditions
+                if (vertex == null ||
+                    !HasContainer.testAll(vertex, conditions)) {
+                    continue;
+                }
+                results.add(traverser.split((E) vertex, this));
+            }
+        }
+        return results.iterator();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.batchResults = Collections.emptyIterator();
+    }
+
+    @Override
+    public HugeVertexStepByBatch<E> clone() {
+        HugeVertexStepByBatch<E> clone;
+        clone = (HugeVertexStepByBatch<E>) super.clone();
+        clone.batchResults = Collections.emptyIterator();
+        return clone;
+    }
+}
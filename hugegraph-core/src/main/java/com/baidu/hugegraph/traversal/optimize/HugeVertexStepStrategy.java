@@ -27,6 +27,9 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.config.CoreOptions;
+
 public final class HugeVertexStepStrategy
              extends AbstractTraversalStrategy<ProviderOptimizationStrategy>
              implements ProviderOptimizationStrategy {
@@ -50,8 +53,24 @@ public final class HugeVertexStepStrategy
 
         List<VertexStep> steps = TraversalHelper.getStepsOfClass(
                                  VertexStep.class, traversal);
+        if (steps.isEmpty()) {
+            return;
+        }
+
+        int batchSize = 1;
+        if (traversal.getGraph().isPresent()) {
+            HugeGraph graph = (HugeGraph) traversal.getGraph().get();
+            batchSize = graph.configuration()
+                             .get(CoreOptions.QUERY_ADJACENT_BATCH_SIZE);
+        }
+
         for (VertexStep originStep : steps) {
-            HugeVertexStep<?> newStep = new HugeVertexStep<>(originStep);
+            HugeVertexStep<?> newStep;
+            if (batchSize > 1 && originStep.returnsVertex()) {
+                newStep = new HugeVertexStepByBatch<>(originStep, batchSize);
+            } else {
+                newStep = new HugeVertexStep<>(originStep);
+            }
             TraversalHelper.replaceStep(originStep, newStep, traversal);
 
             TraversalUtil.extractHasContainer(newStep, traversal);
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.type.define;
+
+/**
+ * The format of property values stored by the binary serializers. KRYO is
+ * the legacy format of property keys created before COMPACT was introduced,
+ * their values are still written and read in the same format.
+ */
+public enum ValueFormat implements SerialEnum {
+
+    KRYO(1, "kryo"),
+
+    COMPACT(2, "compact");
+
+    private byte code = 0;
+    private String name = null;
+
+    static {
+        SerialEnum.register(ValueFormat.class);
+    }
+
+    ValueFormat(int code, String name) {
+        assert code < 256;
+        this.code = (byte) code;
+        this.name = name;
+    }
+
+    @Override
+    public byte code() {
+        return this.code;
+    }
+
+    public String string() {
+        return this.name;
+    }
+}
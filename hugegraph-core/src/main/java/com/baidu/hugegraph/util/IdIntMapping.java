@@ -0,0 +1,125 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.util;
+
+import java.util.Arrays;
+
+import com.baidu.hugegraph.backend.id.Id;
+
+/**
+ * Map ids to dense int codes in the order of adding, so that algorithms can
+ * keep the states of vertices in primitive arrays indexed by the code.
+ * The code of id is looked up by an open addressing hash table without
+ * boxing. It's not thread safe.
+ */
+public final class IdIntMapping {
+
+    public static final int NONE = -1;
+
+    private int[] table;
+    private Id[] ids;
+    private int size;
+
+    public IdIntMapping() {
+        this(16);
+    }
+
+    public IdIntMapping(int capacity) {
+        E.checkArgument(capacity > 0,
+                        "The capacity must be > 0, but got %s", capacity);
+        this.ids = new Id[capacity];
+        this.table = newTable(tableSize(capacity));
+        this.size = 0;
+    }
+
+    /**
+     * Get the code of the id, or assign the next code to it if absent
+     */
+    public int code(Id id) {
+        int slot = this.slot(id);
+        int code = this.table[slot];
+        if (code != NONE) {
+            return code;
+        }
+        if (this.size == this.ids.length) {
+            this.ids = Arrays.copyOf(this.ids, this.size << 1);
+            this.rehash(tableSize(this.ids.length));
+            slot = this.slot(id);
+        }
+        code = this.size++;
+        this.ids[code] = id;
+        this.table[slot] = code;
+        return code;
+    }
+
+    /**
+     * Get the code of the id, return NONE if absent
+     */
+    public int codeIfPresent(Id id) {
+        return this.table[this.slot(id)];
+    }
+
+    public Id id(int code) {
+        // Avoid the varargs and boxing of E.checkArgument() in the hot path
+        if (code < 0 || code >= this.size) {
+            throw new IllegalArgumentException(String.format(
+                      "Invalid code %s, the size is %s", code, this.size));
+        }
+        return this.ids[code];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    private int slot(Id id) {
+        int mask = this.table.length - 1;
+        int slot = hash(id) & mask;
+        int code;
+        while ((code = this.table[slot]) != NONE &&
+               !this.ids[code].equals(id)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int tableSize) {
+        this.table = newTable(tableSize);
+        for (int code = 0; code < this.size; code++) {
+            this.table[this.slot(this.ids[code])] = code;
+        }
+    }
+
+    private static int hash(Id id) {
+        int h = id.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSize(int capacity) {
+        // Keep the load factor <= 0.5
+        return Integer.highestOneBit(Math.max(capacity, 2) - 1) << 2;
+    }
+
+    private static int[] newTable(int size) {
+        int[] table = new int[size];
+        Arrays.fill(table, NONE);
+        return table;
+    }
+}
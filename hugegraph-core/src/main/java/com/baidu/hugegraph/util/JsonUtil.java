@@ -20,8 +20,10 @@
 package com.baidu.hugegraph.util;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Date;
 
+import org.apache.tinkerpop.shaded.jackson.core.JsonEncoding;
 import org.apache.tinkerpop.shaded.jackson.core.JsonGenerator;
 import org.apache.tinkerpop.shaded.jackson.core.JsonParser;
 import org.apache.tinkerpop.shaded.jackson.core.JsonProcessingException;
@@ -30,6 +32,7 @@ import org.apache.tinkerpop.shaded.jackson.databind.DeserializationContext;
 import org.apache.tinkerpop.shaded.jackson.databind.Module;
 import org.apache.tinkerpop.shaded.jackson.databind.ObjectMapper;
 import org.apache.tinkerpop.shaded.jackson.databind.ObjectReader;
+import org.apache.tinkerpop.shaded.jackson.databind.SerializationFeature;
 import org.apache.tinkerpop.shaded.jackson.databind.SerializerProvider;
 import org.apache.tinkerpop.shaded.jackson.databind.deser.std.StdDeserializer;
 import org.apache.tinkerpop.shaded.jackson.databind.module.SimpleModule;
@@ -79,6 +82,9 @@ public final class JsonUtil {
 
         module.addSerializer(Shard.class, new ShardSerializer());
         mapper.registerModule(module);
+
+        // Let the caller of generator() decide when to flush the output
+        mapper.disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     public static void registerModule(Module module) {
@@ -93,6 +99,25 @@ public final class JsonUtil {
         }
     }
 
+    /**
+     * Create a generator to write json into the output stream incrementally
+     * by generator.writeObject(), which serializes values with the mapper.
+     * NOTE: the output stream isn't closed when the generator is closed,
+     * and the unclosed json content isn't completed, to avoid a truncated
+     * output looking like a valid json.
+     */
+    public static JsonGenerator generator(OutputStream out) {
+        try {
+            JsonGenerator generator = mapper.getFactory().createGenerator(
+                                      out, JsonEncoding.UTF8);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            return generator;
+        } catch (IOException e) {
+            throw new BackendException(e);
+        }
+    }
+
     public static <T> T fromJson(String json, Class<T> clazz) {
         E.checkState(json != null,
                      "Json value can't be null for '%s'",
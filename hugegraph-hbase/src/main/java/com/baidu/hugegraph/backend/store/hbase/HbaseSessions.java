@@ -49,6 +49,7 @@ import org.apache.hadoop.hbase.client.ConnectionFactory;
 import org.apache.hadoop.hbase.client.Delete;
 import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RegionInfo;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Row;
@@ -57,6 +58,8 @@ import org.apache.hadoop.hbase.client.Table;
 import org.apache.hadoop.hbase.client.TableDescriptorBuilder;
 import org.apache.hadoop.hbase.filter.FilterList;
 import org.apache.hadoop.hbase.filter.FilterList.Operator;
+import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
+import org.apache.hadoop.hbase.filter.KeyOnlyFilter;
 import org.apache.hadoop.hbase.filter.MultiRowRangeFilter;
 import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
 import org.apache.hadoop.hbase.filter.PageFilter;
@@ -68,6 +71,7 @@ import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendIterator;
 import com.baidu.hugegraph.backend.store.BackendSession;
 import com.baidu.hugegraph.backend.store.BackendSessionPool;
+import com.baidu.hugegraph.backend.store.BackendTable.KeyRange;
 import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.util.Bytes;
 import com.baidu.hugegraph.util.E;
@@ -222,6 +226,31 @@ public class HbaseSessions extends BackendSessionPool {
         return total;
     }
 
+    public List<KeyRange> regionRanges(String table) throws IOException {
+        TableName tableName = TableName.valueOf(this.namespace, table);
+        Map<String, Long> sizes = new HashMap<>();
+        List<KeyRange> ranges = new ArrayList<>();
+        try(Admin admin = this.hbase.getAdmin()) {
+            for (ServerName rs : admin.getRegionServers()) {
+                for (RegionMetrics m : admin.getRegionMetrics(rs, tableName)) {
+                    long size = m.getStoreFileSize().getLongValue() +
+                                m.getMemStoreSize().getLongValue();
+                    sizes.put(m.getNameAsString(), size);
+                }
+            }
+            for (RegionInfo region : admin.getRegions(tableName)) {
+                Long size = sizes.get(region.getRegionNameAsString());
+                if (size == null) {
+                    // The region may be moving, ignore it
+                    continue;
+                }
+                ranges.add(new KeyRange(region.getStartKey(),
+                                        region.getEndKey(), size));
+            }
+        }
+        return ranges;
+    }
+
     /**
      * Session for HBase
      */
@@ -532,6 +561,38 @@ public class HbaseSessions extends BackendSessionPool {
             return this.scan(table, scan);
         }
 
+        /**
+         * Count records by rowkey start and prefix from a table, only the
+         * first key of each row is returned from region servers.
+         * The startRow and prefix may be null if scan all records.
+         */
+        public long count(String table, byte[] startRow,
+                          boolean inclusiveStart, byte[] prefix) {
+            assert !this.hasChanges();
+            FilterList filters = new FilterList(Operator.MUST_PASS_ALL);
+            filters.addFilter(new FirstKeyOnlyFilter());
+            filters.addFilter(new KeyOnlyFilter());
+            Scan scan = new Scan();
+            if (startRow != null) {
+                scan.withStartRow(startRow, inclusiveStart);
+            }
+            if (prefix != null) {
+                filters.addFilter(new PrefixFilter(prefix));
+            }
+            scan.setFilter(filters);
+
+            long count = 0L;
+            try (Table htable = table(table);
+                 ResultScanner scanner = htable.getScanner(scan)) {
+                while (scanner.next() != null) {
+                    count++;
+                }
+            } catch (IOException e) {
+                throw new BackendException(e);
+            }
+            return count;
+        }
+
         /**
          * Inner scan: send scan request to HBase and get iterator
          */
@@ -563,6 +624,13 @@ public class HbaseSessions extends BackendSessionPool {
             return HbaseSessions.this.storeSize(table);
         }
 
+        /**
+         * Get the key ranges and sizes of the regions of specified table
+         */
+        public List<KeyRange> regionRanges(String table) throws IOException {
+            return HbaseSessions.this.regionRanges(table);
+        }
+
         /**
          * Just for debug
          */
@@ -163,6 +163,20 @@ public class HbaseTable extends BackendTable<Session, BackendEntry> {
         return newEntryIterator(this.queryByCond(session, cq), query);
     }
 
+    @Override
+    public long queryNumber(Session session, Query query) {
+        // Count rows by scanning keys only, each row is a vertex or an edge
+        if (query.empty() && !query.paging()) {
+            return session.count(this.table(), null, false, null);
+        }
+        if (query instanceof IdPrefixQuery) {
+            IdPrefixQuery pq = (IdPrefixQuery) query;
+            return session.count(this.table(), pq.start().asBytes(),
+                                 pq.inclusiveStart(), pq.prefix().asBytes());
+        }
+        return super.queryNumber(session, query);
+    }
+
     protected RowIterator queryAll(Session session, Query query) {
         if (query.paging()) {
             PageState page = PageState.fromString(query.page());
@@ -270,5 +284,16 @@ public class HbaseTable extends BackendTable<Session, BackendEntry> {
             // TODO: improve
             return 100000L;
         }
+
+        @Override
+        protected List<KeyRange> estimateKeyRanges(Session session) {
+            try {
+                return session.regionRanges(this.table());
+            } catch (IOException e) {
+                LOG.warn("Failed to get region ranges of table '{}', " +
+                         "fall back to even split", this.table(), e);
+                return ImmutableList.of();
+            }
+        }
     }
 }
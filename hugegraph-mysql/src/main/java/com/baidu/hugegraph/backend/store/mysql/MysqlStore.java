@@ -228,6 +228,14 @@ public abstract class MysqlStore extends AbstractBackendStore<Session> {
         return table.query(this.sessions.session(), query);
     }
 
+    @Override
+    public long queryNumber(Query query) {
+        this.checkSessionConnected();
+
+        MysqlTable table = this.table(MysqlTable.tableType(query));
+        return table.queryNumber(this.sessions.session(), query);
+    }
+
     @Override
     public void beginTx() {
         this.checkSessionConnected();
@@ -43,6 +43,7 @@ import com.baidu.hugegraph.backend.store.TableDefine;
 import com.baidu.hugegraph.backend.store.mysql.MysqlEntryIterator.PagePosition;
 import com.baidu.hugegraph.backend.store.mysql.MysqlSessions.Session;
 import com.baidu.hugegraph.exception.NotFoundException;
+import com.baidu.hugegraph.exception.NotSupportException;
 import com.baidu.hugegraph.iterator.ExtendableIterator;
 import com.baidu.hugegraph.type.define.HugeKeys;
 import com.baidu.hugegraph.util.Log;
@@ -315,6 +316,39 @@ public abstract class MysqlTable
         return rs;
     }
 
+    @Override
+    public long queryNumber(Session session, Query query) {
+        if (!query.ids().isEmpty() || query.paging() ||
+            query.limit() != Query.NO_LIMIT) {
+            throw new NotSupportException("counting by ids or with " +
+                                          "limit/paging: %s", query);
+        }
+
+        StringBuilder select = new StringBuilder(64);
+        select.append("SELECT COUNT(*) FROM ").append(this.table());
+        List<StringBuilder> selections;
+        if (query.conditions().isEmpty()) {
+            selections = ImmutableList.of(select);
+        } else {
+            selections = this.queryCondition2Select(query, select);
+        }
+
+        long count = 0L;
+        try {
+            for (StringBuilder selection : selections) {
+                try (ResultSet results = session.select(selection.toString())) {
+                    if (results.next()) {
+                        count += results.getLong(1);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new BackendException("Failed to count [%s]", e, query);
+        }
+        LOG.debug("Return {} for number query {}", count, query);
+        return count;
+    }
+
     protected List<StringBuilder> query2Select(String table, Query query) {
         // Set table
         StringBuilder select = new StringBuilder(64);
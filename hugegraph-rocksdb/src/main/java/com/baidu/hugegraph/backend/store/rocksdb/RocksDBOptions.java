@@ -89,6 +89,33 @@ public class RocksDBOptions extends OptionHolder {
                     ""
             );
 
+    public static final ConfigOption<Long> SST_SORT_BUFFER_SIZE =
+            new ConfigOption<>(
+                    "rocksdb.sst_sort_buffer_size",
+                    "The size in bytes of changes of each table to buffer " +
+                    "in memory before sorting and spilling them to disk " +
+                    "when generating SST files.",
+                    rangeInt(1L, Long.MAX_VALUE),
+                    64L * Bytes.MB
+            );
+
+    public static final ConfigOption<Long> SST_MAX_FILE_SIZE =
+            new ConfigOption<>(
+                    "rocksdb.sst_max_file_size",
+                    "The max size in bytes of each generated SST file.",
+                    rangeInt(1L, Long.MAX_VALUE),
+                    256L * Bytes.MB
+            );
+
+    public static final ConfigOption<Integer> SST_WRITER_THREADS =
+            new ConfigOption<>(
+                    "rocksdb.sst_writer_threads",
+                    "The number of threads to merge sorted changes into " +
+                    "SST files when generating SST files.",
+                    rangeInt(1, Integer.MAX_VALUE),
+                    4
+            );
+
     // TODO: support ConfigOption<InfoLogLevel>
     public static final ConfigOption<String> LOG_LEVEL =
             new ConfigOption<>(
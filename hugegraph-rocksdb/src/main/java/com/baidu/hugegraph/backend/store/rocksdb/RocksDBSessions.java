@@ -19,6 +19,7 @@
 
 package com.baidu.hugegraph.backend.store.rocksdb;
 
+import java.util.List;
 import java.util.Set;
 
 import org.rocksdb.RocksDBException;
@@ -26,6 +27,7 @@ import org.rocksdb.RocksDBException;
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumnIterator;
 import com.baidu.hugegraph.backend.store.BackendSession;
 import com.baidu.hugegraph.backend.store.BackendSessionPool;
+import com.baidu.hugegraph.backend.store.BackendTable.KeyRange;
 import com.baidu.hugegraph.config.HugeConfig;
 
 public abstract class RocksDBSessions extends BackendSessionPool {
@@ -59,8 +61,11 @@ public abstract class RocksDBSessions extends BackendSessionPool {
         public static final int SCAN_GTE_BEGIN = 0x0c;
         public static final int SCAN_LT_END = 0x10;
         public static final int SCAN_LTE_END = 0x30;
+        // Only read the keys of records, the values are returned as empty
+        public static final int SCAN_KEY_ONLY = 0x40;
 
         public abstract String property(String table, String property);
+        public abstract List<KeyRange> keyRanges(String table);
 
         public abstract void put(String table, byte[] key, byte[] value);
         public abstract void merge(String table, byte[] key, byte[] value);
@@ -71,10 +76,14 @@ public abstract class RocksDBSessions extends BackendSessionPool {
         public abstract void delete(String table, byte[] key);
 
         public abstract byte[] get(String table, byte[] key);
+        public abstract BackendColumnIterator get(String table,
+                                                  List<byte[]> keys);
 
         public abstract BackendColumnIterator scan(String table);
         public abstract BackendColumnIterator scan(String table,
                                                    byte[] prefix);
+        public abstract BackendColumnIterator scan(String table,
+                                                   List<byte[]> prefixes);
         public abstract BackendColumnIterator scan(String table,
                                                    byte[] keyFrom,
                                                    byte[] keyTo,
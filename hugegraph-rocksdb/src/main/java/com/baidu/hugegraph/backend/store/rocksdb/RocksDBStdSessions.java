@@ -23,13 +23,17 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.rocksdb.BlockBasedTableConfig;
 import org.rocksdb.BloomFilter;
@@ -56,6 +60,8 @@ import com.baidu.hugegraph.backend.BackendException;
 import com.baidu.hugegraph.backend.serializer.BinarySerializer;
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumnIterator;
+import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumnIteratorWrapper;
+import com.baidu.hugegraph.backend.store.BackendTable.KeyRange;
 import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.util.Bytes;
 import com.baidu.hugegraph.util.E;
@@ -64,6 +70,17 @@ import com.google.common.collect.ImmutableList;
 
 public class RocksDBStdSessions extends RocksDBSessions {
 
+    private static final String SST_FILES = "rocksdb.sstables";
+    private static final String MEM_SIZE = "rocksdb.size-all-mem-tables";
+
+    /*
+     * The sst files are described like this in property rocksdb.sstables:
+     * " 12:3084['6B6579' seq:1, type:1 .. '6B657A' seq:9, type:1](0)"
+     */
+    private static final Pattern SST_FILE_PATTERN = Pattern.compile(
+            "\\d+:(\\d+)\\['([0-9A-Fa-f]*)' seq:\\d+, type:\\d+ \\.\\. " +
+            "'([0-9A-Fa-f]*)' seq:\\d+, type:\\d+\\]");
+
     private final RocksDB rocksdb;
     private final SstFileManager sstFileManager;
 
@@ -496,6 +513,40 @@ public class RocksDBStdSessions extends RocksDBSessions {
             }
         }
 
+        /**
+         * Get the key ranges of the sst files and mem-tables of specified
+         * table, each with the size of the file or mem-tables
+         */
+        @Override
+        public List<KeyRange> keyRanges(String table) {
+            List<KeyRange> ranges = new ArrayList<>();
+            String sstables = this.property(table, SST_FILES);
+            Matcher matcher = SST_FILE_PATTERN.matcher(sstables);
+            while (matcher.find()) {
+                long size = Long.parseLong(matcher.group(1));
+                byte[] smallest = Bytes.fromHex(matcher.group(2));
+                byte[] largest = Bytes.fromHex(matcher.group(3));
+                ranges.add(new KeyRange(smallest, largest, size));
+            }
+
+            long memSize = Long.parseLong(this.property(table, MEM_SIZE));
+            if (memSize > 0L) {
+                // The mem-tables are assumed to cover the whole table
+                try (RocksIterator iter = rocksdb().newIterator(cf(table))) {
+                    iter.seekToFirst();
+                    if (iter.isValid()) {
+                        byte[] first = iter.key();
+                        iter.seekToLast();
+                        if (iter.isValid()) {
+                            ranges.add(new KeyRange(first, iter.key(),
+                                                    memSize));
+                        }
+                    }
+                }
+            }
+            return ranges;
+        }
+
         /**
          * Commit all updates(put/delete) to DB
          */
@@ -618,6 +669,37 @@ public class RocksDBStdSessions extends RocksDBSessions {
             }
         }
 
+        /**
+         * Get records by a batch of keys from a table with one multi-get,
+         * the returned columns keep the order of keys and skip missing ones
+         */
+        @Override
+        public BackendColumnIterator get(String table, List<byte[]> keys) {
+            assert !this.hasChanges();
+            if (keys.isEmpty()) {
+                return BackendColumnIterator.empty();
+            }
+
+            List<ColumnFamilyHandle> cfs = Collections.nCopies(keys.size(),
+                                                               cf(table));
+            Map<byte[], byte[]> values;
+            try {
+                values = rocksdb().multiGet(cfs, keys);
+            } catch (RocksDBException e) {
+                throw new BackendException(e);
+            }
+
+            // NOTE: the result map is keyed by the identity of the key array
+            List<BackendColumn> cols = new ArrayList<>(values.size());
+            for (byte[] key : keys) {
+                byte[] value = values.get(key);
+                if (value != null) {
+                    cols.add(BackendColumn.of(key, value));
+                }
+            }
+            return new BackendColumnIteratorWrapper(cols.iterator());
+        }
+
         /**
          * Scan all records from a table
          */
@@ -642,6 +724,21 @@ public class RocksDBStdSessions extends RocksDBSessions {
                                       SCAN_PREFIX_BEGIN);
         }
 
+        /**
+         * Scan records by a batch of key prefixes from a table, all the
+         * prefixes share one iterator which is re-seeked for each prefix
+         */
+        @Override
+        public BackendColumnIterator scan(String table,
+                                          List<byte[]> prefixes) {
+            assert !this.hasChanges();
+            ReadOptions options = new ReadOptions();
+            // NOTE: Options.prefix_extractor is a prerequisite
+            options.setPrefixSameAsStart(true);
+            RocksIterator iter = rocksdb().newIterator(cf(table), options);
+            return new PrefixesColumnIterator(table, iter, prefixes);
+        }
+
         /**
          * Scan records by key range from a table
          */
@@ -849,7 +946,100 @@ public class RocksDBStdSessions extends RocksDBSessions {
                 }
             }
 
-            BackendColumn col = BackendColumn.of(this.iter.key(),
+            byte[] value = this.match(Session.SCAN_KEY_ONLY) ?
+                           BinarySerializer.EMPTY_BYTES : this.iter.value();
+            BackendColumn col = BackendColumn.of(this.iter.key(), value);
+            this.iter.next();
+            this.matched = false;
+
+            return col;
+        }
+
+        @Override
+        public byte[] position() {
+            return this.position;
+        }
+
+        @Override
+        public void close() {
+            if (this.iter.isOwningHandle()) {
+                this.iter.close();
+            }
+        }
+    }
+
+    /**
+     * A wrapper for RocksIterator that scans multiple key prefixes in turn
+     */
+    private static class PrefixesColumnIterator
+                   implements BackendColumnIterator {
+
+        private final String table;
+        private final RocksIterator iter;
+        private final Iterator<byte[]> prefixes;
+
+        private byte[] prefix;
+        private byte[] position;
+        private boolean matched;
+
+        public PrefixesColumnIterator(String table, RocksIterator iter,
+                                      List<byte[]> prefixes) {
+            E.checkNotNull(iter, "iter");
+            E.checkNotNull(prefixes, "prefixes");
+            this.table = table;
+
+            this.iter = iter;
+            this.prefixes = prefixes.iterator();
+
+            this.prefix = null;
+            this.position = null;
+            this.matched = false;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (this.matched) {
+                return true;
+            }
+            if (!this.iter.isOwningHandle()) {
+                // Maybe closed
+                return false;
+            }
+
+            while (true) {
+                if (this.prefix != null && this.iter.isValid()) {
+                    byte[] key = this.iter.key();
+                    if (Bytes.prefixWith(key, this.prefix)) {
+                        // Update position for paging
+                        this.position = key;
+                        this.matched = true;
+                        return true;
+                    }
+                }
+                if (!this.prefixes.hasNext()) {
+                    break;
+                }
+                // Seek to the next prefix, reuse the same iterator
+                this.prefix = this.prefixes.next();
+                this.iter.seek(this.prefix);
+            }
+
+            // The end
+            this.position = null;
+            // Free the iterator if finished
+            this.close();
+            return false;
+        }
+
+        @Override
+        public BackendColumn next() {
+            if (!this.matched) {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+            }
+
+            BackendColumn col = BackendColumn.of(this.position,
                                                  this.iter.value());
             this.iter.next();
             this.matched = false;
@@ -868,5 +1058,11 @@ public class RocksDBStdSessions extends RocksDBSessions {
                 this.iter.close();
             }
         }
+
+        @Override
+        public String toString() {
+            return String.format("PrefixesColumnIterator{table=%s}",
+                                 this.table);
+        }
     }
 }
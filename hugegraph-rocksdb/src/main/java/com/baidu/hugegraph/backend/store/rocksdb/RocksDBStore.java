@@ -320,6 +320,13 @@ public abstract class RocksDBStore extends AbstractBackendStore<Session> {
         return table.query(this.session(tableType), query);
     }
 
+    @Override
+    public long queryNumber(Query query) {
+        HugeType tableType = RocksDBTable.tableType(query);
+        RocksDBTable table = this.table(tableType);
+        return table.queryNumber(this.session(tableType), query);
+    }
+
     @Override
     public void init() {
         this.checkOpened();
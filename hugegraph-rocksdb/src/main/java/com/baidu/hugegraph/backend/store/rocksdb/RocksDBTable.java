@@ -19,7 +19,10 @@
 
 package com.baidu.hugegraph.backend.store.rocksdb;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
 
 import org.slf4j.Logger;
 
@@ -40,7 +43,6 @@ import com.baidu.hugegraph.backend.store.BackendTable;
 import com.baidu.hugegraph.backend.store.Shard;
 import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions.Session;
 import com.baidu.hugegraph.exception.NotSupportException;
-import com.baidu.hugegraph.iterator.ExtendableIterator;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.util.Bytes;
 import com.baidu.hugegraph.util.E;
@@ -138,11 +140,14 @@ public class RocksDBTable extends BackendTable<Session, BackendEntry> {
         // Query by id
         if (query.conditions().isEmpty()) {
             assert !query.ids().isEmpty();
-            ExtendableIterator<BackendEntry> rs = new ExtendableIterator<>();
-            for (Id id : query.ids()) {
-                rs.extend(newEntryIterator(this.queryById(session, id), query));
+            BackendColumnIterator cols;
+            if (query.ids().size() == 1) {
+                Id id = query.ids().iterator().next();
+                cols = this.queryById(session, id);
+            } else {
+                cols = this.queryByIds(session, query.ids());
             }
-            return rs;
+            return newEntryIterator(cols, query);
         }
 
         // Query by condition (or condition + id)
@@ -150,6 +155,26 @@ public class RocksDBTable extends BackendTable<Session, BackendEntry> {
         return newEntryIterator(this.queryByCond(session, cq), query);
     }
 
+    @Override
+    public long queryNumber(Session session, Query query) {
+        BackendColumnIterator cols;
+        if (query.empty() && !query.paging()) {
+            cols = session.scan(this.table(), null, null,
+                                Session.SCAN_ANY | Session.SCAN_KEY_ONLY);
+        } else if (query instanceof IdPrefixQuery) {
+            IdPrefixQuery pq = (IdPrefixQuery) query;
+            int type = pq.inclusiveStart() ?
+                       Session.SCAN_GTE_BEGIN : Session.SCAN_GT_BEGIN;
+            type |= Session.SCAN_PREFIX_END | Session.SCAN_KEY_ONLY;
+            cols = session.scan(this.table(), pq.start().asBytes(),
+                                pq.prefix().asBytes(), type);
+        } else {
+            return super.queryNumber(session, query);
+        }
+        // Count by the keys, the vertex columns are merged by vertex id
+        return countEntries(query.resultType(), newEntryIterator(cols, query));
+    }
+
     protected BackendColumnIterator queryAll(Session session, Query query) {
         if (query.paging()) {
             PageState page = PageState.fromString(query.page());
@@ -165,6 +190,15 @@ public class RocksDBTable extends BackendTable<Session, BackendEntry> {
         return session.scan(this.table(), id.asBytes());
     }
 
+    protected BackendColumnIterator queryByIds(Session session, Set<Id> ids) {
+        // NOTE: scan all the id prefixes with a single iterator
+        List<byte[]> prefixes = new ArrayList<>(ids.size());
+        for (Id id : ids) {
+            prefixes.add(id.asBytes());
+        }
+        return session.scan(this.table(), prefixes);
+    }
+
     protected BackendColumnIterator queryByPrefix(Session session,
                                                   IdPrefixQuery query) {
         int type = query.inclusiveStart() ?
@@ -248,5 +282,10 @@ public class RocksDBTable extends BackendTable<Session, BackendEntry> {
         public long estimateNumKeys(Session session) {
             return Long.parseLong(session.property(this.table(), NUM_KEYS));
         }
+
+        @Override
+        protected List<KeyRange> estimateKeyRanges(Session session) {
+            return session.keyRanges(this.table());
+        }
     }
 }
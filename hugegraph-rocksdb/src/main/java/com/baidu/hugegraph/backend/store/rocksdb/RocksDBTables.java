@@ -21,7 +21,9 @@ package com.baidu.hugegraph.backend.store.rocksdb;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.query.Condition;
@@ -148,6 +150,17 @@ public class RocksDBTables {
             BackendColumn col = BackendColumn.of(id.asBytes(), value);
             return new BackendColumnIteratorWrapper(col);
         }
+
+        @Override
+        protected BackendColumnIterator queryByIds(Session session,
+                                                   Set<Id> ids) {
+            // Each edge is a single column, so use multi-get instead of scan
+            List<byte[]> keys = new ArrayList<>(ids.size());
+            for (Id id : ids) {
+                keys.add(id.asBytes());
+            }
+            return session.get(this.table(), keys);
+        }
     }
 
     public static class IndexTable extends RocksDBTable {
@@ -28,26 +28,37 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang3.tuple.Pair;
-import org.rocksdb.EnvOptions;
 import org.rocksdb.Options;
 import org.rocksdb.RocksDBException;
-import org.rocksdb.SstFileWriter;
+import org.slf4j.Logger;
 
 import com.baidu.hugegraph.backend.BackendException;
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumnIterator;
+import com.baidu.hugegraph.backend.store.BackendTable.KeyRange;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBOptions;
 import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions;
 import com.baidu.hugegraph.backend.store.rocksdb.RocksDBStdSessions;
 import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.exception.NotSupportException;
 import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.ExecutorUtil;
+import com.baidu.hugegraph.util.Log;
 
 public class RocksDBSstSessions extends RocksDBSessions {
 
+    private static final Logger LOG = Log.logger(RocksDBSstSessions.class);
+
+    private static final String SST_WRITER = "sst-writer-%d";
+
     private final String dataPath;
-    private final Map<String, SstFileWriter> tables;
+    private final Map<String, SstTableWriter> tables;
 
     public RocksDBSstSessions(HugeConfig config, String database, String store,
                               String dataPath) {
@@ -96,21 +107,30 @@ public class RocksDBSstSessions extends RocksDBSessions {
 
     @Override
     public void createTable(String table) throws RocksDBException {
-        EnvOptions env = new EnvOptions();
         Options options = new Options();
         RocksDBStdSessions.initOptions(this.config(), options,
                                        options, options);
         // NOTE: unset merge op due to SIGSEGV when cf.setMergeOperatorName()
         options.setMergeOperatorName("not-exist-merge-op");
-        SstFileWriter sst = new SstFileWriter(env, options);
+        /*
+         * Generate SST files of each table into directory `dataPath/table`,
+         * which is the layout RocksDBIngester ingests from `sst_path/table`
+         */
         Path path = Paths.get(this.dataPath, table);
-        sst.open(path.toString() + ".sst");
-        this.tables.put(table, sst);
+        long bufferSize = this.config().get(
+                          RocksDBOptions.SST_SORT_BUFFER_SIZE);
+        long maxFileSize = this.config().get(RocksDBOptions.SST_MAX_FILE_SIZE);
+        SstTableWriter writer = new SstTableWriter(table, path, options,
+                                                   bufferSize, maxFileSize);
+        this.tables.put(table, writer);
     }
 
     @Override
     public void dropTable(String table) throws RocksDBException {
-        this.tables.remove(table);
+        SstTableWriter writer = this.tables.remove(table);
+        if (writer != null) {
+            writer.close();
+        }
     }
 
     @Override
@@ -125,12 +145,12 @@ public class RocksDBSstSessions extends RocksDBSessions {
     }
 
 
-    private SstFileWriter table(String table) {
-        SstFileWriter sst = this.tables.get(table);
-        if (sst == null) {
+    private SstTableWriter table(String table) {
+        SstTableWriter writer = this.tables.get(table);
+        if (writer == null) {
             throw new BackendException("Table '%s' is not opened", table);
         }
-        return sst;
+        return writer;
     }
 
     @Override
@@ -145,21 +165,43 @@ public class RocksDBSstSessions extends RocksDBSessions {
 
     @Override
     protected synchronized void doClose() {
-        final String NO_ENTRIES = "Can't create sst file with no entries";
-
-        for (SstFileWriter sst : this.tables.values()) {
-            E.checkState(sst.isOwningHandle(), "SstFileWriter closed");
-            try {
-                sst.finish();
-            } catch (RocksDBException e) {
-                if (e.getMessage().equals(NO_ENTRIES)) {
-                    continue;
+        if (this.tables.isEmpty()) {
+            return;
+        }
+
+        // Merge the sorted changes of all tables into SST files in parallel
+        int threads = this.config().get(RocksDBOptions.SST_WRITER_THREADS);
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (SstTableWriter writer : this.tables.values()) {
+            tasks.addAll(writer.finish(threads));
+        }
+        ExecutorService executor = null;
+        try {
+            int files = 0;
+            if (!tasks.isEmpty()) {
+                executor = ExecutorUtil.newFixedThreadPool(
+                           Math.min(threads, tasks.size()), SST_WRITER);
+                for (Future<Integer> future : executor.invokeAll(tasks)) {
+                    files += future.get();
                 }
-                throw new BackendException("Failed to close SstFileWriter", e);
             }
-            sst.close();
+            LOG.info("Generated {} SST files of {} tables in '{}'",
+                     files, this.tables.size(), this.dataPath);
+        } catch (InterruptedException e) {
+            throw new BackendException("Interrupted while generating " +
+                                       "SST files", e);
+        } catch (ExecutionException e) {
+            throw new BackendException("Failed to generate SST files",
+                                       e.getCause());
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            for (SstTableWriter writer : this.tables.values()) {
+                writer.close();
+            }
+            this.tables.clear();
         }
-        this.tables.clear();
     }
 
     /**
@@ -204,22 +246,14 @@ public class RocksDBSstSessions extends RocksDBSessions {
                 return 0;
             }
 
-            try {
-                for (Entry<String, Changes> table : this.batch.entrySet()) {
-                    if (table.getValue().isEmpty() ||
-                        table.getKey().endsWith("i")) {
-                        // Skip empty value table or index table
-                        continue;
-                    }
-
-                    // TODO: limit individual SST file size
-                    SstFileWriter sst = table(table.getKey());
-                    for (Pair<byte[], byte[]> change : table.getValue()) {
-                        sst.put(change.getKey(), change.getValue());
-                    }
+            for (Entry<String, Changes> table : this.batch.entrySet()) {
+                if (table.getValue().isEmpty() ||
+                    table.getKey().endsWith("i")) {
+                    // Skip empty value table or index table
+                    continue;
                 }
-            } catch (RocksDBException e) {
-                throw new BackendException("Failed to commit", e);
+                // Changes needn't be sorted, they're sorted when spilling
+                table(table.getKey()).write(table.getValue());
             }
 
             // Clear batch if write() successfully (retained if failed)
@@ -244,6 +278,14 @@ public class RocksDBSstSessions extends RocksDBSessions {
             throw new NotSupportException("RocksDBSstStore property()");
         }
 
+        /**
+         * Get the key ranges of the data in specified table
+         */
+        @Override
+        public List<KeyRange> keyRanges(String table) {
+            throw new NotSupportException("RocksDBSstStore keyRanges()");
+        }
+
         /**
          * Add a KV record to a table
          */
@@ -307,6 +349,15 @@ public class RocksDBSstSessions extends RocksDBSessions {
             return null;
         }
 
+        /**
+         * Get records by a batch of keys from a table
+         */
+        @Override
+        public BackendColumnIterator get(String table, List<byte[]> keys) {
+            assert !this.hasChanges();
+            return BackendColumnIterator.empty();
+        }
+
         /**
          * Scan all records from a table
          */
@@ -325,6 +376,16 @@ public class RocksDBSstSessions extends RocksDBSessions {
             return BackendColumnIterator.empty();
         }
 
+        /**
+         * Scan records by a batch of key prefixes from a table
+         */
+        @Override
+        public BackendColumnIterator scan(String table,
+                                          List<byte[]> prefixes) {
+            assert !this.hasChanges();
+            return BackendColumnIterator.empty();
+        }
+
         /**
          * Scan records by key range from a table
          */
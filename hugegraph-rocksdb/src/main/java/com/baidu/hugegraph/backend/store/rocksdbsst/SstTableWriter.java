@@ -0,0 +1,476 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.backend.store.rocksdbsst;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.rocksdb.EnvOptions;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.SstFileWriter;
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.util.Bytes;
+import com.baidu.hugegraph.util.E;
+import com.baidu.hugegraph.util.Log;
+
+/**
+ * Generate the SST files of a table from unsorted changes, the changes may
+ * be written by multiple threads concurrently:
+ *  1.changes are buffered in memory, the buffer is sorted and spilled to
+ *    disk as a sorted run once it's full;
+ *  2.when finishing, the key space is split into ranges by the keys sampled
+ *    from sorted runs, the runs of each range are k-way merged into SST
+ *    files of bounded size, and the ranges can be merged in parallel.
+ * The generated SST files don't overlap with each other, so all of them
+ * can be ingested into a column family together by RocksDBIngester.
+ */
+public class SstTableWriter {
+
+    private static final Logger LOG = Log.logger(SstTableWriter.class);
+
+    private static final String RUNS_DIR = "runs";
+    private static final String SST_FILE = "%03d-%06d.sst";
+    private static final String RUN_FILE = "%06d.run";
+
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+    // Sample a key into the index of sorted run every INDEX_INTERVAL keys
+    private static final int INDEX_INTERVAL = 256;
+
+    private static final Comparator<byte[]> KEY_COMPARATOR = Bytes::compare;
+    // The newest value of a key comes first, namely the one of latest run
+    private static final Comparator<RunReader> READER_COMPARATOR =
+                                               (r1, r2) -> {
+        int cmp = Bytes.compare(r1.key(), r2.key());
+        return cmp != 0 ? cmp : Integer.compare(r2.run.id, r1.run.id);
+    };
+
+    private final String table;
+    private final Path directory;
+    private final long sortBufferSize;
+    private final long maxFileSize;
+    private final Options options;
+    private final EnvOptions envOptions;
+
+    private List<Pair<byte[], byte[]>> buffer;
+    private long bufferSize;
+    private int nextRunId;
+    private final List<SortedRun> runs;
+
+    public SstTableWriter(String table, Path directory, Options options,
+                          long sortBufferSize, long maxFileSize) {
+        E.checkArgument(sortBufferSize > 0L,
+                        "The sort buffer size must be > 0, but got %s",
+                        sortBufferSize);
+        E.checkArgument(maxFileSize > 0L,
+                        "The max SST file size must be > 0, but got %s",
+                        maxFileSize);
+        this.table = table;
+        this.directory = directory;
+        this.options = options;
+        this.envOptions = new EnvOptions();
+        this.sortBufferSize = sortBufferSize;
+        this.maxFileSize = maxFileSize;
+
+        this.buffer = new ArrayList<>();
+        this.bufferSize = 0L;
+        this.nextRunId = 0;
+        this.runs = new ArrayList<>();
+
+        File runsDir = this.runsDir();
+        if (!runsDir.exists()) {
+            E.checkState(runsDir.mkdirs(), "Can't mkdir '%s'", runsDir);
+        }
+    }
+
+    public String table() {
+        return this.table;
+    }
+
+    public Path directory() {
+        return this.directory;
+    }
+
+    /**
+     * Add a batch of changes, the changes needn't to be sorted, and the
+     * later put of the same key overrides the earlier one.
+     * NOTE: this method is thread-safe, and the sorting and spilling of
+     * a full buffer are done by the caller thread outside the lock.
+     */
+    public void write(List<Pair<byte[], byte[]>> changes) {
+        List<Pair<byte[], byte[]>> full;
+        int runId;
+        synchronized (this) {
+            for (Pair<byte[], byte[]> change : changes) {
+                this.buffer.add(change);
+                this.bufferSize += change.getKey().length +
+                                   change.getValue().length;
+            }
+            if (this.bufferSize < this.sortBufferSize) {
+                return;
+            }
+            full = this.buffer;
+            runId = this.nextRunId++;
+            this.buffer = new ArrayList<>();
+            this.bufferSize = 0L;
+        }
+        this.spill(runId, full);
+    }
+
+    /**
+     * Spill the buffered changes and split the sorted runs into key ranges
+     * @param parallelism the max number of key ranges
+     * @return the tasks to merge each key range into SST files, each task
+     *         returns the number of SST files it generated
+     */
+    public List<Callable<Integer>> finish(int parallelism) {
+        List<Pair<byte[], byte[]>> rest;
+        int runId;
+        synchronized (this) {
+            rest = this.buffer;
+            runId = this.nextRunId++;
+            this.buffer = new ArrayList<>();
+            this.bufferSize = 0L;
+        }
+        if (!rest.isEmpty()) {
+            this.spill(runId, rest);
+        }
+
+        List<SortedRun> runs;
+        synchronized (this.runs) {
+            runs = new ArrayList<>(this.runs);
+        }
+        if (runs.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<byte[]> splits = splitKeys(runs, this.maxFileSize, parallelism);
+        List<Callable<Integer>> tasks = new ArrayList<>(splits.size() + 1);
+        byte[] start = null;
+        for (int i = 0; i <= splits.size(); i++) {
+            byte[] end = i < splits.size() ? splits.get(i) : null;
+            int partition = i;
+            byte[] from = start;
+            tasks.add(() -> this.merge(runs, partition, from, end));
+            start = end;
+        }
+        return tasks;
+    }
+
+    /**
+     * Delete the sorted runs and release the resources of the writer,
+     * the generated SST files are retained.
+     */
+    public void close() {
+        synchronized (this.runs) {
+            this.runs.clear();
+        }
+        try {
+            FileUtils.deleteDirectory(this.runsDir());
+        } catch (IOException e) {
+            LOG.warn("Failed to delete sorted runs of table '{}'",
+                     this.table, e);
+        }
+        this.envOptions.close();
+        this.options.close();
+    }
+
+    private File runsDir() {
+        return this.directory.resolve(RUNS_DIR).toFile();
+    }
+
+    private void spill(int runId, List<Pair<byte[], byte[]>> changes) {
+        File file = new File(this.runsDir(), String.format(RUN_FILE, runId));
+        SortedRun run;
+        try {
+            run = SortedRun.write(runId, file, changes);
+        } catch (IOException e) {
+            throw new BackendException("Failed to spill sorted run '%s'",
+                                       e, file);
+        }
+        synchronized (this.runs) {
+            this.runs.add(run);
+        }
+    }
+
+    private int merge(List<SortedRun> runs, int partition,
+                      byte[] start, byte[] end)
+                      throws IOException, RocksDBException {
+        PriorityQueue<RunReader> queue = new PriorityQueue<>(
+                                         runs.size(), READER_COMPARATOR);
+        List<RunReader> readers = new ArrayList<>(runs.size());
+        SstFileWriter sst = null;
+        int files = 0;
+        try {
+            for (SortedRun run : runs) {
+                RunReader reader = new RunReader(run, start, end);
+                readers.add(reader);
+                if (reader.key() != null) {
+                    queue.add(reader);
+                }
+            }
+
+            long fileSize = 0L;
+            byte[] lastKey = null;
+            while (!queue.isEmpty()) {
+                RunReader reader = queue.poll();
+                byte[] key = reader.key();
+                if (lastKey == null || !Bytes.equals(lastKey, key)) {
+                    if (sst == null || fileSize >= this.maxFileSize) {
+                        finishSst(sst);
+                        sst = this.newSst(partition, files++);
+                        fileSize = 0L;
+                    }
+                    sst.put(key, reader.value());
+                    fileSize += key.length + reader.value().length;
+                    lastKey = key;
+                }
+                if (reader.next()) {
+                    queue.add(reader);
+                }
+            }
+            finishSst(sst);
+            sst = null;
+        } finally {
+            if (sst != null) {
+                sst.close();
+            }
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+        LOG.debug("Generated {} SST files of table '{}' partition {}",
+                  files, this.table, partition);
+        return files;
+    }
+
+    private SstFileWriter newSst(int partition, int index)
+                                 throws RocksDBException {
+        String name = String.format(SST_FILE, partition, index);
+        SstFileWriter sst = new SstFileWriter(this.envOptions,
+                                              this.options);
+        sst.open(this.directory.resolve(name).toString());
+        return sst;
+    }
+
+    private static void finishSst(SstFileWriter sst) throws RocksDBException {
+        if (sst != null) {
+            sst.finish();
+            sst.close();
+        }
+    }
+
+    /**
+     * Choose the keys to split sorted runs into at most `parallelism`
+     * ranges of nearly equal size, each range is at least as large as
+     * a whole SST file unless there is only one range
+     */
+    private static List<byte[]> splitKeys(List<SortedRun> runs,
+                                          long maxFileSize, int parallelism) {
+        long size = 0L;
+        List<byte[]> samples = new ArrayList<>();
+        for (SortedRun run : runs) {
+            size += run.size;
+            for (Pair<byte[], Long> index : run.index) {
+                samples.add(index.getKey());
+            }
+        }
+        long ranges = Math.min(parallelism,
+                               (size + maxFileSize - 1L) / maxFileSize);
+        List<byte[]> splits = new ArrayList<>();
+        if (ranges <= 1L) {
+            return splits;
+        }
+        samples.sort(KEY_COMPARATOR);
+        for (int i = 1; i < ranges; i++) {
+            byte[] split = samples.get((int) (i * samples.size() / ranges));
+            if (splits.isEmpty() ||
+                Bytes.compare(splits.get(splits.size() - 1), split) < 0) {
+                splits.add(split);
+            }
+        }
+        // Each range needs a start key except the first one
+        if (!splits.isEmpty() && Bytes.equals(splits.get(0), samples.get(0))) {
+            splits.remove(0);
+        }
+        return splits;
+    }
+
+    /**
+     * A file of changes sorted by key without duplicate keys, the record
+     * format is [key-length][key][value-length][value], and a sparse index
+     * of keys to file offsets is kept in memory for seeking.
+     */
+    private static final class SortedRun {
+
+        private final int id;
+        private final File file;
+        private final long size;
+        private final List<Pair<byte[], Long>> index;
+
+        private SortedRun(int id, File file, long size,
+                          List<Pair<byte[], Long>> index) {
+            this.id = id;
+            this.file = file;
+            this.size = size;
+            this.index = index;
+        }
+
+        public static SortedRun write(int id, File file,
+                                      List<Pair<byte[], byte[]>> changes)
+                                      throws IOException {
+            // List.sort() is stable, so the later put of a key is kept
+            changes.sort((c1, c2) -> Bytes.compare(c1.getKey(), c2.getKey()));
+            List<Pair<byte[], Long>> index = new ArrayList<>();
+            long offset = 0L;
+            int count = 0;
+            try (DataOutputStream out = new DataOutputStream(
+                                        new BufferedOutputStream(
+                                        new FileOutputStream(file),
+                                        IO_BUFFER_SIZE))) {
+                for (int i = 0; i < changes.size(); i++) {
+                    byte[] key = changes.get(i).getKey();
+                    if (i + 1 < changes.size() &&
+                        Bytes.equals(key, changes.get(i + 1).getKey())) {
+                        continue;
+                    }
+                    if (count++ % INDEX_INTERVAL == 0) {
+                        index.add(Pair.of(key, offset));
+                    }
+                    byte[] value = changes.get(i).getValue();
+                    out.writeInt(key.length);
+                    out.write(key);
+                    out.writeInt(value.length);
+                    out.write(value);
+                    offset += 8L + key.length + value.length;
+                }
+            }
+            return new SortedRun(id, file, offset, index);
+        }
+
+        /**
+         * Get the offset of the last sampled key which is <= the key
+         */
+        public long seek(byte[] key) {
+            if (key == null) {
+                return 0L;
+            }
+            int low = 0;
+            int high = this.index.size() - 1;
+            long offset = 0L;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                Pair<byte[], Long> sample = this.index.get(mid);
+                if (Bytes.compare(sample.getKey(), key) <= 0) {
+                    offset = sample.getValue();
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return offset;
+        }
+    }
+
+    /**
+     * Read the changes in range [start, end) of a sorted run in order
+     */
+    private static final class RunReader implements Closeable {
+
+        private final SortedRun run;
+        private final byte[] end;
+        private final DataInputStream input;
+        private long remaining;
+        private byte[] key;
+        private byte[] value;
+
+        public RunReader(SortedRun run, byte[] start, byte[] end)
+                         throws IOException {
+            this.run = run;
+            this.end = end;
+
+            long offset = run.seek(start);
+            FileInputStream file = new FileInputStream(run.file);
+            file.getChannel().position(offset);
+            this.input = new DataInputStream(new BufferedInputStream(
+                                             file, IO_BUFFER_SIZE));
+            this.remaining = run.size - offset;
+
+            while (this.next()) {
+                if (start == null || Bytes.compare(this.key, start) >= 0) {
+                    break;
+                }
+            }
+        }
+
+        public byte[] key() {
+            return this.key;
+        }
+
+        public byte[] value() {
+            return this.value;
+        }
+
+        public boolean next() throws IOException {
+            if (this.remaining <= 0L) {
+                this.key = null;
+                this.value = null;
+                return false;
+            }
+            byte[] key = new byte[this.input.readInt()];
+            this.input.readFully(key);
+            byte[] value = new byte[this.input.readInt()];
+            this.input.readFully(value);
+            this.remaining -= 8L + key.length + value.length;
+
+            if (this.end != null && Bytes.compare(key, this.end) >= 0) {
+                this.remaining = 0L;
+                this.key = null;
+                this.value = null;
+                return false;
+            }
+            this.key = key;
+            this.value = value;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.input.close();
+        }
+    }
+}
@@ -124,10 +124,8 @@ public class ScyllaDBTables {
         }
 
         ConditionQuery q = (ConditionQuery) query;
-        Id label = q.condition(HugeKeys.LABEL);
-        if (label != null && q.allSysprop() && conditions.size() == 1 &&
-            q.containsCondition(HugeKeys.LABEL, Condition.RelationType.EQ)) {
-
+        Id label = queryLabel(q);
+        if (label != null) {
             Set<String> ids = queryByLabelIndex(session, table, label);
             if (ids.isEmpty()) {
                 // Not found data with the specified label
@@ -146,6 +144,35 @@ public class ScyllaDBTables {
         return query;
     }
 
+    /**
+     * Count data by label index table if just want to count by label,
+     * return -1 if it's not a query only by label
+     */
+    private static long queryNumberByLabelIndex(
+                        CassandraSessionPool.Session session,
+                        String table, Query query) {
+        if (!(query instanceof ConditionQuery) ||
+            query.conditions().isEmpty()) {
+            return -1L;
+        }
+        Id label = queryLabel((ConditionQuery) query);
+        if (label == null) {
+            return -1L;
+        }
+        return queryByLabelIndex(session, table, label).size();
+    }
+
+    private static Id queryLabel(ConditionQuery query) {
+        Id label = query.condition(HugeKeys.LABEL);
+        if (label != null && query.allSysprop() &&
+            query.conditions().size() == 1 &&
+            query.containsCondition(HugeKeys.LABEL,
+                                    Condition.RelationType.EQ)) {
+            return label;
+        }
+        return null;
+    }
+
     private static Set<String> queryByLabelIndex(
                                CassandraSessionPool.Session session,
                                String table, Id label) {
@@ -218,6 +245,16 @@ public class ScyllaDBTables {
             }
             return super.query(session, idQuery);
         }
+
+        @Override
+        public long queryNumber(CassandraSessionPool.Session session,
+                                Query query) {
+            long count = queryNumberByLabelIndex(session, indexTable(), query);
+            if (count >= 0L) {
+                return count;
+            }
+            return super.queryNumber(session, query);
+        }
     }
 
     public static class Edge extends CassandraTables.Edge {
@@ -325,6 +362,20 @@ public class ScyllaDBTables {
             return super.query(session, idQuery);
         }
 
+        @Override
+        public long queryNumber(CassandraSessionPool.Session session,
+                                Query query) {
+            // Only edges of OUT direction are kept in the label index table
+            if (this.direction() == Directions.OUT) {
+                long count = queryNumberByLabelIndex(session, indexTable(),
+                                                     query);
+                if (count >= 0L) {
+                    return count;
+                }
+            }
+            return super.queryNumber(session, query);
+        }
+
         public static Edge out(String store) {
             return new Edge(store, Directions.OUT);
         }
@@ -234,6 +234,16 @@ public class ScyllaDBTablesWithMV {
             }
             return super.query2Select(table, query);
         }
+
+        @Override
+        protected long queryNumber(CassandraSessionPool.Session session,
+                                   String table, Query query) {
+            if (isQueryByLabel(query)) {
+                // Count from materialized view
+                return super.queryNumber(session, MV_LABEL2VERTEX, query);
+            }
+            return super.queryNumber(session, table, query);
+        }
     }
 
     public static class Edge extends CassandraTables.Edge {
@@ -287,6 +297,16 @@ public class ScyllaDBTablesWithMV {
             return super.query2Select(table, query);
         }
 
+        @Override
+        protected long queryNumber(CassandraSessionPool.Session session,
+                                   String table, Query query) {
+            if (isQueryByLabel(query)) {
+                // Count from materialized view
+                return super.queryNumber(session, MV_LABEL2EDGE, query);
+            }
+            return super.queryNumber(session, table, query);
+        }
+
         @Override
         protected String labelIndexTable() {
             return MV_LABEL2EDGE;
@@ -0,0 +1,431 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.core;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.computer.Memory;
+import org.apache.tinkerpop.gremlin.process.computer.MemoryComputeKey;
+import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
+import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
+import org.apache.tinkerpop.gremlin.process.computer.Messenger;
+import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
+import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankVertexProgram;
+import org.apache.tinkerpop.gremlin.process.traversal.Operator;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputer;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baidu.hugegraph.exception.NotSupportException;
+import com.baidu.hugegraph.job.computer.HugeGraphComputer;
+import com.baidu.hugegraph.schema.SchemaManager;
+import com.baidu.hugegraph.task.HugeTask;
+import com.baidu.hugegraph.task.TaskStatus;
+import com.baidu.hugegraph.testutil.Assert;
+import com.google.common.collect.ImmutableSet;
+
+public class ComputerCoreTest extends BaseCoreTest {
+
+    private static final String RANK = "rank";
+    private static final String COMPONENT = "component";
+    private static final double DELTA = 0.00001D;
+
+    @Before
+    public void initSchema() {
+        SchemaManager schema = graph().schema();
+
+        LOG.debug("===============  propertyKey  ================");
+
+        schema.propertyKey("name").asText().create();
+        schema.propertyKey(RANK).asDouble().create();
+        schema.propertyKey(COMPONENT).asText().create();
+
+        LOG.debug("===============  vertexLabel  ================");
+
+        schema.vertexLabel("person")
+              .properties("name", RANK, COMPONENT)
+              .primaryKeys("name")
+              .nullableKeys(RANK, COMPONENT)
+              .create();
+        schema.vertexLabel("software")
+              .properties("name", RANK, COMPONENT)
+              .primaryKeys("name")
+              .nullableKeys(RANK, COMPONENT)
+              .create();
+
+        LOG.debug("===============  edgeLabel  ================");
+
+        schema.edgeLabel("knows")
+              .link("person", "person")
+              .create();
+        schema.edgeLabel("likes")
+              .link("person", "person")
+              .create();
+        schema.edgeLabel("created")
+              .link("person", "software")
+              .create();
+    }
+
+    @Test
+    public void testPageRank() throws Exception {
+        init(graph());
+        graph().tx().commit();
+
+        VertexProgram<?> program = PageRankVertexProgram.build()
+                                                        .property(RANK)
+                                                        .iterations(10)
+                                                        .vertexCount(8L)
+                                                        .create(graph());
+        ComputerResult result = graph().compute().program(program)
+                                       .submit().get();
+        Assert.assertSame(graph(), result.graph());
+        Assert.assertEquals(10, result.memory().getIteration());
+
+        Map<String, Double> expected = pageRank(PageRankVertexProgram.build()
+                                                .property(RANK)
+                                                .iterations(10)
+                                                .vertexCount(8L), false);
+        Assert.assertEquals(8, expected.size());
+        assertRanks(expected);
+    }
+
+    @Test
+    public void testPageRankWithIncidentEdgeLabel() throws Exception {
+        init(graph());
+        graph().tx().commit();
+
+        VertexProgram<?> program = PageRankVertexProgram.build()
+                                   .property(RANK)
+                                   .edges(__.<Vertex>outE("knows").asAdmin())
+                                   .create(graph());
+        graph().compute().program(program).workers(3).submit().get();
+
+        PageRankVertexProgram.Builder builder;
+        builder = PageRankVertexProgram.build().property(RANK)
+                                       .edges(__.<Vertex>outE("knows")
+                                                .asAdmin());
+        Map<String, Double> expected = pageRank(builder, false);
+        assertRanks(expected);
+    }
+
+    @Test
+    public void testPageRankWithVertexFilter() throws Exception {
+        init(graph());
+        graph().tx().commit();
+
+        VertexProgram<?> program = PageRankVertexProgram.build()
+                                                        .property(RANK)
+                                                        .create(graph());
+        graph().compute().program(program)
+               .vertices(__.hasLabel("person"))
+               .submit().get();
+
+        Map<String, Double> expected = pageRank(PageRankVertexProgram.build()
+                                                .property(RANK), true);
+        Assert.assertEquals(6, expected.size());
+        assertRanks(expected);
+
+        // The vertices filtered out are not computed
+        Vertex office = vertex("office");
+        Assert.assertEquals("software", office.label());
+        Assert.assertFalse(office.property(RANK).isPresent());
+    }
+
+    @Test
+    public void testVertexProgramWithMemoryAndCombiner() throws Exception {
+        init(graph());
+        graph().tx().commit();
+
+        ComputerResult result = graph().compute()
+                                       .program(new ComponentVertexProgram())
+                                       .submit().get();
+        // The transient memory key is dropped after completed
+        Assert.assertFalse(result.memory().exists("changed"));
+
+        Map<String, String> components = new HashMap<>();
+        graph().traversal().V().hasLabel("person").forEachRemaining(v -> {
+            components.put(v.value("name"), v.value(COMPONENT));
+        });
+        Assert.assertEquals(6, components.size());
+        Assert.assertEquals("josh", components.get("marko"));
+        Assert.assertEquals("josh", components.get("vadas"));
+        Assert.assertEquals("josh", components.get("josh"));
+        Assert.assertEquals("josh", components.get("peter"));
+        Assert.assertEquals("amy", components.get("tom"));
+        Assert.assertEquals("amy", components.get("amy"));
+    }
+
+    @Test
+    public void testComputerTask() throws Exception {
+        init(graph());
+        graph().tx().commit();
+
+        VertexProgram<?> program = PageRankVertexProgram.build()
+                                                        .property(RANK)
+                                                        .iterations(5)
+                                                        .create(graph());
+        graph().compute().program(program).submit().get();
+        graph().taskScheduler().waitUntilAllTasksCompleted(10L);
+
+        HugeTask<?> task = null;
+        Iterator<HugeTask<Object>> tasks = graph().taskScheduler()
+                                                  .findTask(TaskStatus.SUCCESS,
+                                                            -1L);
+        while (tasks.hasNext()) {
+            HugeTask<?> t = tasks.next();
+            if ("computer".equals(t.type())) {
+                task = t;
+            }
+        }
+        Assert.assertNotNull(task);
+        Assert.assertEquals(program.toString(), task.name());
+        Assert.assertEquals(6, task.progress());
+        graph().taskScheduler().deleteTask(task.id());
+    }
+
+    @Test
+    public void testComputerWithInvalidArguments() throws Exception {
+        init(graph());
+        graph().tx().commit();
+
+        Assert.assertThrows(ExecutionException.class, () -> {
+            VertexProgram<?> program = PageRankVertexProgram.build()
+                                       .property("undefined")
+                                       .create(graph());
+            graph().compute().program(program).submit().get();
+        }, e -> {
+            Throwable cause = e.getCause();
+            Assert.assertTrue(cause instanceof IllegalArgumentException);
+            Assert.assertTrue(cause.getMessage(),
+                              cause.getMessage().contains("undefined"));
+        });
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            VertexProgram<?> program = PageRankVertexProgram.build()
+                                                            .create(graph());
+            graph().compute().program(program)
+                   .result(GraphComputer.ResultGraph.NEW)
+                   .submit();
+        });
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            VertexProgram<?> program = PageRankVertexProgram.build()
+                                                            .create(graph());
+            graph().compute().program(program).workers(0).submit();
+        });
+
+        Assert.assertThrows(IllegalStateException.class, () -> {
+            graph().compute().submit();
+        });
+
+        Assert.assertThrows(NotSupportException.class, () -> {
+            graph().compute().mapReduce(null);
+        });
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            graph().compute(TinkerGraphComputer.class);
+        });
+
+        Assert.assertTrue(graph().compute(HugeGraphComputer.class)
+                          instanceof HugeGraphComputer);
+    }
+
+    @Test
+    public void testComputerWithPersistNothing() throws Exception {
+        init(graph());
+        graph().tx().commit();
+
+        VertexProgram<?> program = PageRankVertexProgram.build()
+                                                        .property(RANK)
+                                                        .create(graph());
+        ComputerResult result = graph().compute().program(program)
+                                       .persist(GraphComputer.Persist.NOTHING)
+                                       .submit().get();
+        Assert.assertEquals(graph(), result.graph());
+        Assert.assertFalse(vertex("marko").property(RANK).isPresent());
+    }
+
+    private Vertex vertex(String name) {
+        Iterator<Vertex> vertices = graph().vertices();
+        while (vertices.hasNext()) {
+            Vertex vertex = vertices.next();
+            if (name.equals(vertex.value("name"))) {
+                return vertex;
+            }
+        }
+        throw new AssertionError("Not found vertex " + name);
+    }
+
+    private Map<String, Double> pageRank(PageRankVertexProgram.Builder builder,
+                                         boolean onlyPerson)
+                                         throws Exception {
+        TinkerGraph tinker = TinkerGraph.open();
+        try {
+            init(tinker);
+            GraphComputer computer = tinker.compute(TinkerGraphComputer.class)
+                                           .program(builder.create(tinker));
+            if (onlyPerson) {
+                computer.vertices(__.hasLabel("person"));
+            }
+            Graph graph = computer.submit().get().graph();
+            Map<String, Double> ranks = new HashMap<>();
+            graph.vertices().forEachRemaining(v -> {
+                if (v.property(RANK).isPresent()) {
+                    ranks.put(v.value("name"), v.value(RANK));
+                }
+            });
+            return ranks;
+        } finally {
+            tinker.close();
+        }
+    }
+
+    private void assertRanks(Map<String, Double> expected) {
+        for (Map.Entry<String, Double> e : expected.entrySet()) {
+            Vertex vertex = vertex(e.getKey());
+            Assert.assertEquals(e.getKey(), e.getValue(),
+                                vertex.<Double>value(RANK), DELTA);
+        }
+    }
+
+    private static void init(Graph graph) {
+        Vertex marko = graph.addVertex(T.label, "person", "name", "marko");
+        Vertex vadas = graph.addVertex(T.label, "person", "name", "vadas");
+        Vertex josh = graph.addVertex(T.label, "person", "name", "josh");
+        Vertex peter = graph.addVertex(T.label, "person", "name", "peter");
+        Vertex tom = graph.addVertex(T.label, "person", "name", "tom");
+        Vertex amy = graph.addVertex(T.label, "person", "name", "amy");
+        Vertex lop = graph.addVertex(T.label, "software", "name", "lop");
+        Vertex office = graph.addVertex(T.label, "software",
+                                        "name", "office");
+
+        marko.addEdge("knows", vadas);
+        marko.addEdge("knows", josh);
+        vadas.addEdge("knows", josh);
+        josh.addEdge("knows", marko);
+        peter.addEdge("likes", josh);
+        marko.addEdge("likes", peter);
+        tom.addEdge("knows", amy);
+        amy.addEdge("likes", tom);
+        marko.addEdge("created", lop);
+        josh.addEdge("created", lop);
+        tom.addEdge("created", office);
+    }
+
+    /**
+     * Mark each person with the least name of the connected component
+     */
+    public static class ComponentVertexProgram
+                  implements VertexProgram<String> {
+
+        private static final String CHANGED = "changed";
+        private static final MessageScope.Local<String> SCOPE =
+                             MessageScope.Local.of(() -> __.bothE("knows",
+                                                                  "likes"));
+
+        @Override
+        public void setup(Memory memory) {
+            memory.set(CHANGED, 0L);
+        }
+
+        @Override
+        public void execute(Vertex vertex, Messenger<String> messenger,
+                            Memory memory) {
+            String component;
+            if (memory.isInitialIteration()) {
+                component = vertex.value("name");
+            } else {
+                String current = vertex.value(COMPONENT);
+                component = current;
+                Iterator<String> messages = messenger.receiveMessages();
+                while (messages.hasNext()) {
+                    String message = messages.next();
+                    if (message.compareTo(component) < 0) {
+                        component = message;
+                    }
+                }
+                if (component.equals(current)) {
+                    return;
+                }
+            }
+            vertex.property(VertexProperty.Cardinality.single,
+                            COMPONENT, component);
+            memory.add(CHANGED, 1L);
+            messenger.sendMessage(SCOPE, component);
+        }
+
+        @Override
+        public boolean terminate(Memory memory) {
+            boolean terminated = memory.<Long>get(CHANGED) == 0L;
+            memory.set(CHANGED, 0L);
+            return terminated;
+        }
+
+        @Override
+        public Set<VertexComputeKey> getVertexComputeKeys() {
+            return ImmutableSet.of(VertexComputeKey.of(COMPONENT, false));
+        }
+
+        @Override
+        public Set<MemoryComputeKey> getMemoryComputeKeys() {
+            return ImmutableSet.of(MemoryComputeKey.of(CHANGED, Operator.sum,
+                                                       false, true));
+        }
+
+        @Override
+        public Set<MessageScope> getMessageScopes(Memory memory) {
+            return ImmutableSet.of(SCOPE);
+        }
+
+        @Override
+        public Optional<MessageCombiner<String>> getMessageCombiner() {
+            return Optional.of((a, b) -> a.compareTo(b) < 0 ? a : b);
+        }
+
+        @Override
+        public GraphComputer.ResultGraph getPreferredResultGraph() {
+            return GraphComputer.ResultGraph.ORIGINAL;
+        }
+
+        @Override
+        public GraphComputer.Persist getPreferredPersist() {
+            return GraphComputer.Persist.VERTEX_PROPERTIES;
+        }
+
+        @Override
+        public ComponentVertexProgram clone() {
+            return this;
+        }
+    }
+}
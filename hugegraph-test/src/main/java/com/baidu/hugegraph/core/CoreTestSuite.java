@@ -44,7 +44,8 @@ import com.baidu.hugegraph.util.Log;
     VertexPropertyCoreTest.class,
     EdgePropertyCoreTest.class,
     RestoreCoreTest.class,
-    MultiGraphsTest.class
+    MultiGraphsTest.class,
+    ComputerCoreTest.class
 })
 public class CoreTestSuite {
 
@@ -20,6 +20,7 @@
 package com.baidu.hugegraph.core;
 
 import java.util.List;
+import java.util.concurrent.TimeoutException;
 
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.structure.Edge;
@@ -29,12 +30,15 @@ import org.junit.Assume;
 import org.junit.Test;
 
 import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.exception.NoIndexException;
 import com.baidu.hugegraph.exception.NotFoundException;
 import com.baidu.hugegraph.schema.EdgeLabel;
 import com.baidu.hugegraph.schema.IndexLabel;
 import com.baidu.hugegraph.schema.SchemaManager;
 import com.baidu.hugegraph.schema.VertexLabel;
+import com.baidu.hugegraph.task.HugeTask;
+import com.baidu.hugegraph.task.TaskStatus;
 import com.baidu.hugegraph.testutil.Assert;
 import com.baidu.hugegraph.type.HugeType;
 import com.baidu.hugegraph.type.define.IndexType;
@@ -1358,4 +1362,70 @@ public class IndexLabelCoreTest extends SchemaCoreTest {
                .has("contribution", "test").next();
         Assert.assertNotNull(edge);
     }
+
+    @Test
+    public void testRebuildIndexOfLabelWithOtherLabels() {
+        super.initPropertyKeys();
+        SchemaManager schema = graph().schema();
+        schema.vertexLabel("person").properties("name", "city")
+              .primaryKeys("name").create();
+        schema.vertexLabel("author").properties("id", "name", "city")
+              .primaryKeys("id").create();
+        schema.edgeLabel("look").multiTimes()
+              .link("person", "author")
+              .properties("time")
+              .sortKeys("time")
+              .create();
+        schema.edgeLabel("know").link("person", "person")
+              .properties("time").create();
+        schema.indexLabel("personByCity").onV("person").secondary()
+              .by("city").create();
+        schema.indexLabel("lookByTime").onE("look").secondary()
+              .by("time").create();
+
+        Vertex author = graph().addVertex(T.label, "author", "id", 1,
+                                          "name", "James", "city", "Beijing");
+        Vertex last = null;
+        for (int i = 0; i < 100; i++) {
+            Vertex person = graph().addVertex(T.label, "person",
+                                              "name", "p" + i,
+                                              "city", i % 2 == 0 ?
+                                                      "Beijing" : "Shanghai");
+            person.addEdge("look", author,
+                           "time", i % 4 == 0 ? "2019-1-1" : "2019-1-2");
+            if (last != null) {
+                person.addEdge("know", last, "time", "2019-1-1");
+            }
+            last = person;
+        }
+        graph().tx().commit();
+
+        HugeGraph graph = graph();
+        Id task = schema.vertexLabel("person").rebuildIndex();
+        this.assertTaskCompleted(task);
+        Assert.assertEquals(50, graph.traversal().V().hasLabel("person")
+                                     .has("city", "Beijing").toList().size());
+
+        task = schema.indexLabel("lookByTime").rebuild();
+        this.assertTaskCompleted(task);
+        Assert.assertEquals(25, graph.traversal().E().hasLabel("look")
+                                     .has("time", "2019-1-1").toList().size());
+        Assert.assertEquals(75, graph.traversal().E().hasLabel("look")
+                                     .has("time", "2019-1-2").toList().size());
+    }
+
+    private void assertTaskCompleted(Id id) {
+        HugeTask<?> task;
+        try {
+            task = graph().taskScheduler().waitUntilTaskCompleted(id, 10L);
+        } catch (TimeoutException e) {
+            throw new AssertionError("Rebuild index timeout", e);
+        }
+        Assert.assertEquals(TaskStatus.SUCCESS, task.status());
+        if (storeFeatures().supportsScanToken() ||
+            storeFeatures().supportsScanKeyRange()) {
+            // Progress is updated by each finished shard
+            Assert.assertEquals(100, task.progress());
+        }
+    }
 }
@@ -25,9 +25,14 @@ import org.junit.runners.Suite;
 import com.baidu.hugegraph.unit.cache.CacheManagerTest;
 import com.baidu.hugegraph.unit.cache.CachedGraphTransactionTest;
 import com.baidu.hugegraph.unit.cache.CachedSchemaTransactionTest;
+import com.baidu.hugegraph.unit.cache.OffheapCacheTest;
 import com.baidu.hugegraph.unit.cache.RamCacheTest;
+import com.baidu.hugegraph.unit.cache.SegmentedCacheTest;
+import com.baidu.hugegraph.unit.core.AdmissionControllerTest;
 import com.baidu.hugegraph.unit.core.AnalyzerTest;
 import com.baidu.hugegraph.unit.core.BackendMutationTest;
+import com.baidu.hugegraph.unit.core.BinarySerializerTest;
+import com.baidu.hugegraph.unit.core.BytesBufferTest;
 import com.baidu.hugegraph.unit.core.CassandraTest;
 import com.baidu.hugegraph.unit.core.ConditionQueryFlattenTest;
 import com.baidu.hugegraph.unit.core.ConditionTest;
@@ -35,13 +40,23 @@ import com.baidu.hugegraph.unit.core.DataTypeTest;
 import com.baidu.hugegraph.unit.core.DirectionsTest;
 import com.baidu.hugegraph.unit.core.EdgeIdTest;
 import com.baidu.hugegraph.unit.core.ExceptionTest;
+import com.baidu.hugegraph.unit.core.GroupCommitterTest;
+import com.baidu.hugegraph.unit.core.HugeTraverserTest;
+import com.baidu.hugegraph.unit.core.HugeCountStepTest;
+import com.baidu.hugegraph.unit.core.HugeVertexStepTest;
+import com.baidu.hugegraph.unit.core.IdSetTest;
 import com.baidu.hugegraph.unit.core.IdTest;
+import com.baidu.hugegraph.unit.core.LeasedCounterTest;
 import com.baidu.hugegraph.unit.core.LocksTableTest;
 import com.baidu.hugegraph.unit.core.QueryTest;
+import com.baidu.hugegraph.unit.core.ResponseSerializerTest;
 import com.baidu.hugegraph.unit.core.SecurityManagerTest;
 import com.baidu.hugegraph.unit.core.SerialEnumTest;
+import com.baidu.hugegraph.unit.core.ShardSpliterTest;
 import com.baidu.hugegraph.unit.rocksdb.RocksDBCountersTest;
 import com.baidu.hugegraph.unit.rocksdb.RocksDBSessionsTest;
+import com.baidu.hugegraph.unit.rocksdb.RocksDBSstSessionsTest;
+import com.baidu.hugegraph.unit.util.IdIntMappingTest;
 import com.baidu.hugegraph.unit.util.IdUtilTest;
 import com.baidu.hugegraph.unit.util.JsonUtilTest;
 import com.baidu.hugegraph.unit.util.VersionTest;
@@ -53,6 +68,8 @@ import com.baidu.hugegraph.unit.util.VersionTest;
     CachedSchemaTransactionTest.class,
     CachedGraphTransactionTest.class,
     CacheManagerTest.class,
+    SegmentedCacheTest.class,
+    OffheapCacheTest.class,
 
     /* types */
     DataTypeTest.class,
@@ -64,10 +81,21 @@ import com.baidu.hugegraph.unit.util.VersionTest;
     AnalyzerTest.class,
     IdTest.class,
     EdgeIdTest.class,
+    IdSetTest.class,
     BackendMutationTest.class,
+    BinarySerializerTest.class,
+    BytesBufferTest.class,
+    ResponseSerializerTest.class,
+    AdmissionControllerTest.class,
+    HugeTraverserTest.class,
+    HugeVertexStepTest.class,
+    HugeCountStepTest.class,
+    LeasedCounterTest.class,
+    GroupCommitterTest.class,
     ConditionTest.class,
     ConditionQueryFlattenTest.class,
     QueryTest.class,
+    ShardSpliterTest.class,
     SecurityManagerTest.class,
     ExceptionTest.class,
 
@@ -77,9 +105,11 @@ import com.baidu.hugegraph.unit.util.VersionTest;
     /* rocksdb */
     RocksDBSessionsTest.class,
     RocksDBCountersTest.class,
+    RocksDBSstSessionsTest.class,
 
     /* utils */
     VersionTest.class,
+    IdIntMappingTest.class,
     JsonUtilTest.class,
     IdUtilTest.class
 })
@@ -31,7 +31,9 @@ import org.mockito.Mockito;
 import com.baidu.hugegraph.backend.cache.Cache;
 import com.baidu.hugegraph.backend.cache.CacheManager;
 import com.baidu.hugegraph.backend.cache.RamCache;
+import com.baidu.hugegraph.backend.cache.SegmentedCache;
 import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.exception.NotSupportException;
 import com.baidu.hugegraph.testutil.Assert;
 import com.baidu.hugegraph.testutil.Whitebox;
 import com.baidu.hugegraph.unit.BaseUnitTest;
@@ -124,6 +126,38 @@ public class CacheManagerTest extends BaseUnitTest {
                .putIfAbsent(Mockito.anyString(), Mockito.any());
     }
 
+    @Test
+    public void testCacheGetPutWithType() {
+        final String name = "test-cache";
+        final int capacity = 12345;
+
+        CacheManager manager = CacheManager.instance();
+
+        Mockito.when(this.mockCaches.containsKey(name)).thenReturn(false);
+        final Cache[] cache = new Cache[1];
+        Mockito.when(this.mockCaches.putIfAbsent(Mockito.anyString(), Mockito.any()))
+               .thenAnswer(i -> cache[0] = (Cache) i.getArguments()[1]);
+        Mockito.when(this.mockCaches.get(name)).thenAnswer(i -> cache[0]);
+
+        Cache cache1 = manager.cache(name, capacity,
+                                     CacheManager.SEGMENTED_CACHE);
+
+        Assert.assertNotNull(cache1);
+        Assert.assertTrue(cache1 instanceof SegmentedCache);
+        Assert.assertEquals(capacity, cache1.capacity());
+        Mockito.verify(this.mockCaches).putIfAbsent(name, cache1);
+
+        Mockito.when(this.mockCaches.containsKey(name)).thenReturn(true);
+        Mockito.when(this.mockCaches.get(name)).thenReturn(cache1);
+        Assert.assertSame(cache1, manager.cache(name, capacity,
+                                                CacheManager.RAM_CACHE));
+
+        Mockito.when(this.mockCaches.containsKey(name)).thenReturn(false);
+        Assert.assertThrows(NotSupportException.class, () -> {
+            manager.cache(name, capacity, "invalid");
+        });
+    }
+
     @Test
     public void testCacheList() {
         CacheManager manager = CacheManager.instance();
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.cache;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.cache.Cache;
+import com.baidu.hugegraph.backend.cache.RamCache;
+import com.baidu.hugegraph.backend.cache.SegmentedCache;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+
+/**
+ * Run RamCache and SegmentedCache with a skewed read-mostly workload to
+ * compare their cost.
+ */
+public class CachePerfTest extends BaseUnitTest {
+
+    private static final int CAPACITY = 100 * 1000;
+    private static final int KEYS = CAPACITY * 10;
+    private static final int OPS_PER_THREAD = 200 * 1000;
+    // Percent of write operations
+    private static final int WRITE_PERCENT = 5;
+
+    private static final Id[] IDS = new Id[KEYS];
+
+    static {
+        for (int i = 0; i < KEYS; i++) {
+            IDS[i] = IdGenerator.of(i);
+        }
+    }
+
+    @Test
+    public void testRamCacheWith8Threads() {
+        this.run(new RamCache(CAPACITY), 8);
+    }
+
+    @Test
+    public void testSegmentedCacheWith8Threads() {
+        this.run(new SegmentedCache(CAPACITY), 8);
+    }
+
+    @Test
+    public void testRamCacheWith32Threads() {
+        this.run(new RamCache(CAPACITY), 32);
+    }
+
+    @Test
+    public void testSegmentedCacheWith32Threads() {
+        this.run(new SegmentedCache(CAPACITY), 32);
+    }
+
+    @Test
+    public void testRamCacheWith64Threads() {
+        this.run(new RamCache(CAPACITY), 64);
+    }
+
+    @Test
+    public void testSegmentedCacheWith64Threads() {
+        this.run(new SegmentedCache(CAPACITY), 64);
+    }
+
+    private void run(Cache cache, int threads) {
+        runWithThreads(threads, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < OPS_PER_THREAD; i++) {
+                Id id = IDS[skewedIndex(random)];
+                if (random.nextInt(100) < WRITE_PERCENT) {
+                    cache.update(id, id);
+                } else if (cache.get(id) == null) {
+                    cache.update(id, id);
+                }
+            }
+        });
+
+        Assert.assertTrue(cache.hits() > 0L);
+        // The hottest key is always kept in the cache
+        Assert.assertEquals(IDS[0], cache.get(IDS[0]));
+    }
+
+    private static int skewedIndex(ThreadLocalRandom random) {
+        // Approximate a zipf-like distribution: most accesses on few keys
+        double r = random.nextDouble();
+        return (int) (KEYS * r * r * r) % KEYS;
+    }
+}
@@ -19,6 +19,10 @@
 
 package com.baidu.hugegraph.unit.cache;
 
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -27,10 +31,15 @@ import com.baidu.hugegraph.HugeGraph;
 import com.baidu.hugegraph.backend.cache.CachedGraphTransaction;
 import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.query.Query;
+import com.baidu.hugegraph.backend.tx.GraphTransaction;
+import com.baidu.hugegraph.schema.EdgeLabel;
 import com.baidu.hugegraph.schema.VertexLabel;
+import com.baidu.hugegraph.structure.HugeEdge;
 import com.baidu.hugegraph.structure.HugeVertex;
 import com.baidu.hugegraph.testutil.Assert;
 import com.baidu.hugegraph.testutil.Whitebox;
+import com.baidu.hugegraph.type.define.Directions;
 import com.baidu.hugegraph.type.define.IdStrategy;
 import com.baidu.hugegraph.unit.BaseUnitTest;
 import com.baidu.hugegraph.unit.FakeObjects;
@@ -67,6 +76,21 @@ public class CachedGraphTransactionTest extends BaseUnitTest {
         return new HugeVertex(graph, id, vl);
     }
 
+    private HugeEdge newEdge(HugeVertex source, HugeVertex target,
+                             String label) {
+        HugeGraph graph = this.cache().graph();
+        graph.schema().edgeLabel(label)
+                      .sourceLabel("person")
+                      .targetLabel("person")
+                      .checkExist(false)
+                      .create();
+        EdgeLabel el = graph.edgeLabel(label);
+        HugeEdge edge = new HugeEdge(graph, null, el);
+        edge.vertices(source, target);
+        edge.assignId();
+        return edge;
+    }
+
     @Test
     public void testEventClear() throws Exception {
         CachedGraphTransaction cache = this.cache();
@@ -120,4 +144,91 @@ public class CachedGraphTransactionTest extends BaseUnitTest {
         Assert.assertEquals(2L,
                             Whitebox.invoke(cache, "verticesCache", "size"));
     }
+
+    @Test
+    public void testEdgesCacheInvalidatedByVertex() {
+        CachedGraphTransaction cache = this.cache();
+
+        HugeVertex v1 = this.newVertex(IdGenerator.of(1));
+        HugeVertex v2 = this.newVertex(IdGenerator.of(2));
+        HugeVertex v3 = this.newVertex(IdGenerator.of(3));
+        HugeVertex v4 = this.newVertex(IdGenerator.of(4));
+        cache.addVertex(v1);
+        cache.addVertex(v2);
+        cache.addVertex(v3);
+        cache.addVertex(v4);
+        cache.addEdge(this.newEdge(v1, v2, "knows"));
+        cache.addEdge(this.newEdge(v3, v4, "knows"));
+        cache.commit();
+
+        Id knows = cache.graph().edgeLabel("knows").id();
+        Query q1 = GraphTransaction.constructEdgesQuery(v1.id(),
+                                                        Directions.BOTH);
+        Query q3 = GraphTransaction.constructEdgesQuery(v3.id(),
+                                                        Directions.BOTH);
+        Query q4 = GraphTransaction.constructEdgesQuery(v4.id(),
+                                                        Directions.BOTH,
+                                                        knows);
+        Assert.assertEquals(1L, IteratorUtils.count(cache.queryEdges(q1)));
+        Assert.assertEquals(1L, IteratorUtils.count(cache.queryEdges(q3)));
+        Assert.assertEquals(1L, IteratorUtils.count(cache.queryEdges(q4)));
+        Assert.assertEquals(3L, Whitebox.invoke(cache, "edgesCache", "size"));
+
+        // Only the edges cache of v1 is invalidated
+        cache.addEdge(this.newEdge(v1, v2, "likes"));
+        cache.commit();
+        Assert.assertEquals(2L, Whitebox.invoke(cache, "edgesCache", "size"));
+
+        // The edges cache of v4 with label 'knows' is not affected
+        cache.addEdge(this.newEdge(v4, v3, "likes"));
+        cache.commit();
+        Assert.assertEquals(1L, Whitebox.invoke(cache, "edgesCache", "size"));
+
+        Assert.assertEquals(2L, IteratorUtils.count(cache.queryEdges(q1)));
+        Assert.assertEquals(2L, IteratorUtils.count(cache.queryEdges(q3)));
+        Assert.assertEquals(3L, Whitebox.invoke(cache, "edgesCache", "size"));
+
+        // Remove vertex v2 would invalidate the edges cache of v1 and v2
+        cache.removeVertex(v2);
+        cache.commit();
+        Assert.assertEquals(2L, Whitebox.invoke(cache, "edgesCache", "size"));
+        Assert.assertEquals(0L, IteratorUtils.count(cache.queryEdges(q1)));
+    }
+
+    @Test
+    public void testEdgesCacheIndexOverflow() {
+        CachedGraphTransaction cache = this.cache();
+
+        HugeVertex v1 = this.newVertex(IdGenerator.of(1));
+        HugeVertex v2 = this.newVertex(IdGenerator.of(2));
+        HugeVertex v3 = this.newVertex(IdGenerator.of(3));
+        cache.addVertex(v1);
+        cache.addVertex(v2);
+        cache.addVertex(v3);
+        cache.addEdge(this.newEdge(v1, v2, "knows"));
+        cache.addEdge(this.newEdge(v2, v3, "knows"));
+        cache.commit();
+
+        Object index = Whitebox.getInternalState(cache, "edgesCacheIndex");
+        long capacity = Whitebox.getInternalState(index, "capacity");
+        Whitebox.setInternalState(index, "capacity", 2L);
+        try {
+            for (HugeVertex vertex : Arrays.asList(v1, v2, v3)) {
+                Query query = GraphTransaction.constructEdgesQuery(
+                              vertex.id(), Directions.BOTH);
+                Assert.assertTrue(cache.queryEdges(query).hasNext());
+            }
+
+            // Only the oldest query is evicted instead of the whole cache
+            Assert.assertEquals(2L,
+                                Whitebox.invoke(cache, "edgesCache", "size"));
+            Assert.assertEquals(2L, Whitebox.invoke(index.getClass(),
+                                                    "size", index));
+            Map<String, Object> metrics = Whitebox.invoke(index.getClass(),
+                                                          "metrics", index);
+            Assert.assertEquals(1L, metrics.get("evicted_by_overflow"));
+        } finally {
+            Whitebox.setInternalState(index, "capacity", capacity);
+        }
+    }
 }
@@ -27,6 +27,8 @@ import com.baidu.hugegraph.HugeGraph;
 import com.baidu.hugegraph.backend.cache.CachedSchemaTransaction;
 import com.baidu.hugegraph.backend.id.Id;
 import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.schema.PropertyKey;
+import com.baidu.hugegraph.schema.SchemaElement;
 import com.baidu.hugegraph.testutil.Assert;
 import com.baidu.hugegraph.testutil.Whitebox;
 import com.baidu.hugegraph.type.HugeType;
@@ -194,4 +196,89 @@ public class CachedSchemaTransactionTest extends BaseUnitTest {
         Assert.assertEquals(ImmutableMap.of(),
                             Whitebox.getInternalState(cache, "cachedTypes"));
     }
+
+    @Test
+    public void testGetSchemaFromSnapshot() throws Exception {
+        CachedSchemaTransaction cache = this.cache();
+
+        FakeObjects objects = new FakeObjects("unit-test");
+        PropertyKey pkey = objects.newPropertyKey(IdGenerator.of(1),
+                                                  "fake-pk-1");
+        cache.addPropertyKey(pkey);
+        Assert.assertSame(pkey, this.snapshot(HugeType.PROPERTY_KEY,
+                                              IdGenerator.of(1)));
+        Assert.assertNull(this.snapshot(HugeType.VERTEX_LABEL,
+                                        IdGenerator.of(1)));
+        Assert.assertNull(this.snapshot(HugeType.PROPERTY_KEY,
+                                        IdGenerator.of(2)));
+
+        // Served by the snapshot even if the id cache is cleared
+        Whitebox.invoke(cache, "idCache", "clear");
+        Assert.assertSame(pkey, cache.getPropertyKey(IdGenerator.of(1)));
+        Assert.assertEquals(0L, Whitebox.invoke(cache, "idCache", "size"));
+
+        // Reload the snapshot from backend after cleared
+        cache.graph().schemaEventHub()
+             .notify(Events.CACHE, "clear", null).get();
+        Assert.assertNull(this.snapshot(HugeType.PROPERTY_KEY,
+                                        IdGenerator.of(1)));
+        Assert.assertEquals("fake-pk-1",
+                            cache.getPropertyKey(IdGenerator.of(1)).name());
+        Assert.assertEquals("fake-pk-1",
+                            this.snapshot(HugeType.PROPERTY_KEY,
+                                          IdGenerator.of(1)).name());
+
+        cache.removePropertyKey(IdGenerator.of(1));
+        Assert.assertNull(this.snapshot(HugeType.PROPERTY_KEY,
+                                        IdGenerator.of(1)));
+        Assert.assertNull(cache.getPropertyKey(IdGenerator.of(1)));
+    }
+
+    @Test
+    public void testGetSchemaWithIdNotInSnapshot() throws Exception {
+        CachedSchemaTransaction cache = this.cache();
+
+        FakeObjects objects = new FakeObjects("unit-test");
+        cache.addPropertyKey(objects.newPropertyKey(IdGenerator.of(-1),
+                                                    "fake-pk-1"));
+        cache.addPropertyKey(objects.newPropertyKey(IdGenerator.of(70000),
+                                                    "fake-pk-2"));
+        Assert.assertNull(this.snapshot(HugeType.PROPERTY_KEY,
+                                        IdGenerator.of(-1)));
+        Assert.assertNull(this.snapshot(HugeType.PROPERTY_KEY,
+                                        IdGenerator.of(70000)));
+
+        // Fall back to the id cache
+        Assert.assertEquals("fake-pk-1",
+                            cache.getPropertyKey(IdGenerator.of(-1)).name());
+        Assert.assertEquals("fake-pk-2",
+                            cache.getPropertyKey(IdGenerator.of(70000))
+                                 .name());
+    }
+
+    @Test
+    public void testGetSchemaNotResurrectedAfterRemoved() throws Exception {
+        CachedSchemaTransaction cache = this.cache();
+
+        FakeObjects objects = new FakeObjects("unit-test");
+        PropertyKey pkey = objects.newPropertyKey(IdGenerator.of(1),
+                                                  "fake-pk-1");
+        cache.addPropertyKey(pkey);
+
+        // A reader looked up the schema before it's removed
+        long generation = Whitebox.invoke(cache, "snapshot", "generation");
+        cache.removePropertyKey(IdGenerator.of(1));
+        Whitebox.invoke(cache, "snapshot",
+                        new Class[]{SchemaElement.class, long.class},
+                        "update", pkey, generation);
+        Assert.assertNull(this.snapshot(HugeType.PROPERTY_KEY,
+                                        IdGenerator.of(1)));
+        Assert.assertNull(cache.getPropertyKey(IdGenerator.of(1)));
+    }
+
+    private SchemaElement snapshot(HugeType type, Id id) {
+        return Whitebox.invoke(this.cache(), "snapshot",
+                               new Class[]{HugeType.class, Id.class},
+                               "get", type, id);
+    }
 }
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.cache.OffheapCache;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.serializer.BinaryBackendEntry;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
+import com.baidu.hugegraph.backend.store.BackendEntry;
+import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.util.Bytes;
+
+public class OffheapCacheTest extends BaseUnitTest {
+
+    private static BinaryBackendEntry newEntry(Id id, int valueSize) {
+        byte[] idBytes = BytesBuffer.allocate(1 + id.length())
+                                    .writeId(id).bytes();
+        BinaryBackendEntry entry = new BinaryBackendEntry(HugeType.VERTEX,
+                                                          idBytes);
+        entry.column(new byte[]{1}, new byte[]{2, 3});
+        entry.column(new byte[]{4, 5}, new byte[valueSize]);
+        return entry;
+    }
+
+    private static void assertEntryEquals(BinaryBackendEntry expected,
+                                          Object actual) {
+        Assert.assertTrue(actual instanceof BinaryBackendEntry);
+        BinaryBackendEntry entry = (BinaryBackendEntry) actual;
+        Assert.assertEquals(expected.type(), entry.type());
+        Id expectedId = ((BackendEntry) expected).id();
+        Assert.assertEquals(expectedId, ((BackendEntry) entry).id());
+        List<BackendColumn> columns = new ArrayList<>(entry.columns());
+        List<BackendColumn> expectedColumns = new ArrayList<>(
+                                              expected.columns());
+        Assert.assertEquals(expectedColumns.size(), columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            Assert.assertArrayEquals(expectedColumns.get(i).name,
+                                     columns.get(i).name);
+            Assert.assertArrayEquals(expectedColumns.get(i).value,
+                                     columns.get(i).value);
+        }
+    }
+
+    @Test
+    public void testUpdateAndGet() {
+        OffheapCache cache = new OffheapCache(Bytes.MB);
+        Id id = IdGenerator.of(1);
+        Assert.assertNull(cache.get(id));
+
+        BinaryBackendEntry entry = newEntry(id, 10);
+        cache.update(id, entry);
+        assertEntryEquals(entry, cache.get(id));
+
+        entry = newEntry(id, 20);
+        cache.update(id, entry);
+        assertEntryEquals(entry, cache.get(id));
+        Assert.assertEquals(1L, cache.size());
+
+        Assert.assertEquals(2L, cache.hits());
+        Assert.assertEquals(1L, cache.miss());
+    }
+
+    @Test
+    public void testUpdateWithInvalidValue() {
+        OffheapCache cache = new OffheapCache(Bytes.MB);
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            cache.update(IdGenerator.of(1), "value-1");
+        });
+    }
+
+    @Test
+    public void testUpdateIfAbsentAndIfPresent() {
+        OffheapCache cache = new OffheapCache(Bytes.MB);
+        Id id = IdGenerator.of(1);
+        BinaryBackendEntry entry1 = newEntry(id, 10);
+        BinaryBackendEntry entry2 = newEntry(id, 20);
+
+        cache.updateIfPresent(id, entry1);
+        Assert.assertNull(cache.get(id));
+
+        cache.updateIfAbsent(id, entry1);
+        assertEntryEquals(entry1, cache.get(id));
+
+        cache.updateIfAbsent(id, entry2);
+        assertEntryEquals(entry1, cache.get(id));
+
+        cache.updateIfPresent(id, entry2);
+        assertEntryEquals(entry2, cache.get(id));
+    }
+
+    @Test
+    public void testInvalidateAndClear() {
+        OffheapCache cache = new OffheapCache(Bytes.MB);
+        Id id1 = IdGenerator.of(1);
+        Id id2 = IdGenerator.of(2);
+        cache.update(id1, newEntry(id1, 10));
+        cache.update(id2, newEntry(id2, 10));
+        Assert.assertEquals(2L, cache.size());
+
+        cache.invalidate(id1);
+        Assert.assertNull(cache.get(id1));
+        Assert.assertNotNull(cache.get(id2));
+        Assert.assertEquals(1L, cache.size());
+
+        cache.clear();
+        Assert.assertNull(cache.get(id2));
+        Assert.assertEquals(0L, cache.size());
+
+        cache.update(id1, newEntry(id1, 10));
+        assertEntryEquals(newEntry(id1, 10), cache.get(id1));
+    }
+
+    @Test
+    public void testCapacityInBytes() {
+        // 4 chunks with 4KB per chunk
+        OffheapCache cache = new OffheapCache(16 * Bytes.KB);
+        Assert.assertEquals(16 * Bytes.KB, cache.capacity());
+
+        // About 1KB per entry
+        int total = 100;
+        for (int i = 0; i < total; i++) {
+            Id id = IdGenerator.of(i);
+            cache.update(id, newEntry(id, 1000));
+        }
+        Assert.assertTrue(cache.size() > 0L);
+        Assert.assertTrue(cache.size() < 16L);
+
+        // The latest ones are kept and the oldest ones are evicted
+        Id latest = IdGenerator.of(total - 1);
+        assertEntryEquals(newEntry(latest, 1000), cache.get(latest));
+        Assert.assertNull(cache.get(IdGenerator.of(0)));
+
+        // Too large to cache
+        Id large = IdGenerator.of(total);
+        cache.update(large, newEntry(large, 5000));
+        Assert.assertNull(cache.get(large));
+
+        cache = new OffheapCache(0L);
+        Assert.assertEquals(0L, cache.capacity());
+        cache.update(latest, newEntry(latest, 10));
+        Assert.assertNull(cache.get(latest));
+    }
+
+    @Test
+    public void testExpire() {
+        OffheapCache cache = new OffheapCache(Bytes.MB);
+        Id id1 = IdGenerator.of(1);
+        Id id2 = IdGenerator.of(2);
+        cache.update(id1, newEntry(id1, 10));
+
+        cache.expire(2);
+        Assert.assertEquals(2000L, cache.expire());
+        waitTillNext(1);
+        cache.update(id2, newEntry(id2, 10));
+        waitTillNext(1);
+        Assert.assertEquals(1L, cache.tick());
+
+        Assert.assertEquals(1L, cache.size());
+        Assert.assertNotNull(cache.get(id2));
+    }
+
+    @Test
+    public void testMutiThreadsUpdateAndGet() {
+        OffheapCache cache = new OffheapCache(64 * Bytes.KB);
+
+        runWithThreads(8, () -> {
+            for (int i = 0; i < 10000; i++) {
+                Id id = IdGenerator.of(i % 500);
+                Object value = cache.get(id);
+                if (value != null) {
+                    assertEntryEquals(newEntry(id, 100), value);
+                } else {
+                    cache.update(id, newEntry(id, 100));
+                }
+            }
+        });
+        Assert.assertTrue(cache.size() > 0L);
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.cache.RamCache;
+import com.baidu.hugegraph.backend.cache.SegmentedCache;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+
+public class SegmentedCacheTest extends BaseUnitTest {
+
+    @Test
+    public void testUpdateAndGet() {
+        SegmentedCache cache = new SegmentedCache();
+        Id id = IdGenerator.of("1");
+        Assert.assertNull(cache.get(id));
+
+        cache.update(id, "value-1");
+        Assert.assertEquals("value-1", cache.get(id));
+
+        cache.update(id, "value-2");
+        Assert.assertEquals("value-2", cache.get(id));
+        Assert.assertEquals(1L, cache.size());
+    }
+
+    @Test
+    public void testUpdateAndGetWithSizeEqualCapacity() {
+        SegmentedCache cache = new SegmentedCache(4);
+        cache.update(IdGenerator.of("1"), "value-1");
+        cache.update(IdGenerator.of("2"), "value-2");
+        cache.update(IdGenerator.of("3"), "value-3");
+        cache.update(IdGenerator.of("4"), "value-4");
+
+        Assert.assertEquals("value-1", cache.get(IdGenerator.of("1")));
+        Assert.assertEquals("value-2", cache.get(IdGenerator.of("2")));
+        Assert.assertEquals("value-3", cache.get(IdGenerator.of("3")));
+        Assert.assertEquals("value-4", cache.get(IdGenerator.of("4")));
+    }
+
+    @Test
+    public void testGetOrFetch() {
+        SegmentedCache cache = new SegmentedCache();
+        Id id = IdGenerator.of("1");
+        Assert.assertNull(cache.get(id));
+
+        Assert.assertEquals("value-1",  cache.getOrFetch(id, key -> {
+            return "value-1";
+        }));
+
+        cache.update(id, "value-2");
+        Assert.assertEquals("value-2",  cache.getOrFetch(id, key -> {
+            return "value-1";
+        }));
+    }
+
+    @Test
+    public void testUpdateIfAbsentAndIfPresent() {
+        SegmentedCache cache = new SegmentedCache();
+        Id id = IdGenerator.of("1");
+        cache.updateIfPresent(id, "value-1");
+        Assert.assertNull(cache.get(id));
+
+        cache.updateIfAbsent(id, "value-1");
+        Assert.assertEquals("value-1", cache.get(id));
+
+        cache.updateIfAbsent(id, "value-2");
+        Assert.assertEquals("value-1", cache.get(id));
+
+        cache.updateIfPresent(id, "value-2");
+        Assert.assertEquals("value-2", cache.get(id));
+    }
+
+    @Test
+    public void testInvalidateAndClear() {
+        SegmentedCache cache = new SegmentedCache();
+        Id id1 = IdGenerator.of("1");
+        Id id2 = IdGenerator.of("2");
+        cache.update(id1, "value-1");
+        cache.update(id2, "value-2");
+        Assert.assertEquals(2L, cache.size());
+
+        cache.invalidate(id1);
+        Assert.assertNull(cache.get(id1));
+        Assert.assertEquals("value-2", cache.get(id2));
+        Assert.assertEquals(1L, cache.size());
+
+        cache.clear();
+        Assert.assertNull(cache.get(id2));
+        Assert.assertEquals(0L, cache.size());
+
+        cache.update(id1, "value-1");
+        Assert.assertEquals("value-1", cache.get(id1));
+    }
+
+    @Test
+    public void testCapacity() {
+        SegmentedCache cache = new SegmentedCache(10);
+        Assert.assertEquals(10, cache.capacity());
+
+        cache = new SegmentedCache(1);
+        Assert.assertEquals(1, cache.capacity());
+
+        cache = new SegmentedCache(0);
+        Assert.assertEquals(0, cache.capacity());
+        cache.update(IdGenerator.of("1"), "value-1");
+        Assert.assertEquals(0, cache.size());
+
+        // The min capacity is 0
+        cache = new SegmentedCache(-1);
+        Assert.assertEquals(0, cache.capacity());
+    }
+
+    @Test
+    public void testSizeWithReachCapacity() {
+        SegmentedCache cache = new SegmentedCache(10);
+        for (int i = 0; i < 20; i++) {
+            Id id = IdGenerator.of("key-" + i);
+            cache.update(id, "value-" + i);
+        }
+        Assert.assertEquals(10, cache.size());
+
+        cache = new SegmentedCache(1);
+        for (int i = 0; i < 20; i++) {
+            Id id = IdGenerator.of("key-" + i);
+            cache.update(id, "value-" + i);
+        }
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testAdmitFrequentItems() {
+        int capacity = 100;
+        SegmentedCache cache = new SegmentedCache(capacity);
+        RamCache lruCache = new RamCache(capacity);
+
+        // Access the hot items frequently
+        for (int i = 0; i < capacity; i++) {
+            Id id = IdGenerator.of("hot-" + i);
+            cache.update(id, i);
+            lruCache.update(id, i);
+        }
+        for (int times = 0; times < 10; times++) {
+            for (int i = 0; i < capacity; i++) {
+                Id id = IdGenerator.of("hot-" + i);
+                cache.get(id);
+                lruCache.get(id);
+            }
+        }
+
+        // Scan the cold items just once
+        for (int i = 0; i < capacity * 2; i++) {
+            Id id = IdGenerator.of("cold-" + i);
+            cache.update(id, i);
+            lruCache.update(id, i);
+        }
+
+        int hotInCache = 0;
+        int hotInLruCache = 0;
+        for (int i = 0; i < capacity; i++) {
+            Id id = IdGenerator.of("hot-" + i);
+            if (cache.get(id) != null) {
+                hotInCache++;
+            }
+            if (lruCache.get(id) != null) {
+                hotInLruCache++;
+            }
+        }
+        Assert.assertEquals(capacity, cache.size());
+        Assert.assertEquals(0, hotInLruCache);
+        Assert.assertTrue("Expect most of hot items in cache, but got " +
+                          hotInCache, hotInCache >= capacity * 9 / 10);
+    }
+
+    @Test
+    public void testHitsAndMiss() {
+        SegmentedCache cache = new SegmentedCache();
+        Assert.assertEquals(0L, cache.hits());
+        Assert.assertEquals(0L, cache.miss());
+
+        cache.update(IdGenerator.of("1"), "value-1");
+        Assert.assertEquals(0L, cache.hits());
+        Assert.assertEquals(0L, cache.miss());
+
+        cache.get(IdGenerator.of("not-exist"));
+        Assert.assertEquals(0L, cache.hits());
+        Assert.assertEquals(1L, cache.miss());
+
+        cache.get(IdGenerator.of("1"));
+        Assert.assertEquals(1L, cache.hits());
+        Assert.assertEquals(1L, cache.miss());
+    }
+
+    @Test
+    public void testExpire() {
+        SegmentedCache cache = new SegmentedCache();
+        cache.update(IdGenerator.of("1"), "value-1");
+        cache.update(IdGenerator.of("2"), "value-2");
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(0L, cache.expire());
+
+        cache.expire(2); // 2 seconds
+        Assert.assertEquals(2000L, cache.expire());
+        waitTillNext(1);
+        cache.update(IdGenerator.of("3"), "value-3");
+        waitTillNext(1);
+        Assert.assertEquals(2L, cache.tick());
+
+        Assert.assertEquals(1, cache.size());
+        Assert.assertNotNull(cache.get(IdGenerator.of("3")));
+    }
+
+    private static final int THREADS_NUM = 8;
+
+    @Test
+    public void testMutiThreadsUpdateWithGtCapacity() {
+        SegmentedCache cache = new SegmentedCache(1000);
+
+        runWithThreads(THREADS_NUM, () -> {
+            for (int i = 0; i < 10000 * 10; i++) {
+                Id id = IdGenerator.of(
+                        Thread.currentThread().getName() + "-" + i);
+                cache.update(id, "value-" + i);
+            }
+        });
+        Assert.assertEquals(1000L, cache.size());
+    }
+
+    @Test
+    public void testMutiThreadsGetAndUpdate() {
+        SegmentedCache cache = new SegmentedCache();
+
+        runWithThreads(THREADS_NUM, () -> {
+            Map<Id, Object> all = new HashMap<>(1000);
+            for (int i = 0; i < 1000; i++) {
+                Id id = IdGenerator.of(
+                        Thread.currentThread().getName() + "-" + i);
+                String value = "value-" + i;
+                cache.update(id, value);
+                all.put(id, value);
+            }
+            for (int times = 0; times < 100; times++) {
+                for (Map.Entry<Id, Object> e : all.entrySet()) {
+                    Assert.assertEquals(e.getValue(), cache.get(e.getKey()));
+                }
+            }
+        });
+        Assert.assertEquals(THREADS_NUM * 1000L, cache.size());
+        Assert.assertEquals(THREADS_NUM * 1000L * 100, cache.hits());
+    }
+}
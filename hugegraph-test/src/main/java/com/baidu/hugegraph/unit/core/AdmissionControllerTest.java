@@ -0,0 +1,168 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.tx.CommitLatency;
+import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.config.OptionSpace;
+import com.baidu.hugegraph.config.ServerOptions;
+import com.baidu.hugegraph.core.AdmissionController;
+import com.baidu.hugegraph.core.AdmissionController.ApiClass;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.type.define.IdStrategy;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.unit.FakeObjects;
+
+public class AdmissionControllerTest extends BaseUnitTest {
+
+    private static final String GRAPH = "hugegraph";
+
+    @BeforeClass
+    public static void init() {
+        OptionSpace.register("server", ServerOptions.instance());
+    }
+
+    @Test
+    public void testAcquireWithoutQueueing() {
+        AdmissionController controller = newController(5, 0, 0);
+
+        Assert.assertTrue(controller.acquire(GRAPH, ApiClass.BATCH, 0.0));
+        // The next token is available after 200ms
+        Assert.assertFalse(controller.acquire(GRAPH, ApiClass.BATCH, 0.0));
+        // The buckets of graphs are independent
+        Assert.assertTrue(controller.acquire("graph2", ApiClass.BATCH, 0.0));
+
+        Map<String, Object> metrics = metrics(controller, GRAPH);
+        Assert.assertEquals(5.0, metrics.get("max_rate"));
+        Assert.assertEquals(1L, metrics.get("admitted"));
+        Assert.assertEquals(0L, metrics.get("queued"));
+        Assert.assertEquals(1L, metrics.get("rejected"));
+    }
+
+    @Test
+    public void testAcquireWithQueueing() {
+        AdmissionController controller = newController(5, 1000, 0);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(controller.acquire(GRAPH, ApiClass.BATCH, 0.0));
+        }
+        long cost = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Assert.assertTrue("Cost " + cost + "ms", cost >= 300L);
+
+        Map<String, Object> metrics = metrics(controller, GRAPH);
+        Assert.assertEquals(3L, metrics.get("admitted"));
+        Assert.assertEquals(2L, metrics.get("queued"));
+        Assert.assertEquals(0L, metrics.get("rejected"));
+    }
+
+    @Test
+    public void testAdaptRateToCommitLatency() throws InterruptedException {
+        AdmissionController controller = newController(100, 1000, 100);
+        controller.acquire(GRAPH, ApiClass.BATCH, 200.0);
+        // Not adjusted until the adjust interval elapsed
+        Assert.assertEquals(100.0, controller.rate(GRAPH, ApiClass.BATCH),
+                            0.0);
+
+        Thread.sleep(1100L);
+        controller.acquire(GRAPH, ApiClass.BATCH, 200.0);
+        Assert.assertEquals(70.0, controller.rate(GRAPH, ApiClass.BATCH),
+                            0.001);
+
+        Thread.sleep(1100L);
+        controller.acquire(GRAPH, ApiClass.BATCH, 50.0);
+        Assert.assertEquals(75.0, controller.rate(GRAPH, ApiClass.BATCH),
+                            0.001);
+
+        Map<String, Object> metrics = metrics(controller, GRAPH);
+        Assert.assertEquals(75.0, metrics.get("rate"));
+        Assert.assertEquals(50.0, metrics.get("commit_latency_ms"));
+        Assert.assertEquals(2L, metrics.get("adjustments"));
+    }
+
+    @Test
+    public void testAcquireWithDisabledApiClass() {
+        AdmissionController controller = newController(5, 0, 0);
+        Assert.assertTrue(controller.enabled(ApiClass.BATCH));
+        Assert.assertFalse(controller.enabled(ApiClass.OLTP));
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            controller.acquire(GRAPH, ApiClass.OLTP, 0.0);
+        });
+    }
+
+    @Test
+    public void testCommitLatency() {
+        CommitLatency latency = new CommitLatency();
+        Assert.assertEquals(0.0, latency.averageMillis(), 0.0);
+
+        latency.record(TimeUnit.MILLISECONDS.toNanos(10L));
+        Assert.assertEquals(10.0, latency.averageMillis(), 0.001);
+        latency.record(TimeUnit.MILLISECONDS.toNanos(20L));
+        Assert.assertEquals(12.0, latency.averageMillis(), 0.001);
+        Assert.assertEquals(2L, latency.commits());
+    }
+
+    @Test
+    public void testCommitLatencyOfGraph() throws Exception {
+        HugeGraph graph = new HugeGraph(FakeObjects.newConfig());
+        try {
+            graph.schema().vertexLabel("node")
+                 .idStrategy(IdStrategy.CUSTOMIZE_NUMBER)
+                 .checkExist(false)
+                 .create();
+            long commits = graph.commitLatency().commits();
+            graph.addVertex(T.label, "node", T.id, 1);
+            graph.tx().commit();
+            Assert.assertEquals(commits + 1L, graph.commitLatency().commits());
+        } finally {
+            graph.closeTx();
+            graph.clearBackend();
+            graph.close();
+        }
+    }
+
+    private static AdmissionController newController(int batchRate,
+                                                     int queueTimeout,
+                                                     int targetLatency) {
+        HugeConfig config = FakeObjects.newConfig();
+        config.addProperty(ServerOptions.ADMISSION_BATCH_RATE.name(),
+                           String.valueOf(batchRate));
+        config.addProperty(ServerOptions.ADMISSION_QUEUE_TIMEOUT.name(),
+                           String.valueOf(queueTimeout));
+        config.addProperty(ServerOptions.ADMISSION_COMMIT_LATENCY.name(),
+                           String.valueOf(targetLatency));
+        return new AdmissionController(config);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> metrics(AdmissionController controller,
+                                               String graph) {
+        Map<String, Object> metrics = controller.metrics().get(graph);
+        return (Map<String, Object>) metrics.get(ApiClass.BATCH.string());
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.serializer.BinaryBackendEntry;
+import com.baidu.hugegraph.backend.serializer.BinarySerializer;
+import com.baidu.hugegraph.backend.store.BackendEntry;
+import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
+import com.baidu.hugegraph.schema.PropertyKey;
+import com.baidu.hugegraph.schema.SchemaManager;
+import com.baidu.hugegraph.structure.HugeVertex;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.testutil.Whitebox;
+import com.baidu.hugegraph.type.define.HugeKeys;
+import com.baidu.hugegraph.type.define.IdStrategy;
+import com.baidu.hugegraph.type.define.ValueFormat;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.unit.FakeObjects;
+import com.baidu.hugegraph.util.KryoUtil;
+import com.google.common.collect.ImmutableSet;
+
+public class BinarySerializerTest extends BaseUnitTest {
+
+    private HugeGraph graph;
+
+    @Before
+    public void setup() {
+        this.graph = new HugeGraph(FakeObjects.newConfig());
+        SchemaManager schema = this.graph.schema();
+        schema.propertyKey("name").asText().checkExist(false).create();
+        schema.propertyKey("age").asInt().checkExist(false).create();
+        schema.propertyKey("tags").asText().valueSet()
+              .checkExist(false).create();
+        schema.vertexLabel("person")
+              .idStrategy(IdStrategy.CUSTOMIZE_NUMBER)
+              .properties("name", "age", "tags")
+              .nullableKeys("age", "tags")
+              .checkExist(false)
+              .create();
+    }
+
+    @After
+    public void teardown() throws Exception {
+        this.graph.clearBackend();
+        this.graph.close();
+    }
+
+    private HugeVertex newVertex() {
+        HugeVertex vertex = new HugeVertex(this.graph, IdGenerator.of(1),
+                                           this.graph.vertexLabel("person"));
+        vertex.addProperty(this.pkey("name"), "marko");
+        vertex.addProperty(this.pkey("age"), 29);
+        vertex.addProperty(this.pkey("tags"), "java");
+        vertex.addProperty(this.pkey("tags"), "c++");
+        return vertex;
+    }
+
+    private PropertyKey pkey(String name) {
+        // Get by id which is the way used by the serializer when reading
+        Id id = this.graph.propertyKey(name).id();
+        return this.graph.propertyKey(id);
+    }
+
+    private static int lazyPropertiesSize(HugeVertex vertex) {
+        Map<?, ?> lazyProperties = Whitebox.getInternalState(vertex,
+                                                             "lazyProperties");
+        return lazyProperties == null ? 0 : lazyProperties.size();
+    }
+
+    @Test
+    public void testReadVertexWithLazyProperties() {
+        BinarySerializer serializer = new BinarySerializer();
+        BackendEntry entry = serializer.writeVertex(this.newVertex());
+        HugeVertex vertex = serializer.readVertex(this.graph, entry);
+
+        Id name = this.pkey("name").id();
+        Id age = this.pkey("age").id();
+        Id tags = this.pkey("tags").id();
+
+        // Nothing is decoded when reading the vertex
+        Assert.assertEquals(3, lazyPropertiesSize(vertex));
+        Assert.assertEquals(3, vertex.sizeOfProperties());
+        Assert.assertTrue(vertex.hasProperties());
+        Assert.assertTrue(vertex.hasProperty(name));
+
+        // Only the accessed property is decoded
+        Assert.assertEquals("marko", vertex.getPropertyValue(name));
+        Assert.assertEquals(2, lazyPropertiesSize(vertex));
+        Assert.assertEquals(3, vertex.sizeOfProperties());
+
+        Assert.assertEquals(29, vertex.getProperty(age).value());
+        Assert.assertEquals(1, lazyPropertiesSize(vertex));
+
+        // All properties are decoded when getting all of them
+        Assert.assertEquals(3, vertex.getProperties().size());
+        Assert.assertEquals(0, lazyPropertiesSize(vertex));
+        Assert.assertEquals(ImmutableSet.of("java", "c++"),
+                            vertex.getPropertyValue(tags));
+    }
+
+    @Test
+    public void testUpdateLazyProperties() {
+        BinarySerializer serializer = new BinarySerializer();
+        BackendEntry entry = serializer.writeVertex(this.newVertex());
+        HugeVertex vertex = serializer.readVertex(this.graph, entry);
+
+        Id name = this.pkey("name").id();
+        Id age = this.pkey("age").id();
+        Id tags = this.pkey("tags").id();
+
+        // Overwrite an undecoded property
+        vertex.addProperty(this.pkey("name"), "josh");
+        Assert.assertEquals(2, lazyPropertiesSize(vertex));
+        Assert.assertEquals("josh", vertex.getPropertyValue(name));
+
+        // Append to an undecoded set property
+        vertex.addProperty(this.pkey("tags"), "go");
+        Assert.assertEquals(ImmutableSet.of("java", "c++", "go"),
+                            vertex.getPropertyValue(tags));
+
+        // Remove an undecoded property
+        Assert.assertEquals(29, vertex.removeProperty(age).value());
+        Assert.assertFalse(vertex.hasProperty(age));
+        Assert.assertEquals(2, vertex.sizeOfProperties());
+
+        // The copied vertex keeps the undecoded properties
+        vertex = serializer.readVertex(this.graph, entry);
+        HugeVertex copy = vertex.copy();
+        Assert.assertEquals(3, lazyPropertiesSize(copy));
+        Assert.assertEquals("marko", copy.getPropertyValue(name));
+        Assert.assertEquals(3, lazyPropertiesSize(vertex));
+
+        vertex.resetProperties();
+        Assert.assertEquals(0, vertex.sizeOfProperties());
+        Assert.assertNull(vertex.getPropertyValue(name));
+    }
+
+    @Test
+    public void testReadVertexWithKryoValueFormat() {
+        BinarySerializer serializer = new BinarySerializer();
+        HugeVertex vertex = this.newVertex();
+        BackendEntry compactEntry = serializer.writeVertex(vertex);
+
+        // The property keys created before the compact format
+        PropertyKey name = vertex.getProperty(this.pkey("name").id())
+                                 .propertyKey();
+        PropertyKey tags = vertex.getProperty(this.pkey("tags").id())
+                                 .propertyKey();
+        name.valueFormat(ValueFormat.KRYO);
+        tags.valueFormat(ValueFormat.KRYO);
+        try {
+            BackendEntry entry = serializer.writeVertex(vertex);
+            byte[] kryoName = KryoUtil.toKryo("marko");
+            boolean foundKryoName = false;
+            int kryoSize = 0;
+            for (BackendColumn column : entry.columns()) {
+                if (Arrays.equals(kryoName, column.value)) {
+                    foundKryoName = true;
+                }
+                kryoSize += column.value.length;
+            }
+            Assert.assertTrue(foundKryoName);
+
+            int compactSize = 0;
+            for (BackendColumn column : compactEntry.columns()) {
+                compactSize += column.value.length;
+            }
+            Assert.assertTrue(compactSize < kryoSize);
+
+            Object value = Whitebox.invoke(BinarySerializer.class,
+                                           new Class[]{PropertyKey.class,
+                                                       byte[].class},
+                                           "parsePropertyValue", serializer,
+                                           name, kryoName);
+            Assert.assertEquals("marko", value);
+            byte[] kryoTags = KryoUtil.toKryo(vertex.getPropertyValue(
+                                                     tags.id()));
+            value = Whitebox.invoke(BinarySerializer.class,
+                                    new Class[]{PropertyKey.class,
+                                                byte[].class},
+                                    "parsePropertyValue", serializer,
+                                    tags, kryoTags);
+            Assert.assertEquals(ImmutableSet.of("java", "c++"), value);
+        } finally {
+            name.valueFormat(ValueFormat.COMPACT);
+            tags.valueFormat(ValueFormat.COMPACT);
+        }
+    }
+
+    @Test
+    public void testReadPropertyKeyValueFormat() {
+        BinarySerializer serializer = new BinarySerializer();
+        PropertyKey pkey = this.pkey("age");
+        Assert.assertEquals(ValueFormat.COMPACT, pkey.valueFormat());
+
+        BinaryBackendEntry entry = (BinaryBackendEntry)
+                                   serializer.writePropertyKey(pkey);
+        PropertyKey result = serializer.readPropertyKey(this.graph, entry);
+        Assert.assertEquals(ValueFormat.COMPACT, result.valueFormat());
+
+        // The entry written before the value format introduced
+        BinaryBackendEntry oldEntry = new BinaryBackendEntry(
+                                      entry.type(), entry.id());
+        for (BackendColumn column : entry.columns()) {
+            byte last = column.name[column.name.length - 1];
+            if (last != HugeKeys.VALUE_FORMAT.code()) {
+                oldEntry.column(column);
+            }
+        }
+        Assert.assertEquals(entry.columnsSize() - 1, oldEntry.columnsSize());
+        result = serializer.readPropertyKey(this.graph, oldEntry);
+        Assert.assertEquals(ValueFormat.KRYO, result.valueFormat());
+        Assert.assertEquals(pkey.dataType(), result.dataType());
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
+import com.baidu.hugegraph.schema.PropertyKey;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.type.define.Cardinality;
+import com.baidu.hugegraph.type.define.DataType;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.unit.FakeObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+public class BytesBufferTest extends BaseUnitTest {
+
+    @Test
+    public void testVInt() {
+        int[] values = {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE,
+                        -1, Integer.MIN_VALUE};
+        int[] lengths = {1, 1, 1, 2, 2, 3, 5, 5, 5};
+        for (int i = 0; i < values.length; i++) {
+            byte[] bytes = BytesBuffer.allocate(0).writeVInt(values[i])
+                                      .bytes();
+            Assert.assertEquals(lengths[i], bytes.length);
+            Assert.assertEquals(values[i],
+                                BytesBuffer.wrap(bytes).readVInt());
+        }
+    }
+
+    @Test
+    public void testVLong() {
+        long[] values = {0L, 1L, 127L, 128L, Integer.MAX_VALUE,
+                         Long.MAX_VALUE, -1L, Long.MIN_VALUE};
+        int[] lengths = {1, 1, 1, 2, 5, 9, 10, 10};
+        for (int i = 0; i < values.length; i++) {
+            byte[] bytes = BytesBuffer.allocate(0).writeVLong(values[i])
+                                      .bytes();
+            Assert.assertEquals(lengths[i], bytes.length);
+            Assert.assertEquals(values[i],
+                                BytesBuffer.wrap(bytes).readVLong());
+        }
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            byte[] bytes = new byte[11];
+            Arrays.fill(bytes, (byte) 0xff);
+            BytesBuffer.wrap(bytes).readVLong();
+        });
+    }
+
+    @Test
+    public void testProperty() {
+        assertPropertyEquals(true, DataType.BOOLEAN, 1);
+        assertPropertyEquals((byte) -3, DataType.BYTE, 1);
+        assertPropertyEquals(0, DataType.INT, 1);
+        assertPropertyEquals(-1, DataType.INT, 1);
+        assertPropertyEquals(63, DataType.INT, 1);
+        assertPropertyEquals(Integer.MIN_VALUE, DataType.INT, 5);
+        assertPropertyEquals(1000L, DataType.LONG, 2);
+        assertPropertyEquals(Long.MIN_VALUE, DataType.LONG, 10);
+        assertPropertyEquals(3.14f, DataType.FLOAT, 4);
+        assertPropertyEquals(-3.14d, DataType.DOUBLE, 8);
+        assertPropertyEquals("", DataType.TEXT, 1);
+        assertPropertyEquals("marko", DataType.TEXT, 6);
+        assertPropertyEquals("中文", DataType.TEXT, 7);
+        assertPropertyEquals(new Date(1565000000000L), DataType.DATE, 6);
+        assertPropertyEquals(new Date(-1L), DataType.DATE, 1);
+        assertPropertyEquals(UUID.randomUUID(), DataType.UUID, 16);
+
+        PropertyKey pkey = newPropertyKey(DataType.BLOB, Cardinality.SINGLE);
+        byte[] bytes = BytesBuffer.allocate(0)
+                                  .writeProperty(pkey, new byte[]{1, 2, 3})
+                                  .bytes();
+        Assert.assertEquals(4, bytes.length);
+        Assert.assertArrayEquals(new byte[]{1, 2, 3}, (byte[])
+                                 BytesBuffer.wrap(bytes).readProperty(pkey));
+    }
+
+    @Test
+    public void testPropertyWithCollection() {
+        PropertyKey pkey = newPropertyKey(DataType.INT, Cardinality.LIST);
+        Object list = ImmutableList.of(3, 1, 3, -2);
+        byte[] bytes = BytesBuffer.allocate(0).writeProperty(pkey, list)
+                                  .bytes();
+        Assert.assertEquals(5, bytes.length);
+        Assert.assertEquals(list, BytesBuffer.wrap(bytes).readProperty(pkey));
+
+        pkey = newPropertyKey(DataType.TEXT, Cardinality.SET);
+        Object set = ImmutableSet.of("java", "c++");
+        bytes = BytesBuffer.allocate(0).writeProperty(pkey, set).bytes();
+        Assert.assertEquals(10, bytes.length);
+        Assert.assertEquals(set, BytesBuffer.wrap(bytes).readProperty(pkey));
+
+        bytes = BytesBuffer.allocate(0).writeProperty(pkey, ImmutableSet.of())
+                           .bytes();
+        Assert.assertEquals(1, bytes.length);
+        Assert.assertEquals(ImmutableSet.of(),
+                            BytesBuffer.wrap(bytes).readProperty(pkey));
+    }
+
+    private static void assertPropertyEquals(Object value, DataType dataType,
+                                             int length) {
+        PropertyKey pkey = newPropertyKey(dataType, Cardinality.SINGLE);
+        byte[] bytes = BytesBuffer.allocate(0).writeProperty(pkey, value)
+                                  .bytes();
+        Assert.assertEquals(length, bytes.length);
+        Assert.assertEquals(value, BytesBuffer.wrap(bytes).readProperty(pkey));
+    }
+
+    private static PropertyKey newPropertyKey(DataType dataType,
+                                              Cardinality cardinality) {
+        FakeObjects fakeObject = new FakeObjects();
+        return fakeObject.newPropertyKey(IdGenerator.of(1), "fake",
+                                         dataType, cardinality);
+    }
+}
@@ -19,6 +19,8 @@
 
 package com.baidu.hugegraph.unit.core;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.configuration.Configuration;
@@ -28,11 +30,17 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.backend.store.cassandra.CassandraAsyncIterator;
 import com.baidu.hugegraph.backend.store.cassandra.CassandraOptions;
 import com.baidu.hugegraph.backend.store.cassandra.CassandraStore;
 import com.baidu.hugegraph.config.HugeConfig;
 import com.baidu.hugegraph.testutil.Assert;
 import com.baidu.hugegraph.testutil.Whitebox;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.exceptions.DriverException;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
@@ -229,4 +237,95 @@ public class CassandraTest {
             Whitebox.invokeStatic(CassandraStore.class, "parseReplica", config);
         });
     }
+
+    @Test
+    public void testAsyncQueriesInOrderWithBoundedWindow() {
+        List<Statement> statements = new ArrayList<>();
+        List<ResultSet> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            statements.add(Mockito.mock(Statement.class));
+            results.add(Mockito.mock(ResultSet.class));
+        }
+
+        List<Statement> executed = new ArrayList<>();
+        CassandraAsyncIterator iter = new CassandraAsyncIterator(
+                                      statements, 3, statement -> {
+            executed.add(statement);
+            int index = statements.indexOf(statement);
+            return completedFuture(results.get(index));
+        });
+
+        // Nothing is executed before the results are requested
+        Assert.assertEquals(0, executed.size());
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(iter.hasNext());
+            // The in-flight statements never exceed the window
+            Assert.assertEquals(Math.min(i + 3, 10), executed.size());
+            Assert.assertSame(results.get(i), iter.next());
+        }
+        Assert.assertFalse(iter.hasNext());
+        Assert.assertEquals(statements, executed);
+    }
+
+    @Test
+    public void testAsyncQueriesCancelledWhenClosed() {
+        List<Statement> statements = new ArrayList<>();
+        List<ResultSetFuture> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            statements.add(Mockito.mock(Statement.class));
+            futures.add(completedFuture(Mockito.mock(ResultSet.class)));
+        }
+
+        List<Statement> executed = new ArrayList<>();
+        CassandraAsyncIterator iter = new CassandraAsyncIterator(
+                                      statements, 4, statement -> {
+            executed.add(statement);
+            return futures.get(statements.indexOf(statement));
+        });
+
+        iter.next();
+        iter.close();
+        Assert.assertFalse(iter.hasNext());
+        Assert.assertEquals(5, executed.size());
+
+        // The taken result is not cancelled but the in-flight ones are
+        Mockito.verify(futures.get(0), Mockito.never()).cancel(true);
+        for (int i = 1; i < 5; i++) {
+            Mockito.verify(futures.get(i)).cancel(true);
+        }
+    }
+
+    @Test
+    public void testAsyncQueriesWithDriverException() {
+        Statement statement = Mockito.mock(Statement.class);
+        ResultSetFuture future = Mockito.mock(ResultSetFuture.class);
+        Mockito.when(future.getUninterruptibly())
+               .thenThrow(new DriverException("Read timeout"));
+
+        CassandraAsyncIterator iter = new CassandraAsyncIterator(
+                                      ImmutableList.of(statement, statement),
+                                      2, s -> future);
+        Assert.assertThrows(BackendException.class, () -> {
+            iter.next();
+        }, e -> {
+            Assert.assertTrue(e.getMessage().startsWith("Failed to query"));
+            Assert.assertEquals(DriverException.class,
+                                e.getCause().getClass());
+        });
+        Assert.assertFalse(iter.hasNext());
+    }
+
+    @Test
+    public void testAsyncQueriesWithInvalidWindow() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            new CassandraAsyncIterator(ImmutableList.of(), 0, s -> null);
+        });
+    }
+
+    private static ResultSetFuture completedFuture(ResultSet result) {
+        ResultSetFuture future = Mockito.mock(ResultSetFuture.class);
+        Mockito.when(future.getUninterruptibly()).thenReturn(result);
+        return future;
+    }
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.cache.Cache;
+import com.baidu.hugegraph.backend.cache.CacheManager;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.serializer.BinarySerializer;
+import com.baidu.hugegraph.backend.store.BackendEntry;
+import com.baidu.hugegraph.schema.EdgeLabel;
+import com.baidu.hugegraph.schema.SchemaManager;
+import com.baidu.hugegraph.schema.VertexLabel;
+import com.baidu.hugegraph.structure.HugeEdge;
+import com.baidu.hugegraph.structure.HugeVertex;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.type.define.IdStrategy;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.unit.FakeObjects;
+
+/**
+ * Measure the throughput of deserializing edges, and compare looking up the
+ * schema by the prefixed ids of the schema cache with the schema snapshot.
+ */
+public class EdgeDecodePerfTest extends BaseUnitTest {
+
+    private static final int EDGES = 10000;
+    private static final int DECODE_TIMES = 1000 * 1000;
+
+    private HugeGraph graph;
+
+    @Before
+    public void setup() {
+        this.graph = new HugeGraph(FakeObjects.newConfig());
+        SchemaManager schema = this.graph.schema();
+        schema.propertyKey("weight").asDouble().checkExist(false).create();
+        schema.vertexLabel("person")
+              .idStrategy(IdStrategy.CUSTOMIZE_NUMBER)
+              .checkExist(false)
+              .create();
+        schema.vertexLabel("software")
+              .idStrategy(IdStrategy.CUSTOMIZE_NUMBER)
+              .checkExist(false)
+              .create();
+        schema.edgeLabel("created")
+              .sourceLabel("person").targetLabel("software")
+              .properties("weight")
+              .checkExist(false)
+              .create();
+    }
+
+    @After
+    public void teardown() throws Exception {
+        this.graph.clearBackend();
+        this.graph.close();
+    }
+
+    @Test
+    public void testDecodeEdges() {
+        BinarySerializer serializer = new BinarySerializer();
+        BackendEntry[] entries = new BackendEntry[EDGES];
+        for (int i = 0; i < EDGES; i++) {
+            entries[i] = serializer.writeEdge(this.newEdge(i));
+        }
+
+        for (int i = 0; i < DECODE_TIMES; i++) {
+            HugeVertex vertex = serializer.readVertex(this.graph,
+                                                      entries[i % EDGES]);
+            Assert.assertEquals(1, vertex.getEdges().size());
+        }
+    }
+
+    @Test
+    public void testLookupSchemaByPrefixedId() {
+        EdgeLabel created = this.graph.edgeLabel("created");
+        VertexLabel person = this.graph.vertexLabel("person");
+        Id edgeLabel = created.id();
+        Id vertexLabel = person.id();
+        // The schema cache looked up before using the schema snapshot
+        Cache idCache = CacheManager.instance().cache(
+                        "schema-id-" + this.graph.name());
+        idCache.update(IdGenerator.of(HugeType.EDGE_LABEL.string() + "-" +
+                                      edgeLabel.asString()), created);
+        idCache.update(IdGenerator.of(HugeType.VERTEX_LABEL.string() + "-" +
+                                      vertexLabel.asString()), person);
+
+        for (int i = 0; i < DECODE_TIMES; i++) {
+            Id prefixedEdgeLabel = IdGenerator.of(
+                                   HugeType.EDGE_LABEL.string() + "-" +
+                                   edgeLabel.asString());
+            Id prefixedVertexLabel = IdGenerator.of(
+                                     HugeType.VERTEX_LABEL.string() + "-" +
+                                     vertexLabel.asString());
+            EdgeLabel el = (EdgeLabel) idCache.get(prefixedEdgeLabel);
+            VertexLabel vl = (VertexLabel) idCache.get(prefixedVertexLabel);
+            Assert.assertEquals(edgeLabel, el.id());
+            Assert.assertEquals(vertexLabel, vl.id());
+        }
+    }
+
+    @Test
+    public void testLookupSchemaBySnapshot() {
+        Id edgeLabel = this.graph.edgeLabel("created").id();
+        Id vertexLabel = this.graph.vertexLabel("person").id();
+
+        for (int i = 0; i < DECODE_TIMES; i++) {
+            Assert.assertEquals(edgeLabel,
+                                this.graph.edgeLabel(edgeLabel).id());
+            Assert.assertEquals(vertexLabel,
+                                this.graph.vertexLabel(vertexLabel).id());
+        }
+    }
+
+    private HugeEdge newEdge(int i) {
+        HugeVertex source = new HugeVertex(this.graph, IdGenerator.of(i),
+                                           this.graph.vertexLabel("person"));
+        HugeVertex target = new HugeVertex(this.graph, IdGenerator.of(i + 1),
+                                           this.graph.vertexLabel("software"));
+        HugeEdge edge = new HugeEdge(this.graph, null,
+                                     this.graph.edgeLabel("created"));
+        edge.vertices(source, target);
+        edge.assignId();
+        edge.addProperty(this.graph.propertyKey("weight"), 0.5d + i);
+        return edge;
+    }
+}
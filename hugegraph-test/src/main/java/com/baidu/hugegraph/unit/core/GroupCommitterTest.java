@@ -0,0 +1,214 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.BackendException;
+import com.baidu.hugegraph.backend.store.BackendMutation;
+import com.baidu.hugegraph.backend.store.BackendStore;
+import com.baidu.hugegraph.backend.tx.GroupCommitter;
+import com.baidu.hugegraph.config.CoreOptions;
+import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.job.Job;
+import com.baidu.hugegraph.job.JobBuilder;
+import com.baidu.hugegraph.schema.SchemaManager;
+import com.baidu.hugegraph.task.HugeTask;
+import com.baidu.hugegraph.task.TaskStatus;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.type.define.IdStrategy;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.unit.FakeObjects;
+import com.google.common.collect.ImmutableList;
+
+public class GroupCommitterTest extends BaseUnitTest {
+
+    private static final int THREADS = 8;
+    private static final int TXS_PER_THREAD = 50;
+
+    @Test
+    public void testCommitConcurrently() throws Exception {
+        HugeConfig config = FakeObjects.newConfig();
+        config.addProperty(CoreOptions.GROUP_COMMIT.name(), true);
+        config.addProperty(CoreOptions.GROUP_COMMIT_MAX_WAIT.name(), 5L);
+        HugeGraph graph = new HugeGraph(config);
+        try {
+            SchemaManager schema = graph.schema();
+            schema.vertexLabel("node")
+                  .idStrategy(IdStrategy.CUSTOMIZE_NUMBER)
+                  .checkExist(false)
+                  .create();
+
+            AtomicInteger errors = new AtomicInteger();
+            runWithThreads(THREADS, i -> {
+                try {
+                    for (int j = 0; j < TXS_PER_THREAD; j++) {
+                        graph.addVertex(T.label, "node",
+                                        T.id, i * TXS_PER_THREAD + j);
+                        graph.tx().commit();
+                    }
+                } catch (Throwable e) {
+                    errors.incrementAndGet();
+                } finally {
+                    graph.closeTx();
+                }
+            });
+            Assert.assertEquals(0, errors.get());
+
+            int total = THREADS * TXS_PER_THREAD;
+            Assert.assertEquals(total, ImmutableList.copyOf(
+                                       graph.vertices()).size());
+
+            Map<String, Object> metrics = graph.groupCommitter().metrics();
+            Assert.assertEquals((long) total, metrics.get("transactions"));
+            Assert.assertEquals(0L, metrics.get("failed_groups"));
+            long groups = (long) metrics.get("groups");
+            Assert.assertTrue(groups > 0L && groups <= total);
+            Assert.assertTrue((long) metrics.get("max_group_size") >= 1L);
+        } finally {
+            graph.clearBackend();
+            graph.close();
+        }
+    }
+
+    @Test
+    public void testCommitTaskToSystemStore() throws Exception {
+        HugeConfig config = FakeObjects.newConfig();
+        config.addProperty(CoreOptions.GROUP_COMMIT.name(), true);
+        config.addProperty(CoreOptions.GROUP_COMMIT_MAX_WAIT.name(), 5L);
+        HugeGraph graph = new HugeGraph(config);
+        graph.initBackend();
+        try {
+            HugeTask<Object> task = JobBuilder.of(graph).name("test-job")
+                                              .job(new TestJob())
+                                              .schedule();
+            graph.taskScheduler().waitUntilTaskCompleted(task.id(), 10L);
+
+            // The task transaction doesn't commit by the group committer
+            Iterator<HugeTask<Object>> tasks = graph.taskScheduler()
+                                                    .findTask(
+                                                     TaskStatus.SUCCESS,
+                                                     -1L);
+            Assert.assertTrue(tasks.hasNext());
+            Assert.assertEquals(task.id(), tasks.next().id());
+            Assert.assertFalse(tasks.hasNext());
+
+            GroupCommitter committer = graph.groupCommitter();
+            Assert.assertSame(graph.loadGraphStore(), committer.store());
+            Assert.assertNotSame(graph.loadSystemStore(), committer.store());
+            Assert.assertEquals(0L, committer.metrics().get("transactions"));
+        } finally {
+            graph.clearBackend();
+            graph.close();
+        }
+    }
+
+    @Test
+    public void testFailedMutationOnlyFailsItsTransaction() throws Exception {
+        FakeObjects objects = new FakeObjects("g");
+        HugeGraph graph = objects.graph();
+        BackendStore store = Mockito.mock(BackendStore.class);
+        BackendMutation bad = new BackendMutation();
+        Mockito.doThrow(new BackendException("Bad mutation"))
+               .when(store).mutate(bad);
+
+        GroupCommitter committer = new GroupCommitter(graph, store);
+        try {
+            List<Throwable> errors = new ArrayList<>();
+            CountDownLatch latch = new CountDownLatch(1);
+            runWithThreads(THREADS, i -> {
+                try {
+                    latch.await();
+                    committer.commit(i == 0 ? bad : new BackendMutation());
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            }, latch);
+
+            Assert.assertEquals(1, errors.size());
+            Assert.assertEquals("Bad mutation", errors.get(0).getMessage());
+            Map<String, Object> metrics = committer.metrics();
+            Assert.assertEquals((long) THREADS, metrics.get("transactions"));
+            Mockito.verify(store, Mockito.atLeastOnce()).rollbackTx();
+        } finally {
+            committer.close();
+        }
+
+        Mockito.verify(store).open(graph.configuration());
+        Mockito.verify(store).close();
+        Assert.assertThrows(IllegalStateException.class, () -> {
+            committer.commit(new BackendMutation());
+        });
+    }
+
+    private static void runWithThreads(int threads, Task task,
+                                       CountDownLatch... latches)
+                                       throws InterruptedException {
+        List<Thread> list = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    task.run(index);
+                } catch (InterruptedException ignored) {
+                    // pass
+                }
+            });
+            thread.start();
+            list.add(thread);
+        }
+        for (CountDownLatch latch : latches) {
+            latch.countDown();
+        }
+        for (Thread thread : list) {
+            thread.join();
+        }
+    }
+
+    private static class TestJob extends Job<Object> {
+
+        @Override
+        public String type() {
+            return "test";
+        }
+
+        @Override
+        public Object execute() {
+            return "done";
+        }
+    }
+
+    private interface Task {
+
+        void run(int index) throws InterruptedException;
+    }
+}
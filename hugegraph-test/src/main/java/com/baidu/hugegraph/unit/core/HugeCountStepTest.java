@@ -0,0 +1,244 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.serializer.AbstractSerializer;
+import com.baidu.hugegraph.backend.serializer.SerializerFactory;
+import com.baidu.hugegraph.backend.tx.GraphTransaction;
+import com.baidu.hugegraph.config.CoreOptions;
+import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.schema.SchemaManager;
+import com.baidu.hugegraph.structure.HugeEdge;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.traversal.optimize.HugeCountStep;
+import com.baidu.hugegraph.traversal.optimize.HugeVertexCountStep;
+import com.baidu.hugegraph.type.define.IdStrategy;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.unit.FakeObjects;
+
+public class HugeCountStepTest extends BaseUnitTest {
+
+    private static final int PERSONS = 10;
+    private static final int SOFTWARES = 3;
+
+    private HugeGraph graph;
+
+    @Before
+    public void setup() {
+        HugeConfig config = FakeObjects.newConfig();
+        config.addProperty(CoreOptions.QUERY_OPTIMIZE_AGGR_BY_INDEX.name(),
+                           true);
+        this.initGraph(config);
+    }
+
+    @After
+    public void teardown() throws Exception {
+        this.graph.clearBackend();
+        this.graph.close();
+    }
+
+    private void initGraph(HugeConfig config) {
+        this.graph = new HugeGraph(config);
+        // Init the schema of tasks, which are used to rebuild index
+        this.graph.initBackend();
+        SchemaManager schema = this.graph.schema();
+        schema.propertyKey("city").asText().checkExist(false).create();
+        schema.propertyKey("since").asInt().checkExist(false).create();
+        schema.vertexLabel("person")
+              .idStrategy(IdStrategy.CUSTOMIZE_NUMBER)
+              .properties("city")
+              .nullableKeys("city")
+              .checkExist(false)
+              .create();
+        schema.vertexLabel("software")
+              .idStrategy(IdStrategy.CUSTOMIZE_NUMBER)
+              .checkExist(false)
+              .create();
+        schema.indexLabel("personByCity").onV("person").secondary()
+              .by("city").checkExist(false).create();
+        schema.edgeLabel("knows")
+              .sourceLabel("person").targetLabel("person")
+              .properties("since")
+              .checkExist(false)
+              .create();
+        schema.indexLabel("knowsBySince").onE("knows").secondary()
+              .by("since").checkExist(false).create();
+        schema.edgeLabel("created")
+              .sourceLabel("person").targetLabel("software")
+              .checkExist(false)
+              .create();
+
+        // Person i knows person i+1, and created software i % SOFTWARES
+        for (int i = 0; i < SOFTWARES; i++) {
+            this.graph.addVertex(T.label, "software", T.id, 100 + i);
+        }
+        for (int i = 0; i < PERSONS; i++) {
+            this.graph.addVertex(T.label, "person", T.id, i,
+                                 "city", i % 2 == 0 ? "Beijing" : "Shanghai");
+        }
+        for (int i = 0; i < PERSONS; i++) {
+            Vertex person = this.graph.vertices(i).next();
+            if (i + 1 < PERSONS) {
+                person.addEdge("knows", this.graph.vertices(i + 1).next(),
+                               "since", i % 2);
+            }
+            person.addEdge("created",
+                           this.graph.vertices(100 + i % SOFTWARES).next());
+        }
+        this.graph.tx().commit();
+    }
+
+    @Test
+    public void testCountVertices() {
+        GraphTraversalSource g = this.graph.traversal();
+        Assert.assertTrue(hasStep(g.V().count(), HugeCountStep.class));
+
+        Assert.assertEquals(PERSONS + SOFTWARES, count(g.V().count()));
+        Assert.assertEquals(PERSONS, count(g.V().hasLabel("person").count()));
+        Assert.assertEquals(PERSONS + SOFTWARES,
+                            count(g.V().hasLabel("person", "software")
+                                   .count()));
+        Assert.assertEquals(PERSONS / 2,
+                            count(g.V().has("city", "Beijing").count()));
+        Assert.assertEquals(0L, count(g.V().has("city", "Paris").count()));
+    }
+
+    @Test
+    public void testCountEdges() {
+        GraphTraversalSource g = this.graph.traversal();
+        Assert.assertTrue(hasStep(g.E().count(), HugeCountStep.class));
+
+        Assert.assertEquals(PERSONS - 1 + PERSONS, count(g.E().count()));
+        Assert.assertEquals(PERSONS - 1,
+                            count(g.E().hasLabel("knows").count()));
+        Assert.assertEquals(PERSONS,
+                            count(g.E().hasLabel("created").count()));
+    }
+
+    @Test
+    public void testCountAdjacentEdgesAndVertices() {
+        GraphTraversalSource g = this.graph.traversal();
+        Assert.assertTrue(hasStep(g.V(0).out().count(),
+                                  HugeVertexCountStep.class));
+
+        Assert.assertEquals(2L, count(g.V(0).outE().count()));
+        Assert.assertEquals(2L, count(g.V(0).out().count()));
+        Assert.assertEquals(1L, count(g.V(0).out("knows").count()));
+        Assert.assertEquals(2L, count(g.V(1).both("knows").count()));
+        Assert.assertEquals(4L, count(g.V(100).in().count()));
+        Assert.assertEquals(6L, count(g.V(100, 101).in().in().count()));
+        Assert.assertEquals(PERSONS * 2 - 1,
+                            count(g.V().hasLabel("person").out().count()));
+    }
+
+    @Test
+    public void testCountNotPushedDown() {
+        GraphTraversalSource g = this.graph.traversal();
+        // The labeled step may be referred to by the label
+        Assert.assertFalse(hasStep(g.V().as("a").count(),
+                                   HugeCountStep.class));
+        Assert.assertEquals(PERSONS + SOFTWARES,
+                            count(g.V().as("a").count()));
+
+        // Count with limit or has-containers by iterating the results
+        Assert.assertEquals(3L, count(g.V().limit(3).count()));
+        Assert.assertEquals(1L, count(g.V(0).out().limit(1).count()));
+        Assert.assertEquals(1L, count(g.V(0).out()
+                                       .has("city", "Shanghai").count()));
+    }
+
+    @Test
+    public void testCountByPropertyWithoutAggregateByIndex() throws Exception {
+        this.teardown();
+        // Not count by the property index with the default config
+        this.initGraph(FakeObjects.newConfig());
+
+        // Remove an edge from the store but leave its index
+        GraphTransaction tx = this.graph.graphTransaction();
+        HugeEdge edge = (HugeEdge) this.graph.traversal().V(0).outE("knows")
+                                       .next();
+        AbstractSerializer serializer = SerializerFactory.serializer(
+                                        this.graph.configuration()
+                                                  .get(CoreOptions.SERIALIZER));
+        edge = edge.prepareRemoved();
+        tx.doRemove(serializer.writeEdge(edge));
+        tx.doRemove(serializer.writeEdge(edge.switchOwner()));
+        this.graph.tx().commit();
+
+        // Count by iterating the edges instead of the left index
+        GraphTraversalSource g = this.graph.traversal();
+        Assert.assertTrue(hasStep(g.E().has("since", 0).count(),
+                                  HugeCountStep.class));
+        Assert.assertEquals(PERSONS / 2 - 1,
+                            count(g.E().has("since", 0).count()));
+    }
+
+    @Test
+    public void testCountWithHiddenVertices() {
+        this.graph.variables().set("key", "value");
+        this.graph.tx().commit();
+
+        GraphTraversalSource g = this.graph.traversal();
+        Assert.assertEquals(PERSONS + SOFTWARES, count(g.V().count()));
+    }
+
+    @Test
+    public void testCountWithUncommittedChanges() {
+        GraphTraversalSource g = this.graph.traversal();
+        this.graph.addVertex(T.label, "person", T.id, 1000, "city", "Beijing");
+        this.graph.vertices(0).next().remove();
+
+        Assert.assertEquals(PERSONS + SOFTWARES, count(g.V().count()));
+        Assert.assertEquals(PERSONS / 2,
+                            count(g.V().has("city", "Beijing").count()));
+        Assert.assertEquals(PERSONS - 2 + PERSONS - 1, count(g.E().count()));
+
+        this.graph.tx().commit();
+        Assert.assertEquals(PERSONS + SOFTWARES, count(g.V().count()));
+        Assert.assertEquals(PERSONS / 2,
+                            count(g.V().has("city", "Beijing").count()));
+        Assert.assertEquals(PERSONS - 2 + PERSONS - 1, count(g.E().count()));
+    }
+
+    private static long count(Traversal<?, Long> traversal) {
+        return traversal.next();
+    }
+
+    private static boolean hasStep(Traversal<?, Long> traversal,
+                                   Class<?> clazz) {
+        traversal.asAdmin().applyStrategies();
+        for (Step<?, ?> step : traversal.asAdmin().getSteps()) {
+            if (clazz.isInstance(step)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,455 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baidu.hugegraph.HugeException;
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.config.CoreOptions;
+import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.schema.EdgeLabel;
+import com.baidu.hugegraph.schema.SchemaManager;
+import com.baidu.hugegraph.structure.HugeVertex;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.traversal.algorithm.CustomizePathsTraverser;
+import com.baidu.hugegraph.traversal.algorithm.CustomizePathsTraverser.Step;
+import com.baidu.hugegraph.traversal.algorithm.CustomizePathsTraverser.WeightPath;
+import com.baidu.hugegraph.traversal.algorithm.HugeTraverser;
+import com.baidu.hugegraph.traversal.algorithm.HugeTraverser.Path;
+import com.baidu.hugegraph.traversal.algorithm.PersonalRankTraverser;
+import com.baidu.hugegraph.traversal.algorithm.PersonalRankTraverser.WithLabel;
+import com.baidu.hugegraph.type.define.Directions;
+import com.baidu.hugegraph.type.define.IdStrategy;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.unit.FakeObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+public class HugeTraverserTest extends BaseUnitTest {
+
+    // A tree with 10 children per vertex, 3 levels under the root
+    private static final int FANOUT = 10;
+    private static final int LEVELS = 3;
+    private static final int THREADS = 8;
+
+    private HugeGraph graph;
+    private Id root;
+
+    @Before
+    public void setup() {
+        HugeConfig config = FakeObjects.newConfig();
+        config.addProperty(CoreOptions.TRAVERSER_THREADS.name(), THREADS);
+        this.graph = new HugeGraph(config);
+        SchemaManager schema = this.graph.schema();
+        schema.vertexLabel("node")
+              .idStrategy(IdStrategy.CUSTOMIZE_NUMBER)
+              .checkExist(false)
+              .create();
+        schema.edgeLabel("link")
+              .sourceLabel("node").targetLabel("node")
+              .checkExist(false)
+              .create();
+
+        Vertex root = this.graph.addVertex(T.label, "node", T.id, 0);
+        this.addChildren(root, 0, LEVELS);
+        this.graph.tx().commit();
+        this.root = IdGenerator.of(0);
+    }
+
+    @After
+    public void teardown() throws Exception {
+        this.graph.clearBackend();
+        this.graph.close();
+    }
+
+    private void addChildren(Vertex parent, long id, int levels) {
+        if (levels == 0) {
+            return;
+        }
+        for (int i = 1; i <= FANOUT; i++) {
+            long childId = id * FANOUT + i;
+            Vertex child = this.graph.addVertex(T.label, "node",
+                                                T.id, childId);
+            parent.addEdge("link", child);
+            this.addChildren(child, childId, levels - 1);
+        }
+    }
+
+    @Test
+    public void testKoutWithParallelism() {
+        HugeTraverser traverser = new HugeTraverser(this.graph);
+        long noLimit = HugeTraverser.NO_LIMIT;
+        Set<Id> expected = traverser.kout(this.root, Directions.OUT, null,
+                                          3, true, noLimit, noLimit, noLimit);
+        Assert.assertEquals(1000, expected.size());
+
+        Set<Id> actual = traverser.kout(this.root, Directions.OUT, null, 3,
+                                        true, noLimit, noLimit, noLimit, 4);
+        Assert.assertEquals(expected, actual);
+
+        // Back to the root and its children through both directions
+        expected = traverser.kout(this.root, Directions.BOTH, null,
+                                  2, false, noLimit, noLimit, noLimit);
+        actual = traverser.kout(this.root, Directions.BOTH, null, 2,
+                                false, noLimit, noLimit, noLimit, 4);
+        Assert.assertEquals(expected, actual);
+        Assert.assertTrue(actual.contains(this.root));
+    }
+
+    @Test
+    public void testKoutWithParallelismAndLimit() {
+        HugeTraverser traverser = new HugeTraverser(this.graph);
+        long noLimit = HugeTraverser.NO_LIMIT;
+        for (long limit : new long[]{1L, 7L, 100L, 999L}) {
+            Set<Id> ids = traverser.kout(this.root, Directions.OUT, null, 3,
+                                         true, noLimit, 2000L, limit, 8);
+            Assert.assertEquals(limit, ids.size());
+        }
+
+        // Degree is applied to each vertex
+        Set<Id> expected = traverser.kout(this.root, Directions.OUT, null, 3,
+                                          true, 2L, noLimit, noLimit);
+        Set<Id> actual = traverser.kout(this.root, Directions.OUT, null, 3,
+                                        true, 2L, noLimit, noLimit, 8);
+        Assert.assertEquals(expected.size(), actual.size());
+
+        // Capacity is checked with the merged results of each level
+        Assert.assertThrows(HugeException.class, () -> {
+            traverser.kout(this.root, Directions.OUT, null, 3, true,
+                           noLimit, 105L, 100L, 4);
+        });
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            traverser.kout(this.root, Directions.OUT, null, 3, true,
+                           noLimit, noLimit, noLimit, 0);
+        });
+        // The parallelism is bounded by the traverser threads
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            traverser.kout(this.root, Directions.OUT, null, 3, true,
+                           noLimit, noLimit, noLimit, THREADS + 1);
+        }, e -> {
+            Assert.assertEquals("The parallelism must be <= 8 (the size " +
+                                "of traverser threads), but got 9",
+                                e.getMessage());
+        });
+    }
+
+    @Test
+    public void testKneighborWithParallelism() {
+        HugeTraverser traverser = new HugeTraverser(this.graph);
+        long noLimit = HugeTraverser.NO_LIMIT;
+        Set<Id> expected = traverser.kneighbor(this.root, Directions.OUT,
+                                               null, 3, noLimit, noLimit);
+        Assert.assertEquals(1111, expected.size());
+
+        Set<Id> actual = traverser.kneighbor(this.root, Directions.OUT, null,
+                                             3, noLimit, noLimit, 4);
+        Assert.assertEquals(expected, actual);
+
+        for (long limit : new long[]{1L, 11L, 500L, 1110L}) {
+            actual = traverser.kneighbor(this.root, Directions.OUT, null, 3,
+                                         noLimit, limit, 8);
+            Assert.assertEquals(limit, actual.size());
+        }
+    }
+
+    @Test
+    public void testDensePersonalRank() {
+        SchemaManager schema = this.graph.schema();
+        schema.vertexLabel("person")
+              .idStrategy(IdStrategy.CUSTOMIZE_NUMBER)
+              .checkExist(false)
+              .create();
+        schema.vertexLabel("movie")
+              .idStrategy(IdStrategy.CUSTOMIZE_NUMBER)
+              .checkExist(false)
+              .create();
+        schema.edgeLabel("rate")
+              .sourceLabel("person").targetLabel("movie")
+              .checkExist(false)
+              .create();
+
+        Random random = new Random(0L);
+        Vertex[] persons = new Vertex[50];
+        Vertex[] movies = new Vertex[30];
+        for (int i = 0; i < persons.length; i++) {
+            persons[i] = this.graph.addVertex(T.label, "person",
+                                              T.id, 10000 + i);
+        }
+        for (int i = 0; i < movies.length; i++) {
+            movies[i] = this.graph.addVertex(T.label, "movie",
+                                             T.id, 20000 + i);
+        }
+        for (Vertex person : persons) {
+            for (int i = 0; i < 4; i++) {
+                Vertex movie = movies[random.nextInt(movies.length)];
+                person.addEdge("rate", movie);
+            }
+        }
+        this.graph.tx().commit();
+
+        for (WithLabel withLabel : WithLabel.values()) {
+            PersonalRankTraverser traverser = new PersonalRankTraverser(
+                                              this.graph, 0.85, 10000L, 5);
+            Id source = IdGenerator.of(10000);
+            Map<Id, Double> expected = traverser.personalRank(source, "rate",
+                                                              withLabel);
+            Map<Id, Double> actual = traverser.densePersonalRank(source,
+                                                                 "rate",
+                                                                 withLabel,
+                                                                 0.0);
+            Assert.assertFalse(actual.isEmpty());
+            Assert.assertEquals(expected.keySet(), actual.keySet());
+            for (Map.Entry<Id, Double> e : expected.entrySet()) {
+                Assert.assertEquals(e.getValue(), actual.get(e.getKey()),
+                                    1e-9);
+            }
+            for (double rank : actual.values()) {
+                Assert.assertTrue(rank > 0.0);
+            }
+
+            // Start from the other label
+            source = IdGenerator.of(20000);
+            expected = traverser.personalRank(source, "rate", withLabel);
+            actual = traverser.densePersonalRank(source, "rate",
+                                                 withLabel, 0.0);
+            Assert.assertEquals(expected.keySet(), actual.keySet());
+        }
+
+        // Stop early with a large threshold
+        PersonalRankTraverser traverser = new PersonalRankTraverser(
+                                          this.graph, 0.85, 10000L, 50);
+        Id source = IdGenerator.of(10000);
+        Map<Id, Double> ranks = traverser.densePersonalRank(
+                                source, "rate", WithLabel.BOTH_LABEL, 0.1);
+        Map<Id, Double> fullRanks = traverser.densePersonalRank(
+                                    source, "rate", WithLabel.BOTH_LABEL, 0.0);
+        Assert.assertFalse(ranks.isEmpty());
+        Assert.assertNotEquals(fullRanks, ranks);
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            traverser.densePersonalRank(source, "rate",
+                                        WithLabel.BOTH_LABEL, -1.0);
+        });
+    }
+
+    @Test
+    public void testStreamingCustomizedPaths() {
+        SchemaManager schema = this.graph.schema();
+        schema.propertyKey("weight").asDouble().checkExist(false).create();
+        schema.vertexLabel("city")
+              .idStrategy(IdStrategy.CUSTOMIZE_NUMBER)
+              .checkExist(false)
+              .create();
+        schema.edgeLabel("road")
+              .sourceLabel("city").targetLabel("city")
+              .properties("weight")
+              .checkExist(false)
+              .create();
+
+        Random random = new Random(0L);
+        Vertex[] cities = new Vertex[40];
+        for (int i = 0; i < cities.length; i++) {
+            cities[i] = this.graph.addVertex(T.label, "city",
+                                             T.id, 30000 + i);
+        }
+        for (int i = 0; i < cities.length; i++) {
+            for (int j = 0; j < 5; j++) {
+                Vertex target = cities[random.nextInt(cities.length)];
+                if (target != cities[i]) {
+                    cities[i].addEdge("road", target,
+                                      "weight", random.nextDouble());
+                }
+            }
+        }
+        this.graph.tx().commit();
+
+        EdgeLabel road = this.graph.edgeLabel("road");
+        List<HugeVertex> sources = ImmutableList.of(
+                                   (HugeVertex) this.graph.vertices(30000)
+                                                          .next());
+        long noLimit = HugeTraverser.NO_LIMIT;
+        List<Step> steps = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            steps.add(new Step(Directions.OUT,
+                               ImmutableMap.of(road.id(), "road"),
+                               ImmutableMap.of(),
+                               this.graph.propertyKey("weight"),
+                               1.0, noLimit, noLimit));
+        }
+        CustomizePathsTraverser traverser = new CustomizePathsTraverser(
+                                            this.graph);
+
+        // Keep the top paths of the last step
+        for (boolean incr : new boolean[]{true, false}) {
+            List<Path> all = traverser.customizedPaths(sources, steps, true,
+                                                       noLimit, noLimit);
+            Assert.assertTrue(all.size() > 10);
+            List<Path> expected = CustomizePathsTraverser.topNPath(
+                                  all, incr, 10L);
+            List<Path> actual = traverser.streamingCustomizedPaths(
+                                sources, steps, true, incr, noLimit, 10L);
+            Assert.assertEquals(10, actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                Assert.assertEquals(
+                       ((WeightPath) expected.get(i)).totalWeight(),
+                       ((WeightPath) actual.get(i)).totalWeight(), 1e-9);
+            }
+        }
+
+        // Stop at limit if not sorted
+        Set<List<Id>> allPaths = new HashSet<>();
+        for (Path path : traverser.customizedPaths(sources, steps, false,
+                                                   noLimit, noLimit)) {
+            allPaths.add(path.vertices());
+        }
+        List<Path> paths = traverser.streamingCustomizedPaths(
+                           sources, steps, false, false, noLimit, 7L);
+        Assert.assertEquals(7, paths.size());
+        for (Path path : paths) {
+            Assert.assertTrue(allPaths.contains(path.vertices()));
+        }
+
+        // Sample 2 adjacent nodes of each vertex
+        List<Step> sampleSteps = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            sampleSteps.add(new Step(Directions.OUT,
+                                     ImmutableMap.of(road.id(), "road"),
+                                     ImmutableMap.of(), null,
+                                     1.0, noLimit, 2L));
+        }
+        paths = traverser.streamingCustomizedPaths(sources, sampleSteps,
+                                                   false, false, noLimit,
+                                                   noLimit);
+        Assert.assertTrue(paths.size() > 0 && paths.size() <= 8);
+        for (Path path : paths) {
+            Assert.assertTrue(allPaths.contains(path.vertices()));
+        }
+
+        Assert.assertThrows(HugeException.class, () -> {
+            traverser.streamingCustomizedPaths(sources, steps, true, true,
+                                               10L, noLimit);
+        });
+    }
+
+    @Test
+    public void testCustomizedPathsWithPropertyFilter() {
+        SchemaManager schema = this.graph.schema();
+        schema.propertyKey("level").asInt().checkExist(false).create();
+        schema.propertyKey("tag").asText().checkExist(false).create();
+        schema.vertexLabel("user")
+              .idStrategy(IdStrategy.CUSTOMIZE_NUMBER)
+              .checkExist(false)
+              .create();
+        schema.edgeLabel("rate")
+              .sourceLabel("user").targetLabel("user")
+              .properties("level", "tag")
+              .multiTimes().sortKeys("level")
+              .checkExist(false)
+              .create();
+
+        Vertex source = this.graph.addVertex(T.label, "user", T.id, 50000);
+        for (int i = 1; i <= 30; i++) {
+            Vertex target = this.graph.addVertex(T.label, "user",
+                                                 T.id, 50000 + i);
+            source.addEdge("rate", target, "level", i % 5,
+                           "tag", i % 2 == 0 ? "even" : "odd");
+        }
+        this.graph.tx().commit();
+
+        EdgeLabel rate = this.graph.edgeLabel("rate");
+        List<HugeVertex> sources = ImmutableList.of(
+                                   (HugeVertex) this.graph.vertices(50000)
+                                                          .next());
+        CustomizePathsTraverser traverser = new CustomizePathsTraverser(
+                                            this.graph);
+        long noLimit = HugeTraverser.NO_LIMIT;
+
+        // Filter by sort-keys, with single value and multiple values
+        Assert.assertEquals(ImmutableSet.of(3, 8, 13, 18, 23, 28),
+                            targetsOfPaths(traverser, sources, rate,
+                                           ImmutableMap.of("level", 3),
+                                           noLimit));
+        Assert.assertEquals(ImmutableSet.of(1, 6, 11, 16, 21, 26,
+                                            4, 9, 14, 19, 24, 29),
+                            targetsOfPaths(traverser, sources, rate,
+                                           ImmutableMap.of("level",
+                                                           ImmutableList.of(
+                                                           1, 4)),
+                                           noLimit));
+
+        // Filter by sort-keys and other properties in memory
+        Assert.assertEquals(ImmutableSet.of(8, 18, 28),
+                            targetsOfPaths(traverser, sources, rate,
+                                           ImmutableMap.of("level", 3,
+                                                           "tag", "even"),
+                                           noLimit));
+        Assert.assertEquals(15,
+                            targetsOfPaths(traverser, sources, rate,
+                                           ImmutableMap.of("tag", "odd"),
+                                           noLimit).size());
+
+        // Limit is applied to the filtered edges
+        Assert.assertEquals(4,
+                            targetsOfPaths(traverser, sources, rate,
+                                           ImmutableMap.of("tag", "odd"),
+                                           4L).size());
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            targetsOfPaths(traverser, sources, rate,
+                           ImmutableMap.of("level", "high"), noLimit);
+        });
+    }
+
+    private static Set<Integer> targetsOfPaths(CustomizePathsTraverser
+                                               traverser,
+                                               List<HugeVertex> sources,
+                                               EdgeLabel label,
+                                               Map<String, Object> properties,
+                                               long degree) {
+        long noLimit = HugeTraverser.NO_LIMIT;
+        Step step = new Step(Directions.OUT,
+                             ImmutableMap.of(label.id(), label.name()),
+                             properties, null, 1.0, degree, noLimit);
+        Set<Integer> targets = new HashSet<>();
+        for (Path path : traverser.customizedPaths(sources,
+                                                   ImmutableList.of(step),
+                                                   false, noLimit, noLimit)) {
+            Id target = path.vertices().get(1);
+            targets.add((int) (target.asLong() - 50000L));
+        }
+        return targets;
+    }
+}
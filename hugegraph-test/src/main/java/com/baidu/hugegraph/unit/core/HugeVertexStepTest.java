@@ -0,0 +1,183 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.config.CoreOptions;
+import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.schema.SchemaManager;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.traversal.optimize.HugeVertexStep;
+import com.baidu.hugegraph.traversal.optimize.HugeVertexStepByBatch;
+import com.baidu.hugegraph.type.define.IdStrategy;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.unit.FakeObjects;
+
+public class HugeVertexStepTest extends BaseUnitTest {
+
+    private static final int FANOUT = 5;
+    private static final int BATCH_SIZE = 4;
+
+    private HugeGraph graph;
+
+    @Before
+    public void setup() {
+        HugeConfig config = FakeObjects.newConfig();
+        config.addProperty(CoreOptions.QUERY_ADJACENT_BATCH_SIZE.name(),
+                           BATCH_SIZE);
+        this.graph = new HugeGraph(config);
+        SchemaManager schema = this.graph.schema();
+        schema.propertyKey("level").asInt().checkExist(false).create();
+        schema.vertexLabel("node")
+              .idStrategy(IdStrategy.CUSTOMIZE_NUMBER)
+              .properties("level")
+              .checkExist(false)
+              .create();
+        schema.edgeLabel("link")
+              .sourceLabel("node").targetLabel("node")
+              .checkExist(false)
+              .create();
+
+        // A tree with 3 levels, the children of vertex n are n*10+1..n*10+5
+        Vertex root = this.graph.addVertex(T.label, "node", T.id, 0,
+                                           "level", 0);
+        this.addChildren(root, 0, 1);
+        this.graph.tx().commit();
+    }
+
+    @After
+    public void teardown() throws Exception {
+        this.graph.clearBackend();
+        this.graph.close();
+    }
+
+    private void addChildren(Vertex parent, long id, int level) {
+        if (level > 3) {
+            return;
+        }
+        for (int i = 1; i <= FANOUT; i++) {
+            long childId = id * 10 + i;
+            Vertex child = this.graph.addVertex(T.label, "node",
+                                                T.id, childId,
+                                                "level", level);
+            parent.addEdge("link", child);
+            this.addChildren(child, childId, level + 1);
+        }
+    }
+
+    @Test
+    public void testAdjacentVerticesByBatch() {
+        GraphTraversal<Vertex, Vertex> traversal;
+        traversal = this.graph.traversal().V(1, 2, 3, 4, 5).out().out();
+        traversal.asAdmin().applyStrategies();
+        int batchSteps = 0;
+        for (Step<?, ?> step : traversal.asAdmin().getSteps()) {
+            if (step instanceof HugeVertexStepByBatch) {
+                batchSteps++;
+            }
+        }
+        Assert.assertEquals(2, batchSteps);
+
+        List<Object> expected = new ArrayList<>();
+        for (Vertex vertex : this.adjacentVertices(1, 2, 3, 4, 5)) {
+            for (Vertex target : this.adjacentVertices(vertex.id())) {
+                expected.add(target.id());
+            }
+        }
+        Assert.assertEquals(FANOUT * FANOUT * FANOUT, expected.size());
+        Assert.assertEquals(expected, this.graph.traversal()
+                                                .V(1, 2, 3, 4, 5).out().out()
+                                                .id().toList());
+
+        // Results are emitted in the order of traversers across batches
+        expected = new ArrayList<>();
+        for (Vertex target : this.adjacentVertices(5, 4, 3, 2, 1, 0)) {
+            expected.add(target.id());
+        }
+        Assert.assertEquals(FANOUT * 6, expected.size());
+        Assert.assertEquals(expected, this.graph.traversal()
+                                                .V(5, 4, 3, 2, 1, 0).out()
+                                                .id().toList());
+    }
+
+    @Test
+    public void testAdjacentVerticesByBatchWithConditions() {
+        List<Object> expected = new ArrayList<>();
+        for (Vertex vertex : this.adjacentVertices(0)) {
+            for (Vertex target : this.adjacentVertices(vertex.id())) {
+                if (((Id) target.id()).asLong() % 2 == 0) {
+                    expected.add(target.id());
+                }
+            }
+        }
+        List<Object> actual = this.graph.traversal().V(0).out().out()
+                                  .has("level", 2)
+                                  .filter(t -> ((Id) t.get().id()).asLong() % 2 == 0)
+                                  .id().toList();
+        Assert.assertEquals(expected, actual);
+
+        Assert.assertEquals(3L, (long) this.graph.traversal().V(1, 2, 3)
+                                                 .out().limit(3)
+                                                 .count().next());
+        Assert.assertEquals(0L, (long) this.graph.traversal().V(1, 2, 3)
+                                                 .out().has("level", 3)
+                                                 .count().next());
+    }
+
+    @Test
+    public void testEdgesNotByBatch() {
+        GraphTraversal<Vertex, ?> traversal;
+        traversal = this.graph.traversal().V(1).outE();
+        traversal.asAdmin().applyStrategies();
+        for (Step<?, ?> step : traversal.asAdmin().getSteps()) {
+            Assert.assertFalse(step instanceof HugeVertexStepByBatch);
+            if (step instanceof HugeVertexStep) {
+                return;
+            }
+        }
+        Assert.fail("Expect a HugeVertexStep");
+    }
+
+    private List<Vertex> adjacentVertices(Object... ids) {
+        List<Vertex> vertices = new ArrayList<>();
+        Iterator<Vertex> iter = this.graph.vertices(ids);
+        while (iter.hasNext()) {
+            Iterator<Vertex> adjacent = iter.next().vertices(Direction.OUT);
+            while (adjacent.hasNext()) {
+                vertices.add(adjacent.next());
+            }
+        }
+        return vertices;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.id.IdSet;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+
+public class IdSetTest extends BaseUnitTest {
+
+    @Test
+    public void testAddAndContains() {
+        IdSet ids = new IdSet();
+        Assert.assertTrue(ids.add(IdGenerator.of(1L)));
+        Assert.assertFalse(ids.add(IdGenerator.of(1L)));
+        Assert.assertTrue(ids.add(IdGenerator.of(-1L)));
+        Assert.assertTrue(ids.add(IdGenerator.of(Long.MAX_VALUE)));
+        Assert.assertTrue(ids.add(IdGenerator.of(Long.MIN_VALUE)));
+        Assert.assertTrue(ids.add(IdGenerator.of("1")));
+        Assert.assertFalse(ids.add(IdGenerator.of("1")));
+        Assert.assertEquals(5, ids.size());
+
+        Assert.assertTrue(ids.contains(IdGenerator.of(1L)));
+        Assert.assertTrue(ids.contains(IdGenerator.of(-1L)));
+        Assert.assertTrue(ids.contains(IdGenerator.of(Long.MAX_VALUE)));
+        Assert.assertTrue(ids.contains(IdGenerator.of(Long.MIN_VALUE)));
+        Assert.assertTrue(ids.contains(IdGenerator.of("1")));
+        Assert.assertFalse(ids.contains(IdGenerator.of(2L)));
+        Assert.assertFalse(ids.contains(IdGenerator.of("2")));
+        Assert.assertFalse(ids.contains("1"));
+
+        Set<Id> expected = new HashSet<>();
+        expected.add(IdGenerator.of(1L));
+        expected.add(IdGenerator.of(-1L));
+        expected.add(IdGenerator.of(Long.MAX_VALUE));
+        expected.add(IdGenerator.of(Long.MIN_VALUE));
+        expected.add(IdGenerator.of("1"));
+        Assert.assertEquals(expected, new HashSet<>(ids));
+    }
+
+    @Test
+    public void testSparseAndDenseContainers() {
+        Random random = new Random(0L);
+        IdSet ids = new IdSet();
+        Set<Id> expected = new HashSet<>();
+        // Dense ids in [0, 65536) and sparse ids in a large range
+        for (int i = 0; i < 100000; i++) {
+            long value = i % 2 == 0 ? random.nextInt(1 << 16) :
+                         random.nextInt(Integer.MAX_VALUE);
+            Id id = IdGenerator.of(value);
+            Assert.assertEquals(expected.add(id), ids.add(id));
+        }
+        Assert.assertEquals(expected.size(), ids.size());
+        for (Id id : expected) {
+            Assert.assertTrue(ids.contains(id));
+        }
+        for (int i = 0; i < 1000; i++) {
+            Id id = IdGenerator.of(random.nextInt(Integer.MAX_VALUE));
+            Assert.assertEquals(expected.contains(id), ids.contains(id));
+        }
+
+        Set<Id> actual = new HashSet<>();
+        for (Id id : ids) {
+            Assert.assertTrue(actual.add(id));
+        }
+        Assert.assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.LeasedCounter;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.store.BackendStore;
+import com.baidu.hugegraph.config.CoreOptions;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.type.HugeType;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.unit.FakeObjects;
+
+public class LeasedCounterTest extends BaseUnitTest {
+
+    private HugeGraph graph;
+    private BackendStore store;
+
+    @Before
+    public void setup() {
+        this.graph = new HugeGraph(FakeObjects.newConfig());
+        this.store = this.graph.schemaTransaction().store();
+    }
+
+    @After
+    public void teardown() throws Exception {
+        this.graph.clearBackend();
+        this.graph.close();
+    }
+
+    @Test
+    public void testNextIdByBlocks() {
+        LeasedCounter counter = new LeasedCounter(1, 10);
+        long base = this.store.getCounter(HugeType.TASK);
+
+        for (int i = 1; i <= 25; i++) {
+            Id id = counter.nextId(this.store, HugeType.TASK);
+            Assert.assertEquals(base + i, id.asLong());
+        }
+        // The third block is leased
+        Assert.assertEquals(base + 30L, this.store.getCounter(HugeType.TASK));
+
+        base = this.store.getCounter(HugeType.PROPERTY_KEY);
+        for (int i = 1; i <= 3; i++) {
+            Id id = counter.nextId(this.store, HugeType.PROPERTY_KEY);
+            Assert.assertEquals(base + i, id.asLong());
+            Assert.assertEquals(base + i,
+                                this.store.getCounter(HugeType.PROPERTY_KEY));
+        }
+    }
+
+    @Test
+    public void testNextIdByMultiInstancesConcurrently() {
+        // The counters sharing a store act as multiple server instances
+        LeasedCounter counter1 = new LeasedCounter(1, 7);
+        LeasedCounter counter2 = new LeasedCounter(1, 13);
+        Set<Id> ids = ConcurrentHashMap.newKeySet();
+        final int THREADS = 8;
+        final int TIMES = 1000;
+
+        runWithThreads(THREADS, () -> {
+            for (int i = 0; i < TIMES; i++) {
+                LeasedCounter counter = i % 2 == 0 ? counter1 : counter2;
+                ids.add(counter.nextId(this.store, HugeType.TASK));
+            }
+        });
+        Assert.assertEquals(THREADS * TIMES, ids.size());
+    }
+
+    @Test
+    public void testSetCounterLowest() {
+        LeasedCounter counter = new LeasedCounter(5, 5);
+        Id id = counter.nextId(this.store, HugeType.VERTEX_LABEL);
+
+        // The ids left in the leased block are discarded
+        long lowest = id.asLong() + 1000L;
+        counter.setCounterLowest(this.store, HugeType.VERTEX_LABEL, lowest);
+        Assert.assertEquals(lowest + 1L,
+                            counter.nextId(this.store, HugeType.VERTEX_LABEL)
+                                   .asLong());
+
+        // The lowest less than the counter takes no effect
+        counter.setCounterLowest(this.store, HugeType.VERTEX_LABEL, 1L);
+        Assert.assertEquals(lowest + 6L,
+                            counter.nextId(this.store, HugeType.VERTEX_LABEL)
+                                   .asLong());
+    }
+
+    @Test
+    public void testReset() {
+        LeasedCounter counter = new LeasedCounter(1, 100);
+        long first = counter.nextId(this.store, HugeType.TASK).asLong();
+        counter.reset();
+        Assert.assertEquals(first + 100L,
+                            counter.nextId(this.store, HugeType.TASK)
+                                   .asLong());
+    }
+
+    @Test
+    public void testNextIdOfGraph() {
+        HugeGraph graph = this.graph;
+        int blockSize = CoreOptions.TASK_ID_BLOCK_SIZE.defaultValue();
+        Id id1 = graph.schemaTransaction().getNextId(HugeType.TASK);
+        Id id2 = graph.schemaTransaction().getNextId(HugeType.TASK);
+        Assert.assertEquals(id1.asLong() + 1L, id2.asLong());
+        Assert.assertEquals(id1.asLong() + blockSize - 1L,
+                            this.store.getCounter(HugeType.TASK));
+
+        // The leased ids are discarded after clearing the backend
+        graph.clearBackend();
+        graph.initBackend();
+        Id id3 = graph.schemaTransaction().getNextId(HugeType.TASK);
+        Assert.assertEquals(1L, id3.asLong());
+    }
+}
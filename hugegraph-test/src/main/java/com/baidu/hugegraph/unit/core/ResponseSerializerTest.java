@@ -0,0 +1,262 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
+import com.baidu.hugegraph.exception.NotSupportException;
+import com.baidu.hugegraph.schema.PropertyKey;
+import com.baidu.hugegraph.schema.SchemaManager;
+import com.baidu.hugegraph.serializer.BinaryResponseSerializer;
+import com.baidu.hugegraph.serializer.JsonSerializer;
+import com.baidu.hugegraph.structure.HugeEdge;
+import com.baidu.hugegraph.structure.HugeVertex;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.type.define.IdStrategy;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.unit.FakeObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+public class ResponseSerializerTest extends BaseUnitTest {
+
+    private HugeGraph graph;
+
+    @Before
+    public void setup() {
+        this.graph = new HugeGraph(FakeObjects.newConfig());
+        SchemaManager schema = this.graph.schema();
+        schema.propertyKey("name").asText().checkExist(false).create();
+        schema.propertyKey("age").asInt().checkExist(false).create();
+        schema.propertyKey("tags").asText().valueSet()
+              .checkExist(false).create();
+        schema.propertyKey("time").asText().checkExist(false).create();
+        schema.propertyKey("weight").asDouble().checkExist(false).create();
+        schema.vertexLabel("person")
+              .idStrategy(IdStrategy.CUSTOMIZE_NUMBER)
+              .properties("name", "age", "tags")
+              .nullableKeys("age", "tags")
+              .checkExist(false)
+              .create();
+        schema.edgeLabel("knows")
+              .sourceLabel("person").targetLabel("person").multiTimes()
+              .properties("time", "weight")
+              .sortKeys("time")
+              .checkExist(false)
+              .create();
+    }
+
+    @After
+    public void teardown() throws Exception {
+        this.graph.clearBackend();
+        this.graph.close();
+    }
+
+    @Test
+    public void testWriteIdsAsJson() throws IOException {
+        StreamingOutput output = JsonSerializer.instance().writeIds(
+                                 "vertices", ImmutableList.of(
+                                 IdGenerator.of(1), IdGenerator.of("a")));
+        Assert.assertEquals("{\"vertices\":[1,\"a\"]}", write(output));
+    }
+
+    @Test
+    public void testWriteVerticesWithQueryError() {
+        // The query error is thrown before the response is written
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            JsonSerializer.instance().writeVertices(new FailedIterator(),
+                                                    false);
+        }, e -> {
+            Assert.assertEquals("Invalid query", e.getMessage());
+        });
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            BinaryResponseSerializer.instance()
+                                    .writeVertices(new FailedIterator(), true);
+        }, e -> {
+            Assert.assertEquals("Invalid query", e.getMessage());
+        });
+    }
+
+    @Test
+    public void testWriteIdsAsBinary() throws IOException {
+        List<Id> ids = ImmutableList.of(IdGenerator.of(1),
+                                        IdGenerator.of("marko"),
+                                        IdGenerator.of(-1000L));
+        StreamingOutput output = BinaryResponseSerializer.instance()
+                                                         .writeIds("vertices",
+                                                                   ids);
+        BytesBuffer buffer = BytesBuffer.wrap(writeBytes(output));
+        for (Id id : ids) {
+            Assert.assertEquals(BinaryResponseSerializer.ID, buffer.read());
+            byte[] bytes = BytesBuffer.allocate(0).writeId(id).bytes();
+            Assert.assertEquals(bytes.length, buffer.readVInt());
+            Assert.assertEquals(id, buffer.readId());
+        }
+        Assert.assertEquals(BinaryResponseSerializer.END, buffer.read());
+        Assert.assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    public void testWriteVerticesAsBinary() throws IOException {
+        HugeVertex marko = this.newVertex(1, "marko");
+        marko.addProperty(this.pkey("age"), 29);
+        marko.addProperty(this.pkey("tags"), "java");
+        marko.addProperty(this.pkey("tags"), "c++");
+        HugeVertex josh = this.newVertex(2, "josh");
+
+        StreamingOutput output = BinaryResponseSerializer.instance()
+                                 .writeVertices(ImmutableList.<Vertex>of(
+                                                marko, josh).iterator(),
+                                                false);
+        BytesBuffer buffer = BytesBuffer.wrap(writeBytes(output));
+
+        Assert.assertEquals(BinaryResponseSerializer.VERTEX, buffer.read());
+        int length = buffer.readVInt();
+        int start = buffer.asByteBuffer().position();
+        Assert.assertEquals(IdGenerator.of(1), buffer.readId());
+        Assert.assertEquals(this.graph.vertexLabel("person").id(),
+                            buffer.readId());
+        Assert.assertEquals(ImmutableMap.of("name", "marko", "age", 29,
+                                            "tags", ImmutableSet.of("java",
+                                                                    "c++")),
+                            this.readProperties(buffer));
+        Assert.assertEquals(length, buffer.asByteBuffer().position() - start);
+
+        Assert.assertEquals(BinaryResponseSerializer.VERTEX, buffer.read());
+        buffer.readVInt();
+        Assert.assertEquals(IdGenerator.of(2), buffer.readId());
+        Assert.assertEquals(this.graph.vertexLabel("person").id(),
+                            buffer.readId());
+        Assert.assertEquals(ImmutableMap.of("name", "josh"),
+                            this.readProperties(buffer));
+
+        Assert.assertEquals(BinaryResponseSerializer.END, buffer.read());
+        Assert.assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    public void testWriteEdgesAsBinary() throws IOException {
+        HugeVertex marko = this.newVertex(1, "marko");
+        HugeVertex josh = this.newVertex(2, "josh");
+        HugeEdge edge = new HugeEdge(marko, null,
+                                     this.graph.edgeLabel("knows"));
+        edge.vertices(marko, josh);
+        edge.addProperty(this.pkey("time"), "2019-01-01");
+        edge.addProperty(this.pkey("weight"), 0.5D);
+        edge.assignId();
+
+        // The edge owned by the target vertex is written from source too
+        StreamingOutput output = BinaryResponseSerializer.instance()
+                                 .writeEdges(ImmutableList.<Edge>of(
+                                             edge, edge.switchOwner())
+                                             .iterator(), false);
+        BytesBuffer buffer = BytesBuffer.wrap(writeBytes(output));
+        for (int i = 0; i < 2; i++) {
+            Assert.assertEquals(BinaryResponseSerializer.EDGE, buffer.read());
+            buffer.readVInt();
+            Assert.assertEquals(IdGenerator.of(1), buffer.readId());
+            Assert.assertEquals(this.graph.edgeLabel("knows").id(),
+                                buffer.readId());
+            Assert.assertEquals("2019-01-01", buffer.readStringWithEnding());
+            Assert.assertEquals(IdGenerator.of(2), buffer.readId());
+            Assert.assertEquals(ImmutableMap.of("time", "2019-01-01",
+                                                "weight", 0.5D),
+                                this.readProperties(buffer));
+        }
+        Assert.assertEquals(BinaryResponseSerializer.END, buffer.read());
+        Assert.assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    public void testWriteUnsupportedAsBinary() {
+        Assert.assertThrows(NotSupportException.class, () -> {
+            BinaryResponseSerializer.instance()
+                                    .writeList("shards", ImmutableList.of());
+        });
+        Assert.assertThrows(NotSupportException.class, () -> {
+            BinaryResponseSerializer.instance()
+                                    .writeVertex(this.newVertex(1, "tom"));
+        });
+    }
+
+    private HugeVertex newVertex(long id, String name) {
+        HugeVertex vertex = new HugeVertex(this.graph, IdGenerator.of(id),
+                                           this.graph.vertexLabel("person"));
+        vertex.addProperty(this.pkey("name"), name);
+        return vertex;
+    }
+
+    private PropertyKey pkey(String name) {
+        return this.graph.propertyKey(name);
+    }
+
+    private Map<String, Object> readProperties(BytesBuffer buffer) {
+        Map<String, Object> properties = new HashMap<>();
+        int size = buffer.readVInt();
+        for (int i = 0; i < size; i++) {
+            PropertyKey pkey = this.graph.propertyKey(buffer.readId());
+            properties.put(pkey.name(), buffer.readProperty(pkey));
+        }
+        return properties;
+    }
+
+    private static byte[] writeBytes(StreamingOutput output)
+                                     throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        output.write(out);
+        return out.toByteArray();
+    }
+
+    private static String write(StreamingOutput output) throws IOException {
+        return new String(writeBytes(output), "UTF-8");
+    }
+
+    private static class FailedIterator implements Iterator<Vertex> {
+
+        @Override
+        public boolean hasNext() {
+            throw new IllegalArgumentException("Invalid query");
+        }
+
+        @Override
+        public Vertex next() {
+            throw new NoSuchElementException();
+        }
+    }
+}
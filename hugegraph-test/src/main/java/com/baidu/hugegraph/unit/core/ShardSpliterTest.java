@@ -0,0 +1,193 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.store.BackendSession;
+import com.baidu.hugegraph.backend.store.BackendTable.KeyRange;
+import com.baidu.hugegraph.backend.store.BackendTable.ShardSpliter;
+import com.baidu.hugegraph.backend.store.Shard;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.util.Bytes;
+import com.google.common.collect.ImmutableList;
+
+public class ShardSpliterTest extends BaseUnitTest {
+
+    private static final long MB = Bytes.MB;
+
+    @Test
+    public void testSplitWithSkewedKeys() {
+        // All the keys share the prefix like string ids of vertices
+        byte[] first = key("\u0001person:00000000");
+        byte[] last = key("\u0001person:99999999");
+        FakeSpliter spliter = new FakeSpliter(new KeyRange(first, last,
+                                                           10 * MB));
+
+        List<Shard> shards = spliter.getSplits(null, MB);
+        Assert.assertEquals(10, shards.size());
+        checkContinuous(spliter, shards);
+        // Each shard except the first one starts inside the data
+        for (int i = 1; i < shards.size(); i++) {
+            byte[] start = spliter.position(shards.get(i).start());
+            Assert.assertTrue(Bytes.compare(start, first) > 0);
+            Assert.assertTrue(Bytes.compare(start, last) < 0);
+        }
+    }
+
+    @Test
+    public void testSplitWithOverlappedKeyRanges() {
+        byte[] hotStart = new byte[]{0x18};
+        byte[] hotEnd = new byte[]{0x19};
+        FakeSpliter spliter = new FakeSpliter(
+                              new KeyRange(new byte[]{0x10}, new byte[]{0x20},
+                                           3 * MB),
+                              new KeyRange(hotStart, hotEnd, 5 * MB));
+
+        List<Shard> shards = spliter.getSplits(null, MB);
+        Assert.assertEquals(8, shards.size());
+        checkContinuous(spliter, shards);
+
+        // The hot range holds 6MB of the data, so does the most shards
+        int hotShards = 0;
+        for (Shard shard : shards) {
+            byte[] start = spliter.position(shard.start());
+            if (Bytes.compare(start, hotStart) >= 0 &&
+                Bytes.compare(start, hotEnd) < 0) {
+                hotShards++;
+            }
+        }
+        Assert.assertTrue(hotShards >= 5);
+    }
+
+    @Test
+    public void testSplitWithUnboundedKeyRanges() {
+        // Like the regions of HBase, the first and last one are unbounded
+        FakeSpliter spliter = new FakeSpliter(
+                              new KeyRange(new byte[0], new byte[]{0x40},
+                                           2 * MB),
+                              new KeyRange(new byte[]{0x40}, new byte[]{0x41},
+                                           2 * MB),
+                              new KeyRange(new byte[]{0x41}, new byte[0],
+                                           0L));
+
+        List<Shard> shards = spliter.getSplits(null, MB);
+        Assert.assertEquals(4, shards.size());
+        checkContinuous(spliter, shards);
+        Assert.assertArrayEquals(new byte[]{0x40},
+                                 spliter.position(shards.get(2).start()));
+    }
+
+    @Test
+    public void testSplitWithSingleKeyRanges() {
+        byte[] key = key("person");
+        FakeSpliter spliter = new FakeSpliter(new KeyRange(key, key, 3 * MB),
+                                              new KeyRange(key, key, 3 * MB));
+
+        // The data of one key can't be split
+        List<Shard> shards = spliter.getSplits(null, MB);
+        Assert.assertEquals(2, shards.size());
+        checkContinuous(spliter, shards);
+    }
+
+    @Test
+    public void testSplitWithoutKeyRanges() {
+        FakeSpliter spliter = new FakeSpliter();
+        spliter.dataSize = 3 * MB;
+
+        List<Shard> shards = spliter.getSplits(null, MB);
+        Assert.assertEquals(3, shards.size());
+        Assert.assertEquals("0", shards.get(0).start());
+        Assert.assertEquals("4294967295", shards.get(2).end());
+        checkContinuous(spliter, shards);
+    }
+
+    @Test
+    public void testSplitWithInvalidSplitSize() {
+        FakeSpliter spliter = new FakeSpliter();
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            spliter.getSplits(null, MB - 1L);
+        });
+    }
+
+    @Test
+    public void testPosition() {
+        FakeSpliter spliter = new FakeSpliter();
+        byte[] key = new byte[]{0x01, 0x7f, (byte) 0x80, (byte) 0xff};
+        Assert.assertArrayEquals(key, spliter.position(spliter.position(key)));
+
+        Assert.assertArrayEquals(new byte[]{0, 0, 0, 0},
+                                 spliter.position(spliter.position(0L)));
+        Assert.assertArrayEquals(new byte[]{-1, -1, -1, -1},
+                                 spliter.position("4294967295"));
+    }
+
+    private static void checkContinuous(FakeSpliter spliter,
+                                        List<Shard> shards) {
+        Assert.assertArrayEquals(new byte[]{0, 0, 0, 0},
+                                 spliter.position(shards.get(0).start()));
+        Assert.assertArrayEquals(new byte[]{-1, -1, -1, -1},
+                                 spliter.position(shards.get(shards.size() - 1)
+                                                        .end()));
+        for (Shard shard : shards) {
+            byte[] start = spliter.position(shard.start());
+            byte[] end = spliter.position(shard.end());
+            Assert.assertTrue(Bytes.compare(start, end) < 0);
+        }
+        for (int i = 1; i < shards.size(); i++) {
+            Assert.assertEquals(shards.get(i - 1).end(),
+                                shards.get(i).start());
+        }
+    }
+
+    private static byte[] key(String key) {
+        return key.getBytes();
+    }
+
+    private static class FakeSpliter extends ShardSpliter<BackendSession> {
+
+        private final List<KeyRange> ranges;
+        private long dataSize;
+
+        public FakeSpliter(KeyRange... ranges) {
+            super("fake");
+            this.ranges = ImmutableList.copyOf(ranges);
+            this.dataSize = 0L;
+        }
+
+        @Override
+        protected long estimateDataSize(BackendSession session) {
+            return this.dataSize;
+        }
+
+        @Override
+        protected long estimateNumKeys(BackendSession session) {
+            return 0L;
+        }
+
+        @Override
+        protected List<KeyRange> estimateKeyRanges(BackendSession session) {
+            return this.ranges;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.tx.GraphTransaction;
+import com.baidu.hugegraph.schema.SchemaManager;
+import com.baidu.hugegraph.structure.HugeEdge;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.traversal.algorithm.HugeTraverser;
+import com.baidu.hugegraph.traversal.algorithm.ShortestPathTraverser;
+import com.baidu.hugegraph.type.define.Directions;
+import com.baidu.hugegraph.type.define.IdStrategy;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.unit.FakeObjects;
+
+/**
+ * Compare the frontier-balanced shortest path search with the strictly
+ * alternating one on a synthetic power-law graph in the memory backend.
+ */
+public class ShortestPathPerfTest extends BaseUnitTest {
+
+    private static final int VERTICES = 20000;
+    // Edges added by each new vertex with preferential attachment
+    private static final int EDGES_PER_VERTEX = 2;
+    private static final int PAIRS = 200;
+    private static final int DEPTH = 50;
+
+    private HugeGraph graph;
+    private Id[][] pairs;
+    private int[] lengths;
+
+    @Before
+    public void setup() {
+        this.graph = new HugeGraph(FakeObjects.newConfig());
+        SchemaManager schema = this.graph.schema();
+        schema.vertexLabel("node")
+              .idStrategy(IdStrategy.CUSTOMIZE_NUMBER)
+              .checkExist(false)
+              .create();
+        schema.edgeLabel("link")
+              .sourceLabel("node").targetLabel("node")
+              .checkExist(false)
+              .create();
+        this.generatePowerLawGraph();
+
+        Random random = new Random(1L);
+        this.pairs = new Id[PAIRS][];
+        for (int i = 0; i < PAIRS; i++) {
+            // The sources are picked from the new vertices with small degree
+            this.pairs[i] = new Id[]{
+                IdGenerator.of(VERTICES / 2 + random.nextInt(VERTICES / 2)),
+                IdGenerator.of(random.nextInt(VERTICES))
+            };
+        }
+        // The lengths found by the alternating search, both cases pay for it
+        this.lengths = new int[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            this.lengths[i] = this.alternateShortestPath(this.pairs[i][0],
+                                                         this.pairs[i][1]);
+        }
+    }
+
+    @After
+    public void teardown() throws Exception {
+        this.graph.clearBackend();
+        this.graph.close();
+    }
+
+    @Test
+    public void testAlternateShortestPath() {
+        for (Id[] pair : this.pairs) {
+            int length = this.alternateShortestPath(pair[0], pair[1]);
+            Assert.assertTrue(length > 0);
+        }
+    }
+
+    @Test
+    public void testBalancedShortestPath() {
+        ShortestPathTraverser traverser = new ShortestPathTraverser(
+                                          this.graph);
+        for (int i = 0; i < PAIRS; i++) {
+            List<Id> path = traverser.shortestPath(
+                            this.pairs[i][0], this.pairs[i][1],
+                            Directions.BOTH, null, DEPTH,
+                            HugeTraverser.NO_LIMIT, 0L,
+                            HugeTraverser.NO_LIMIT);
+            Assert.assertEquals(this.pairs[i][0], path.get(0));
+            Assert.assertEquals(this.pairs[i][1], path.get(path.size() - 1));
+            // The balanced search finds paths as short as the alternating one
+            Assert.assertEquals(this.lengths[i], path.size() - 1);
+        }
+    }
+
+    private void generatePowerLawGraph() {
+        Random random = new Random(0L);
+        Vertex[] vertices = new Vertex[VERTICES];
+        // The endpoints of all edges, a vertex appears once per degree
+        int[] endpoints = new int[2 * EDGES_PER_VERTEX * VERTICES];
+        int endpointsSize = 0;
+        for (int i = 0; i < VERTICES; i++) {
+            vertices[i] = this.graph.addVertex(T.label, "node", T.id, i);
+            for (int j = 0; j < EDGES_PER_VERTEX && i > 0; j++) {
+                int target = endpointsSize == 0 ? 0 :
+                             endpoints[random.nextInt(endpointsSize)];
+                if (target == i) {
+                    continue;
+                }
+                vertices[i].addEdge("link", vertices[target]);
+                endpoints[endpointsSize++] = i;
+                endpoints[endpointsSize++] = target;
+            }
+            if (i % 1000 == 0) {
+                this.graph.tx().commit();
+            }
+        }
+        this.graph.tx().commit();
+    }
+
+    /**
+     * The strictly alternating bidirectional search, return the length of
+     * the shortest path or -1 if not found
+     */
+    private int alternateShortestPath(Id source, Id target) {
+        if (source.equals(target)) {
+            return 0;
+        }
+        Map<Id, Integer> sources = new HashMap<>();
+        Map<Id, Integer> targets = new HashMap<>();
+        sources.put(source, 0);
+        targets.put(target, 0);
+        Map<Id, Integer> sourceLevel = new HashMap<>(sources);
+        Map<Id, Integer> targetLevel = new HashMap<>(targets);
+        for (int depth = 0; depth < DEPTH; depth++) {
+            boolean forward = depth % 2 == 0;
+            Map<Id, Integer> level = forward ? sourceLevel : targetLevel;
+            Map<Id, Integer> self = forward ? sources : targets;
+            Map<Id, Integer> other = forward ? targets : sources;
+            Map<Id, Integer> next = new HashMap<>();
+            for (Map.Entry<Id, Integer> e : level.entrySet()) {
+                Iterator<Edge> edges = this.graph.edges(
+                        GraphTransaction.constructEdgesQuery(e.getKey(),
+                                                             Directions.BOTH));
+                while (edges.hasNext()) {
+                    Id id = ((HugeEdge) edges.next()).id().otherVertexId();
+                    if (other.containsKey(id)) {
+                        return e.getValue() + 1 + other.get(id);
+                    }
+                    if (!self.containsKey(id) && !next.containsKey(id)) {
+                        next.put(id, e.getValue() + 1);
+                    }
+                }
+            }
+            self.putAll(next);
+            if (forward) {
+                sourceLevel = next;
+            } else {
+                targetLevel = next;
+            }
+        }
+        return -1;
+    }
+}
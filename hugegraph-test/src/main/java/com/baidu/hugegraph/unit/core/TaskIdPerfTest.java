@@ -0,0 +1,108 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.config.CoreOptions;
+import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.job.Job;
+import com.baidu.hugegraph.job.JobBuilder;
+import com.baidu.hugegraph.task.HugeTask;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.unit.FakeObjects;
+
+/**
+ * Schedule tasks from multiple threads with different task id block sizes,
+ * the ids of the tasks are leased from the backend counter by blocks.
+ */
+public class TaskIdPerfTest extends BaseUnitTest {
+
+    private static final int THREADS = 8;
+    private static final int TASKS_PER_THREAD = 1000;
+    private static final long WAIT_TIMEOUT = 60L;
+
+    private HugeGraph graph;
+
+    @After
+    public void teardown() throws Exception {
+        if (this.graph != null) {
+            this.graph.clearBackend();
+            this.graph.close();
+        }
+    }
+
+    @Test
+    public void testScheduleTasksWithIdBlockSize1() throws TimeoutException {
+        this.testScheduleTasks(1);
+    }
+
+    @Test
+    public void testScheduleTasksWithIdBlockSize100() throws TimeoutException {
+        this.testScheduleTasks(100);
+    }
+
+    private void testScheduleTasks(int blockSize) throws TimeoutException {
+        HugeConfig config = FakeObjects.newConfig();
+        config.addProperty(CoreOptions.TASK_ID_BLOCK_SIZE.name(), blockSize);
+        this.graph = new HugeGraph(config);
+        this.graph.initBackend();
+
+        HugeGraph graph = this.graph;
+        Set<Id> ids = ConcurrentHashMap.newKeySet();
+        runWithThreads(THREADS, () -> {
+            try {
+                for (int i = 0; i < TASKS_PER_THREAD; i++) {
+                    HugeTask<Object> task = JobBuilder.of(graph)
+                                                      .name("test-job")
+                                                      .job(new TestJob())
+                                                      .schedule();
+                    ids.add(task.id());
+                }
+            } finally {
+                graph.closeTx();
+            }
+        });
+        graph.taskScheduler().waitUntilAllTasksCompleted(WAIT_TIMEOUT);
+
+        Assert.assertEquals(THREADS * TASKS_PER_THREAD, ids.size());
+    }
+
+    private static class TestJob extends Job<Object> {
+
+        @Override
+        public String type() {
+            return "test";
+        }
+
+        @Override
+        public Object execute() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.core;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baidu.hugegraph.HugeGraph;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.backend.serializer.BinarySerializer;
+import com.baidu.hugegraph.backend.serializer.BytesBuffer;
+import com.baidu.hugegraph.backend.store.BackendEntry;
+import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
+import com.baidu.hugegraph.schema.PropertyKey;
+import com.baidu.hugegraph.schema.SchemaManager;
+import com.baidu.hugegraph.structure.HugeEdge;
+import com.baidu.hugegraph.structure.HugeVertex;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.type.define.IdStrategy;
+import com.baidu.hugegraph.type.define.ValueFormat;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.unit.FakeObjects;
+import com.baidu.hugegraph.util.KryoUtil;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Compare the size and the decoding cost of property values between the
+ * kryo and the compact value format.
+ */
+public class ValueFormatPerfTest extends BaseUnitTest {
+
+    private static final int EDGES = 10000;
+    private static final int DECODE_TIMES = 1000 * 1000;
+
+    private static final List<String> KEYS = ImmutableList.of(
+            "weight", "count", "time", "date", "city");
+
+    private HugeGraph graph;
+
+    @Before
+    public void setup() {
+        this.graph = new HugeGraph(FakeObjects.newConfig());
+        SchemaManager schema = this.graph.schema();
+        schema.propertyKey("weight").asDouble().checkExist(false).create();
+        schema.propertyKey("count").asInt().checkExist(false).create();
+        schema.propertyKey("time").asLong().checkExist(false).create();
+        schema.propertyKey("date").asDate().checkExist(false).create();
+        schema.propertyKey("city").asText().checkExist(false).create();
+        schema.vertexLabel("person")
+              .idStrategy(IdStrategy.CUSTOMIZE_NUMBER)
+              .checkExist(false)
+              .create();
+        schema.edgeLabel("call")
+              .sourceLabel("person").targetLabel("person")
+              .properties(KEYS.toArray(new String[0]))
+              .checkExist(false)
+              .create();
+    }
+
+    @After
+    public void teardown() throws Exception {
+        this.graph.clearBackend();
+        this.graph.close();
+    }
+
+    @Test
+    public void testBytesPerEdge() {
+        long kryoBytes = this.bytesOfEdges(ValueFormat.KRYO);
+        long compactBytes = this.bytesOfEdges(ValueFormat.COMPACT);
+        Assert.assertTrue(compactBytes < kryoBytes);
+    }
+
+    @Test
+    public void testDecodePropertyOfKryo() {
+        for (String key : KEYS) {
+            PropertyKey pkey = this.graph.propertyKey(key);
+            Object value = this.newEdge(1).getPropertyValue(pkey.id());
+            byte[] kryo = KryoUtil.toKryo(value);
+            for (int i = 0; i < DECODE_TIMES; i++) {
+                KryoUtil.fromKryo(kryo, pkey.implementClazz());
+            }
+            Assert.assertEquals(value, KryoUtil.fromKryo(
+                                       kryo, pkey.implementClazz()));
+        }
+    }
+
+    @Test
+    public void testDecodePropertyOfCompact() {
+        for (String key : KEYS) {
+            PropertyKey pkey = this.graph.propertyKey(key);
+            Object value = this.newEdge(1).getPropertyValue(pkey.id());
+            byte[] compact = BytesBuffer.allocate(0)
+                                        .writeProperty(pkey, value).bytes();
+            for (int i = 0; i < DECODE_TIMES; i++) {
+                BytesBuffer.wrap(compact).readProperty(pkey);
+            }
+            Assert.assertEquals(value,
+                                BytesBuffer.wrap(compact).readProperty(pkey));
+        }
+    }
+
+    private long bytesOfEdges(ValueFormat format) {
+        this.valueFormat(format);
+        BinarySerializer serializer = new BinarySerializer();
+        long bytes = 0L;
+        for (int i = 0; i < EDGES; i++) {
+            BackendEntry entry = serializer.writeEdge(this.newEdge(i));
+            for (BackendColumn column : entry.columns()) {
+                bytes += column.name.length + column.value.length;
+            }
+        }
+        return bytes;
+    }
+
+    private void valueFormat(ValueFormat format) {
+        for (String key : KEYS) {
+            this.graph.propertyKey(key).valueFormat(format);
+        }
+    }
+
+    private HugeEdge newEdge(int i) {
+        HugeVertex source = new HugeVertex(this.graph, IdGenerator.of(i),
+                                           this.graph.vertexLabel("person"));
+        HugeVertex target = new HugeVertex(this.graph, IdGenerator.of(i + 1),
+                                           this.graph.vertexLabel("person"));
+        HugeEdge edge = new HugeEdge(this.graph, null,
+                                     this.graph.edgeLabel("call"));
+        edge.vertices(source, target);
+        edge.assignId();
+        edge.addProperty(this.graph.propertyKey("weight"), 0.5d + i);
+        edge.addProperty(this.graph.propertyKey("count"), i % 100);
+        edge.addProperty(this.graph.propertyKey("time"),
+                         1565000000000L + i);
+        edge.addProperty(this.graph.propertyKey("date"),
+                         new Date(1565000000000L + i));
+        edge.addProperty(this.graph.propertyKey("city"), "Beijing");
+        return edge;
+    }
+}
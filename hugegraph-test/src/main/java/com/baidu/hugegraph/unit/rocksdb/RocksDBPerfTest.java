@@ -19,8 +19,10 @@
 
 package com.baidu.hugegraph.unit.rocksdb;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 
@@ -29,6 +31,7 @@ import org.rocksdb.RocksDBException;
 
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
 import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions.Session;
+import com.baidu.hugegraph.testutil.Assert;
 
 public class RocksDBPerfTest extends BaseRocksDBUnitTest {
 
@@ -171,4 +174,77 @@ public class RocksDBPerfTest extends BaseRocksDBUnitTest {
             }
         }
     }
+
+    @Test
+    public void testScanByPrefixOneByOneWith1kIds() throws RocksDBException {
+        this.testScanByIdsOneByOne(1000);
+    }
+
+    @Test
+    public void testScanByPrefixOneByOneWith10kIds() throws RocksDBException {
+        this.testScanByIdsOneByOne(10000);
+    }
+
+    @Test
+    public void testScanByPrefixesWith1kIds() throws RocksDBException {
+        this.testScanByIdsInBatch(1000);
+    }
+
+    @Test
+    public void testScanByPrefixesWith10kIds() throws RocksDBException {
+        this.testScanByIdsInBatch(10000);
+    }
+
+    private void testScanByIdsOneByOne(int batch) throws RocksDBException {
+        Session session = this.rocks.session();
+        List<byte[]> ids = this.putVertices(session, batch);
+
+        int queryTimes = 100;
+        for (int j = 0; j < queryTimes; j++) {
+            int count = 0;
+            for (byte[] id : ids) {
+                Iterator<BackendColumn> iter = session.scan(TABLE, id);
+                while (iter.hasNext()) {
+                    iter.next();
+                    count++;
+                }
+            }
+            Assert.assertEquals(2 * batch, count);
+        }
+    }
+
+    private void testScanByIdsInBatch(int batch) throws RocksDBException {
+        Session session = this.rocks.session();
+        List<byte[]> ids = this.putVertices(session, batch);
+
+        int queryTimes = 100;
+        for (int j = 0; j < queryTimes; j++) {
+            Iterator<BackendColumn> iter = session.scan(TABLE, ids);
+            int count = 0;
+            while (iter.hasNext()) {
+                iter.next();
+                count++;
+            }
+            Assert.assertEquals(2 * batch, count);
+        }
+    }
+
+    private List<byte[]> putVertices(Session session, int batch)
+                                     throws RocksDBException {
+        int n = 100 * 1000;
+        for (int i = 0; i < n; i++) {
+            session.put(TABLE, b(String.format("vertex:%08dgname", i)),
+                        b("name-" + i));
+            session.put(TABLE, b(String.format("vertex:%08dgage", i)),
+                        b("age-" + i));
+        }
+        session.commit();
+
+        // The distinct ids spread over the whole table
+        List<byte[]> ids = new ArrayList<>(batch);
+        for (int i = 0; i < batch; i++) {
+            ids.add(b(String.format("vertex:%08d", i * (n / batch))));
+        }
+        return ids;
+    }
 }
@@ -20,8 +20,10 @@
 package com.baidu.hugegraph.unit.rocksdb;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Assume;
@@ -29,8 +31,10 @@ import org.junit.Test;
 import org.rocksdb.RocksDBException;
 
 import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
+import com.baidu.hugegraph.backend.store.BackendTable.KeyRange;
 import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions.Session;
 import com.baidu.hugegraph.testutil.Assert;
+import com.google.common.collect.ImmutableList;
 
 public class RocksDBSessionsTest extends BaseRocksDBUnitTest {
 
@@ -136,6 +140,68 @@ public class RocksDBSessionsTest extends BaseRocksDBUnitTest {
         Assert.assertEquals("Lisa", get("person:2gname"));
     }
 
+    @Test
+    public void testGetByKeys() throws RocksDBException {
+        put("person:1gname", "James");
+        put("person:2gname", "Lisa");
+        put("person:3gname", "Hebe");
+
+        Session session = this.rocks.session();
+        List<byte[]> keys = ImmutableList.of(b("person:3gname"),
+                                             b("person:4gname"),
+                                             b("person:1gname"));
+        Iterator<BackendColumn> iter = session.get(TABLE, keys);
+        List<String> results = new ArrayList<>();
+        while (iter.hasNext()) {
+            BackendColumn col = iter.next();
+            results.add(s(col.name) + "=" + s(col.value));
+        }
+
+        Assert.assertEquals(ImmutableList.of("person:3gname=Hebe",
+                                             "person:1gname=James"),
+                            results);
+
+        iter = session.get(TABLE, ImmutableList.of());
+        Assert.assertFalse(iter.hasNext());
+    }
+
+    @Test
+    public void testScanByPrefixes() throws RocksDBException {
+        put("person:1gname", "James");
+        put("person:1gage", "19");
+        put("person:1gcity", "Beijing");
+
+        put("person:2gname", "Lisa");
+        put("person:2gage", "20");
+        put("person:2gcity", "Beijing");
+
+        put("person:3gname", "Hebe");
+        put("person:3gage", "21");
+        put("person:3gcity", "Taipei");
+
+        Map<String, String> results = new HashMap<>();
+        Session session = this.rocks.session();
+        List<byte[]> prefixes = ImmutableList.of(b("person:3"),
+                                                 b("person:0"),
+                                                 b("person:1"));
+        Iterator<BackendColumn> iter = session.scan(TABLE, prefixes);
+        while (iter.hasNext()) {
+            BackendColumn col = iter.next();
+            results.put(s(col.name), s(col.value));
+        }
+
+        Assert.assertEquals(6, results.size());
+        Assert.assertEquals("James", results.get("person:1gname"));
+        Assert.assertEquals("19", results.get("person:1gage"));
+        Assert.assertEquals("Beijing", results.get("person:1gcity"));
+
+        Assert.assertEquals("Hebe", results.get("person:3gname"));
+        Assert.assertEquals("21", results.get("person:3gage"));
+        Assert.assertEquals("Taipei", results.get("person:3gcity"));
+
+        Assert.assertFalse(results.containsKey("person:2gname"));
+    }
+
     @Test
     public void testScanByRange() throws RocksDBException {
         put("person:1gname", "James");
@@ -466,4 +532,21 @@ public class RocksDBSessionsTest extends BaseRocksDBUnitTest {
         Assert.assertArrayEquals(null, session.get(TABLE, key14));
         Assert.assertArrayEquals(value20, session.get(TABLE, key20));
     }
+
+    @Test
+    public void testKeyRanges() throws RocksDBException {
+        Session session = this.rocks.session();
+        for (int i = 0; i < 1000; i++) {
+            session.put(TABLE, b(String.format("person:%04d", i)), b("value"));
+        }
+        this.commit();
+
+        // The keys are in the mem-tables since they are not flushed
+        List<KeyRange> ranges = session.keyRanges(TABLE);
+        Assert.assertFalse(ranges.isEmpty());
+        KeyRange memRange = ranges.get(ranges.size() - 1);
+        Assert.assertEquals("person:0000", s(memRange.start()));
+        Assert.assertEquals("person:0999", s(memRange.end()));
+        Assert.assertTrue(memRange.size() > 0L);
+    }
 }
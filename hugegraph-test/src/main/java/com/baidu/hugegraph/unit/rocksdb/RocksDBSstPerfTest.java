@@ -0,0 +1,133 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.rocksdb;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Test;
+import org.rocksdb.RocksDBException;
+import org.slf4j.Logger;
+
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBOptions;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions.Session;
+import com.baidu.hugegraph.backend.store.rocksdbsst.RocksDBSstSessions;
+import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.baidu.hugegraph.util.Bytes;
+import com.baidu.hugegraph.util.Log;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Bulk load edges with random owner vertices into SST files, the cost
+ * includes sorting and generating the SST files.
+ */
+public class RocksDBSstPerfTest extends BaseUnitTest {
+
+    private static final Logger LOG = Log.logger(RocksDBSstPerfTest.class);
+
+    private static final String TMP_DIR = System.getProperty("java.io.tmpdir");
+    private static final String SST_PATH = TMP_DIR + "/" + "rocksdb-sst-perf";
+
+    private static final String TABLE = "g_oe";
+    private static final int EDGES_PER_THREAD = 1000 * 1000;
+    private static final int EDGES_PER_COMMIT = 500;
+
+    @After
+    public void teardown() throws IOException {
+        FileUtils.deleteDirectory(new File(SST_PATH));
+    }
+
+    @Test
+    public void testLoadEdgesWith1Thread() throws RocksDBException {
+        this.load(1, 1);
+    }
+
+    @Test
+    public void testLoadEdgesWith8Threads() throws RocksDBException {
+        this.load(8, 1);
+    }
+
+    @Test
+    public void testLoadEdgesWith8ThreadsAnd4Writers()
+                                                throws RocksDBException {
+        this.load(8, 4);
+    }
+
+    private void load(int threads, int writers) throws RocksDBException {
+        HugeConfig config = RocksDBSstSessionsTest.config(ImmutableMap.of(
+                            RocksDBOptions.SST_SORT_BUFFER_SIZE, 32L * Bytes.MB,
+                            RocksDBOptions.SST_MAX_FILE_SIZE, 64L * Bytes.MB,
+                            RocksDBOptions.SST_WRITER_THREADS, writers));
+        RocksDBSessions sst = new RocksDBSstSessions(config, "db", "store",
+                                                     SST_PATH,
+                                                     ImmutableList.of(TABLE));
+
+        long start = System.currentTimeMillis();
+        runWithThreads(threads, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Session session = sst.session();
+            for (int i = 1; i <= EDGES_PER_THREAD; i++) {
+                session.put(TABLE, edgeId(random), value(random));
+                if (i % EDGES_PER_COMMIT == 0) {
+                    session.commit();
+                }
+            }
+            session.commit();
+            // SST files are generated after the last session closed
+            sst.close();
+        });
+        long elapsed = System.currentTimeMillis() - start;
+
+        long edges = (long) threads * EDGES_PER_THREAD;
+        LOG.info("Loaded {} edges with {} threads and {} writers in {}ms, " +
+                 "{} edges/s", edges, threads, writers, elapsed,
+                 edges * 1000L / Math.max(elapsed, 1L));
+
+        File tableDir = Paths.get(SST_PATH, TABLE).toFile();
+        Assert.assertFalse(new File(tableDir, "runs").exists());
+        File[] ssts = tableDir.listFiles((dir, name) -> name.endsWith(".sst"));
+        Assert.assertTrue(ssts.length > 0);
+    }
+
+    private static byte[] edgeId(ThreadLocalRandom random) {
+        // owner-vertex + direction + edge-label + other-vertex
+        ByteBuffer buffer = ByteBuffer.allocate(8 + 1 + 4 + 8);
+        buffer.putLong(random.nextLong(10 * 1000 * 1000));
+        buffer.put((byte) 0x82);
+        buffer.putInt(random.nextInt(8));
+        buffer.putLong(random.nextLong(10 * 1000 * 1000));
+        return buffer.array();
+    }
+
+    private static byte[] value(ThreadLocalRandom random) {
+        byte[] value = new byte[16];
+        random.nextBytes(value);
+        return value;
+    }
+}
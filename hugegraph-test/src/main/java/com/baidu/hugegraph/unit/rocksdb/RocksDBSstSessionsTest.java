@@ -0,0 +1,202 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.rocksdb;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.rocksdb.RocksDBException;
+
+import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumn;
+import com.baidu.hugegraph.backend.store.BackendEntry.BackendColumnIterator;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBOptions;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBSessions.Session;
+import com.baidu.hugegraph.backend.store.rocksdb.RocksDBStdSessions;
+import com.baidu.hugegraph.backend.store.rocksdbsst.RocksDBSstSessions;
+import com.baidu.hugegraph.config.ConfigOption;
+import com.baidu.hugegraph.config.HugeConfig;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.unit.BaseUnitTest;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+public class RocksDBSstSessionsTest extends BaseUnitTest {
+
+    private static final String TMP_DIR = System.getProperty("java.io.tmpdir");
+    private static final String SST_PATH = TMP_DIR + "/" + "rocksdb-sst";
+    private static final String DB_PATH = TMP_DIR + "/" + "rocksdb-ingest";
+
+    private static final String TABLE = "test-table";
+
+    @After
+    public void teardown() throws IOException {
+        FileUtils.deleteDirectory(new File(SST_PATH));
+        FileUtils.deleteDirectory(new File(DB_PATH));
+    }
+
+    @Test
+    public void testWriteUnsortedChangesByMultiThreads()
+                                                  throws Exception {
+        // Small sort buffer and sst file to generate multi runs and files
+        RocksDBSessions sst = openSst(1024L, 8 * 1024L, 3);
+
+        int threads = 4;
+        int keysPerThread = 2000;
+        List<Map<String, String>> expected = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Map<String, String> kvs = new HashMap<>();
+            expected.add(kvs);
+            int thread = t;
+            workers.add(new Thread(() -> {
+                Random random = new Random(thread);
+                Session session = sst.session();
+                for (int i = 0; i < keysPerThread; i++) {
+                    // Keys of each thread are disjoint and maybe overwritten
+                    String key = String.format("%d-key-%05d", thread,
+                                               random.nextInt(keysPerThread));
+                    String value = "value-" + i;
+                    session.put(TABLE, b(key), b(value));
+                    kvs.put(key, value);
+                    if (i % 100 == 0) {
+                        session.commit();
+                    }
+                }
+                session.commit();
+                // SST files are generated after the last session closed
+                sst.close();
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        File tableDir = Paths.get(SST_PATH, TABLE).toFile();
+        Assert.assertFalse(new File(tableDir, "runs").exists());
+        File[] ssts = tableDir.listFiles((dir, name) -> name.endsWith(".sst"));
+        Assert.assertTrue(ssts.length > 1);
+
+        Map<String, String> actual = ingestAndScan();
+        Map<String, String> all = new HashMap<>();
+        for (Map<String, String> kvs : expected) {
+            all.putAll(kvs);
+        }
+        Assert.assertEquals(all, actual);
+    }
+
+    @Test
+    public void testWriteOverridesSameKey() throws Exception {
+        RocksDBSessions sst = openSst(16L, 1024L, 2);
+        Session session = sst.session();
+        session.put(TABLE, b("person:1gname"), b("James"));
+        session.put(TABLE, b("person:2gname"), b("Lisa"));
+        session.commit();
+        session.put(TABLE, b("person:1gname"), b("Tom"));
+        session.put(TABLE, b("person:1gname"), b("Jerry"));
+        session.commit();
+        sst.close();
+
+        Map<String, String> actual = ingestAndScan();
+        Assert.assertEquals(2, actual.size());
+        Assert.assertEquals("Jerry", actual.get("person:1gname"));
+        Assert.assertEquals("Lisa", actual.get("person:2gname"));
+    }
+
+    @Test
+    public void testCloseWithoutChanges() throws Exception {
+        RocksDBSessions sst = openSst(1024L, 1024L, 2);
+        sst.session().commit();
+        sst.close();
+
+        File tableDir = Paths.get(SST_PATH, TABLE).toFile();
+        Assert.assertEquals(0, tableDir.list().length);
+        Assert.assertEquals(0, ingestAndScan().size());
+    }
+
+    private static RocksDBSessions openSst(long bufferSize, long fileSize,
+                                           int threads)
+                                           throws RocksDBException {
+        HugeConfig config = config(ImmutableMap.of(
+                            RocksDBOptions.SST_SORT_BUFFER_SIZE, bufferSize,
+                            RocksDBOptions.SST_MAX_FILE_SIZE, fileSize,
+                            RocksDBOptions.SST_WRITER_THREADS, threads));
+        return new RocksDBSstSessions(config, "db", "store", SST_PATH,
+                                      ImmutableList.of(TABLE));
+    }
+
+    private static Map<String, String> ingestAndScan()
+                                       throws RocksDBException {
+        HugeConfig config = config(ImmutableMap.of(RocksDBOptions.SST_PATH,
+                                                   SST_PATH));
+        RocksDBSessions rocks = new RocksDBStdSessions(config, "db", "store",
+                                                       DB_PATH, DB_PATH);
+        Map<String, String> results = new HashMap<>();
+        try {
+            // Ingest the SST files of the table when creating it
+            rocks.createTable(TABLE);
+            BackendColumnIterator iter = rocks.session().scan(TABLE);
+            while (iter.hasNext()) {
+                BackendColumn col = iter.next();
+                results.put(s(col.name), s(col.value));
+            }
+            iter.close();
+        } finally {
+            rocks.close();
+        }
+        return results;
+    }
+
+    protected static HugeConfig config(Map<ConfigOption<?>, Object> options) {
+        Configuration conf = Mockito.mock(PropertiesConfiguration.class);
+        List<String> keys = new ArrayList<>();
+        for (Map.Entry<ConfigOption<?>, Object> e : options.entrySet()) {
+            String key = e.getKey().name();
+            keys.add(key);
+            Mockito.when(conf.getProperty(key))
+                   .thenReturn(e.getValue());
+        }
+        Mockito.when(conf.getKeys()).thenReturn(keys.iterator());
+        return new HugeConfig(conf);
+    }
+
+    private static byte[] b(String str) {
+        return str.getBytes();
+    }
+
+    private static String s(byte[] bytes) {
+        return new String(bytes);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2017 HugeGraph Authors
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership. The ASF
+ * licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.baidu.hugegraph.unit.util;
+
+import org.junit.Test;
+
+import com.baidu.hugegraph.backend.id.Id;
+import com.baidu.hugegraph.backend.id.IdGenerator;
+import com.baidu.hugegraph.testutil.Assert;
+import com.baidu.hugegraph.util.IdIntMapping;
+
+public class IdIntMappingTest {
+
+    @Test
+    public void testCode() {
+        IdIntMapping mapping = new IdIntMapping(1);
+        Assert.assertEquals(0, mapping.size());
+
+        int total = 10000;
+        for (int i = 0; i < total; i++) {
+            Id id = i % 2 == 0 ? IdGenerator.of(i) : IdGenerator.of("v" + i);
+            Assert.assertEquals(IdIntMapping.NONE, mapping.codeIfPresent(id));
+            Assert.assertEquals(i, mapping.code(id));
+        }
+        Assert.assertEquals(total, mapping.size());
+
+        for (int i = 0; i < total; i++) {
+            Id id = i % 2 == 0 ? IdGenerator.of(i) : IdGenerator.of("v" + i);
+            Assert.assertEquals(i, mapping.code(id));
+            Assert.assertEquals(i, mapping.codeIfPresent(id));
+            Assert.assertEquals(id, mapping.id(i));
+        }
+        Assert.assertEquals(total, mapping.size());
+        Assert.assertEquals(IdIntMapping.NONE,
+                            mapping.codeIfPresent(IdGenerator.of(-1)));
+    }
+
+    @Test
+    public void testInvalidCode() {
+        IdIntMapping mapping = new IdIntMapping();
+        mapping.code(IdGenerator.of(1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            mapping.id(1);
+        });
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            mapping.id(-1);
+        });
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            new IdIntMapping(0);
+        });
+    }
+}